@@ -0,0 +1,113 @@
+package com.haulmont.testtask3;
+
+import com.haulmont.testtask3.config.SchemaMigrator;
+import com.haulmont.testtask3.dao.implementations.DoctorDaoImpl;
+import com.haulmont.testtask3.dao.implementations.PatientDaoImpl;
+import com.haulmont.testtask3.dao.implementations.RecipeDaoImpl;
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic data sets for the benchmarks.
+ */
+public final class BenchmarkData {
+    private static final String[] DESCRIPTION_WORDS = {
+            "Аспирин", "Парацетамол", "Ибупрофен", "Амоксициллин", "Цитрамон", "Но-шпа", "Валидол",
+            "по", "одной", "две", "таблетке", "таблетки", "капсуле", "утром", "вечером", "перед", "после", "едой",
+            "раза", "в", "день", "неделю", "при", "боли", "температуре", "курс", "дней"
+    };
+    private static final int CHUNK_SIZE = 10_000;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates migrated in-memory database.
+     *
+     * @param name database name
+     * @return data source of the created database.
+     */
+    public static DataSource createDataSource(String name) {
+        DataSource dataSource = new SingleConnectionDataSource("jdbc:hsqldb:mem:" + name, "sa", "", true);
+        new SchemaMigrator(dataSource).migrate();
+        return dataSource;
+    }
+
+    /**
+     * Inserts the specified quantity of doctors, patients and recipes.
+     * <p>
+     * The same seed always produces the same rows.
+     *
+     * @param dataSource  data source to be filled
+     * @param doctorQty   quantity of doctors
+     * @param patientQty  quantity of patients
+     * @param recipeQty   quantity of recipes
+     * @param seed        random seed
+     */
+    public static void fill(DataSource dataSource, int doctorQty, int patientQty, int recipeQty, long seed) {
+        Random random = new Random(seed);
+
+        List<Doctor> doctors = new ArrayList<>(doctorQty);
+        for (int i = 0; i < doctorQty; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setName("Иван" + i);
+            doctor.setSurname("Петров" + i);
+            doctor.setPatronymic("Сергеевич");
+            doctor.setSpecialization("Терапевт");
+            doctors.add(doctor);
+        }
+        new DoctorDaoImpl(dataSource).addAll(doctors);
+
+        List<Patient> patients = new ArrayList<>(patientQty);
+        for (int i = 0; i < patientQty; i++) {
+            Patient patient = new Patient();
+            patient.setName("Анна" + i);
+            patient.setSurname("Смирнова" + i);
+            patient.setPhoneNumber(String.valueOf(89_000_000_000L + i));
+            patients.add(patient);
+        }
+        new PatientDaoImpl(dataSource).addAll(patients);
+
+        RecipeDaoImpl recipeDao = new RecipeDaoImpl(dataSource);
+        List<Recipe> recipes = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < recipeQty; i++) {
+            Recipe recipe = new Recipe();
+            recipe.setDoctorId(doctors.get(random.nextInt(doctorQty)).getId());
+            recipe.setPatientId(patients.get(random.nextInt(patientQty)).getId());
+            recipe.setDescription(createDescription(random));
+            recipe.setCreationDate(new Date(1_577_836_800_000L + random.nextInt(365) * 86_400_000L));
+            recipe.setValidity(1 + random.nextInt(90));
+            recipe.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+            recipes.add(recipe);
+
+            if (recipes.size() == CHUNK_SIZE) {
+                recipeDao.addAll(recipes);
+                recipes.clear();
+            }
+        }
+        if (!recipes.isEmpty()) {
+            recipeDao.addAll(recipes);
+        }
+    }
+
+    private static String createDescription(Random random) {
+        StringBuilder description = new StringBuilder();
+        int wordQty = 3 + random.nextInt(6);
+        for (int i = 0; i < wordQty; i++) {
+            if (i > 0) {
+                description.append(' ');
+            }
+            description.append(DESCRIPTION_WORDS[random.nextInt(DESCRIPTION_WORDS.length)]);
+        }
+        return description.toString();
+    }
+}
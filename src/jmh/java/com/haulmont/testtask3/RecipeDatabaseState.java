@@ -0,0 +1,62 @@
+package com.haulmont.testtask3;
+
+import com.haulmont.testtask3.dao.implementations.DoctorDaoImpl;
+import com.haulmont.testtask3.dao.implementations.PatientDaoImpl;
+import com.haulmont.testtask3.dao.implementations.RecipeDaoImpl;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * In-memory database seeded by {@link BenchmarkData} with the benchmarked quantity of recipes.
+ */
+@State(Scope.Benchmark)
+public class RecipeDatabaseState {
+    public static final int DOCTOR_QTY = 100;
+    public static final int PATIENT_QTY = 10_000;
+    public static final long SEED = 42;
+
+    @Param({"10000", "100000", "1000000"})
+    public int recipeQty;
+
+    public DataSource dataSource;
+    public DoctorDaoImpl doctorDao;
+    public PatientDaoImpl patientDao;
+    public RecipeDaoImpl recipeDao;
+
+    public long firstDoctorId;
+    public long firstPatientId;
+    public long firstRecipeId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        dataSource = BenchmarkData.createDataSource("recipes-" + recipeQty);
+        BenchmarkData.fill(dataSource, DOCTOR_QTY, PATIENT_QTY, recipeQty, SEED);
+
+        doctorDao = new DoctorDaoImpl(dataSource);
+        patientDao = new PatientDaoImpl(dataSource);
+        recipeDao = new RecipeDaoImpl(dataSource);
+        recipeDao.initialize();
+
+        firstDoctorId = getMinId("doctors");
+        firstPatientId = getMinId("patients");
+        firstRecipeId = getMinId("recipes");
+    }
+
+    private long getMinId(String tableName) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select min(id) from " + tableName)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
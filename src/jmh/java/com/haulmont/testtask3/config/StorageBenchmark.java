@@ -0,0 +1,143 @@
+package com.haulmont.testtask3.config;
+
+import com.haulmont.testtask3.BenchmarkData;
+import com.haulmont.testtask3.RecipeDatabaseState;
+import com.haulmont.testtask3.config.StorageProperties.StorageProfile;
+import com.haulmont.testtask3.dao.implementations.RecipeDaoImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup of the application database in every {@link StorageProfile}: opening the database with migration and
+ * storage settings, then building the recipe indexes by {@link RecipeDaoImpl#initialize()}.
+ * <p>
+ * File databases are filled once per trial and reopened by every invocation. An in-memory database loses
+ * its data on shutdown, so its startup includes filling it. Heap retained by the started database is printed
+ * after every invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class StorageBenchmark {
+
+    @Param({"IN_MEMORY", "FILE_MEMORY_TABLES", "FILE_CACHED_TABLES"})
+    public StorageProfile profile;
+
+    @Param({"100000", "1000000"})
+    public int recipeQty;
+
+    private Path directory;
+    private StorageProperties storageProperties;
+    private SingleConnectionDataSource dataSource;
+    private RecipeDaoImpl recipeDao;
+    private long baselineHeap;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("storage-benchmark");
+        storageProperties = new StorageProperties();
+        storageProperties.setProfile(profile);
+        if (profile.isPersistent()) {
+            storageProperties.setPath(directory.resolve("data").toString());
+            start();
+            fill();
+            shutdown();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        if (!profile.isPersistent()) {
+            storageProperties.setPath("storage-" + UUID.randomUUID());
+        }
+        baselineHeap = getUsedHeap();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() throws SQLException {
+        long retainedHeap = getUsedHeap() - baselineHeap;
+        System.out.println(profile + ", " + recipeQty + " recipes: "
+                + (retainedHeap >> 20) + " MB of heap retained" + (recipeDao == null ? " by the database" : ""));
+        shutdown();
+    }
+
+    /**
+     * Opens the database without building the recipe indexes.
+     */
+    @Benchmark
+    public SingleConnectionDataSource open() {
+        start();
+        if (!profile.isPersistent()) {
+            fill();
+        }
+        return dataSource;
+    }
+
+    @Benchmark
+    public RecipeDaoImpl startup() {
+        open();
+        recipeDao = new RecipeDaoImpl(dataSource);
+        recipeDao.initialize();
+        return recipeDao;
+    }
+
+    private void start() {
+        dataSource = new SingleConnectionDataSource(profile.getUrl(storageProperties.getPath()), "sa", "", true);
+        new SchemaMigrator(dataSource).migrate();
+        new StorageConfigurer(dataSource, storageProperties).configure();
+    }
+
+    private void fill() {
+        BenchmarkData.fill(dataSource, RecipeDatabaseState.DOCTOR_QTY, RecipeDatabaseState.PATIENT_QTY, recipeQty,
+                RecipeDatabaseState.SEED);
+    }
+
+    private void shutdown() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("shutdown");
+        }
+        dataSource.destroy();
+        recipeDao = null;
+    }
+
+    private static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,79 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import com.haulmont.testtask3.BenchmarkData;
+import com.haulmont.testtask3.models.RecipeFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares description search through {@link DescriptionIndex} with the plain {@code like '%term%'} scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class DescriptionSearchBenchmark {
+    private static final String LIKE_COUNT_QUERY = "select count(*) from recipes"
+            + " " + "where priority like ? and description like ?";
+
+    @Param({"1000000"})
+    private int recipeQty;
+
+    /**
+     * Rare, frequent and absent terms.
+     */
+    @Param({"Амоксициллин утром", "таблетке", "Анальгин"})
+    private String term;
+
+    private DataSource dataSource;
+    private RecipeDaoImpl recipeDao;
+
+    @Setup
+    public void setUp() {
+        dataSource = BenchmarkData.createDataSource("description-search-" + recipeQty);
+        BenchmarkData.fill(dataSource, 100, 10_000, recipeQty, 42);
+        recipeDao = new RecipeDaoImpl(dataSource);
+        recipeDao.initialize();
+    }
+
+    @Benchmark
+    public int likeScanCount() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(LIKE_COUNT_QUERY)) {
+            preparedStatement.setString(1, "%");
+            preparedStatement.setString(2, "%" + term + "%");
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    @Benchmark
+    public int indexedCount() {
+        return recipeDao.findCount(new RecipeFilter(null, "", term));
+    }
+
+    @Benchmark
+    public int indexedFirstPage() {
+        return recipeDao.findPage(new RecipeFilter(null, "", term), 0, 50).size();
+    }
+}
@@ -0,0 +1,79 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import com.haulmont.testtask3.RecipeDatabaseState;
+import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single recipe and doctor operations of the DAO layer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RecipeDaoBenchmark {
+
+    /**
+     * Random ids, one generator per benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class RandomIds {
+        private final SplittableRandom random = new SplittableRandom(RecipeDatabaseState.SEED);
+
+        long next(long firstId, int qty) {
+            return firstId + random.nextInt(qty);
+        }
+    }
+
+    @Benchmark
+    public Recipe add(RecipeDatabaseState database, RandomIds ids) {
+        Recipe recipe = new Recipe();
+        recipe.setDoctorId(ids.next(database.firstDoctorId, RecipeDatabaseState.DOCTOR_QTY));
+        recipe.setPatientId(ids.next(database.firstPatientId, RecipeDatabaseState.PATIENT_QTY));
+        recipe.setDescription("Аспирин по одной таблетке утром");
+        recipe.setCreationDate(new Date(1_577_836_800_000L));
+        recipe.setValidity(30);
+        recipe.setPriority(Priority.NORMAL);
+        database.recipeDao.add(recipe);
+        return recipe;
+    }
+
+    @Benchmark
+    public Recipe getRecipeById(RecipeDatabaseState database, RandomIds ids) throws ElementDoesNotExistException {
+        return database.recipeDao.getById(ids.next(database.firstRecipeId, database.recipeQty));
+    }
+
+    @Benchmark
+    public Doctor getDoctorById(RecipeDatabaseState database, RandomIds ids) throws ElementDoesNotExistException {
+        return database.doctorDao.getById(ids.next(database.firstDoctorId, RecipeDatabaseState.DOCTOR_QTY));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Recipe> getAll(RecipeDatabaseState database) {
+        return database.recipeDao.getAll();
+    }
+
+    @Benchmark
+    public int getRecipeQtyByDoctorId(RecipeDatabaseState database, RandomIds ids) {
+        return database.recipeDao.getRecipeQtyByDoctorId(
+                ids.next(database.firstDoctorId, RecipeDatabaseState.DOCTOR_QTY));
+    }
+}
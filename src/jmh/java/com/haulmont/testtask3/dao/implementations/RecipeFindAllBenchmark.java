@@ -0,0 +1,63 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import com.haulmont.testtask3.RecipeDatabaseState;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.models.RecipeListItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RecipeDaoImpl#findAll(RecipeFilter)} with every combination of the recipe view filters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RecipeFindAllBenchmark {
+    private static final String PRIORITY = "CITO";
+    private static final String DESCRIPTION = "Амоксициллин";
+    private static final int EXPIRING_DAYS = 7;
+
+    /**
+     * Middle of the generated creation dates.
+     */
+    private static final LocalDate EXPIRING_AFTER = LocalDate.of(2020, 7, 1);
+
+    /**
+     * Set filters: {@code p} - patient, {@code r} - priority, {@code d} - description, {@code e} - expiring soon.
+     */
+    @Param({"none", "p", "r", "d", "e", "pr", "pd", "rd", "de", "prd"})
+    public String filters;
+
+    private RecipeFilter filter;
+
+    @Setup
+    public void setUp(RecipeDatabaseState database) {
+        filter = new RecipeFilter(filters.contains("p") ? database.firstPatientId : null,
+                filters.contains("r") ? PRIORITY : "",
+                filters.contains("d") ? DESCRIPTION : "");
+        if (filters.contains("e")) {
+            filter.expiringWithin(EXPIRING_AFTER, EXPIRING_DAYS);
+        }
+    }
+
+    @Benchmark
+    public List<RecipeListItem> findAll(RecipeDatabaseState database) {
+        return database.recipeDao.findAll(filter);
+    }
+}
@@ -0,0 +1,88 @@
+package com.haulmont.testtask3.dao.mappers;
+
+import com.haulmont.testtask3.BenchmarkData;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of {@link RecipeRowMapper} next to the former name based mapping with {@code Priority.valueOf}.
+ * <p>
+ * Both benchmarks read the same scrollable result set, so the query itself is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RowMapperBenchmark {
+    private static final int ROW_QTY = 10_000;
+
+    private Connection connection;
+    private Statement statement;
+    private ResultSet resultSet;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        DataSource dataSource = BenchmarkData.createDataSource("row-mapper");
+        BenchmarkData.fill(dataSource, 10, 100, ROW_QTY, 42);
+        connection = dataSource.getConnection();
+        statement = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        resultSet = statement.executeQuery("select * from recipes");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        resultSet.close();
+        statement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_QTY)
+    public void nameLookup(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            Recipe recipe = new Recipe();
+            recipe.setId(resultSet.getLong("id"));
+            recipe.setPatientId(resultSet.getLong("patient_id"));
+            recipe.setDoctorId(resultSet.getLong("doctor_id"));
+            recipe.setDescription(resultSet.getString("description"));
+            recipe.setCreationDate(resultSet.getDate("creation_date"));
+            recipe.setValidity(resultSet.getInt("validity"));
+            recipe.setPriority(Priority.valueOf(resultSet.getString("priority")));
+            blackhole.consume(recipe);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_QTY)
+    public void rowMapper(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        RecipeRowMapper rowMapper = RecipeRowMapper.of(resultSet.getMetaData());
+        while (resultSet.next()) {
+            blackhole.consume(rowMapper.mapRow(resultSet));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.RecipeDatabaseState;
+import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.models.RecipeListItem;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.exceptions.ValidationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.validation.Validation;
+import java.sql.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recipe service operations, i.e. DAO calls together with bean validation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RecipeServiceBenchmark {
+    private RecipeServiceImpl recipeService;
+
+    @Setup
+    public void setUp(RecipeDatabaseState database) {
+        recipeService = new RecipeServiceImpl(database.recipeDao,
+                Validation.buildDefaultValidatorFactory().getValidator(), new EntityChangeBroadcaster());
+    }
+
+    /**
+     * Random ids, one generator per benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class RandomIds {
+        private final SplittableRandom random = new SplittableRandom(RecipeDatabaseState.SEED);
+
+        long next(long firstId, int qty) {
+            return firstId + random.nextInt(qty);
+        }
+    }
+
+    @Benchmark
+    public Recipe add(RecipeDatabaseState database, RandomIds ids) throws ValidationException {
+        Recipe recipe = new Recipe();
+        recipe.setDoctorId(ids.next(database.firstDoctorId, RecipeDatabaseState.DOCTOR_QTY));
+        recipe.setPatientId(ids.next(database.firstPatientId, RecipeDatabaseState.PATIENT_QTY));
+        recipe.setDescription("Аспирин по одной таблетке утром");
+        recipe.setCreationDate(new Date(1_577_836_800_000L));
+        recipe.setValidity(30);
+        recipe.setPriority(Priority.NORMAL);
+        recipeService.add(recipe);
+        return recipe;
+    }
+
+    @Benchmark
+    public Recipe getById(RecipeDatabaseState database, RandomIds ids) throws ElementDoesNotExistException {
+        return recipeService.getById(ids.next(database.firstRecipeId, database.recipeQty));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<RecipeListItem> findAllByPriority() {
+        return recipeService.findAll(new RecipeFilter(null, "CITO", ""));
+    }
+}
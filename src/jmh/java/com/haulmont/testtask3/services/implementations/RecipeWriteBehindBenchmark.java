@@ -0,0 +1,178 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.BenchmarkData;
+import com.haulmont.testtask3.RecipeDatabaseState;
+import com.haulmont.testtask3.config.SchemaMigrator;
+import com.haulmont.testtask3.config.StorageConfigurer;
+import com.haulmont.testtask3.config.StorageProperties;
+import com.haulmont.testtask3.config.StorageProperties.StorageProfile;
+import com.haulmont.testtask3.dao.implementations.RecipeDaoImpl;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of recipe creation by the given quantity of concurrent callers, every caller waiting for its
+ * recipe to be committed before adding the next one.
+ * <p>
+ * The direct path commits every recipe in its own transaction by {@link RecipeServiceImpl#add(Recipe)},
+ * the group path queues recipes to {@link RecipeWriteBehind}, which commits them in groups. The database is
+ * a file database without write delay, so every commit waits for the log to be synced to the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RecipeWriteBehindBenchmark {
+    private static final int RECIPES_PER_INVOCATION = 256;
+
+    @Param({"1", "4", "16", "64"})
+    public int callerQty;
+
+    @Param({"DIRECT", "GROUP"})
+    public WritePath path;
+
+    private Path directory;
+    private BasicDataSource dataSource;
+    private RecipeServiceImpl recipeService;
+    private RecipeWriteBehind writeBehind;
+    private ExecutorService callers;
+    private long firstDoctorId;
+    private long firstPatientId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("write-behind-benchmark");
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.setProfile(StorageProfile.FILE_MEMORY_TABLES);
+        storageProperties.setPath(directory.resolve("data").toString());
+        storageProperties.setWriteDelay(Duration.ZERO);
+
+        dataSource = new BasicDataSource();
+        dataSource.setUrl(storageProperties.getProfile().getUrl(storageProperties.getPath()));
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setMaxTotal(callerQty + 1);
+        dataSource.setMaxIdle(callerQty + 1);
+        new SchemaMigrator(dataSource).migrate();
+        new StorageConfigurer(dataSource, storageProperties).configure();
+        BenchmarkData.fill(dataSource, RecipeDatabaseState.DOCTOR_QTY, RecipeDatabaseState.PATIENT_QTY, 0,
+                RecipeDatabaseState.SEED);
+        firstDoctorId = getMinPositiveId("doctors");
+        firstPatientId = getMinPositiveId("patients");
+
+        RecipeDaoImpl recipeDao = new RecipeDaoImpl(dataSource);
+        recipeDao.initialize();
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        EntityChangeBroadcaster changeBroadcaster = new EntityChangeBroadcaster();
+        recipeService = new RecipeServiceImpl(recipeDao, validator, changeBroadcaster);
+        writeBehind = new RecipeWriteBehind(recipeDao, validator, changeBroadcaster, 10_000, 256,
+                TimeUnit.MILLISECONDS.toNanos(2));
+        callers = Executors.newFixedThreadPool(callerQty);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        callers.shutdown();
+        writeBehind.stop();
+        dataSource.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECIPES_PER_INVOCATION)
+    public long add() throws InterruptedException, ExecutionException {
+        int recipesPerCaller = RECIPES_PER_INVOCATION / callerQty;
+        List<Future<Long>> results = new ArrayList<>(callerQty);
+        for (int i = 0; i < callerQty; i++) {
+            long seed = RecipeDatabaseState.SEED + i;
+            results.add(callers.submit(() -> addRecipes(new SplittableRandom(seed), recipesPerCaller)));
+        }
+
+        long idSum = 0;
+        for (Future<Long> result : results) {
+            idSum += result.get();
+        }
+        return idSum;
+    }
+
+    private long addRecipes(SplittableRandom random, int qty) throws Exception {
+        long idSum = 0;
+        for (int i = 0; i < qty; i++) {
+            Recipe recipe = createRecipe(random);
+            if (path == WritePath.DIRECT) {
+                recipeService.add(recipe);
+                idSum += recipe.getId();
+            } else {
+                idSum += writeBehind.add(recipe).get();
+            }
+        }
+        return idSum;
+    }
+
+    private Recipe createRecipe(SplittableRandom random) {
+        Recipe recipe = new Recipe();
+        recipe.setDoctorId(firstDoctorId + random.nextInt(RecipeDatabaseState.DOCTOR_QTY - 1));
+        recipe.setPatientId(firstPatientId + random.nextInt(RecipeDatabaseState.PATIENT_QTY - 1));
+        recipe.setDescription("Аспирин по одной таблетке утром");
+        recipe.setCreationDate(new Date(1_577_836_800_000L));
+        recipe.setValidity(30);
+        recipe.setPriority(Priority.NORMAL);
+        return recipe;
+    }
+
+    private long getMinPositiveId(String tableName) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select min(id) from " + tableName + " where id > 0")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    public enum WritePath {
+        DIRECT,
+        GROUP
+    }
+}
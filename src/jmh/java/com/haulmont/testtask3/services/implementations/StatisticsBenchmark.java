@@ -0,0 +1,48 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.RecipeDatabaseState;
+import com.haulmont.testtask3.config.StatisticsProperties;
+import com.haulmont.testtask3.models.DoctorStatistics;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Doctor statistics computed by the grouped queries and served from the {@link StatisticsServiceImpl} cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class StatisticsBenchmark {
+    private StatisticsServiceImpl statisticsService;
+
+    @Setup
+    public void setUp(RecipeDatabaseState database) {
+        statisticsService = new StatisticsServiceImpl(database.recipeDao, new EntityChangeBroadcaster(),
+                Runnable::run, new StatisticsProperties(), System::nanoTime);
+    }
+
+    @Benchmark
+    public Map<Long, DoctorStatistics> groupedQueries(RecipeDatabaseState database) {
+        return database.recipeDao.getStatisticsForAllDoctors();
+    }
+
+    @Benchmark
+    public Map<Long, DoctorStatistics> cached() {
+        return statisticsService.getStatisticsForAllDoctors();
+    }
+}
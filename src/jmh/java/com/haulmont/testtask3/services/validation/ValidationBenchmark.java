@@ -0,0 +1,122 @@
+package com.haulmont.testtask3.services.validation;
+
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of valid entities by the Hibernate validator next to {@link EntityValidator}, one by one and
+ * as a batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    private static final int BATCH_SIZE = 10_000;
+
+    private Validator hibernateValidator;
+    private EntityValidator entityValidator;
+    private Patient patient;
+    private Doctor doctor;
+    private Recipe recipe;
+    private List<Patient> patients;
+
+    @Setup
+    public void setUp() {
+        hibernateValidator = Validation.buildDefaultValidatorFactory().getValidator();
+        entityValidator = new EntityValidator(hibernateValidator);
+
+        patient = new Patient();
+        patient.setName("Иван");
+        patient.setSurname("Петров");
+        patient.setPatronymic("Сергеевич");
+        patient.setPhoneNumber("79991234567");
+
+        doctor = new Doctor();
+        doctor.setName("Анна");
+        doctor.setSurname("Смирнова");
+        doctor.setSpecialization("Терапевт");
+
+        recipe = new Recipe();
+        recipe.setDoctorId(1L);
+        recipe.setPatientId(2L);
+        recipe.setDescription("Аспирин по одной таблетке утром");
+        recipe.setCreationDate(new Date(1_577_836_800_000L));
+        recipe.setValidity(30);
+        recipe.setPriority(Priority.NORMAL);
+
+        patients = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            patients.add(patient);
+        }
+    }
+
+    @Benchmark
+    public void hibernatePatient(Blackhole blackhole) {
+        blackhole.consume(hibernateValidator.validate(patient));
+    }
+
+    @Benchmark
+    public void fastPathPatient(Blackhole blackhole) {
+        blackhole.consume(entityValidator.validate(patient));
+    }
+
+    @Benchmark
+    public void hibernateDoctor(Blackhole blackhole) {
+        blackhole.consume(hibernateValidator.validate(doctor));
+    }
+
+    @Benchmark
+    public void fastPathDoctor(Blackhole blackhole) {
+        blackhole.consume(entityValidator.validate(doctor));
+    }
+
+    @Benchmark
+    public void hibernateRecipe(Blackhole blackhole) {
+        blackhole.consume(hibernateValidator.validate(recipe));
+    }
+
+    @Benchmark
+    public void fastPathRecipe(Blackhole blackhole) {
+        blackhole.consume(entityValidator.validate(recipe));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void hibernateBatch(Blackhole blackhole) {
+        for (Patient batchPatient : patients) {
+            blackhole.consume(hibernateValidator.validate(batchPatient));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Set<ConstraintViolation<Patient>>> fastPathBatch() {
+        return entityValidator.validateAll(patients);
+    }
+}
@@ -0,0 +1,89 @@
+package com.haulmont.testtask3.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Ids of the generated doctors and patients with their popularity.
+ * <p>
+ * Doctors and patients are ranked by a seeded permutation, so the most popular ones are spread over the id range
+ * rather than being the first inserted ones. Ids which don't pass the {@code @Positive} constraint of
+ * {@link com.haulmont.testtask3.models.Recipe}, i.e. the identity value {@code 0}, are left out.
+ */
+final class ClinicData {
+    private final long[] doctorIds;
+    private final long[] patientIds;
+    private final int[] doctorRanks;
+    private final int[] patientRanks;
+    private final ZipfDistribution doctorPopularity;
+    private final ZipfDistribution patientActivity;
+    private final long firstRecipeId;
+    private final long lastRecipeId;
+
+    ClinicData(long[] doctorIds, long[] patientIds, long firstRecipeId, long lastRecipeId, LoadTestOptions options) {
+        this.doctorIds = doctorIds;
+        this.patientIds = patientIds;
+        this.firstRecipeId = firstRecipeId;
+        this.lastRecipeId = lastRecipeId;
+        SplittableRandom random = new SplittableRandom(options.getSeed());
+        doctorRanks = createPermutation(doctorIds.length, random);
+        patientRanks = createPermutation(patientIds.length, random);
+        doctorPopularity = new ZipfDistribution(doctorIds.length, options.getDoctorSkew());
+        patientActivity = new ZipfDistribution(patientIds.length, options.getPatientSkew());
+    }
+
+    /**
+     * Draws a doctor, popular doctors are drawn more often.
+     *
+     * @param random source of randomness
+     * @return doctor id.
+     */
+    long nextDoctorId(SplittableRandom random) {
+        return doctorIds[doctorRanks[doctorPopularity.next(random)]];
+    }
+
+    /**
+     * Draws a patient, patients with chronic conditions are drawn more often.
+     *
+     * @param random source of randomness
+     * @return patient id.
+     */
+    long nextPatientId(SplittableRandom random) {
+        return patientIds[patientRanks[patientActivity.next(random)]];
+    }
+
+    /**
+     * Draws an id uniformly from the range of the recipes existing before the run.
+     *
+     * @param random source of randomness
+     * @return recipe id, the recipe may have been deleted.
+     */
+    long nextRecipeId(SplittableRandom random) {
+        return lastRecipeId <= firstRecipeId ? firstRecipeId : random.nextLong(firstRecipeId, lastRecipeId + 1);
+    }
+
+    int getDoctorQty() {
+        return doctorIds.length;
+    }
+
+    int getPatientQty() {
+        return patientIds.length;
+    }
+
+    long getRecipeIdRange() {
+        return lastRecipeId - firstRecipeId + 1;
+    }
+
+    private static int[] createPermutation(int n, SplittableRandom random) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swapped = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = swapped;
+        }
+        return permutation;
+    }
+}
@@ -0,0 +1,266 @@
+package com.haulmont.testtask3.loadtest;
+
+import com.haulmont.testtask3.dao.interfaces.DoctorDao;
+import com.haulmont.testtask3.dao.interfaces.PatientDao;
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+
+import javax.sql.DataSource;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Deterministic generator of a clinic data set: the same options always produce the same rows.
+ * <p>
+ * Names are combined from common Russian first names, surnames and patronymics in the matching gender forms and
+ * contain only the letters accepted by the name patterns of {@link Doctor} and {@link Patient}, i.e. no "ё".
+ * Recipes are assigned to doctors and patients by {@link ClinicData}, so a few doctors write most of the recipes,
+ * and get {@link Priority#NORMAL} in 80%, {@link Priority#CITO} in 15% and {@link Priority#STATIM} in 5% of cases.
+ */
+final class ClinicDataGenerator {
+    static final LocalDate TODAY = LocalDate.of(2021, 1, 1);
+
+    private static final String[] MALE_NAMES = {
+            "Александр", "Алексей", "Андрей", "Антон", "Борис", "Вадим", "Валерий", "Виктор", "Владимир", "Геннадий",
+            "Георгий", "Григорий", "Дмитрий", "Евгений", "Иван", "Игорь", "Илья", "Кирилл", "Константин", "Леонид",
+            "Максим", "Михаил", "Никита", "Николай", "Олег", "Павел", "Роман", "Сергей", "Станислав", "Юрий"
+    };
+    private static final String[] FEMALE_NAMES = {
+            "Анна", "Алина", "Валентина", "Вера", "Виктория", "Галина", "Дарья", "Евгения", "Екатерина", "Елена",
+            "Ирина", "Ксения", "Лариса", "Любовь", "Людмила", "Марина", "Мария", "Надежда", "Наталья", "Нина",
+            "Оксана", "Ольга", "Полина", "Светлана", "Софья", "Татьяна", "Ульяна", "Юлия", "Яна", "Зоя"
+    };
+    /**
+     * Male forms, the female forms get "а".
+     */
+    private static final String[] SURNAMES = {
+            "Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров", "Соколов", "Михайлов", "Новиков",
+            "Федоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семенов", "Егоров", "Павлов", "Козлов",
+            "Степанов", "Николаев", "Орлов", "Андреев", "Макаров", "Никитин", "Захаров", "Зайцев", "Соловьев",
+            "Борисов", "Яковлев", "Григорьев", "Романов", "Воробьев", "Сергеев", "Кузьмин", "Фролов", "Александров",
+            "Дмитриев", "Королев", "Гусев", "Киселев", "Ильин", "Максимов", "Поляков", "Сорокин", "Виноградов",
+            "Ковалев", "Белов", "Медведев", "Антонов", "Тарасов"
+    };
+    /**
+     * Stems of patronymics which get "ич" in the male and "на" in the female form.
+     */
+    private static final String[] PATRONYMIC_STEMS = {
+            "Александров", "Алексеев", "Андреев", "Борисов", "Викторов", "Владимиров", "Дмитриев", "Евгеньев",
+            "Иванов", "Игорев", "Михайлов", "Николаев", "Олегов", "Павлов", "Петров", "Сергеев", "Юрьев"
+    };
+    private static final String[] SPECIALIZATIONS = {
+            "Хирург", "Кардиолог", "Невролог", "Офтальмолог", "Педиатр", "Эндокринолог", "Дерматолог",
+            "Оториноларинголог", "Гастроэнтеролог", "Уролог", "Гинеколог", "Психиатр", "Стоматолог", "Травматолог"
+    };
+    private static final String GENERAL_PRACTITIONER = "Терапевт";
+
+    static final String[] DRUGS = {
+            "Амоксициллин", "Азитромицин", "Ибупрофен", "Парацетамол", "Омепразол", "Метформин", "Лизиноприл",
+            "Амлодипин", "Аторвастатин", "Бисопролол", "Цетиризин", "Лоратадин", "Диклофенак", "Но-шпа",
+            "Эналаприл", "Каптоприл", "Валидол", "Цитрамон", "Аспирин", "Нурофен", "Кларитромицин", "Флуконазол",
+            "Панкреатин", "Мезим", "Смекта"
+    };
+    private static final String[] DOSES = {
+            "по одной таблетке", "по две таблетки", "по одной капсуле", "по десять капель", "по одному пакетику"
+    };
+    private static final String[] SCHEDULES = {
+            "один раз в день", "два раза в день", "три раза в день", "утром", "на ночь", "при боли"
+    };
+    private static final String[] MEALS = {
+            "", " до еды", " после еды", " во время еды"
+    };
+    private static final String[] COURSES = {
+            "пять дней", "семь дней", "десять дней", "две недели", "месяц", "постоянно"
+    };
+    private static final int[] VALIDITIES = {5, 7, 10, 14, 30, 60, 90, 180};
+    private static final int HISTORY_DAYS = 730;
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int PROGRESS_STEP = 1_000_000;
+
+    private final LoadTestOptions options;
+    private final SplittableRandom random;
+
+    ClinicDataGenerator(LoadTestOptions options) {
+        this.options = options;
+        this.random = new SplittableRandom(options.getSeed());
+    }
+
+    /**
+     * Inserts the doctors, patients and recipes of the options.
+     *
+     * @param doctorDao  DAO of the doctors
+     * @param patientDao DAO of the patients
+     * @param recipeDao  DAO of the recipes
+     * @param log        progress output
+     * @return ids of the inserted rows.
+     */
+    ClinicData generate(DoctorDao doctorDao, PatientDao patientDao, RecipeDao recipeDao, PrintStream log) {
+        List<Doctor> doctors = new ArrayList<>(CHUNK_SIZE);
+        long[] doctorIds = new long[options.getDoctors()];
+        for (int i = 0; i < doctorIds.length; i++) {
+            doctors.add(createDoctor());
+            if (doctors.size() == CHUNK_SIZE || i == doctorIds.length - 1) {
+                doctorDao.addAll(doctors);
+                copyIds(doctors, Doctor::getId, doctorIds, i + 1 - doctors.size());
+                doctors.clear();
+            }
+        }
+        log.println(doctorIds.length + " doctors generated");
+
+        List<Patient> patients = new ArrayList<>(CHUNK_SIZE);
+        long[] patientIds = new long[options.getPatients()];
+        for (int i = 0; i < patientIds.length; i++) {
+            patients.add(createPatient(i));
+            if (patients.size() == CHUNK_SIZE || i == patientIds.length - 1) {
+                patientDao.addAll(patients);
+                copyIds(patients, Patient::getId, patientIds, i + 1 - patients.size());
+                patients.clear();
+            }
+        }
+        log.println(patientIds.length + " patients generated");
+
+        long[] positiveDoctorIds = getPositive(doctorIds);
+        long[] positivePatientIds = getPositive(patientIds);
+        ClinicData data = new ClinicData(positiveDoctorIds, positivePatientIds, 0, 0, options);
+        List<Recipe> recipes = new ArrayList<>(CHUNK_SIZE);
+        long firstRecipeId = 0;
+        long lastRecipeId = 0;
+        for (int i = 0; i < options.getRecipes(); i++) {
+            Recipe recipe = createRecipe(data, random);
+            recipe.setCreationDate(Date.valueOf(TODAY.minusDays(random.nextInt(HISTORY_DAYS))));
+            recipes.add(recipe);
+            if (recipes.size() == CHUNK_SIZE || i == options.getRecipes() - 1) {
+                recipeDao.addAll(recipes);
+                if (firstRecipeId == 0) {
+                    firstRecipeId = recipes.get(0).getId();
+                }
+                lastRecipeId = recipes.get(recipes.size() - 1).getId();
+                recipes.clear();
+            }
+            if ((i + 1) % PROGRESS_STEP == 0) {
+                log.println((i + 1) + " recipes generated");
+            }
+        }
+        log.println(options.getRecipes() + " recipes generated");
+        return new ClinicData(positiveDoctorIds, positivePatientIds, firstRecipeId, lastRecipeId, options);
+    }
+
+    /**
+     * Reads ids of the rows generated by a previous run.
+     *
+     * @param dataSource data source of the database
+     * @param options    options of the load test
+     * @return ids of the existing rows.
+     * @throws SQLException if the ids can't be read
+     */
+    static ClinicData load(DataSource dataSource, LoadTestOptions options) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            long[] doctorIds = getIds(statement, "select id from doctors where id > 0 order by id");
+            long[] patientIds = getIds(statement, "select id from patients where id > 0 order by id");
+            long[] recipeIdRange = getIds(statement, "select min(id), max(id) from recipes");
+            return new ClinicData(doctorIds, patientIds, recipeIdRange[0], recipeIdRange[1], options);
+        }
+    }
+
+    /**
+     * Creates a recipe written today by a popular doctor.
+     *
+     * @param data   ids of the doctors and patients
+     * @param random source of randomness
+     * @return new recipe.
+     */
+    static Recipe createRecipe(ClinicData data, SplittableRandom random) {
+        Recipe recipe = new Recipe();
+        recipe.setDoctorId(data.nextDoctorId(random));
+        recipe.setPatientId(data.nextPatientId(random));
+        recipe.setDescription(pick(DRUGS, random) + " " + pick(DOSES, random) + " " + pick(SCHEDULES, random)
+                + pick(MEALS, random) + " " + pick(COURSES, random));
+        recipe.setCreationDate(Date.valueOf(TODAY));
+        recipe.setValidity(VALIDITIES[random.nextInt(VALIDITIES.length)]);
+        recipe.setPriority(nextPriority(random));
+        return recipe;
+    }
+
+    /**
+     * Draws a priority: {@code NORMAL} in 80%, {@code CITO} in 15% and {@code STATIM} in 5% of cases.
+     *
+     * @param random source of randomness
+     * @return priority.
+     */
+    static Priority nextPriority(SplittableRandom random) {
+        int percent = random.nextInt(100);
+        return percent < 80 ? Priority.NORMAL : percent < 95 ? Priority.CITO : Priority.STATIM;
+    }
+
+    private Doctor createDoctor() {
+        boolean male = random.nextBoolean();
+        Doctor doctor = new Doctor();
+        doctor.setName(pick(male ? MALE_NAMES : FEMALE_NAMES, random));
+        doctor.setSurname(createSurname(male));
+        doctor.setPatronymic(createPatronymic(male));
+        doctor.setSpecialization(random.nextInt(10) < 3 ? GENERAL_PRACTITIONER : pick(SPECIALIZATIONS, random));
+        return doctor;
+    }
+
+    private Patient createPatient(int index) {
+        boolean male = random.nextBoolean();
+        Patient patient = new Patient();
+        patient.setName(pick(male ? MALE_NAMES : FEMALE_NAMES, random));
+        patient.setSurname(createSurname(male));
+        patient.setPatronymic(random.nextInt(20) == 0 ? null : createPatronymic(male));
+        patient.setPhoneNumber(String.valueOf(89_000_000_000L + index));
+        return patient;
+    }
+
+    private String createSurname(boolean male) {
+        String surname = pick(SURNAMES, random);
+        return male ? surname : surname + "а";
+    }
+
+    private String createPatronymic(boolean male) {
+        return pick(PATRONYMIC_STEMS, random) + (male ? "ич" : "на");
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static <T> void copyIds(List<T> entities, Function<T, Long> idGetter, long[] ids,
+                                    int offset) {
+        for (int i = 0; i < entities.size(); i++) {
+            ids[offset + i] = idGetter.apply(entities.get(i));
+        }
+    }
+
+    private static long[] getPositive(long[] ids) {
+        return Arrays.stream(ids).filter(id -> id > 0).toArray();
+    }
+
+    private static long[] getIds(Statement statement, String query) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery(query)) {
+            int columnQty = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                for (int column = 1; column <= columnQty; column++) {
+                    ids.add(resultSet.getLong(column));
+                }
+            }
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,289 @@
+package com.haulmont.testtask3.loadtest;
+
+import com.haulmont.testtask3.config.SchemaMigrator;
+import com.haulmont.testtask3.config.ServiceExecutor;
+import com.haulmont.testtask3.config.ServiceExecutorProperties.ThreadType;
+import com.haulmont.testtask3.config.StatisticsProperties;
+import com.haulmont.testtask3.config.StorageConfigurer;
+import com.haulmont.testtask3.config.StorageProperties;
+import com.haulmont.testtask3.dao.implementations.DoctorDaoImpl;
+import com.haulmont.testtask3.dao.implementations.PatientDaoImpl;
+import com.haulmont.testtask3.dao.implementations.RecipeDaoImpl;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.implementations.RecipeServiceImpl;
+import com.haulmont.testtask3.services.implementations.StatisticsServiceImpl;
+import com.haulmont.testtask3.services.interfaces.RecipeService;
+import com.haulmont.testtask3.services.interfaces.StatisticsService;
+import org.HdrHistogram.Histogram;
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import javax.validation.Validation;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of the services on a clinic sized database.
+ * <p>
+ * An empty database is filled by {@link ClinicDataGenerator} first, a database left by a previous run is reused.
+ * Then every thread plays a user doing operations of the configured mix for the warmup and the measured time,
+ * and the latencies of the measured operations are reported per operation. With a target rate every user
+ * starts its operations on a fixed schedule and the latency is counted from the scheduled start, so operations
+ * delayed by a slow predecessor are not left out of the percentiles.
+ */
+public final class LoadTest {
+    private static final int PAGE_SIZE = 50;
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final LoadTestOptions options;
+    private final ClinicData data;
+    private final RecipeService recipeService;
+    private final StatisticsService statisticsService;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private volatile boolean recording;
+    private volatile boolean stopped;
+
+    private LoadTest(LoadTestOptions options, ClinicData data, RecipeService recipeService,
+                     StatisticsService statisticsService) {
+        this.options = options;
+        this.data = data;
+        this.recipeService = recipeService;
+        this.statisticsService = statisticsService;
+        this.operations = options.getMix().keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int weightSum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            weightSum += options.getMix().get(operations[i]);
+            cumulativeWeights[i] = weightSum;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, SQLException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.setProfile(options.getStorage());
+        storageProperties.setPath(options.getPath());
+
+        BasicDataSource dataSource = new BasicDataSource();
+        dataSource.setUrl(storageProperties.getProfile().getUrl(storageProperties.getPath()));
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setMaxTotal(options.getPoolSize());
+        dataSource.setMaxIdle(options.getPoolSize());
+        new SchemaMigrator(dataSource).migrate();
+        new StorageConfigurer(dataSource, storageProperties).configure();
+
+        DoctorDaoImpl doctorDao = new DoctorDaoImpl(dataSource);
+        PatientDaoImpl patientDao = new PatientDaoImpl(dataSource);
+        RecipeDaoImpl recipeDao = new RecipeDaoImpl(dataSource);
+        doctorDao.initialize();
+        patientDao.initialize();
+        recipeDao.initialize();
+        ClinicData data;
+        if (doctorDao.getCount() == 0) {
+            long startNanos = System.nanoTime();
+            data = new ClinicDataGenerator(options).generate(doctorDao, patientDao, recipeDao, System.out);
+            System.out.printf("Data generated in %d s%n",
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos));
+        } else {
+            data = ClinicDataGenerator.load(dataSource, options);
+            System.out.println("Existing data reused");
+        }
+        System.out.printf("%d doctors, %d patients, %d recipe ids%n",
+                data.getDoctorQty(), data.getPatientQty(), data.getRecipeIdRange());
+
+        EntityChangeBroadcaster changeBroadcaster = new EntityChangeBroadcaster();
+        RecipeService recipeService = new RecipeServiceImpl(recipeDao,
+                Validation.buildDefaultValidatorFactory().getValidator(), changeBroadcaster);
+        ServiceExecutor executor = new ServiceExecutor(1, 16, ThreadType.PLATFORM.createThreadFactory("statistics-"));
+        StatisticsServiceImpl statisticsService = new StatisticsServiceImpl(recipeDao, changeBroadcaster, executor,
+                new StatisticsProperties());
+        statisticsService.warmUp();
+
+        try {
+            Map<Operation, Result> results = new LoadTest(options, data, recipeService, statisticsService).run();
+            report(results, options, System.out);
+        } finally {
+            executor.shutdown();
+            dataSource.close();
+        }
+    }
+
+    private Map<Operation, Result> run() throws InterruptedException {
+        List<User> users = new ArrayList<>(options.getThreads());
+        SplittableRandom random = new SplittableRandom(options.getSeed());
+        for (int i = 0; i < options.getThreads(); i++) {
+            User user = new User(random.split());
+            user.setName("user-" + i);
+            users.add(user);
+        }
+
+        System.out.printf("Warming up for %s%n", options.getWarmup());
+        users.forEach(Thread::start);
+        Thread.sleep(options.getWarmup().toMillis());
+        System.out.printf("Measuring for %s%n", options.getDuration());
+        recording = true;
+        Thread.sleep(options.getDuration().toMillis());
+        recording = false;
+        stopped = true;
+        for (User user : users) {
+            user.join();
+        }
+
+        Map<Operation, Result> results = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            Result result = new Result();
+            for (User user : users) {
+                result.add(user.results.get(operation));
+            }
+            results.put(operation, result);
+        }
+        return results;
+    }
+
+    private static void report(Map<Operation, Result> results, LoadTestOptions options, PrintStream out)
+            throws IOException {
+        double seconds = options.getDuration().toMillis() / 1000.0;
+        out.printf("%-12s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "ops/s", "p50, ms", "p95, ms", "p99, ms", "max, ms");
+        for (Map.Entry<Operation, Result> entry : results.entrySet()) {
+            Histogram latencies = entry.getValue().latencies;
+            out.printf("%-12s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", entry.getKey().getTag(),
+                    latencies.getTotalCount(), entry.getValue().errorQty, latencies.getTotalCount() / seconds,
+                    toMillis(latencies.getValueAtPercentile(50)), toMillis(latencies.getValueAtPercentile(95)),
+                    toMillis(latencies.getValueAtPercentile(99)), toMillis(latencies.getMaxValue()));
+        }
+
+        if (options.getReport() != null) {
+            try (PrintStream report = new PrintStream(new FileOutputStream(options.getReport()), false,
+                    StandardCharsets.UTF_8.name())) {
+                for (Map.Entry<Operation, Result> entry : results.entrySet()) {
+                    report.printf("# %s, ms%n", entry.getKey().getTag());
+                    entry.getValue().latencies.outputPercentileDistribution(report, 1000.0);
+                    report.println();
+                }
+            }
+            out.printf("Latency distributions written to %s%n", options.getReport());
+        }
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private Operation nextOperation(SplittableRandom random) {
+        int weight = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (cumulativeWeights[i] <= weight) {
+            i++;
+        }
+        return operations[i];
+    }
+
+    private void execute(Operation operation, SplittableRandom random) throws Exception {
+        switch (operation) {
+            case BROWSE:
+                recipeService.getListItemPageAfter(data.nextRecipeId(random), PAGE_SIZE);
+                break;
+            case FILTER:
+                RecipeFilter filter = createFilter(random);
+                recipeService.findPage(filter, 0, PAGE_SIZE);
+                recipeService.findCount(filter);
+                break;
+            case CREATE:
+                recipeService.add(ClinicDataGenerator.createRecipe(data, random));
+                break;
+            case STATISTICS:
+                statisticsService.getStatisticsByDoctorId(data.nextDoctorId(random));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    /**
+     * Creates a filter by a patient in 40%, by a priority and a drug in 30% and by a drug in 30% of cases.
+     */
+    private RecipeFilter createFilter(SplittableRandom random) {
+        String drug = ClinicDataGenerator.DRUGS[random.nextInt(ClinicDataGenerator.DRUGS.length)];
+        int percent = random.nextInt(100);
+        if (percent < 40) {
+            return new RecipeFilter(data.nextPatientId(random), null, null);
+        } else if (percent < 70) {
+            return new RecipeFilter(null, ClinicDataGenerator.nextPriority(random).name(), drug);
+        } else {
+            return new RecipeFilter(null, null, drug);
+        }
+    }
+
+    private static final class Result {
+        private final Histogram latencies = new Histogram(HIGHEST_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+        private long errorQty;
+
+        private void add(Result result) {
+            latencies.add(result.latencies);
+            errorQty += result.errorQty;
+        }
+    }
+
+    private final class User extends Thread {
+        private final SplittableRandom random;
+        private final Map<Operation, Result> results = new EnumMap<>(Operation.class);
+
+        private User(SplittableRandom random) {
+            this.random = random;
+            for (Operation operation : operations) {
+                results.put(operation, new Result());
+            }
+        }
+
+        @Override
+        public void run() {
+            long intervalNanos = options.getRate() > 0
+                    ? (long) (TimeUnit.SECONDS.toNanos(1) * options.getThreads() / options.getRate())
+                    : 0;
+            long scheduledNanos = System.nanoTime();
+            while (!stopped) {
+                long startNanos;
+                if (intervalNanos > 0) {
+                    scheduledNanos += intervalNanos;
+                    LockSupport.parkNanos(scheduledNanos - System.nanoTime());
+                    startNanos = scheduledNanos;
+                } else {
+                    startNanos = System.nanoTime();
+                }
+                boolean recorded = recording;
+
+                Operation operation = nextOperation(random);
+                boolean failed = false;
+                try {
+                    execute(operation, random);
+                } catch (Exception e) {
+                    failed = true;
+                }
+
+                if (recorded) {
+                    Result result = results.get(operation);
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+                    result.latencies.recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+                    if (failed) {
+                        result.errorQty++;
+                    }
+                }
+            }
+        }
+    }
+}
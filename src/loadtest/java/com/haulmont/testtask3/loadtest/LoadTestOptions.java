@@ -0,0 +1,240 @@
+package com.haulmont.testtask3.loadtest;
+
+import com.haulmont.testtask3.config.StorageProperties.StorageProfile;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Options of the load test given as {@code --name=value} arguments, e.g.
+ * {@code --recipes=1000000 --threads=32 --duration=5m --mix=browse:60,filter:20,create:15,statistics:5}.
+ */
+final class LoadTestOptions {
+
+    /**
+     * Quantity of doctors generated into an empty database.
+     */
+    private int doctors = 50_000;
+
+    /**
+     * Quantity of patients generated into an empty database.
+     */
+    private int patients = 1_000_000;
+
+    /**
+     * Quantity of recipes generated into an empty database.
+     */
+    private int recipes = 20_000_000;
+
+    /**
+     * Seed of the data generator and the scenario, the same seed gives the same data and operation sequence.
+     */
+    private long seed = 42;
+
+    /**
+     * Zipf exponent of doctor popularity.
+     */
+    private double doctorSkew = 1.1;
+
+    /**
+     * Zipf exponent of patient activity.
+     */
+    private double patientSkew = 0.8;
+
+    /**
+     * Database storage, a file database keeps the generated data for the next runs.
+     */
+    private StorageProfile storage = StorageProfile.FILE_CACHED_TABLES;
+
+    /**
+     * Path of the file database or name of the in-memory one.
+     */
+    private String path = "loadtest/data";
+
+    /**
+     * Max quantity of database connections, two more than the threads by default.
+     */
+    private int poolSize;
+
+    /**
+     * Quantity of concurrent users.
+     */
+    private int threads = 16;
+
+    /**
+     * Target rate of all operations per second, {@code 0} runs every user without pauses.
+     */
+    private double rate;
+
+    /**
+     * Time the scenario runs before the latencies are recorded.
+     */
+    private Duration warmup = Duration.ofSeconds(30);
+
+    /**
+     * Time the latencies are recorded.
+     */
+    private Duration duration = Duration.ofMinutes(2);
+
+    /**
+     * Relative weights of the operations.
+     */
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    /**
+     * File the latency distributions are written to, {@code null} to print only the summary.
+     */
+    private String report;
+
+    private LoadTestOptions() {
+        mix.put(Operation.BROWSE, 50);
+        mix.put(Operation.FILTER, 30);
+        mix.put(Operation.CREATE, 15);
+        mix.put(Operation.STATISTICS, 5);
+    }
+
+    /**
+     * Parses the command line arguments.
+     *
+     * @param args arguments of the {@code main} method
+     * @return parsed options.
+     * @throws IllegalArgumentException if an argument is unknown or malformed
+     */
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int separatorIndex = arg.indexOf('=');
+            if (!arg.startsWith("--") || separatorIndex < 0) {
+                throw new IllegalArgumentException("Expected --name=value instead of " + arg);
+            }
+            options.set(arg.substring(2, separatorIndex), arg.substring(separatorIndex + 1));
+        }
+        if (options.poolSize == 0) {
+            options.poolSize = options.threads + 2;
+        }
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "doctors":
+                doctors = Integer.parseInt(value);
+                break;
+            case "patients":
+                patients = Integer.parseInt(value);
+                break;
+            case "recipes":
+                recipes = Integer.parseInt(value);
+                break;
+            case "seed":
+                seed = Long.parseLong(value);
+                break;
+            case "doctor-skew":
+                doctorSkew = Double.parseDouble(value);
+                break;
+            case "patient-skew":
+                patientSkew = Double.parseDouble(value);
+                break;
+            case "storage":
+                storage = StorageProfile.valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+                break;
+            case "path":
+                path = value;
+                break;
+            case "pool-size":
+                poolSize = Integer.parseInt(value);
+                break;
+            case "threads":
+                threads = Integer.parseInt(value);
+                break;
+            case "rate":
+                rate = Double.parseDouble(value);
+                break;
+            case "warmup":
+                warmup = DurationStyle.detectAndParse(value);
+                break;
+            case "duration":
+                duration = DurationStyle.detectAndParse(value);
+                break;
+            case "mix":
+                mix.clear();
+                for (String weight : value.split(",")) {
+                    String[] parts = weight.split(":");
+                    if (parts.length != 2) {
+                        throw new IllegalArgumentException("Expected operation:weight instead of " + weight);
+                    }
+                    mix.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)),
+                            Integer.parseInt(parts[1].trim()));
+                }
+                break;
+            case "report":
+                report = value;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option --" + name);
+        }
+    }
+
+    int getDoctors() {
+        return doctors;
+    }
+
+    int getPatients() {
+        return patients;
+    }
+
+    int getRecipes() {
+        return recipes;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    double getDoctorSkew() {
+        return doctorSkew;
+    }
+
+    double getPatientSkew() {
+        return patientSkew;
+    }
+
+    StorageProfile getStorage() {
+        return storage;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    int getPoolSize() {
+        return poolSize;
+    }
+
+    int getThreads() {
+        return threads;
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+    Duration getWarmup() {
+        return warmup;
+    }
+
+    Duration getDuration() {
+        return duration;
+    }
+
+    Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    String getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,36 @@
+package com.haulmont.testtask3.loadtest;
+
+/**
+ * User operation of the load test scenario, each one does the service calls of one view action.
+ */
+enum Operation {
+
+    /**
+     * Scrolling the recipe list: a keyset page of list items after a random recipe.
+     */
+    BROWSE,
+
+    /**
+     * Filtering the recipe list by a patient, a priority or a description word: the first page and the count.
+     */
+    FILTER,
+
+    /**
+     * Saving a new recipe of a popular doctor.
+     */
+    CREATE,
+
+    /**
+     * Opening the statistics of a doctor.
+     */
+    STATISTICS;
+
+    /**
+     * Returns lower-case name used in options and the report.
+     *
+     * @return lower-case name used in options and the report.
+     */
+    String getTag() {
+        return name().toLowerCase();
+    }
+}
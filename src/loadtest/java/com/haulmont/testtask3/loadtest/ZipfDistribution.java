@@ -0,0 +1,42 @@
+package com.haulmont.testtask3.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipf distribution of ranks {@code 0..n-1}: rank {@code k} is drawn with probability proportional to
+ * {@code 1 / (k + 1)^exponent}, so a few ranks get most of the draws.
+ * <p>
+ * Draws are a binary search over the precomputed cumulative probabilities, which takes {@code 8 * n} bytes.
+ */
+final class ZipfDistribution {
+    private final double[] cumulativeProbabilities;
+
+    /**
+     * @param n        quantity of ranks
+     * @param exponent skew, {@code 0} gives the uniform distribution
+     */
+    ZipfDistribution(int n, double exponent) {
+        cumulativeProbabilities = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cumulativeProbabilities[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulativeProbabilities[k] /= sum;
+        }
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random source of randomness
+     * @return rank from {@code 0} to {@code n - 1}.
+     */
+    int next(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulativeProbabilities.length - 1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.haulmont.testtask3.config;
+
+import com.haulmont.testtask3.services.admission.AdaptiveLimiter;
+import com.haulmont.testtask3.services.admission.AdmissionControl;
+import com.haulmont.testtask3.services.admission.OperationClass;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes limits, queues and rejections of the admission control, tagged by the operation class.
+ */
+@Component
+@ConditionalOnProperty(prefix = "service.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionMetrics implements MeterBinder {
+    private static final String OPERATION_TAG = "operation";
+
+    private final AdmissionControl admissionControl;
+
+    @Autowired
+    public AdmissionMetrics(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (OperationClass operationClass : OperationClass.values()) {
+            AdaptiveLimiter limiter = admissionControl.getLimiter(operationClass);
+            String tag = operationClass.getTag();
+            Gauge.builder("service.admission.limit", limiter, AdaptiveLimiter::getLimit)
+                    .description("Current limit of running service calls")
+                    .tag(OPERATION_TAG, tag)
+                    .register(registry);
+            Gauge.builder("service.admission.in-flight", limiter, AdaptiveLimiter::getInFlight)
+                    .description("Running service calls")
+                    .tag(OPERATION_TAG, tag)
+                    .register(registry);
+            Gauge.builder("service.admission.queued", limiter, AdaptiveLimiter::getQueuedQty)
+                    .description("Service calls waiting for a running call to finish")
+                    .tag(OPERATION_TAG, tag)
+                    .register(registry);
+            Gauge.builder("service.admission.latency", limiter, l -> l.getLatency(TimeUnit.MILLISECONDS))
+                    .description("Usual duration of a service call in milliseconds")
+                    .tag(OPERATION_TAG, tag)
+                    .register(registry);
+            FunctionCounter.builder("service.admission.admitted", limiter, AdaptiveLimiter::getAdmittedQty)
+                    .description("Admitted service calls")
+                    .tag(OPERATION_TAG, tag)
+                    .register(registry);
+            FunctionCounter.builder("service.admission.rejected", limiter, AdaptiveLimiter::getRejectedQty)
+                    .description("Service calls rejected because the budget was exhausted")
+                    .tag(OPERATION_TAG, tag)
+                    .register(registry);
+        }
+    }
+}
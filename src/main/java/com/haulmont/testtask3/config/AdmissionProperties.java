@@ -0,0 +1,179 @@
+package com.haulmont.testtask3.config;
+
+import com.haulmont.testtask3.services.admission.OperationClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the admission control of service calls, bound from {@code service.admission.*} properties.
+ */
+@ConfigurationProperties(prefix = "service.admission")
+public class AdmissionProperties {
+
+    /**
+     * Whether service calls are limited by the concurrency budgets.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Max ratio of the recent to the usual latency of calls which doesn't shrink the limits.
+     */
+    private double latencyTolerance = 2;
+
+    /**
+     * Budget of lookups of single entities and pages.
+     */
+    private Budget read = new Budget(4, 2, 5, 100, Duration.ofSeconds(2));
+
+    /**
+     * Budget of inserts, updates and deletes.
+     */
+    private Budget write = new Budget(2, 1, 3, 100, Duration.ofSeconds(2));
+
+    /**
+     * Budget of scans of whole tables.
+     */
+    private Budget report = new Budget(1, 1, 1, 10, Duration.ofSeconds(5));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    public void setLatencyTolerance(double latencyTolerance) {
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    public Budget getRead() {
+        return read;
+    }
+
+    public void setRead(Budget read) {
+        this.read = read;
+    }
+
+    public Budget getWrite() {
+        return write;
+    }
+
+    public void setWrite(Budget write) {
+        this.write = write;
+    }
+
+    public Budget getReport() {
+        return report;
+    }
+
+    public void setReport(Budget report) {
+        this.report = report;
+    }
+
+    /**
+     * Returns budget of the specified kind of calls.
+     *
+     * @param operationClass kind of calls
+     * @return budget of the specified kind of calls.
+     */
+    public Budget getBudget(OperationClass operationClass) {
+        switch (operationClass) {
+            case READ:
+                return read;
+            case WRITE:
+                return write;
+            case REPORT:
+                return report;
+            default:
+                throw new IllegalArgumentException("Unknown operation class " + operationClass);
+        }
+    }
+
+    /**
+     * Concurrency budget of one kind of calls.
+     */
+    public static class Budget {
+
+        /**
+         * Limit of running calls until the first calls are measured.
+         */
+        private int initialLimit;
+
+        /**
+         * Lower bound of the adaptive limit.
+         */
+        private int minLimit;
+
+        /**
+         * Upper bound of the adaptive limit.
+         */
+        private int maxLimit;
+
+        /**
+         * Max quantity of calls waiting for a running call to finish, further calls are rejected.
+         */
+        private int queueCapacity;
+
+        /**
+         * Max time a call waits in the queue before it is rejected.
+         */
+        private Duration maxWait;
+
+        public Budget() {
+        }
+
+        public Budget(int initialLimit, int minLimit, int maxLimit, int queueCapacity, Duration maxWait) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.queueCapacity = queueCapacity;
+            this.maxWait = maxWait;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+}
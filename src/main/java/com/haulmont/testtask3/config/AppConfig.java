@@ -1,61 +1,106 @@
 package com.haulmont.testtask3.config;
 
+import com.haulmont.testtask3.services.validation.EntityValidator;
 import com.vaadin.flow.spring.annotation.EnableVaadin;
+import org.apache.commons.dbcp2.BasicDataSource;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.boot.web.servlet.support.SpringBootServletInitializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.jdbc.datasource.init.DatabasePopulator;
-import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
-import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.vaadin.artur.helpers.LaunchUtil;
 
 import javax.sql.DataSource;
 import javax.validation.Validation;
 import javax.validation.Validator;
 import javax.validation.ValidatorFactory;
+import java.time.Clock;
+import java.time.Duration;
 
 @SpringBootApplication
 @ComponentScan("com.haulmont.testtask3")
+@ConfigurationPropertiesScan("com.haulmont.testtask3")
 @EnableVaadin("com.haulmont.testtask3.views")
+@EnableScheduling
+@EnableTransactionManagement
 public class AppConfig extends SpringBootServletInitializer {
-    private static final String SQL_SCRIPT_NAME = "/sql_scripts/schema.sql";
     private static final String DRIVER_CLASS_NAME = "org.hsqldb.jdbcDriver";
-    private static final String URL = "jdbc:hsqldb:file:db/data";
     private static final String USERNAME = "sa";
     private static final String PASSWORD = "";
+    private static final String SERVICE_THREAD_NAME_PREFIX = "service-";
+
+    @Bean(destroyMethod = "close")
+    public BasicDataSource getConnectionPool(ConnectionPoolProperties poolProperties,
+                                             StorageProperties storageProperties) {
+        BasicDataSource pool = configureConnectionPool(poolProperties, storageProperties);
+        new SchemaMigrator(pool).migrate();
+        new StorageConfigurer(pool, storageProperties).configure();
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource getDataSource(BasicDataSource pool) {
+        return new UnitOfWorkDataSource(new MeteredDataSource(pool));
+    }
 
     @Bean
-    public DataSource getDataSource() {
-        DataSource dataSource = configureDataSource();
-        DatabasePopulatorUtils.execute(createDatabasePopulator(), dataSource);
-        return dataSource;
+    public DataSourceTransactionManager getTransactionManager(DataSource dataSource) {
+        return new DataSourceTransactionManager(dataSource);
+    }
+
+    static BasicDataSource configureConnectionPool(ConnectionPoolProperties poolProperties,
+                                                   StorageProperties storageProperties) {
+        BasicDataSource pool = new BasicDataSource();
+        pool.setDriverClassName(DRIVER_CLASS_NAME);
+        pool.setUrl(storageProperties.getProfile().getUrl(storageProperties.getPath()));
+        pool.setUsername(USERNAME);
+        pool.setPassword(PASSWORD);
+
+        pool.setMaxTotal(poolProperties.getMaxSize());
+        pool.setMaxIdle(poolProperties.getMaxSize());
+        pool.setMinIdle(poolProperties.getMinIdle());
+        pool.setMaxWaitMillis(poolProperties.getAcquireTimeout().toMillis());
+
+        pool.setTestOnBorrow(poolProperties.isTestOnBorrow());
+        pool.setValidationQuery(poolProperties.getValidationQuery());
+        pool.setValidationQueryTimeout((int) poolProperties.getValidationTimeout().getSeconds());
+
+        pool.setPoolPreparedStatements(poolProperties.isPoolPreparedStatements());
+        pool.setMaxOpenPreparedStatements(poolProperties.getMaxOpenPreparedStatements());
+
+        Duration leakDetectionThreshold = poolProperties.getLeakDetectionThreshold();
+        if (leakDetectionThreshold != null && poolProperties.isRemoveAbandoned()) {
+            pool.setRemoveAbandonedOnBorrow(true);
+            pool.setRemoveAbandonedOnMaintenance(true);
+            pool.setRemoveAbandonedTimeout((int) leakDetectionThreshold.getSeconds());
+            pool.setTimeBetweenEvictionRunsMillis(leakDetectionThreshold.toMillis());
+            pool.setLogAbandoned(true);
+            pool.setAbandonedUsageTracking(true);
+        }
+        return pool;
     }
 
-    private DatabasePopulator createDatabasePopulator() {
-        ResourceDatabasePopulator databasePopulator = new ResourceDatabasePopulator();
-        databasePopulator.setContinueOnError(true);
-        databasePopulator.addScript(new ClassPathResource(SQL_SCRIPT_NAME));
-        return databasePopulator;
+    @Bean(destroyMethod = "shutdown")
+    public ServiceExecutor getServiceExecutor(ServiceExecutorProperties executorProperties) {
+        return new ServiceExecutor(executorProperties.getPoolSize(), executorProperties.getQueueCapacity(),
+                executorProperties.getThreadType().createThreadFactory(SERVICE_THREAD_NAME_PREFIX));
     }
 
-    private DataSource configureDataSource() {
-        DataSource dataSource = DataSourceBuilder.create()
-                .driverClassName(DRIVER_CLASS_NAME)
-                .url(URL)
-                .username(USERNAME)
-                .password(PASSWORD)
-                .build();
-        return dataSource;
+    @Bean
+    public Clock getClock() {
+        return Clock.systemDefaultZone();
     }
 
     @Bean
     public Validator getValidator() {
         ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
-        return validatorFactory.getValidator();
+        return new EntityValidator(validatorFactory.getValidator());
     }
 
     public static void main(String[] args) {
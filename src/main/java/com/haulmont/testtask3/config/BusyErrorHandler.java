@@ -0,0 +1,33 @@
+package com.haulmont.testtask3.config;
+
+import com.haulmont.testtask3.views.components.BusyNotification;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.DefaultErrorHandler;
+import com.vaadin.flow.server.ErrorEvent;
+import com.vaadin.flow.server.ErrorHandler;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Error handler of every Vaadin session which shows {@link BusyNotification} when a service call made
+ * while handling a request, e.g. by a data provider, was rejected because the system is overloaded.
+ * Other errors are handled by {@link DefaultErrorHandler}.
+ */
+@Component
+public class BusyErrorHandler implements VaadinServiceInitListener, ErrorHandler {
+    private final ErrorHandler defaultErrorHandler = new DefaultErrorHandler();
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addSessionInitListener(sessionInitEvent -> sessionInitEvent.getSession()
+                .setErrorHandler(this));
+    }
+
+    @Override
+    public void error(ErrorEvent event) {
+        if (UI.getCurrent() == null || !BusyNotification.showIfBusy(event.getThrowable())) {
+            defaultErrorHandler.error(event);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.haulmont.testtask3.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes connection pool gauges and the connection acquire time histogram.
+ */
+@Component
+public class ConnectionPoolMetrics implements MeterBinder {
+    private final BasicDataSource pool;
+    private final MeteredDataSource meteredDataSource;
+
+    @Autowired
+    public ConnectionPoolMetrics(BasicDataSource pool, DataSource dataSource) throws SQLException {
+        this.pool = pool;
+        this.meteredDataSource = dataSource.unwrap(MeteredDataSource.class);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.pool.active", pool, BasicDataSource::getNumActive)
+                .description("Connections in use")
+                .register(registry);
+        Gauge.builder("db.pool.idle", pool, BasicDataSource::getNumIdle)
+                .description("Open connections not in use")
+                .register(registry);
+        Gauge.builder("db.pool.max", pool, BasicDataSource::getMaxTotal)
+                .description("Max quantity of open connections")
+                .register(registry);
+        Gauge.builder("db.pool.waiting", meteredDataSource, MeteredDataSource::getWaitingQty)
+                .description("Callers waiting for a connection")
+                .register(registry);
+        FunctionCounter.builder("db.pool.acquired", meteredDataSource, MeteredDataSource::getAcquiredQty)
+                .description("Connections taken from the pool")
+                .register(registry);
+
+        Timer acquireTimer = Timer.builder("db.pool.acquire")
+                .description("Time to get a connection from the pool")
+                .publishPercentileHistogram()
+                .register(registry);
+        meteredDataSource.setAcquireTimeListener(nanos -> acquireTimer.record(nanos, TimeUnit.NANOSECONDS));
+    }
+}
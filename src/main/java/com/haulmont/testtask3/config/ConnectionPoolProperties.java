@@ -0,0 +1,144 @@
+package com.haulmont.testtask3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the database connection pool, bound from {@code datasource.pool.*} properties.
+ */
+@ConfigurationProperties(prefix = "datasource.pool")
+public class ConnectionPoolProperties {
+
+    /**
+     * Max quantity of open connections.
+     */
+    private int maxSize = 10;
+
+    /**
+     * Quantity of idle connections kept open.
+     */
+    private int minIdle = 2;
+
+    /**
+     * Max time to wait for a free connection before failing.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Whether a connection is validated before it is handed out.
+     */
+    private boolean testOnBorrow = true;
+
+    /**
+     * Validation query, {@code null} to use {@code Connection.isValid}.
+     */
+    private String validationQuery;
+
+    /**
+     * Max time of one connection validation.
+     */
+    private Duration validationTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Whether prepared statements are pooled per connection.
+     */
+    private boolean poolPreparedStatements = true;
+
+    /**
+     * Max quantity of pooled prepared statements per connection.
+     */
+    private int maxOpenPreparedStatements = 100;
+
+    /**
+     * Time after which a borrowed but unused connection is considered leaked, {@code null} disables leak detection.
+     */
+    private Duration leakDetectionThreshold = Duration.ofMinutes(1);
+
+    /**
+     * Whether leaked connections are closed and reclaimed, with the stack trace of their borrower logged.
+     * Off by default: the pool only tells leaked connections from long operations holding one connection,
+     * such as exports, imports and the expiry sweep, by their last use, so those could be killed midway.
+     */
+    private boolean removeAbandoned;
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public void setAcquireTimeout(Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public boolean isTestOnBorrow() {
+        return testOnBorrow;
+    }
+
+    public void setTestOnBorrow(boolean testOnBorrow) {
+        this.testOnBorrow = testOnBorrow;
+    }
+
+    public String getValidationQuery() {
+        return validationQuery;
+    }
+
+    public void setValidationQuery(String validationQuery) {
+        this.validationQuery = validationQuery;
+    }
+
+    public Duration getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public void setValidationTimeout(Duration validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    public boolean isPoolPreparedStatements() {
+        return poolPreparedStatements;
+    }
+
+    public void setPoolPreparedStatements(boolean poolPreparedStatements) {
+        this.poolPreparedStatements = poolPreparedStatements;
+    }
+
+    public int getMaxOpenPreparedStatements() {
+        return maxOpenPreparedStatements;
+    }
+
+    public void setMaxOpenPreparedStatements(int maxOpenPreparedStatements) {
+        this.maxOpenPreparedStatements = maxOpenPreparedStatements;
+    }
+
+    public Duration getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(Duration leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public boolean isRemoveAbandoned() {
+        return removeAbandoned;
+    }
+
+    public void setRemoveAbandoned(boolean removeAbandoned) {
+        this.removeAbandoned = removeAbandoned;
+    }
+}
@@ -0,0 +1,121 @@
+package com.haulmont.testtask3.config;
+
+import com.haulmont.testtask3.dao.implementations.DoctorDaoImpl;
+import com.haulmont.testtask3.dao.implementations.PatientDaoImpl;
+import com.haulmont.testtask3.dao.implementations.RecipeDaoImpl;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.exceptions.ImportException;
+import com.haulmont.testtask3.services.imports.ImportProgress;
+import com.haulmont.testtask3.services.imports.ImportReject;
+import com.haulmont.testtask3.services.imports.ImportType;
+import com.haulmont.testtask3.services.implementations.ImportServiceImpl;
+import com.haulmont.testtask3.services.validation.EntityValidator;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline bulk import of CSV files into the application database, run while the application is stopped:
+ * <pre>
+ * CsvImportCommand doctors=doctors.csv patients=patients.csv recipes=recipes.csv
+ * </pre>
+ * Files are imported in the order doctors, patients, recipes, so recipes may reference the doctors and
+ * patients imported by the same run. Rejected records are printed to the standard error.
+ * The storage profile of the database is passed as {@code -Ddatasource.storage.profile=file-cached-tables},
+ * the default one is used otherwise.
+ */
+public class CsvImportCommand {
+    private static final String STORAGE_PROFILE_PROPERTY = "datasource.storage.profile";
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private CsvImportCommand() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Map<ImportType, Path> files = new EnumMap<>(ImportType.class);
+        for (String arg : args) {
+            int separatorIndex = arg.indexOf('=');
+            ImportType type = separatorIndex < 0 ? null : parseType(arg.substring(0, separatorIndex));
+            if (type == null) {
+                System.err.println("Usage: CsvImportCommand [doctors=<file>] [patients=<file>] [recipes=<file>]");
+                System.exit(2);
+            }
+            files.put(type, Paths.get(arg.substring(separatorIndex + 1)));
+        }
+
+        boolean imported = true;
+        StorageProperties storageProperties = new StorageProperties();
+        String storageProfile = System.getProperty(STORAGE_PROFILE_PROPERTY);
+        if (storageProfile != null) {
+            storageProperties.setProfile(StorageProperties.StorageProfile.valueOf(
+                    storageProfile.toUpperCase(Locale.ROOT).replace('-', '_')));
+        }
+        BasicDataSource pool = AppConfig.configureConnectionPool(new ConnectionPoolProperties(), storageProperties);
+        try {
+            new SchemaMigrator(pool).migrate();
+            new StorageConfigurer(pool, storageProperties).configure();
+            DataSource dataSource = new UnitOfWorkDataSource(pool);
+            RecipeDaoImpl recipeDao = new RecipeDaoImpl(dataSource);
+            recipeDao.initialize();
+            Validator validator = new EntityValidator(Validation.buildDefaultValidatorFactory().getValidator());
+            ImportServiceImpl importService = new ImportServiceImpl(new DoctorDaoImpl(dataSource),
+                    new PatientDaoImpl(dataSource), recipeDao, validator, new EntityChangeBroadcaster());
+            importService.setTransactionManager(new DataSourceTransactionManager(dataSource));
+
+            for (Map.Entry<ImportType, Path> file : files.entrySet()) {
+                imported = importFile(importService, file.getKey(), file.getValue());
+                if (!imported) {
+                    break;
+                }
+            }
+        } finally {
+            pool.close();
+        }
+        if (!imported) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean importFile(ImportServiceImpl importService, ImportType type, Path file) {
+        long[] lastPrintedAt = {System.nanoTime()};
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            ImportProgress progress = importService.importCsv(type, reader, current -> {
+                long now = System.nanoTime();
+                if (now - lastPrintedAt[0] >= PROGRESS_INTERVAL_NANOS) {
+                    lastPrintedAt[0] = now;
+                    System.out.println(current);
+                }
+            });
+            for (ImportReject reject : progress.getRejects()) {
+                System.err.println(file + ": " + reject);
+            }
+            System.out.println(progress + " in " + progress.getElapsedMillis() + " ms");
+            return true;
+        } catch (ImportException | IOException e) {
+            System.err.println(file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static ImportType parseType(String name) {
+        try {
+            return ImportType.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.haulmont.testtask3.config;
+
+import com.haulmont.testtask3.dao.cache.CacheStats;
+import com.haulmont.testtask3.dao.cache.CachingDoctorDao;
+import com.haulmont.testtask3.dao.cache.CachingPatientDao;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Publishes hits, misses, evictions and sizes of the DAO entity caches, tagged by the entity.
+ */
+@Component
+@ConditionalOnProperty(prefix = "dao.cache", name = "enabled", havingValue = "true")
+public class DaoCacheMetrics implements MeterBinder {
+    private static final String ENTITY_TAG = "entity";
+
+    private final CachingDoctorDao doctorDao;
+    private final CachingPatientDao patientDao;
+
+    @Autowired
+    public DaoCacheMetrics(CachingDoctorDao doctorDao, CachingPatientDao patientDao) {
+        this.doctorDao = doctorDao;
+        this.patientDao = patientDao;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindTo(registry, "doctor", doctorDao, CachingDoctorDao::getCacheStats);
+        bindTo(registry, "patient", patientDao, CachingPatientDao::getCacheStats);
+    }
+
+    private static <T> void bindTo(MeterRegistry registry, String entity, T dao, Function<T, CacheStats> stats) {
+        FunctionCounter.builder("dao.cache.hits", dao, d -> stats.apply(d).getHitCount())
+                .description("Entities returned from the cache")
+                .tag(ENTITY_TAG, entity)
+                .register(registry);
+        FunctionCounter.builder("dao.cache.misses", dao, d -> stats.apply(d).getMissCount())
+                .description("Entities read from the database because they weren't cached")
+                .tag(ENTITY_TAG, entity)
+                .register(registry);
+        FunctionCounter.builder("dao.cache.evictions", dao, d -> stats.apply(d).getEvictionCount())
+                .description("Entries removed because of the size limit or expiration")
+                .tag(ENTITY_TAG, entity)
+                .register(registry);
+        Gauge.builder("dao.cache.size", dao, d -> stats.apply(d).getSize())
+                .description("Cached entries")
+                .tag(ENTITY_TAG, entity)
+                .register(registry);
+    }
+}
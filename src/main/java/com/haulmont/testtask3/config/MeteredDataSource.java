@@ -0,0 +1,80 @@
+package com.haulmont.testtask3.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * {@link DataSource} wrapper which measures how long callers wait for a connection
+ * and counts the connections taken from the pool.
+ */
+public class MeteredDataSource extends DelegatingDataSource {
+    private final AtomicInteger waitingQty = new AtomicInteger();
+    private final AtomicLong acquiredQty = new AtomicLong();
+    private volatile LongConsumer acquireTimeListener = nanos -> {
+    };
+
+    public MeteredDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        waitingQty.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            Connection connection = super.getConnection();
+            acquiredQty.incrementAndGet();
+            return connection;
+        } finally {
+            waitingQty.decrementAndGet();
+            acquireTimeListener.accept(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        waitingQty.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            Connection connection = super.getConnection(username, password);
+            acquiredQty.incrementAndGet();
+            return connection;
+        } finally {
+            waitingQty.decrementAndGet();
+            acquireTimeListener.accept(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns quantity of callers currently waiting for a connection.
+     *
+     * @return quantity of callers currently waiting for a connection.
+     */
+    public int getWaitingQty() {
+        return waitingQty.get();
+    }
+
+    /**
+     * Returns quantity of connections taken from the pool since the start.
+     *
+     * @return quantity of connections taken from the pool since the start.
+     */
+    public long getAcquiredQty() {
+        return acquiredQty.get();
+    }
+
+    /**
+     * Sets listener which receives the wait time of every connection request in nanoseconds.
+     *
+     * @param acquireTimeListener wait time listener
+     */
+    public void setAcquireTimeListener(LongConsumer acquireTimeListener) {
+        this.acquireTimeListener = acquireTimeListener;
+    }
+}
@@ -0,0 +1,65 @@
+package com.haulmont.testtask3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the group-commit write path of new recipes, bound from {@code service.recipe-write-behind.*}
+ * properties.
+ */
+@ConfigurationProperties(prefix = "service.recipe-write-behind")
+public class RecipeWriteBehindProperties {
+
+    /**
+     * Whether new recipes added through the asynchronous service are written in groups with one commit per group.
+     */
+    private boolean enabled;
+
+    /**
+     * Max quantity of recipes waiting to be written, further recipes are rejected.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Max quantity of recipes written with one commit.
+     */
+    private int maxGroupSize = 256;
+
+    /**
+     * Max time the first recipe of a group waits for more recipes before the group is written.
+     */
+    private Duration maxDelay = Duration.ofMillis(2);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxGroupSize() {
+        return maxGroupSize;
+    }
+
+    public void setMaxGroupSize(int maxGroupSize) {
+        this.maxGroupSize = maxGroupSize;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public void setMaxDelay(Duration maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+}
@@ -0,0 +1,221 @@
+package com.haulmont.testtask3.config;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.FileCopyUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned schema migration runner.
+ * <p>
+ * Applies {@code V<version>__<description>.sql} scripts in version order and records each of them
+ * in the {@code schema_version} table. Already applied scripts are skipped, but their checksums are compared
+ * with the recorded ones, so an edited script stops the startup instead of silently diverging.
+ * <p>
+ * A migration isn't atomic under HSQLDB: every DDL statement commits the transaction as it runs, so only
+ * the statements after the last DDL one are rolled back if a script fails. Scripts are therefore written
+ * to be re-runnable, e.g. with {@code if not exists}, so the next start completes a migration which failed
+ * halfway instead of failing on the already applied statements.
+ */
+public class SchemaMigrator {
+    public static final String DEFAULT_LOCATION = "classpath:db/migration/";
+
+    private static final String TABLE_NAME = "schema_version";
+    private static final String VERSION_FIELD = "version";
+    private static final String DESCRIPTION_FIELD = "description";
+    private static final String CHECKSUM_FIELD = "checksum";
+    private static final String INSTALLED_ON_FIELD = "installed_on";
+
+    private static final Pattern SCRIPT_NAME_PATTERN = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private final DataSource dataSource;
+    private final String location;
+
+    public SchemaMigrator(DataSource dataSource) {
+        this(dataSource, DEFAULT_LOCATION);
+    }
+
+    public SchemaMigrator(DataSource dataSource, String location) {
+        this.dataSource = dataSource;
+        this.location = location;
+    }
+
+    /**
+     * Applies pending migrations.
+     *
+     * @return quantity of applied migrations, {@code 0} if the schema is already current.
+     * @throws IllegalStateException if an applied script was changed, is missing, or a migration fails
+     */
+    public int migrate() {
+        Map<Integer, Migration> migrations = findMigrations();
+        try (Connection connection = dataSource.getConnection()) {
+            createVersionTable(connection);
+            Map<Integer, Long> appliedChecksums = getAppliedChecksums(connection);
+            validate(migrations, appliedChecksums);
+
+            int appliedQty = 0;
+            for (Migration migration : migrations.values()) {
+                if (!appliedChecksums.containsKey(migration.version)) {
+                    apply(connection, migration);
+                    appliedQty++;
+                }
+            }
+            return appliedQty;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema migration failed", e);
+        }
+    }
+
+    /**
+     * Returns migration scripts found in the location, ordered by version.
+     *
+     * @return migration scripts by version.
+     */
+    private Map<Integer, Migration> findMigrations() {
+        Map<Integer, Migration> migrations = new TreeMap<>();
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(location + "V*__*.sql");
+            for (Resource resource : resources) {
+                Matcher matcher = SCRIPT_NAME_PATTERN.matcher(resource.getFilename());
+                if (!matcher.matches()) {
+                    throw new IllegalStateException("Invalid migration script name: " + resource.getFilename());
+                }
+
+                Migration migration = new Migration(Integer.parseInt(matcher.group(1)),
+                        matcher.group(2).replace('_', ' '), resource, getChecksum(resource));
+                Migration duplicate = migrations.put(migration.version, migration);
+                if (duplicate != null) {
+                    throw new IllegalStateException("Duplicate migration version " + migration.version + ": "
+                            + duplicate.resource.getFilename() + ", " + resource.getFilename());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Migration scripts can't be read from " + location, e);
+        }
+        return migrations;
+    }
+
+    /**
+     * Checks that every applied migration still exists and is unchanged.
+     *
+     * @param migrations       available migrations by version
+     * @param appliedChecksums checksums of the applied migrations by version
+     */
+    private void validate(Map<Integer, Migration> migrations, Map<Integer, Long> appliedChecksums) {
+        for (Map.Entry<Integer, Long> applied : appliedChecksums.entrySet()) {
+            Migration migration = migrations.get(applied.getKey());
+            if (migration == null) {
+                throw new IllegalStateException("Applied migration " + applied.getKey() + " is missing");
+            }
+            if (migration.checksum != applied.getValue()) {
+                throw new IllegalStateException("Checksum mismatch of applied migration "
+                        + migration.resource.getFilename());
+            }
+        }
+    }
+
+    private void createVersionTable(Connection connection) throws SQLException {
+        String query = "create table if not exists" + " " + TABLE_NAME + "("
+                + VERSION_FIELD + " " + "int primary key not null," + " "
+                + DESCRIPTION_FIELD + " " + "varchar(200) not null," + " "
+                + CHECKSUM_FIELD + " " + "bigint not null," + " "
+                + INSTALLED_ON_FIELD + " " + "timestamp default current_timestamp not null"
+                + ")";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(query);
+        }
+    }
+
+    private Map<Integer, Long> getAppliedChecksums(Connection connection) throws SQLException {
+        String query = "select" + " " + VERSION_FIELD + "," + " " + CHECKSUM_FIELD + " " + "from" + " " + TABLE_NAME;
+        Map<Integer, Long> checksums = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                checksums.put(resultSet.getInt(1), resultSet.getLong(2));
+            }
+        }
+        return checksums;
+    }
+
+    /**
+     * Runs the specified script and records it. The record is committed together with the data changes
+     * made after the last DDL statement of the script, the earlier statements stay applied if it fails.
+     *
+     * @param connection connection to be used
+     * @param migration  migration to be applied
+     * @throws SQLException if the transaction can't be controlled
+     */
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        String query = "insert into" + " " + TABLE_NAME + " "
+                + "(" + VERSION_FIELD + "," + DESCRIPTION_FIELD + "," + CHECKSUM_FIELD + ")" + " "
+                + "values (?, ?, ?)";
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.resource, StandardCharsets.UTF_8));
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                preparedStatement.setInt(1, migration.version);
+                preparedStatement.setString(2, migration.description);
+                preparedStatement.setLong(3, migration.checksum);
+                preparedStatement.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw new IllegalStateException("Migration " + migration.resource.getFilename() + " failed", e);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Returns CRC32 of the script text with normalized line endings.
+     *
+     * @param resource script
+     * @return CRC32 of the script text.
+     * @throws IOException if the script can't be read
+     */
+    private static long getChecksum(Resource resource) throws IOException {
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            String script = FileCopyUtils.copyToString(reader).replace("\r\n", "\n");
+            CRC32 crc32 = new CRC32();
+            crc32.update(script.getBytes(StandardCharsets.UTF_8));
+            return crc32.getValue();
+        }
+    }
+
+    /**
+     * Migration script.
+     */
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final Resource resource;
+        private final long checksum;
+
+        private Migration(int version, String description, Resource resource, long checksum) {
+            this.version = version;
+            this.description = description;
+            this.resource = resource;
+            this.checksum = checksum;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.haulmont.testtask3.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Bounded executor of asynchronous service calls.
+ * <p>
+ * Runs tasks on a fixed quantity of threads created by a pluggable {@link ThreadFactory},
+ * rejects tasks when its queue is full and measures how long tasks wait in the queue.
+ */
+public class ServiceExecutor extends ThreadPoolExecutor {
+    private final LongAdder rejectedQty = new LongAdder();
+    private volatile LongConsumer queueTimeListener = nanos -> {
+    };
+
+    public ServiceExecutor(int poolSize, int queueCapacity, ThreadFactory threadFactory) {
+        super(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long queuedAt = System.nanoTime();
+        try {
+            super.execute(() -> {
+                queueTimeListener.accept(System.nanoTime() - queuedAt);
+                command.run();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedQty.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns quantity of tasks rejected because the queue was full.
+     *
+     * @return quantity of tasks rejected because the queue was full.
+     */
+    public long getRejectedQty() {
+        return rejectedQty.sum();
+    }
+
+    /**
+     * Sets listener which receives the queue wait time of every task in nanoseconds.
+     *
+     * @param queueTimeListener queue wait time listener
+     */
+    public void setQueueTimeListener(LongConsumer queueTimeListener) {
+        this.queueTimeListener = queueTimeListener;
+    }
+}
@@ -0,0 +1,49 @@
+package com.haulmont.testtask3.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes service executor gauges and the queue wait time histogram.
+ */
+@Component
+public class ServiceExecutorMetrics implements MeterBinder {
+    private final ServiceExecutor executor;
+
+    @Autowired
+    public ServiceExecutorMetrics(ServiceExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("service.executor.active", executor, ServiceExecutor::getActiveCount)
+                .description("Threads running service calls")
+                .register(registry);
+        Gauge.builder("service.executor.queued", executor, e -> e.getQueue().size())
+                .description("Service calls waiting for a free thread")
+                .register(registry);
+        Gauge.builder("service.executor.max", executor, ServiceExecutor::getMaximumPoolSize)
+                .description("Max quantity of threads")
+                .register(registry);
+        FunctionCounter.builder("service.executor.completed", executor, ServiceExecutor::getCompletedTaskCount)
+                .description("Finished service calls")
+                .register(registry);
+        FunctionCounter.builder("service.executor.rejected", executor, ServiceExecutor::getRejectedQty)
+                .description("Service calls rejected because the queue was full")
+                .register(registry);
+
+        Timer queueTimer = Timer.builder("service.executor.queue")
+                .description("Time a service call waits for a free thread")
+                .publishPercentileHistogram()
+                .register(registry);
+        executor.setQueueTimeListener(nanos -> queueTimer.record(nanos, TimeUnit.NANOSECONDS));
+    }
+}
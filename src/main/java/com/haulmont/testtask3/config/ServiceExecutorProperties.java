@@ -0,0 +1,100 @@
+package com.haulmont.testtask3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Settings of the executor which runs asynchronous service calls, bound from {@code service.executor.*} properties.
+ */
+@ConfigurationProperties(prefix = "service.executor")
+public class ServiceExecutorProperties {
+
+    /**
+     * Quantity of threads running service calls.
+     */
+    private int poolSize = 8;
+
+    /**
+     * Max quantity of service calls waiting for a free thread, further calls are rejected.
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Kind of threads running service calls.
+     */
+    private ThreadType threadType = ThreadType.PLATFORM;
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public ThreadType getThreadType() {
+        return threadType;
+    }
+
+    public void setThreadType(ThreadType threadType) {
+        this.threadType = threadType;
+    }
+
+    /**
+     * Kind of threads created by {@link ThreadType#createThreadFactory(String)}.
+     */
+    public enum ThreadType {
+
+        /**
+         * Daemon platform threads.
+         */
+        PLATFORM {
+            @Override
+            public ThreadFactory createThreadFactory(String namePrefix) {
+                AtomicInteger threadQty = new AtomicInteger();
+                return runnable -> {
+                    Thread thread = new Thread(runnable, namePrefix + threadQty.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+            }
+        },
+
+        /**
+         * Virtual threads, available since Java 21.
+         */
+        VIRTUAL {
+            @Override
+            public ThreadFactory createThreadFactory(String namePrefix) {
+                try {
+                    Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                    Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                    Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+                    builder = nameMethod.invoke(builder, namePrefix, 0L);
+                    return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Virtual threads are not supported by this Java version", e);
+                }
+            }
+        };
+
+        /**
+         * Returns thread factory which names threads with the specified prefix followed by a sequence number.
+         *
+         * @param namePrefix thread name prefix
+         * @return thread factory which names threads with the specified prefix followed by a sequence number.
+         */
+        public abstract ThreadFactory createThreadFactory(String namePrefix);
+    }
+}
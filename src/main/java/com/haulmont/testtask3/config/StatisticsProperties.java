@@ -0,0 +1,38 @@
+package com.haulmont.testtask3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the cached recipe statistics, bound from {@code service.statistics.*} properties.
+ */
+@ConfigurationProperties(prefix = "service.statistics")
+public class StatisticsProperties {
+
+    /**
+     * Time after which cached statistics are recomputed even if no recipe was changed through the services.
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+
+    /**
+     * Max time a caller waits for the statistics being recomputed before it gets the previous ones.
+     */
+    private Duration maxWait = Duration.ofMillis(200);
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+}
@@ -0,0 +1,49 @@
+package com.haulmont.testtask3.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Periodically writes the whole database to its files and empties the change log, so the log doesn't grow
+ * between restarts and the data file doesn't keep the space of deleted rows.
+ */
+@Component
+public class StorageCheckpoint {
+    private static final String CHECKPOINT_QUERY = "checkpoint defrag";
+
+    private final DataSource dataSource;
+    private final StorageProperties storageProperties;
+
+    @Autowired
+    public StorageCheckpoint(DataSource dataSource, StorageProperties storageProperties) {
+        this.dataSource = dataSource;
+        this.storageProperties = storageProperties;
+    }
+
+    /**
+     * Performs {@code CHECKPOINT DEFRAG} unless the database is in memory. Other statements wait while it runs.
+     *
+     * @return whether the checkpoint was performed.
+     */
+    @Scheduled(cron = "${datasource.storage.checkpoint-cron:0 0 3 * * *}")
+    public boolean checkpoint() {
+        if (!storageProperties.getProfile().isPersistent()) {
+            return false;
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(CHECKPOINT_QUERY);
+            return true;
+        } catch (SQLException throwables) {
+            throwables.printStackTrace();
+            return false;
+        }
+    }
+}
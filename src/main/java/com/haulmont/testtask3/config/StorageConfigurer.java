@@ -0,0 +1,76 @@
+package com.haulmont.testtask3.config;
+
+import com.haulmont.testtask3.config.StorageProperties.StorageProfile;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies {@link StorageProperties} to the database, run on startup after the schema migration.
+ * <p>
+ * HSQLDB keeps these settings in the database files, so they are reapplied every time to follow
+ * the configuration. Tables of another type than the profile's one are converted, which rewrites them once.
+ */
+public class StorageConfigurer {
+    private static final String TABLES_QUERY = "select table_name, hsqldb_type"
+            + " " + "from information_schema.system_tables"
+            + " " + "where table_schem = 'PUBLIC' and table_type = 'TABLE'";
+
+    private final DataSource dataSource;
+    private final StorageProperties storageProperties;
+
+    public StorageConfigurer(DataSource dataSource, StorageProperties storageProperties) {
+        this.dataSource = dataSource;
+        this.storageProperties = storageProperties;
+    }
+
+    /**
+     * Applies the storage settings.
+     *
+     * @return quantity of the converted tables.
+     * @throws IllegalStateException if a setting can't be applied
+     */
+    public int configure() {
+        StorageProfile profile = storageProperties.getProfile();
+        if (!profile.isPersistent()) {
+            return 0;
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("set files log size" + " " + storageProperties.getLogSize().toMegabytes());
+            statement.execute("set files write delay" + " " + storageProperties.getWriteDelay().toMillis()
+                    + " " + "millis");
+            statement.execute("set database default table type" + " " + profile.getTableType());
+            if (profile == StorageProfile.FILE_CACHED_TABLES) {
+                statement.execute("set files cache size" + " " + storageProperties.getCacheSize().toKilobytes());
+                statement.execute("set files cache rows" + " " + storageProperties.getCacheRows());
+            }
+
+            List<String> convertedTables = getTablesOfOtherType(statement, profile.getTableType());
+            for (String tableName : convertedTables) {
+                statement.execute("set table" + " " + tableName + " " + "type" + " " + profile.getTableType());
+            }
+            return convertedTables.size();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Storage settings can't be applied", e);
+        }
+    }
+
+    private static List<String> getTablesOfOtherType(Statement statement, String tableType) throws SQLException {
+        List<String> tableNames = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery(TABLES_QUERY)) {
+            while (resultSet.next()) {
+                if (!tableType.equals(resultSet.getString(2))) {
+                    tableNames.add(resultSet.getString(1));
+                }
+            }
+        }
+        return tableNames;
+    }
+}
@@ -0,0 +1,149 @@
+package com.haulmont.testtask3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the HSQLDB storage, bound from {@code datasource.storage.*} properties.
+ */
+@ConfigurationProperties(prefix = "datasource.storage")
+public class StorageProperties {
+
+    /**
+     * Where and how the tables are stored.
+     */
+    private StorageProfile profile = StorageProfile.FILE_MEMORY_TABLES;
+
+    /**
+     * Path of the database files without extension, or database name for {@link StorageProfile#IN_MEMORY}.
+     */
+    private String path = "db/data";
+
+    /**
+     * Max total size of the cached table rows held in memory, {@link StorageProfile#FILE_CACHED_TABLES} only.
+     */
+    private DataSize cacheSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Max quantity of the cached table rows held in memory, {@link StorageProfile#FILE_CACHED_TABLES} only.
+     */
+    private int cacheRows = 100_000;
+
+    /**
+     * Size of the change log after which a checkpoint is performed automatically.
+     */
+    private DataSize logSize = DataSize.ofMegabytes(50);
+
+    /**
+     * Delay of the change log sync to disk, changes of the last delay may be lost on a crash.
+     */
+    private Duration writeDelay = Duration.ofMillis(500);
+
+    public StorageProfile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(StorageProfile profile) {
+        this.profile = profile;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public DataSize getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(DataSize cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public int getCacheRows() {
+        return cacheRows;
+    }
+
+    public void setCacheRows(int cacheRows) {
+        this.cacheRows = cacheRows;
+    }
+
+    public DataSize getLogSize() {
+        return logSize;
+    }
+
+    public void setLogSize(DataSize logSize) {
+        this.logSize = logSize;
+    }
+
+    public Duration getWriteDelay() {
+        return writeDelay;
+    }
+
+    public void setWriteDelay(Duration writeDelay) {
+        this.writeDelay = writeDelay;
+    }
+
+    /**
+     * HSQLDB storage profile.
+     */
+    public enum StorageProfile {
+
+        /**
+         * Nothing is written to disk, the data is lost on shutdown. For tests and benchmarks.
+         */
+        IN_MEMORY("jdbc:hsqldb:mem:", null),
+
+        /**
+         * Tables are held in memory and loaded from the script file on startup,
+         * so startup time and heap grow with the data.
+         */
+        FILE_MEMORY_TABLES("jdbc:hsqldb:file:", "MEMORY"),
+
+        /**
+         * Tables are stored in the data file, only the cache of recently used rows is held in memory.
+         */
+        FILE_CACHED_TABLES("jdbc:hsqldb:file:", "CACHED");
+
+        /**
+         * Database is closed once its last connection is closed, so the change log is not replayed on startup.
+         */
+        private static final String FILE_URL_SUFFIX = ";shutdown=true";
+
+        private final String urlPrefix;
+        private final String tableType;
+
+        StorageProfile(String urlPrefix, String tableType) {
+            this.urlPrefix = urlPrefix;
+            this.tableType = tableType;
+        }
+
+        /**
+         * Returns JDBC URL of the database.
+         *
+         * @param path path of the database files or name of the in-memory database
+         * @return JDBC URL of the database.
+         */
+        public String getUrl(String path) {
+            return isPersistent() ? urlPrefix + path + FILE_URL_SUFFIX : urlPrefix + path;
+        }
+
+        /**
+         * Returns HSQLDB type of the tables.
+         *
+         * @return {@code MEMORY} or {@code CACHED}, {@code null} if the type doesn't matter.
+         */
+        public String getTableType() {
+            return tableType;
+        }
+
+        public boolean isPersistent() {
+            return this != IN_MEMORY;
+        }
+    }
+}
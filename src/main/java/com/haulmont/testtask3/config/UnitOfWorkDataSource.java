@@ -0,0 +1,63 @@
+package com.haulmont.testtask3.config;
+
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+
+/**
+ * {@link DataSource} which lets DAOs take part in the transaction of the calling service method.
+ * <p>
+ * Inside a transaction started by the transaction manager, every connection request returns the
+ * connection of the transaction, so a service method makes all its queries on one connection.
+ * The local transaction handling of the DAOs is ignored then: {@code setAutoCommit} and {@code commit}
+ * do nothing, {@code rollback} marks the whole transaction rollback-only and {@code close} keeps the connection
+ * open until the transaction ends. Outside a transaction connections behave as usual.
+ */
+public class UnitOfWorkDataSource extends TransactionAwareDataSourceProxy {
+
+    public UnitOfWorkDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    protected Connection getTransactionAwareConnectionProxy(DataSource targetDataSource) {
+        Connection connection = super.getTransactionAwareConnectionProxy(targetDataSource);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(UnitOfWorkDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setAutoCommit":
+                        case "commit":
+                            return null;
+                        case "rollback":
+                            if (args == null) {
+                                markRollbackOnly(targetDataSource);
+                                return null;
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private static void markRollbackOnly(DataSource targetDataSource) {
+        ConnectionHolder connectionHolder =
+                (ConnectionHolder) TransactionSynchronizationManager.getResource(targetDataSource);
+        if (connectionHolder != null) {
+            connectionHolder.setRollbackOnly();
+        }
+    }
+}
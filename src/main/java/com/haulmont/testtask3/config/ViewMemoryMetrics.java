@@ -0,0 +1,47 @@
+package com.haulmont.testtask3.config;
+
+import com.haulmont.testtask3.views.memory.RetainingView;
+import com.haulmont.testtask3.views.memory.SessionMemoryBudgets;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the estimated heap retained by the views of all sessions, tagged by the view.
+ */
+@Component
+public class ViewMemoryMetrics implements MeterBinder {
+    private static final String VIEW_TAG = "view";
+
+    private final SessionMemoryBudgets budgets;
+
+    @Autowired
+    public ViewMemoryMetrics(SessionMemoryBudgets budgets) {
+        this.budgets = budgets;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("views.memory.sessions", budgets, SessionMemoryBudgets::getSessionQty)
+                .description("Open Vaadin sessions")
+                .register(registry);
+        Gauge.builder("views.memory.session.max", budgets, SessionMemoryBudgets::getMaxSessionRetainedBytes)
+                .description("Estimated bytes retained by the views of the session retaining most")
+                .baseUnit("bytes")
+                .register(registry);
+        for (RetainingView view : RetainingView.values()) {
+            Gauge.builder("views.memory.retained", budgets, b -> b.getRetainedBytes(view))
+                    .description("Estimated bytes retained by the view in all sessions")
+                    .baseUnit("bytes")
+                    .tag(VIEW_TAG, view.getTag())
+                    .register(registry);
+            FunctionCounter.builder("views.memory.fallbacks", budgets, b -> b.getFallbackQty(view))
+                    .description("Lists paged lazily because the session budget was exhausted")
+                    .tag(VIEW_TAG, view.getTag())
+                    .register(registry);
+        }
+    }
+}
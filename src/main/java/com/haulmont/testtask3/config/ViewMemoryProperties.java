@@ -0,0 +1,24 @@
+package com.haulmont.testtask3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of the memory held by the views, bound from {@code views.memory.*} properties.
+ */
+@ConfigurationProperties(prefix = "views.memory")
+public class ViewMemoryProperties {
+
+    /**
+     * Max estimated size of the lists held by the views of one session, larger lists are paged lazily.
+     */
+    private DataSize sessionBudget = DataSize.ofMegabytes(4);
+
+    public DataSize getSessionBudget() {
+        return sessionBudget;
+    }
+
+    public void setSessionBudget(DataSize sessionBudget) {
+        this.sessionBudget = sessionBudget;
+    }
+}
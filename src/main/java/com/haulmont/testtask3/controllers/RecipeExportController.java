@@ -0,0 +1,84 @@
+package com.haulmont.testtask3.controllers;
+
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.services.exceptions.ServiceBusyException;
+import com.haulmont.testtask3.services.exports.ExportFormat;
+import com.haulmont.testtask3.services.interfaces.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Export of recipes for audits, e.g. {@code GET /api/recipes/export?format=json&priority=CITO}.
+ * <p>
+ * The recipes are streamed to the response as they are read, gzipped unless {@code gzip=false}.
+ */
+@RestController
+@RequestMapping("/api/recipes")
+public class RecipeExportController {
+    private static final String FILE_NAME = "recipes";
+    private static final String BUSY_RETRY_AFTER_SECONDS = "5";
+
+    private final ExportService exportService;
+
+    @Autowired
+    public RecipeExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "true") boolean gzip,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresBy) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        RecipeFilter filter = new RecipeFilter(patientId,
+                priority == null ? "" : priority.toUpperCase(Locale.ROOT), description == null ? "" : description);
+        filter.setExpiresAfter(expiresAfter);
+        filter.setExpiresBy(expiresBy);
+
+        ContentDisposition contentDisposition = ContentDisposition.builder("attachment")
+                .filename(exportFormat.getFileName(FILE_NAME, gzip))
+                .build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType(gzip)))
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
+                .body(outputStream -> exportService.exportRecipes(filter, exportFormat, gzip, outputStream));
+    }
+
+    /**
+     * Answers an export rejected by the admission control with {@code 503 Service Unavailable}.
+     *
+     * @param e rejection of the export
+     * @return response asking the client to retry later.
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Void> handleBusy(ServiceBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, BUSY_RETRY_AFTER_SECONDS)
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.haulmont.testtask3.dao.cache;
+
+import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.implementations.DaoTransactions;
+import com.haulmont.testtask3.dao.implementations.DoctorDaoImpl;
+import com.haulmont.testtask3.dao.interfaces.DoctorDao;
+import com.haulmont.testtask3.models.Doctor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-through caching decorator of {@link DoctorDaoImpl}.
+ * <p>
+ * Replaces the plain JDBC implementation when {@code dao.cache.enabled=true}.
+ * Writes go straight to the database and invalidate the cached entries once committed.
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(prefix = "dao.cache", name = "enabled", havingValue = "true")
+public class CachingDoctorDao implements DoctorDao {
+    private final DoctorDao doctorDao;
+    private final EntityCache<Doctor> cache;
+
+    @Autowired
+    public CachingDoctorDao(DoctorDaoImpl doctorDao, DaoCacheProperties properties) {
+        this(doctorDao, new EntityCache<>(properties.getMaxSize(), properties.getTtl(), properties.getMissingTtl()));
+    }
+
+    CachingDoctorDao(DoctorDao doctorDao, EntityCache<Doctor> cache) {
+        this.doctorDao = doctorDao;
+        this.cache = cache;
+    }
+
+    @Override
+    public Long add(Doctor entity) {
+        Long id = doctorDao.add(entity);
+        invalidate(entity);
+        return id;
+    }
+
+    @Override
+    public void addAll(Collection<Doctor> entities) {
+        doctorDao.addAll(entities);
+        entities.forEach(this::invalidate);
+    }
+
+    @Override
+    public void update(Doctor entity) throws ElementDoesNotExistException {
+        try {
+            doctorDao.update(entity);
+        } finally {
+            invalidate(entity);
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<Doctor> entities) throws ElementDoesNotExistException {
+        try {
+            doctorDao.updateAll(entities);
+        } finally {
+            entities.forEach(this::invalidate);
+        }
+    }
+
+    @Override
+    public Doctor getById(long id) throws ElementDoesNotExistException {
+        EntityCache.Entry<Doctor> entry = cache.get(id);
+        if (entry != null) {
+            if (entry.isMissing()) {
+                throw new ElementDoesNotExistException();
+            }
+            return copyOf(entry.getValue());
+        }
+
+        long generation = cache.getGeneration(id);
+        try {
+            Doctor doctor = doctorDao.getById(id);
+            cache.put(id, copyOf(doctor), generation);
+            return doctor;
+        } catch (ElementDoesNotExistException e) {
+            cache.putMissing(id, generation);
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(Doctor entity) throws ElementDoesNotExistException {
+        try {
+            doctorDao.delete(entity);
+        } finally {
+            invalidate(entity);
+        }
+    }
+
+    @Override
+    public List<Doctor> getAll() {
+        return doctorDao.getAll();
+    }
+
+    @Override
+    public List<Doctor> getPage(int offset, int limit) {
+        return doctorDao.getPage(offset, limit);
+    }
+
+    @Override
+    public List<Doctor> getPageAfter(long afterId, int limit) {
+        return doctorDao.getPageAfter(afterId, limit);
+    }
+
+    @Override
+    public int getCount() {
+        return doctorDao.getCount();
+    }
+
+    @Override
+    public List<Doctor> findByName(String term, int limit) {
+        return doctorDao.findByName(term, limit);
+    }
+
+    /**
+     * Returns snapshot of the hit, miss and eviction counters.
+     *
+     * @return snapshot of the cache counters.
+     */
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Invalidates cached entry of the specified doctor once the current transaction commits, so a concurrent
+     * read can't cache the state replaced by the transaction.
+     *
+     * @param entity written doctor
+     */
+    private void invalidate(Doctor entity) {
+        Long id = entity.getId();
+        if (id != null) {
+            DaoTransactions.afterCommit(() -> cache.invalidate(id));
+        }
+    }
+
+    /**
+     * Returns copy of the specified doctor, so callers can't modify cached instances.
+     *
+     * @param doctor doctor to be copied
+     * @return copy of the specified doctor.
+     */
+    private static Doctor copyOf(Doctor doctor) {
+        Doctor copy = new Doctor();
+        copy.setId(doctor.getId());
+        copy.setVersion(doctor.getVersion());
+        copy.setName(doctor.getName());
+        copy.setSurname(doctor.getSurname());
+        copy.setPatronymic(doctor.getPatronymic());
+        copy.setSpecialization(doctor.getSpecialization());
+        return copy;
+    }
+}
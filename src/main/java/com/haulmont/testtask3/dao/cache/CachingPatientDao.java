@@ -0,0 +1,163 @@
+package com.haulmont.testtask3.dao.cache;
+
+import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.implementations.DaoTransactions;
+import com.haulmont.testtask3.dao.implementations.PatientDaoImpl;
+import com.haulmont.testtask3.dao.interfaces.PatientDao;
+import com.haulmont.testtask3.models.Patient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-through caching decorator of {@link PatientDaoImpl}.
+ * <p>
+ * Replaces the plain JDBC implementation when {@code dao.cache.enabled=true}.
+ * Writes go straight to the database and invalidate the cached entries once committed.
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(prefix = "dao.cache", name = "enabled", havingValue = "true")
+public class CachingPatientDao implements PatientDao {
+    private final PatientDao patientDao;
+    private final EntityCache<Patient> cache;
+
+    @Autowired
+    public CachingPatientDao(PatientDaoImpl patientDao, DaoCacheProperties properties) {
+        this(patientDao, new EntityCache<>(properties.getMaxSize(), properties.getTtl(), properties.getMissingTtl()));
+    }
+
+    CachingPatientDao(PatientDao patientDao, EntityCache<Patient> cache) {
+        this.patientDao = patientDao;
+        this.cache = cache;
+    }
+
+    @Override
+    public Long add(Patient entity) {
+        Long id = patientDao.add(entity);
+        invalidate(entity);
+        return id;
+    }
+
+    @Override
+    public void addAll(Collection<Patient> entities) {
+        patientDao.addAll(entities);
+        entities.forEach(this::invalidate);
+    }
+
+    @Override
+    public void update(Patient entity) throws ElementDoesNotExistException {
+        try {
+            patientDao.update(entity);
+        } finally {
+            invalidate(entity);
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<Patient> entities) throws ElementDoesNotExistException {
+        try {
+            patientDao.updateAll(entities);
+        } finally {
+            entities.forEach(this::invalidate);
+        }
+    }
+
+    @Override
+    public Patient getById(long id) throws ElementDoesNotExistException {
+        EntityCache.Entry<Patient> entry = cache.get(id);
+        if (entry != null) {
+            if (entry.isMissing()) {
+                throw new ElementDoesNotExistException();
+            }
+            return copyOf(entry.getValue());
+        }
+
+        long generation = cache.getGeneration(id);
+        try {
+            Patient patient = patientDao.getById(id);
+            cache.put(id, copyOf(patient), generation);
+            return patient;
+        } catch (ElementDoesNotExistException e) {
+            cache.putMissing(id, generation);
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(Patient entity) throws ElementDoesNotExistException {
+        try {
+            patientDao.delete(entity);
+        } finally {
+            invalidate(entity);
+        }
+    }
+
+    @Override
+    public List<Patient> getAll() {
+        return patientDao.getAll();
+    }
+
+    @Override
+    public List<Patient> getPage(int offset, int limit) {
+        return patientDao.getPage(offset, limit);
+    }
+
+    @Override
+    public List<Patient> getPageAfter(long afterId, int limit) {
+        return patientDao.getPageAfter(afterId, limit);
+    }
+
+    @Override
+    public int getCount() {
+        return patientDao.getCount();
+    }
+
+    @Override
+    public List<Patient> findByName(String term, int limit) {
+        return patientDao.findByName(term, limit);
+    }
+
+    /**
+     * Returns snapshot of the hit, miss and eviction counters.
+     *
+     * @return snapshot of the cache counters.
+     */
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Invalidates cached entry of the specified patient once the current transaction commits, so a concurrent
+     * read can't cache the state replaced by the transaction.
+     *
+     * @param entity written patient
+     */
+    private void invalidate(Patient entity) {
+        Long id = entity.getId();
+        if (id != null) {
+            DaoTransactions.afterCommit(() -> cache.invalidate(id));
+        }
+    }
+
+    /**
+     * Returns copy of the specified patient, so callers can't modify cached instances.
+     *
+     * @param patient patient to be copied
+     * @return copy of the specified patient.
+     */
+    private static Patient copyOf(Patient patient) {
+        Patient copy = new Patient();
+        copy.setId(patient.getId());
+        copy.setVersion(patient.getVersion());
+        copy.setName(patient.getName());
+        copy.setSurname(patient.getSurname());
+        copy.setPatronymic(patient.getPatronymic());
+        copy.setPhoneNumber(patient.getPhoneNumber());
+        return copy;
+    }
+}
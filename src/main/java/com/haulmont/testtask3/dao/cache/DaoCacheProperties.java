@@ -0,0 +1,64 @@
+package com.haulmont.testtask3.dao.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the DAO entity caches, bound from {@code dao.cache.*} properties.
+ */
+@ConfigurationProperties(prefix = "dao.cache")
+public class DaoCacheProperties {
+
+    /**
+     * Whether {@link CachingDoctorDao} and {@link CachingPatientDao} replace the plain JDBC DAOs.
+     */
+    private boolean enabled;
+
+    /**
+     * Max quantity of entries in one cache.
+     */
+    private int maxSize = 10_000;
+
+    /**
+     * Time to live of a cached entity.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Time to live of a cached missing id, zero disables negative caching.
+     */
+    private Duration missingTtl = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getMissingTtl() {
+        return missingTtl;
+    }
+
+    public void setMissingTtl(Duration missingTtl) {
+        this.missingTtl = missingTtl;
+    }
+}
@@ -0,0 +1,201 @@
+package com.haulmont.testtask3.dao.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of entities keyed by id.
+ * <p>
+ * Besides entities it caches ids known to be missing, those expire after their own (usually shorter) TTL.
+ * <p>
+ * A read-through caller takes the generation of the id before reading the database and caches the result
+ * only if the id wasn't invalidated meanwhile, so a slow read can't put back an entity replaced by a write.
+ * Generations are kept per stripe of ids, an invalidation of another id of the stripe only skips the put.
+ *
+ * @param <V> entity type
+ */
+public class EntityCache<V> {
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long missingTtlNanos;
+    private final LongSupplier nanoClock;
+
+    private final LinkedHashMap<Long, Entry<V>> entries;
+    private final long[] generations = new long[GENERATION_STRIPES];
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public EntityCache(int maxSize, Duration ttl, Duration missingTtl) {
+        this(maxSize, ttl, missingTtl, System::nanoTime);
+    }
+
+    EntityCache(int maxSize, Duration ttl, Duration missingTtl, LongSupplier nanoClock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.missingTtlNanos = missingTtl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns cached entry with the specified id.
+     *
+     * @param id entity id
+     * @return cached entry or {@code null} if there is no live entry with the specified id.
+     */
+    public synchronized Entry<V> get(long id) {
+        Entry<V> entry = entries.get(id);
+        if (entry != null && entry.expiresAt - nanoClock.getAsLong() <= 0) {
+            entries.remove(id);
+            evictions++;
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return entry;
+    }
+
+    /**
+     * Caches specified entity.
+     *
+     * @param id     entity id
+     * @param entity entity to be cached
+     */
+    public synchronized void put(long id, V entity) {
+        store(id, new Entry<>(entity, nanoClock.getAsLong() + ttlNanos));
+    }
+
+    /**
+     * Caches specified entity read from the database unless the id was invalidated since the read started.
+     *
+     * @param id         entity id
+     * @param entity     entity to be cached
+     * @param generation generation of the id taken before the read
+     */
+    public synchronized void put(long id, V entity, long generation) {
+        if (generations[getStripe(id)] == generation) {
+            put(id, entity);
+        }
+    }
+
+    /**
+     * Caches the fact that there is no entity with the specified id.
+     *
+     * @param id missing entity id
+     */
+    public synchronized void putMissing(long id) {
+        if (missingTtlNanos > 0) {
+            store(id, new Entry<>(null, nanoClock.getAsLong() + missingTtlNanos));
+        }
+    }
+
+    /**
+     * Caches the fact that there is no entity with the specified id unless the id was invalidated
+     * since the read started.
+     *
+     * @param id         missing entity id
+     * @param generation generation of the id taken before the read
+     */
+    public synchronized void putMissing(long id, long generation) {
+        if (generations[getStripe(id)] == generation) {
+            putMissing(id);
+        }
+    }
+
+    /**
+     * Returns generation of the specified id, which changes on every invalidation of the id.
+     *
+     * @param id entity id
+     * @return generation to be passed to {@link #put(long, Object, long)} after reading the entity.
+     */
+    public synchronized long getGeneration(long id) {
+        return generations[getStripe(id)];
+    }
+
+    /**
+     * Removes entry with the specified id.
+     *
+     * @param id entity id
+     */
+    public synchronized void invalidate(long id) {
+        entries.remove(id);
+        generations[getStripe(id)]++;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        for (int i = 0; i < generations.length; i++) {
+            generations[i]++;
+        }
+    }
+
+    /**
+     * Returns snapshot of the cache counters.
+     *
+     * @return snapshot of the cache counters.
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, entries.size());
+    }
+
+    private static int getStripe(long id) {
+        return (int) (id ^ (id >>> 32)) & (GENERATION_STRIPES - 1);
+    }
+
+    private void store(long id, Entry<V> entry) {
+        entries.put(id, entry);
+        Iterator<Map.Entry<Long, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Cache entry.
+     *
+     * @param <V> entity type
+     */
+    public static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Returns cached entity.
+         *
+         * @return cached entity or {@code null} if the entity is known to be missing.
+         */
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * Returns {@code true} if the entity is known to be missing.
+         *
+         * @return {@code true} if the entity is known to be missing.
+         */
+        public boolean isMissing() {
+            return value == null;
+        }
+    }
+}
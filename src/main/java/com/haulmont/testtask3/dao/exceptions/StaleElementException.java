@@ -0,0 +1,18 @@
+package com.haulmont.testtask3.dao.exceptions;
+
+/**
+ * Custom checked stale element exception.
+ * <p>
+ * Thrown by updates of an element which was changed by somebody else after it had been read,
+ * i.e. the element exists, but not in the version being updated.
+ */
+public class StaleElementException extends ElementDoesNotExistException {
+
+    public StaleElementException() {
+        super();
+    }
+
+    public StaleElementException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,54 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+
+/**
+ * Helpers tying the DAO implementations to the transaction of the calling service method.
+ * <p>
+ * Inside such a transaction the local commit of a DAO does nothing, so the in-memory state which mirrors
+ * the committed rows must be changed only once the whole transaction commits, and a failed statement must
+ * reach the caller instead of leaving the transaction silently marked rollback-only.
+ */
+public final class DaoTransactions {
+    private static final SQLStateSQLExceptionTranslator EXCEPTION_TRANSLATOR = new SQLStateSQLExceptionTranslator();
+
+    private DaoTransactions() {
+    }
+
+    /**
+     * Runs the specified action once the current transaction commits, or right away outside a transaction.
+     * The action is dropped if the transaction rolls back.
+     *
+     * @param action change of the in-memory state, e.g. an index update or a version increment
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Rethrows the specified exception as a {@link org.springframework.dao.DataAccessException}
+     * if it happened inside a transaction, so the caller learns why the transaction is rolled back.
+     * Outside a transaction does nothing and leaves the exception to the caller.
+     *
+     * @param task      description of the failed operation
+     * @param exception exception thrown by the driver
+     */
+    public static void rethrowInTransaction(String task, SQLException exception) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw EXCEPTION_TRANSLATOR.translate(task, null, exception);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index over recipe descriptions.
+ * <p>
+ * Every three consecutive characters of a description are a key of a sorted {@code int[]} list of recipe ids.
+ * A search term is looked up by intersecting the lists of its trigrams, the result is a superset of the recipes
+ * matching {@code like '%term%'}, so the caller still applies the {@code like} predicate to the candidates.
+ * Trigrams are taken from the raw characters, so matching stays case sensitive, like the SQL pattern,
+ * and works for any alphabet including Cyrillic.
+ */
+final class DescriptionIndex {
+    static final int GRAM_LENGTH = 3;
+
+    /**
+     * Max quantity of candidates worth passing to the database, for larger results scanning is cheaper.
+     */
+    static final int MAX_CANDIDATE_QTY = 50_000;
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final Map<Long, IdList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Set if an id doesn't fit posting lists, the index is never used after that.
+     */
+    private boolean overflowed;
+
+    /**
+     * Indexes description of the specified recipe.
+     *
+     * @param id          recipe id
+     * @param description recipe description
+     */
+    void add(long id, String description) {
+        lock.writeLock().lock();
+        try {
+            if (checkId(id)) {
+                for (long trigram : getTrigrams(description)) {
+                    postings.computeIfAbsent(trigram, key -> new IdList()).add((int) id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes description of the specified recipe from the index.
+     *
+     * @param id          recipe id
+     * @param description indexed recipe description
+     */
+    void remove(long id, String description) {
+        lock.writeLock().lock();
+        try {
+            if (checkId(id)) {
+                for (long trigram : getTrigrams(description)) {
+                    IdList ids = postings.get(trigram);
+                    if (ids != null && ids.remove((int) id) && ids.size == 0) {
+                        postings.remove(trigram);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces indexed description of the specified recipe.
+     *
+     * @param id             recipe id
+     * @param oldDescription indexed recipe description
+     * @param newDescription new recipe description
+     */
+    void update(long id, String oldDescription, String newDescription) {
+        if (!oldDescription.equals(newDescription)) {
+            remove(id, oldDescription);
+            add(id, newDescription);
+        }
+    }
+
+    /**
+     * Trims posting lists after bulk loading.
+     */
+    void trimToSize() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(IdList::trimToSize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of the recipes which descriptions may contain the specified term.
+     *
+     * @param term searched description part
+     * @return sorted candidate ids or {@code null} if the index can't narrow the search: the term is shorter
+     * than {@link #GRAM_LENGTH}, contains {@code like} wildcards, or matches too many recipes.
+     */
+    int[] search(String term) {
+        if (term == null || term.length() < GRAM_LENGTH || term.indexOf('%') >= 0 || term.indexOf('_') >= 0) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (overflowed) {
+                return null;
+            }
+
+            Set<Long> trigrams = getTrigrams(term);
+            IdList[] lists = new IdList[trigrams.size()];
+            int i = 0;
+            for (long trigram : trigrams) {
+                IdList ids = postings.get(trigram);
+                if (ids == null) {
+                    return NO_IDS;
+                }
+                lists[i++] = ids;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(ids -> ids.size));
+
+            int[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+            int candidateQty = candidates.length;
+            for (int j = 1; j < lists.length && candidateQty > 0; j++) {
+                candidateQty = retain(candidates, candidateQty, lists[j]);
+            }
+            return candidateQty > MAX_CANDIDATE_QTY ? null : Arrays.copyOf(candidates, candidateQty);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns distinct trigrams of the specified text, each packed into a {@code long}.
+     *
+     * @param text text to be split
+     * @return distinct trigrams of the text.
+     */
+    static Set<Long> getTrigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    private boolean checkId(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            overflowed = true;
+        }
+        return !overflowed;
+    }
+
+    /**
+     * Keeps only those of the first {@code candidateQty} candidates which are present in the specified list.
+     *
+     * @return quantity of the kept candidates.
+     */
+    private static int retain(int[] candidates, int candidateQty, IdList ids) {
+        int keptQty = 0;
+        for (int i = 0; i < candidateQty; i++) {
+            if (Arrays.binarySearch(ids.ids, 0, ids.size, candidates[i]) >= 0) {
+                candidates[keptQty++] = candidates[i];
+            }
+        }
+        return keptQty;
+    }
+}
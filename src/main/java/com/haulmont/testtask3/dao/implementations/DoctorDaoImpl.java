@@ -1,31 +1,61 @@
 package com.haulmont.testtask3.dao.implementations;
 
 import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.exceptions.StaleElementException;
 import com.haulmont.testtask3.dao.interfaces.DoctorDao;
+import com.haulmont.testtask3.dao.mappers.DoctorRowMapper;
 import com.haulmont.testtask3.models.Doctor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Primary;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of {@link DoctorDao} interface.
  */
 @Repository
-@Primary
 public class DoctorDaoImpl implements DoctorDao {
     private static final String TABLE_NAME = "doctors";
     private static final String ID_FIELD = "id";
+    private static final String VERSION_FIELD = "version";
     private static final String NAME_FIELD = "name";
     private static final String SURNAME_FIELD = "surname";
     private static final String PATRONYMIC_FIELD = "patronymic";
     private static final String SPECIALIZATION_FIELD = "specialization";
 
+    private static final String INSERT_QUERY = "insert into" + " " + TABLE_NAME + " "
+            + "("
+            + NAME_FIELD + ","
+            + SURNAME_FIELD + ","
+            + PATRONYMIC_FIELD + ","
+            + SPECIALIZATION_FIELD
+            + ")"
+            + "values (?, ?, ?, ?)";
+
+    private static final String UPDATE_QUERY = "update" + " " + TABLE_NAME + " "
+            + "set" + " "
+            + NAME_FIELD + " " + "= ?," + " "
+            + SURNAME_FIELD + " " + "= ?," + " "
+            + PATRONYMIC_FIELD + " " + "= ?," + " "
+            + SPECIALIZATION_FIELD + " " + "= ?," + " "
+            + VERSION_FIELD + " " + "=" + " " + VERSION_FIELD + " " + "+ 1" + " "
+            + "where" + " "
+            + ID_FIELD + " " + "= ?" + " "
+            + "and" + " "
+            + VERSION_FIELD + " " + "= ?";
+
     private DataSource dataSource;
+    private int batchSize = JdbcBatches.DEFAULT_BATCH_SIZE;
+    private final NameSearch<Doctor> nameSearch = new NameSearch<>(TABLE_NAME, ID_FIELD, SURNAME_FIELD, NAME_FIELD,
+            PATRONYMIC_FIELD, DoctorRowMapper::of, Doctor::getId);
 
     public DoctorDaoImpl() {
     }
@@ -35,51 +65,68 @@ public class DoctorDaoImpl implements DoctorDao {
         this.dataSource = dataSource;
     }
 
+    /**
+     * Sets max quantity of rows sent to the database in one JDBC batch.
+     *
+     * @param batchSize max quantity of rows in one batch
+     */
+    @Value("${dao.batch-size:" + JdbcBatches.DEFAULT_BATCH_SIZE + "}")
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Rebuilds in-memory name index from the {@code doctors} table.
+     */
+    @PostConstruct
+    public void initialize() {
+        try (Connection connection = dataSource.getConnection()) {
+            nameSearch.rebuild(connection, batchSize);
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("DoctorDao.initialize", throwables);
+            throwables.printStackTrace();
+        }
+    }
+
     @Override
-    public void add(Doctor entity) {
-        String query = "insert into" + " " + TABLE_NAME + " "
-                + "("
-                + NAME_FIELD + ","
-                + SURNAME_FIELD + ","
-                + PATRONYMIC_FIELD + ","
-                + SPECIALIZATION_FIELD
-                + ")"
-                + "values (?, ?, ?, ?)";
+    public Long add(Doctor entity) {
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setString(1, entity.getName());
-            preparedStatement.setString(2, entity.getSurname());
-            preparedStatement.setString(3, entity.getPatronymic());
-            preparedStatement.setString(4, entity.getSpecialization());
+             PreparedStatement preparedStatement = connection.prepareStatement(INSERT_QUERY,
+                     Statement.RETURN_GENERATED_KEYS)) {
+            setInsertParameters(preparedStatement, entity);
             preparedStatement.executeUpdate();
+            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    entity.setId(generatedKeys.getLong(1));
+                    DaoTransactions.afterCommit(() -> indexName(entity));
+                }
+            }
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("DoctorDao.add", throwables);
             throwables.printStackTrace();
         }
+        return entity.getId();
     }
 
     @Override
     public void update(Doctor entity) throws ElementDoesNotExistException {
-        String query = "update" + " " + TABLE_NAME + " "
-                + "set" + " "
-                + NAME_FIELD + " " + "= ?," + " "
-                + SURNAME_FIELD + " " + "= ?," + " "
-                + PATRONYMIC_FIELD + " " + "= ?," + " "
-                + SPECIALIZATION_FIELD + " " + "= ?" + " "
-                + "where" + " "
-                + ID_FIELD + " " + "= ?";
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setString(1, entity.getName());
-            preparedStatement.setString(2, entity.getSurname());
-            preparedStatement.setString(3, entity.getPatronymic());
-            preparedStatement.setString(4, entity.getSpecialization());
-            preparedStatement.setLong(5, entity.getId());
+             PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_QUERY)) {
+            setUpdateParameters(preparedStatement, entity);
             int affectedRowsQty = preparedStatement.executeUpdate();
 
             if (affectedRowsQty == 0) {
+                if (JdbcBatches.allExist(connection, TABLE_NAME, Collections.singletonList(entity.getId()))) {
+                    throw new StaleElementException();
+                }
                 throw new ElementDoesNotExistException();
             }
+            DaoTransactions.afterCommit(() -> {
+                entity.setVersion(entity.getVersion() + 1);
+                indexName(entity);
+            });
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("DoctorDao.update", throwables);
             throwables.printStackTrace();
         }
     }
@@ -94,15 +141,13 @@ public class DoctorDaoImpl implements DoctorDao {
             preparedStatement.setLong(1, id);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
-                    doctor.setId(resultSet.getLong(ID_FIELD));
-                    doctor.setName(resultSet.getString(NAME_FIELD));
-                    doctor.setSurname(resultSet.getString(SURNAME_FIELD));
-                    doctor.setSpecialization(resultSet.getString(SPECIALIZATION_FIELD));
+                    doctor = DoctorRowMapper.of(resultSet.getMetaData()).mapRow(resultSet);
                 } else {
                     throw new ElementDoesNotExistException();
                 }
             }
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("DoctorDao.getById", throwables);
             throwables.printStackTrace();
         }
 
@@ -120,7 +165,9 @@ public class DoctorDaoImpl implements DoctorDao {
             if (affectedRowsQty == 0) {
                 throw new ElementDoesNotExistException();
             }
+            DaoTransactions.afterCommit(() -> nameSearch.remove(entity.getId()));
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("DoctorDao.delete", throwables);
             throwables.printStackTrace();
         }
     }
@@ -132,20 +179,188 @@ public class DoctorDaoImpl implements DoctorDao {
         try (Connection connection = dataSource.getConnection();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(query)) {
+            DoctorRowMapper rowMapper = DoctorRowMapper.of(resultSet.getMetaData());
             while (resultSet.next()) {
-                Doctor doctor = new Doctor();
-                doctor.setId(resultSet.getLong(ID_FIELD));
-                doctor.setName(resultSet.getString(NAME_FIELD));
-                doctor.setSurname(resultSet.getString(SURNAME_FIELD));
-                doctor.setPatronymic(resultSet.getString(PATRONYMIC_FIELD));
-                doctor.setSpecialization(resultSet.getString(SPECIALIZATION_FIELD));
-
-                doctors.add(doctor);
+                doctors.add(rowMapper.mapRow(resultSet));
             }
         } catch (SQLException e) {
+            DaoTransactions.rethrowInTransaction("DoctorDao.getAll", e);
             e.printStackTrace();
         }
 
         return doctors;
     }
+
+    @Override
+    public List<Doctor> getPage(int offset, int limit) {
+        String query = "select * from" + " " + TABLE_NAME + " "
+                + "order by" + " " + ID_FIELD + " "
+                + "limit ? offset ?";
+        List<Doctor> doctors = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setInt(1, limit);
+            preparedStatement.setInt(2, offset);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                DoctorRowMapper rowMapper = DoctorRowMapper.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    doctors.add(rowMapper.mapRow(resultSet));
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("DoctorDao.getPage", throwables);
+            throwables.printStackTrace();
+        }
+
+        return doctors;
+    }
+
+    @Override
+    public List<Doctor> getPageAfter(long afterId, int limit) {
+        String query = "select * from" + " " + TABLE_NAME + " "
+                + "where" + " " + ID_FIELD + " " + "> ?" + " "
+                + "order by" + " " + ID_FIELD + " "
+                + "limit ?";
+        List<Doctor> doctors = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setLong(1, afterId);
+            preparedStatement.setInt(2, limit);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                DoctorRowMapper rowMapper = DoctorRowMapper.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    doctors.add(rowMapper.mapRow(resultSet));
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("DoctorDao.getPageAfter", throwables);
+            throwables.printStackTrace();
+        }
+
+        return doctors;
+    }
+
+    @Override
+    public int getCount() {
+        String query = "select count(*) from" + " " + TABLE_NAME;
+        int count = 0;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            if (resultSet.next()) {
+                count = resultSet.getInt(1);
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("DoctorDao.getCount", throwables);
+            throwables.printStackTrace();
+        }
+
+        return count;
+    }
+
+    @Override
+    public void addAll(Collection<Doctor> entities) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long[] ids = JdbcBatches.insert(connection, INSERT_QUERY, entities, batchSize,
+                        this::setInsertParameters);
+                connection.commit();
+
+                int i = 0;
+                for (Doctor entity : entities) {
+                    entity.setId(ids[i++]);
+                }
+                DaoTransactions.afterCommit(() -> entities.forEach(this::indexName));
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("DoctorDao.addAll", throwables);
+            throwables.printStackTrace();
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<Doctor> entities) throws ElementDoesNotExistException {
+        boolean allUpdated = true;
+        boolean allExist = true;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                allUpdated = JdbcBatches.update(connection, UPDATE_QUERY, entities, batchSize,
+                        this::setUpdateParameters);
+                if (allUpdated) {
+                    connection.commit();
+                    DaoTransactions.afterCommit(() -> {
+                        for (Doctor entity : entities) {
+                            entity.setVersion(entity.getVersion() + 1);
+                            indexName(entity);
+                        }
+                    });
+                } else {
+                    connection.rollback();
+                    allExist = JdbcBatches.allExist(connection, TABLE_NAME,
+                            entities.stream().map(Doctor::getId).collect(Collectors.toList()));
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("DoctorDao.updateAll", throwables);
+            throwables.printStackTrace();
+        }
+
+        if (!allUpdated) {
+            throw allExist ? new StaleElementException() : new ElementDoesNotExistException();
+        }
+    }
+
+    @Override
+    public List<Doctor> findByName(String term, int limit) {
+        try (Connection connection = dataSource.getConnection()) {
+            return nameSearch.find(connection, term, limit);
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("DoctorDao.findByName", throwables);
+            throwables.printStackTrace();
+        }
+        return new ArrayList<>();
+    }
+
+    private void indexName(Doctor entity) {
+        nameSearch.put(entity.getId(), entity.getSurname(), entity.getName(), entity.getPatronymic());
+    }
+
+    /**
+     * Sets {@code INSERT_QUERY} parameters for the specified entity.
+     *
+     * @param preparedStatement statement to be filled
+     * @param entity            entity to be inserted
+     * @throws SQLException if a parameter can't be set
+     */
+    private void setInsertParameters(PreparedStatement preparedStatement, Doctor entity) throws SQLException {
+        preparedStatement.setString(1, entity.getName());
+        preparedStatement.setString(2, entity.getSurname());
+        preparedStatement.setString(3, entity.getPatronymic());
+        preparedStatement.setString(4, entity.getSpecialization());
+    }
+
+    /**
+     * Sets {@code UPDATE_QUERY} parameters for the specified entity.
+     *
+     * @param preparedStatement statement to be filled
+     * @param entity            entity to be updated
+     * @throws SQLException if a parameter can't be set
+     */
+    private void setUpdateParameters(PreparedStatement preparedStatement, Doctor entity) throws SQLException {
+        setInsertParameters(preparedStatement, entity);
+        preparedStatement.setLong(5, entity.getId());
+        preparedStatement.setInt(6, entity.getVersion());
+    }
 }
@@ -0,0 +1,150 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of recipes by expiry date.
+ * <p>
+ * A recipe expires on its creation date plus validity days. Recipe ids are kept in buckets of one day
+ * ordered by the day, so recipes expiring within a range of days are found in time proportional
+ * to the quantity of the found recipes and the days in the range which have any.
+ */
+final class ExpiryIndex {
+    private final NavigableMap<Long, IdList> idsByExpiryDay = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Set if an id doesn't fit the buckets, the index is never used after that.
+     */
+    private boolean overflowed;
+
+    /**
+     * Returns expiry day of the recipe with the specified creation date and validity.
+     *
+     * @param creationDate recipe creation date
+     * @param validity     recipe validity in days
+     * @return expiry day as the quantity of days since the epoch.
+     */
+    static long getExpiryDay(Date creationDate, int validity) {
+        return creationDate.toLocalDate().toEpochDay() + validity;
+    }
+
+    /**
+     * Indexes the specified recipe.
+     *
+     * @param id        recipe id
+     * @param expiryDay recipe expiry day
+     */
+    void add(long id, long expiryDay) {
+        lock.writeLock().lock();
+        try {
+            if (checkId(id)) {
+                idsByExpiryDay.computeIfAbsent(expiryDay, key -> new IdList()).add((int) id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the specified recipe from the index.
+     *
+     * @param id        recipe id
+     * @param expiryDay indexed recipe expiry day
+     */
+    void remove(long id, long expiryDay) {
+        lock.writeLock().lock();
+        try {
+            if (checkId(id)) {
+                IdList ids = idsByExpiryDay.get(expiryDay);
+                if (ids != null && ids.remove((int) id) && ids.size == 0) {
+                    idsByExpiryDay.remove(expiryDay);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the specified recipe to another expiry day.
+     *
+     * @param id           recipe id
+     * @param oldExpiryDay indexed recipe expiry day
+     * @param newExpiryDay new recipe expiry day
+     */
+    void update(long id, long oldExpiryDay, long newExpiryDay) {
+        if (oldExpiryDay != newExpiryDay) {
+            remove(id, oldExpiryDay);
+            add(id, newExpiryDay);
+        }
+    }
+
+    /**
+     * Trims buckets after bulk loading.
+     */
+    void trimToSize() {
+        lock.writeLock().lock();
+        try {
+            idsByExpiryDay.values().forEach(IdList::trimToSize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of the recipes which expire after the first specified date and not later than the second one.
+     *
+     * @param afterDate date after which recipes expire, {@code null} for no lower bound
+     * @param toDate    date by which recipes expire inclusive
+     * @param maxQty    max quantity of ids worth returning
+     * @return sorted ids or {@code null} if the index can't be used or more than {@code maxQty} recipes are found.
+     */
+    int[] search(LocalDate afterDate, LocalDate toDate, int maxQty) {
+        if (afterDate != null && !toDate.isAfter(afterDate)) {
+            return new int[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            if (overflowed) {
+                return null;
+            }
+
+            NavigableMap<Long, IdList> buckets = afterDate == null
+                    ? idsByExpiryDay.headMap(toDate.toEpochDay(), true)
+                    : idsByExpiryDay.subMap(afterDate.toEpochDay(), false, toDate.toEpochDay(), true);
+            int idQty = 0;
+            for (IdList ids : buckets.values()) {
+                idQty += ids.size;
+                if (idQty > maxQty) {
+                    return null;
+                }
+            }
+
+            int[] result = new int[idQty];
+            int position = 0;
+            for (IdList ids : buckets.values()) {
+                System.arraycopy(ids.ids, 0, result, position, ids.size);
+                position += ids.size;
+            }
+            Arrays.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean checkId(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            overflowed = true;
+        }
+        return !overflowed;
+    }
+}
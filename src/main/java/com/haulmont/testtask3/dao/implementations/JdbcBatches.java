@@ -0,0 +1,141 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JDBC batch helpers shared by the DAO implementations.
+ * <p>
+ * All methods run on the specified connection and leave transaction handling to the caller.
+ */
+final class JdbcBatches {
+    static final int DEFAULT_BATCH_SIZE = 500;
+
+    private JdbcBatches() {
+    }
+
+    /**
+     * Executes specified insert query for every entity in chunks of {@code batchSize} rows.
+     *
+     * @param connection      connection to be used
+     * @param query           insert query
+     * @param entities        entities to be inserted
+     * @param batchSize       max quantity of rows sent in one batch
+     * @param parameterSetter sets query parameters for one entity
+     * @param <T>             entity type
+     * @return generated ids in the iteration order of the specified entities.
+     * @throws SQLException if any of the rows can't be inserted
+     */
+    static <T> long[] insert(Connection connection, String query, Collection<T> entities, int batchSize,
+                             ParameterSetter<T> parameterSetter) throws SQLException {
+        long[] ids = new long[entities.size()];
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query,
+                Statement.RETURN_GENERATED_KEYS)) {
+            int batchedQty = 0;
+            int idsQty = 0;
+            for (T entity : entities) {
+                parameterSetter.setParameters(preparedStatement, entity);
+                preparedStatement.addBatch();
+                if (++batchedQty == batchSize) {
+                    idsQty = executeInsertBatch(preparedStatement, ids, idsQty);
+                    batchedQty = 0;
+                }
+            }
+            if (batchedQty > 0) {
+                executeInsertBatch(preparedStatement, ids, idsQty);
+            }
+        }
+
+        return ids;
+    }
+
+    /**
+     * Executes specified update query for every entity in chunks of {@code batchSize} rows.
+     *
+     * @param connection      connection to be used
+     * @param query           update query
+     * @param entities        entities to be updated
+     * @param batchSize       max quantity of rows sent in one batch
+     * @param parameterSetter sets query parameters for one entity
+     * @param <T>             entity type
+     * @return {@code true} if every query updated a row, {@code false} otherwise.
+     * @throws SQLException if any of the rows can't be updated
+     */
+    static <T> boolean update(Connection connection, String query, Collection<T> entities, int batchSize,
+                              ParameterSetter<T> parameterSetter) throws SQLException {
+        boolean allUpdated = true;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            int batchedQty = 0;
+            for (T entity : entities) {
+                parameterSetter.setParameters(preparedStatement, entity);
+                preparedStatement.addBatch();
+                if (++batchedQty == batchSize) {
+                    allUpdated &= executeUpdateBatch(preparedStatement);
+                    batchedQty = 0;
+                }
+            }
+            if (batchedQty > 0) {
+                allUpdated &= executeUpdateBatch(preparedStatement);
+            }
+        }
+
+        return allUpdated;
+    }
+
+    /**
+     * Checks if rows with all the specified ids exist, so a failed versioned update can be told
+     * from an update of a missing row.
+     *
+     * @param connection connection to be used
+     * @param tableName  name of the table with the {@code id} column
+     * @param ids        ids to be checked
+     * @return {@code true} if every id is found, {@code false} otherwise.
+     * @throws SQLException if the ids can't be checked
+     */
+    static boolean allExist(Connection connection, String tableName, Collection<Long> ids) throws SQLException {
+        Set<Long> distinctIds = new HashSet<>(ids);
+        String query = "select count(*) from" + " " + tableName + " " + "where id in (unnest(?))";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setArray(1, connection.createArrayOf("BIGINT", distinctIds.toArray()));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) == distinctIds.size();
+            }
+        }
+    }
+
+    private static int executeInsertBatch(PreparedStatement preparedStatement, long[] ids, int idsQty)
+            throws SQLException {
+        preparedStatement.executeBatch();
+        try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+            while (generatedKeys.next()) {
+                ids[idsQty++] = generatedKeys.getLong(1);
+            }
+        }
+        return idsQty;
+    }
+
+    private static boolean executeUpdateBatch(PreparedStatement preparedStatement) throws SQLException {
+        for (int affectedRowsQty : preparedStatement.executeBatch()) {
+            if (affectedRowsQty == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets prepared statement parameters for one entity.
+     *
+     * @param <T> entity type
+     */
+    @FunctionalInterface
+    interface ParameterSetter<T> {
+        void setParameters(PreparedStatement preparedStatement, T entity) throws SQLException;
+    }
+}
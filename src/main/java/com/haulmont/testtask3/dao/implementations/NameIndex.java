@@ -0,0 +1,200 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory case insensitive prefix index over person names (surname, name and patronymic).
+ * <p>
+ * Every lower-cased word of a name is a key of a sorted map pointing to the sorted {@code int[]} list of ids,
+ * so the words starting with a prefix are a contiguous range of keys. The words of every indexed person are
+ * kept as well, so a search term of several words is looked up by its longest word and the other words are
+ * checked against the found persons. Equal words share one {@code String} instance.
+ */
+final class NameIndex {
+    private static final String[] NO_WORDS = new String[0];
+
+    private final NavigableMap<String, IdList> postings = new TreeMap<>();
+    private final Map<Integer, String[]> names = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Set if an id doesn't fit posting lists, the index is never used after that.
+     */
+    private boolean overflowed;
+
+    /**
+     * Indexes name of the specified person, replacing the previously indexed name.
+     *
+     * @param id        person id
+     * @param nameParts surname, name and patronymic, any of them may be {@code null}
+     */
+    void put(long id, String... nameParts) {
+        String[] words = getWords(String.join(" ", Arrays.stream(nameParts)
+                .filter(part -> part != null)
+                .toArray(String[]::new)));
+        lock.writeLock().lock();
+        try {
+            if (checkId(id)) {
+                removeWords((int) id);
+                for (int i = 0; i < words.length; i++) {
+                    IdList ids = postings.get(words[i]);
+                    if (ids == null) {
+                        ids = new IdList();
+                        postings.put(words[i], ids);
+                    } else {
+                        words[i] = postings.ceilingKey(words[i]);
+                    }
+                    ids.add((int) id);
+                }
+                names.put((int) id, words);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes name of the specified person from the index.
+     *
+     * @param id person id
+     */
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            if (checkId(id)) {
+                removeWords((int) id);
+                names.remove((int) id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Trims posting lists after bulk loading.
+     */
+    void trimToSize() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(IdList::trimToSize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of the persons with every word of the search term being a prefix of a word of their names.
+     * The persons are ordered by the word matched by the longest term word, then by id.
+     *
+     * @param term  searched name words, an empty term matches every person
+     * @param limit max quantity of ids to be returned
+     * @return ids of the matching persons or {@code null} if the index can't be used.
+     */
+    int[] search(String term, int limit) {
+        String[] termWords = getWords(term == null ? "" : term);
+        String longestWord = getLongestWord(termWords);
+
+        lock.readLock().lock();
+        try {
+            if (overflowed) {
+                return null;
+            }
+
+            int[] found = new int[Math.min(limit, names.size())];
+            int foundQty = 0;
+            Set<Integer> checkedIds = new HashSet<>();
+            for (Map.Entry<String, IdList> entry : postings.tailMap(longestWord, true).entrySet()) {
+                if (foundQty == found.length || !entry.getKey().startsWith(longestWord)) {
+                    break;
+                }
+                IdList ids = entry.getValue();
+                for (int i = 0; i < ids.size && foundQty < found.length; i++) {
+                    int id = ids.ids[i];
+                    if (checkedIds.add(id) && matches(names.get(id), termWords)) {
+                        found[foundQty++] = id;
+                    }
+                }
+            }
+            return Arrays.copyOf(found, foundQty);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits the specified text into lower-cased words.
+     *
+     * @param text text to be split
+     * @return words of the text.
+     */
+    static String[] getWords(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : text.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words.isEmpty() ? NO_WORDS : words.toArray(NO_WORDS);
+    }
+
+    /**
+     * Returns the longest of the specified words, the most selective one for a prefix search.
+     *
+     * @param words lower-cased words
+     * @return the longest word or an empty string if there are no words.
+     */
+    static String getLongestWord(String[] words) {
+        String longestWord = "";
+        for (String word : words) {
+            if (word.length() > longestWord.length()) {
+                longestWord = word;
+            }
+        }
+        return longestWord;
+    }
+
+    /**
+     * Checks if every term word is a prefix of one of the name words.
+     */
+    private static boolean matches(String[] nameWords, String[] termWords) {
+        for (String termWord : termWords) {
+            boolean found = false;
+            for (int i = 0; i < nameWords.length && !found; i++) {
+                found = nameWords[i].startsWith(termWord);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void removeWords(int id) {
+        for (String word : names.getOrDefault(id, NO_WORDS)) {
+            IdList ids = postings.get(word);
+            if (ids != null && ids.remove(id) && ids.size == 0) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    private boolean checkId(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            overflowed = true;
+            postings.clear();
+            names.clear();
+        }
+        return !overflowed;
+    }
+}
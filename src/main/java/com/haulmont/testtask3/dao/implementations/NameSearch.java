@@ -0,0 +1,191 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import com.haulmont.testtask3.dao.mappers.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Search of persons by name words in one table, backed by a {@link NameIndex}.
+ * <p>
+ * Found ids are read with one {@code in (unnest(?))} query and returned in the index order. If the index
+ * can't be used, the longest word of the term is matched as a prefix of the name columns in SQL.
+ * All methods run on the specified connection and leave transaction and error handling to the caller.
+ *
+ * @param <T> person type
+ */
+final class NameSearch<T> {
+    private final String tableName;
+    private final String idField;
+    private final String surnameField;
+    private final String nameField;
+    private final String patronymicField;
+    private final MapperFactory<T> mapperFactory;
+    private final Function<T, Long> idGetter;
+
+    private volatile NameIndex nameIndex = new NameIndex();
+
+    /**
+     * Creates search over the specified table.
+     *
+     * @param tableName       table of the persons
+     * @param idField         id column
+     * @param surnameField    surname column
+     * @param nameField       name column
+     * @param patronymicField patronymic column
+     * @param mapperFactory   creates row mapper of the table rows
+     * @param idGetter        returns id of a person
+     */
+    NameSearch(String tableName, String idField, String surnameField, String nameField, String patronymicField,
+               MapperFactory<T> mapperFactory, Function<T, Long> idGetter) {
+        this.tableName = tableName;
+        this.idField = idField;
+        this.surnameField = surnameField;
+        this.nameField = nameField;
+        this.patronymicField = patronymicField;
+        this.mapperFactory = mapperFactory;
+        this.idGetter = idGetter;
+    }
+
+    /**
+     * Rebuilds the name index from the table.
+     *
+     * @param connection connection to be used
+     * @param fetchSize  quantity of rows fetched at once
+     * @throws SQLException if the table can't be read
+     */
+    void rebuild(Connection connection, int fetchSize) throws SQLException {
+        String query = "select" + " " + idField + "," + " " + surnameField + "," + " " + nameField + "," + " "
+                + patronymicField + " " + "from" + " " + tableName;
+        NameIndex index = new NameIndex();
+        try (Statement statement = connection.createStatement()) {
+            statement.setFetchSize(fetchSize);
+            try (ResultSet resultSet = statement.executeQuery(query)) {
+                while (resultSet.next()) {
+                    index.put(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3),
+                            resultSet.getString(4));
+                }
+            }
+        }
+        index.trimToSize();
+        nameIndex = index;
+    }
+
+    /**
+     * Adds or replaces name of the specified committed person.
+     *
+     * @param id         person id
+     * @param surname    surname
+     * @param name       name
+     * @param patronymic patronymic, may be {@code null}
+     */
+    void put(long id, String surname, String name, String patronymic) {
+        nameIndex.put(id, surname, name, patronymic);
+    }
+
+    /**
+     * Removes name of the specified deleted person.
+     *
+     * @param id person id
+     */
+    void remove(long id) {
+        nameIndex.remove(id);
+    }
+
+    /**
+     * Returns persons whose name words start with the words of the specified term.
+     *
+     * @param connection connection to be used
+     * @param term       searched name words
+     * @param limit      max quantity of persons to be returned
+     * @return {@code List} of the matching persons.
+     * @throws SQLException if the persons can't be read
+     */
+    List<T> find(Connection connection, String term, int limit) throws SQLException {
+        int[] ids = nameIndex.search(term, limit);
+        if (ids == null) {
+            return findByLongestWord(connection, term, limit);
+        }
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+
+        String query = "select * from" + " " + tableName + " "
+                + "where" + " " + idField + " " + "in (unnest(?))";
+        Map<Long, T> foundPersons = new HashMap<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            Long[] boxedIds = new Long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                boxedIds[i] = (long) ids[i];
+            }
+            preparedStatement.setArray(1, connection.createArrayOf("BIGINT", boxedIds));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                RowMapper<T> rowMapper = mapperFactory.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    T person = rowMapper.mapRow(resultSet);
+                    foundPersons.put(idGetter.apply(person), person);
+                }
+            }
+        }
+
+        List<T> persons = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            T person = foundPersons.get((long) id);
+            if (person != null) {
+                persons.add(person);
+            }
+        }
+        return persons;
+    }
+
+    /**
+     * Returns persons with the longest word of the search term being a case insensitive prefix of their surname,
+     * name or patronymic. Used when the name index can't be used, so the other words are not checked.
+     */
+    private List<T> findByLongestWord(Connection connection, String term, int limit) throws SQLException {
+        String query = "select * from" + " " + tableName + " "
+                + "where" + " "
+                + "lower(" + surnameField + ")" + " " + "like ? escape '\\'" + " " + "or" + " "
+                + "lower(" + nameField + ")" + " " + "like ? escape '\\'" + " " + "or" + " "
+                + "lower(" + patronymicField + ")" + " " + "like ? escape '\\'" + " "
+                + "order by" + " " + surnameField + "," + " " + nameField + "," + " " + idField + " "
+                + "limit ?";
+        String pattern = NameIndex.getLongestWord(NameIndex.getWords(term == null ? "" : term))
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        List<T> persons = new ArrayList<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setString(1, pattern);
+            preparedStatement.setString(2, pattern);
+            preparedStatement.setString(3, pattern);
+            preparedStatement.setInt(4, limit);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                RowMapper<T> rowMapper = mapperFactory.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    persons.add(rowMapper.mapRow(resultSet));
+                }
+            }
+        }
+        return persons;
+    }
+
+    /**
+     * Creates {@link RowMapper} for a result set, e.g. {@code DoctorRowMapper::of}.
+     *
+     * @param <T> row object type
+     */
+    @FunctionalInterface
+    interface MapperFactory<T> {
+        RowMapper<T> of(ResultSetMetaData metaData) throws SQLException;
+    }
+}
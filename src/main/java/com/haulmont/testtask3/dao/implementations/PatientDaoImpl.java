@@ -1,31 +1,61 @@
 package com.haulmont.testtask3.dao.implementations;
 
 import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.exceptions.StaleElementException;
 import com.haulmont.testtask3.dao.interfaces.PatientDao;
+import com.haulmont.testtask3.dao.mappers.PatientRowMapper;
 import com.haulmont.testtask3.models.Patient;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Primary;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of {@link PatientDao} interface.
  */
 @Repository
-@Primary
 public class PatientDaoImpl implements PatientDao {
     private static final String TABLE_NAME = "patients";
     private static final String ID_FIELD = "id";
+    private static final String VERSION_FIELD = "version";
     private static final String NAME_FIELD = "name";
     private static final String SURNAME_FIELD = "surname";
     private static final String PATRONYMIC_FIELD = "patronymic";
     private static final String PHONE_NUMBER_FIELD = "phone_number";
 
+    private static final String INSERT_QUERY = "insert into" + " " + TABLE_NAME + " "
+            + "("
+            + NAME_FIELD + ","
+            + SURNAME_FIELD + ","
+            + PATRONYMIC_FIELD + ","
+            + PHONE_NUMBER_FIELD
+            + ")"
+            + "values (?, ?, ?, ?)";
+
+    private static final String UPDATE_QUERY = "update" + " " + TABLE_NAME + " "
+            + "set" + " "
+            + NAME_FIELD + " " + "= ?," + " "
+            + SURNAME_FIELD + " " + "= ?," + " "
+            + PATRONYMIC_FIELD + " " + "= ?," + " "
+            + PHONE_NUMBER_FIELD + " " + "= ?," + " "
+            + VERSION_FIELD + " " + "=" + " " + VERSION_FIELD + " " + "+ 1" + " "
+            + "where" + " "
+            + ID_FIELD + " " + "= ?" + " "
+            + "and" + " "
+            + VERSION_FIELD + " " + "= ?";
+
     private DataSource dataSource;
+    private int batchSize = JdbcBatches.DEFAULT_BATCH_SIZE;
+    private final NameSearch<Patient> nameSearch = new NameSearch<>(TABLE_NAME, ID_FIELD, SURNAME_FIELD, NAME_FIELD,
+            PATRONYMIC_FIELD, PatientRowMapper::of, Patient::getId);
 
     public PatientDaoImpl() {
     }
@@ -35,51 +65,68 @@ public class PatientDaoImpl implements PatientDao {
         this.dataSource = dataSource;
     }
 
+    /**
+     * Sets max quantity of rows sent to the database in one JDBC batch.
+     *
+     * @param batchSize max quantity of rows in one batch
+     */
+    @Value("${dao.batch-size:" + JdbcBatches.DEFAULT_BATCH_SIZE + "}")
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Rebuilds in-memory name index from the {@code patients} table.
+     */
+    @PostConstruct
+    public void initialize() {
+        try (Connection connection = dataSource.getConnection()) {
+            nameSearch.rebuild(connection, batchSize);
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("PatientDao.initialize", throwables);
+            throwables.printStackTrace();
+        }
+    }
+
     @Override
-    public void add(Patient entity) {
-        String query = "insert into" + " " + TABLE_NAME + " "
-                + "("
-                + NAME_FIELD + ","
-                + SURNAME_FIELD + ","
-                + PATRONYMIC_FIELD + ","
-                + PHONE_NUMBER_FIELD
-                + ")"
-                + "values (?, ?, ?, ?)";
+    public Long add(Patient entity) {
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setString(1, entity.getName());
-            preparedStatement.setString(2, entity.getSurname());
-            preparedStatement.setString(3, entity.getPatronymic());
-            preparedStatement.setString(4, entity.getPhoneNumber());
+             PreparedStatement preparedStatement = connection.prepareStatement(INSERT_QUERY,
+                     Statement.RETURN_GENERATED_KEYS)) {
+            setInsertParameters(preparedStatement, entity);
             preparedStatement.executeUpdate();
+            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    entity.setId(generatedKeys.getLong(1));
+                    DaoTransactions.afterCommit(() -> indexName(entity));
+                }
+            }
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("PatientDao.add", throwables);
             throwables.printStackTrace();
         }
+        return entity.getId();
     }
 
     @Override
     public void update(Patient entity) throws ElementDoesNotExistException {
-        String query = "update" + " " + TABLE_NAME + " "
-                + "set" + " "
-                + NAME_FIELD + " " + "= ?," + " "
-                + SURNAME_FIELD + " " + "= ?," + " "
-                + PATRONYMIC_FIELD + " " + "= ?," + " "
-                + PHONE_NUMBER_FIELD + " " + "= ?" + " "
-                + "where" + " "
-                + ID_FIELD + " " + "= ?";
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setString(1, entity.getName());
-            preparedStatement.setString(2, entity.getSurname());
-            preparedStatement.setString(3, entity.getPatronymic());
-            preparedStatement.setString(4, entity.getPhoneNumber());
-            preparedStatement.setLong(5, entity.getId());
+             PreparedStatement preparedStatement = connection.prepareStatement(UPDATE_QUERY)) {
+            setUpdateParameters(preparedStatement, entity);
             int affectedRowsQty = preparedStatement.executeUpdate();
 
             if (affectedRowsQty == 0) {
+                if (JdbcBatches.allExist(connection, TABLE_NAME, Collections.singletonList(entity.getId()))) {
+                    throw new StaleElementException();
+                }
                 throw new ElementDoesNotExistException();
             }
+            DaoTransactions.afterCommit(() -> {
+                entity.setVersion(entity.getVersion() + 1);
+                indexName(entity);
+            });
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("PatientDao.update", throwables);
             throwables.printStackTrace();
         }
     }
@@ -94,15 +141,13 @@ public class PatientDaoImpl implements PatientDao {
             preparedStatement.setLong(1, id);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
-                    patient.setId(resultSet.getLong(ID_FIELD));
-                    patient.setName(resultSet.getString(NAME_FIELD));
-                    patient.setSurname(resultSet.getString(SURNAME_FIELD));
-                    patient.setPhoneNumber(resultSet.getString(PHONE_NUMBER_FIELD));
+                    patient = PatientRowMapper.of(resultSet.getMetaData()).mapRow(resultSet);
                 } else {
                     throw new ElementDoesNotExistException();
                 }
             }
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("PatientDao.getById", throwables);
             throwables.printStackTrace();
         }
 
@@ -120,7 +165,9 @@ public class PatientDaoImpl implements PatientDao {
             if (affectedRowsQty == 0) {
                 throw new ElementDoesNotExistException();
             }
+            DaoTransactions.afterCommit(() -> nameSearch.remove(entity.getId()));
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("PatientDao.delete", throwables);
             throwables.printStackTrace();
         }
     }
@@ -132,20 +179,188 @@ public class PatientDaoImpl implements PatientDao {
         try (Connection connection = dataSource.getConnection();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(query)) {
+            PatientRowMapper rowMapper = PatientRowMapper.of(resultSet.getMetaData());
             while (resultSet.next()) {
-                Patient patient = new Patient();
-                patient.setId(resultSet.getLong(ID_FIELD));
-                patient.setName(resultSet.getString(NAME_FIELD));
-                patient.setSurname(resultSet.getString(SURNAME_FIELD));
-                patient.setPatronymic(resultSet.getString(PATRONYMIC_FIELD));
-                patient.setPhoneNumber(resultSet.getString(PHONE_NUMBER_FIELD));
-
-                patients.add(patient);
+                patients.add(rowMapper.mapRow(resultSet));
             }
         } catch (SQLException e) {
+            DaoTransactions.rethrowInTransaction("PatientDao.getAll", e);
             e.printStackTrace();
         }
 
         return patients;
     }
+
+    @Override
+    public List<Patient> getPage(int offset, int limit) {
+        String query = "select * from" + " " + TABLE_NAME + " "
+                + "order by" + " " + ID_FIELD + " "
+                + "limit ? offset ?";
+        List<Patient> patients = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setInt(1, limit);
+            preparedStatement.setInt(2, offset);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                PatientRowMapper rowMapper = PatientRowMapper.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    patients.add(rowMapper.mapRow(resultSet));
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("PatientDao.getPage", throwables);
+            throwables.printStackTrace();
+        }
+
+        return patients;
+    }
+
+    @Override
+    public List<Patient> getPageAfter(long afterId, int limit) {
+        String query = "select * from" + " " + TABLE_NAME + " "
+                + "where" + " " + ID_FIELD + " " + "> ?" + " "
+                + "order by" + " " + ID_FIELD + " "
+                + "limit ?";
+        List<Patient> patients = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setLong(1, afterId);
+            preparedStatement.setInt(2, limit);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                PatientRowMapper rowMapper = PatientRowMapper.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    patients.add(rowMapper.mapRow(resultSet));
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("PatientDao.getPageAfter", throwables);
+            throwables.printStackTrace();
+        }
+
+        return patients;
+    }
+
+    @Override
+    public int getCount() {
+        String query = "select count(*) from" + " " + TABLE_NAME;
+        int count = 0;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            if (resultSet.next()) {
+                count = resultSet.getInt(1);
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("PatientDao.getCount", throwables);
+            throwables.printStackTrace();
+        }
+
+        return count;
+    }
+
+    @Override
+    public void addAll(Collection<Patient> entities) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long[] ids = JdbcBatches.insert(connection, INSERT_QUERY, entities, batchSize,
+                        this::setInsertParameters);
+                connection.commit();
+
+                int i = 0;
+                for (Patient entity : entities) {
+                    entity.setId(ids[i++]);
+                }
+                DaoTransactions.afterCommit(() -> entities.forEach(this::indexName));
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("PatientDao.addAll", throwables);
+            throwables.printStackTrace();
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<Patient> entities) throws ElementDoesNotExistException {
+        boolean allUpdated = true;
+        boolean allExist = true;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                allUpdated = JdbcBatches.update(connection, UPDATE_QUERY, entities, batchSize,
+                        this::setUpdateParameters);
+                if (allUpdated) {
+                    connection.commit();
+                    DaoTransactions.afterCommit(() -> {
+                        for (Patient entity : entities) {
+                            entity.setVersion(entity.getVersion() + 1);
+                            indexName(entity);
+                        }
+                    });
+                } else {
+                    connection.rollback();
+                    allExist = JdbcBatches.allExist(connection, TABLE_NAME,
+                            entities.stream().map(Patient::getId).collect(Collectors.toList()));
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("PatientDao.updateAll", throwables);
+            throwables.printStackTrace();
+        }
+
+        if (!allUpdated) {
+            throw allExist ? new StaleElementException() : new ElementDoesNotExistException();
+        }
+    }
+
+    @Override
+    public List<Patient> findByName(String term, int limit) {
+        try (Connection connection = dataSource.getConnection()) {
+            return nameSearch.find(connection, term, limit);
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("PatientDao.findByName", throwables);
+            throwables.printStackTrace();
+        }
+        return new ArrayList<>();
+    }
+
+    private void indexName(Patient entity) {
+        nameSearch.put(entity.getId(), entity.getSurname(), entity.getName(), entity.getPatronymic());
+    }
+
+    /**
+     * Sets {@code INSERT_QUERY} parameters for the specified entity.
+     *
+     * @param preparedStatement statement to be filled
+     * @param entity            entity to be inserted
+     * @throws SQLException if a parameter can't be set
+     */
+    private void setInsertParameters(PreparedStatement preparedStatement, Patient entity) throws SQLException {
+        preparedStatement.setString(1, entity.getName());
+        preparedStatement.setString(2, entity.getSurname());
+        preparedStatement.setString(3, entity.getPatronymic());
+        preparedStatement.setString(4, entity.getPhoneNumber());
+    }
+
+    /**
+     * Sets {@code UPDATE_QUERY} parameters for the specified entity.
+     *
+     * @param preparedStatement statement to be filled
+     * @param entity            entity to be updated
+     * @throws SQLException if a parameter can't be set
+     */
+    private void setUpdateParameters(PreparedStatement preparedStatement, Patient entity) throws SQLException {
+        setInsertParameters(preparedStatement, entity);
+        preparedStatement.setLong(5, entity.getId());
+        preparedStatement.setInt(6, entity.getVersion());
+    }
 }
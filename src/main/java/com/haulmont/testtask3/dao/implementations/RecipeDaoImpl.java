@@ -1,17 +1,33 @@
 package com.haulmont.testtask3.dao.implementations;
 
 import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.exceptions.StaleElementException;
 import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.dao.mappers.RecipeListItemRowMapper;
+import com.haulmont.testtask3.dao.mappers.RecipeRowMapper;
+import com.haulmont.testtask3.models.DoctorStatistics;
 import com.haulmont.testtask3.models.Priority;
 import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.models.RecipeListItem;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Implementation of {@link RecipeDao} interface.
@@ -21,6 +37,7 @@ import java.util.List;
 public class RecipeDaoImpl implements RecipeDao {
     private static final String TABLE_NAME = "recipes";
     private static final String ID_FIELD = "id";
+    private static final String VERSION_FIELD = "version";
     private static final String PATIENT_ID_FIELD = "patient_id";
     private static final String DOCTOR_ID_FIELD = "doctor_id";
     private static final String DESCRIPTION_FIELD = "description";
@@ -28,7 +45,92 @@ public class RecipeDaoImpl implements RecipeDao {
     private static final String VALIDITY_FIELD = "validity";
     private static final String PRIORITY_FIELD = "priority";
 
+    private static final String INSERT_QUERY = "insert into" + " " + TABLE_NAME + " "
+            + "("
+            + PATIENT_ID_FIELD + ","
+            + DOCTOR_ID_FIELD + ","
+            + DESCRIPTION_FIELD + ","
+            + CREATION_DATE_FIELD + ","
+            + VALIDITY_FIELD + ","
+            + PRIORITY_FIELD
+            + ")"
+            + "values (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_QUERY = "update" + " " + TABLE_NAME + " "
+            + "set" + " "
+            + PATIENT_ID_FIELD + " " + "= ?," + " "
+            + DOCTOR_ID_FIELD + " " + "= ?," + " "
+            + DESCRIPTION_FIELD + " " + "= ?," + " "
+            + CREATION_DATE_FIELD + " " + "= ?," + " "
+            + VALIDITY_FIELD + " " + "= ?," + " "
+            + PRIORITY_FIELD + " " + "= ?," + " "
+            + VERSION_FIELD + " " + "=" + " " + VERSION_FIELD + " " + "+ 1" + " "
+            + "where" + " "
+            + ID_FIELD + " " + "= ?" + " "
+            + "and" + " "
+            + VERSION_FIELD + " " + "= ?";
+
+    private static final String PATIENTS_TABLE_NAME = "patients";
+    private static final String DOCTORS_TABLE_NAME = "doctors";
+    private static final String NAME_FIELD = "name";
+    private static final String SURNAME_FIELD = "surname";
+    private static final String PATIENT_NAME_FIELD = "patient_name";
+    private static final String PATIENT_SURNAME_FIELD = "patient_surname";
+    private static final String DOCTOR_NAME_FIELD = "doctor_name";
+    private static final String DOCTOR_SURNAME_FIELD = "doctor_surname";
+
+    private static final String LIST_ITEM_SELECT = "select" + " "
+            + TABLE_NAME + ".*," + " "
+            + PATIENTS_TABLE_NAME + "." + NAME_FIELD + " " + "as" + " " + PATIENT_NAME_FIELD + "," + " "
+            + PATIENTS_TABLE_NAME + "." + SURNAME_FIELD + " " + "as" + " " + PATIENT_SURNAME_FIELD + "," + " "
+            + DOCTORS_TABLE_NAME + "." + NAME_FIELD + " " + "as" + " " + DOCTOR_NAME_FIELD + "," + " "
+            + DOCTORS_TABLE_NAME + "." + SURNAME_FIELD + " " + "as" + " " + DOCTOR_SURNAME_FIELD;
+
+    private static final String LIST_ITEM_JOINS = "join" + " " + PATIENTS_TABLE_NAME + " " + "on" + " "
+            + TABLE_NAME + "." + PATIENT_ID_FIELD + " " + "=" + " " + PATIENTS_TABLE_NAME + "." + ID_FIELD + " "
+            + "join" + " " + DOCTORS_TABLE_NAME + " " + "on" + " "
+            + TABLE_NAME + "." + DOCTOR_ID_FIELD + " " + "=" + " " + DOCTORS_TABLE_NAME + "." + ID_FIELD;
+
+    private static final String LIST_ITEM_QUERY = LIST_ITEM_SELECT + " "
+            + "from" + " " + TABLE_NAME + " "
+            + LIST_ITEM_JOINS;
+
+    /**
+     * Day on which a recipe expires.
+     */
+    private static final String EXPIRY_DATE = "dateadd('day'," + " " + VALIDITY_FIELD + "," + " "
+            + CREATION_DATE_FIELD + ")";
+
+    /**
+     * Creation month of a recipe as the quantity of months since year zero.
+     */
+    private static final String CREATION_MONTH = "extract(year from" + " " + CREATION_DATE_FIELD + ") * 12" + " "
+            + "+ extract(month from" + " " + CREATION_DATE_FIELD + ") - 1";
+
+    /**
+     * Recipes restricted to the ids found by the in-memory indexes. The id list goes first,
+     * so the recipes are fetched by primary key instead of being scanned.
+     */
+    private static final String CANDIDATES_SOURCE = "unnest(cast(? as bigint array["
+            + DescriptionIndex.MAX_CANDIDATE_QTY + "])) as candidates(candidate_id)" + " "
+            + "join" + " " + TABLE_NAME + " " + "on" + " "
+            + TABLE_NAME + "." + ID_FIELD + " " + "= candidates.candidate_id";
+
+    private static final String SWEEPS_TABLE_NAME = "recipe_expiry_sweeps";
+    private static final String LAST_SWEEP_DATE_FIELD = "last_sweep_date";
+
+    /**
+     * Id of the only row of {@code SWEEPS_TABLE_NAME}.
+     */
+    private static final int SWEEP_ID = 1;
+
+    private static final int DEFAULT_CURSOR_FETCH_SIZE = 1000;
+
     private DataSource dataSource;
+    private int batchSize = JdbcBatches.DEFAULT_BATCH_SIZE;
+    private int cursorFetchSize = DEFAULT_CURSOR_FETCH_SIZE;
+    private volatile DescriptionIndex descriptionIndex = new DescriptionIndex();
+    private volatile ExpiryIndex expiryIndex = new ExpiryIndex();
 
     public RecipeDaoImpl() {
     }
@@ -38,61 +140,140 @@ public class RecipeDaoImpl implements RecipeDao {
         this.dataSource = dataSource;
     }
 
-    @Override
-    public void add(Recipe entity) {
-        String query = "insert into" + " " + TABLE_NAME + " "
-                + "("
-                + PATIENT_ID_FIELD + ","
-                + DOCTOR_ID_FIELD + ","
-                + DESCRIPTION_FIELD + ","
-                + CREATION_DATE_FIELD + ","
-                + VALIDITY_FIELD + ","
-                + PRIORITY_FIELD
-                + ")"
-                + "values (?, ?, ?, ?, ?, ?)";
+    /**
+     * Sets max quantity of rows sent to the database in one JDBC batch.
+     *
+     * @param batchSize max quantity of rows in one batch
+     */
+    @Value("${dao.batch-size:" + JdbcBatches.DEFAULT_BATCH_SIZE + "}")
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets quantity of rows fetched from the database at once by {@link #forEachFound(RecipeFilter, Consumer)}.
+     *
+     * @param cursorFetchSize quantity of rows fetched at once
+     */
+    @Value("${dao.cursor-fetch-size:" + DEFAULT_CURSOR_FETCH_SIZE + "}")
+    public void setCursorFetchSize(int cursorFetchSize) {
+        this.cursorFetchSize = cursorFetchSize;
+    }
+
+    /**
+     * Rebuilds in-memory data derived from the {@code recipes} table: description and expiry indexes.
+     */
+    @PostConstruct
+    public void initialize() {
+        rebuildDescriptionIndex();
+        rebuildExpiryIndex();
+    }
+
+    /**
+     * Recalculates recipe counters of doctors and patients from the {@code recipes} table.
+     * <p>
+     * The counters are filled by the schema migration and changed by every write, so this is only a maintenance
+     * operation for recipes changed bypassing the DAO. It scans the whole table and isn't called on startup.
+     */
+    public void rebuildRecipeQtyCounters() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                RecipeQtyCounters.rebuild(connection);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.rebuildRecipeQtyCounters", throwables);
+            throwables.printStackTrace();
+        }
+    }
+
+    /**
+     * Rebuilds in-memory description index from the {@code recipes} table.
+     */
+    public void rebuildDescriptionIndex() {
+        String query = "select" + " " + ID_FIELD + "," + " " + DESCRIPTION_FIELD + " " + "from" + " " + TABLE_NAME;
+        DescriptionIndex index = new DescriptionIndex();
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setLong(1, entity.getPatientId());
-            preparedStatement.setLong(2, entity.getDoctorId());
-            preparedStatement.setString(3, entity.getDescription());
-            preparedStatement.setObject(4, entity.getCreationDate());
-            preparedStatement.setInt(5, entity.getValidity());
-            preparedStatement.setString(6, entity.getPriority().name());
-            preparedStatement.executeUpdate();
+             Statement statement = connection.createStatement()) {
+            statement.setFetchSize(batchSize);
+            try (ResultSet resultSet = statement.executeQuery(query)) {
+                while (resultSet.next()) {
+                    index.add(resultSet.getLong(1), resultSet.getString(2));
+                }
+            }
+            index.trimToSize();
+            descriptionIndex = index;
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.rebuildDescriptionIndex", throwables);
             throwables.printStackTrace();
         }
     }
 
-    @Override
-    public void update(Recipe entity) throws ElementDoesNotExistException {
-        String query = "update" + " " + TABLE_NAME + " "
-                + "set" + " "
-                + PATIENT_ID_FIELD + " " + "= ?," + " "
-                + DOCTOR_ID_FIELD + " " + "= ?," + " "
-                + DESCRIPTION_FIELD + " " + "= ?," + " "
-                + CREATION_DATE_FIELD + " " + "= ?," + " "
-                + VALIDITY_FIELD + " " + "= ?," + " "
-                + PRIORITY_FIELD + " " + "= ?" + " "
-                + "where" + " "
-                + ID_FIELD + " " + "= ?";
+    /**
+     * Rebuilds in-memory expiry index from the {@code recipes} table.
+     */
+    public void rebuildExpiryIndex() {
+        String query = "select" + " " + ID_FIELD + "," + " " + CREATION_DATE_FIELD + "," + " " + VALIDITY_FIELD + " "
+                + "from" + " " + TABLE_NAME;
+        ExpiryIndex index = new ExpiryIndex();
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setLong(1, entity.getPatientId());
-            preparedStatement.setLong(2, entity.getDoctorId());
-            preparedStatement.setString(3, entity.getDescription());
-            preparedStatement.setObject(4, entity.getCreationDate());
-            preparedStatement.setInt(5, entity.getValidity());
-            preparedStatement.setString(6, entity.getPriority().name());
-            preparedStatement.setLong(7, entity.getId());
-            int affectedRowsQty = preparedStatement.executeUpdate();
+             Statement statement = connection.createStatement()) {
+            statement.setFetchSize(batchSize);
+            try (ResultSet resultSet = statement.executeQuery(query)) {
+                while (resultSet.next()) {
+                    index.add(resultSet.getLong(1), ExpiryIndex.getExpiryDay(resultSet.getDate(2), resultSet.getInt(3)));
+                }
+            }
+            index.trimToSize();
+            expiryIndex = index;
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.rebuildExpiryIndex", throwables);
+            throwables.printStackTrace();
+        }
+    }
+
+    @Override
+    public Long add(Recipe entity) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_QUERY,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                setInsertParameters(preparedStatement, entity);
+                preparedStatement.executeUpdate();
 
-            if (affectedRowsQty == 0) {
-                throw new ElementDoesNotExistException();
+                RecipeQtyCounters.Deltas deltas = new RecipeQtyCounters.Deltas();
+                deltas.add(entity.getDoctorId(), entity.getPatientId(), 1);
+                RecipeQtyCounters.apply(connection, deltas);
+                connection.commit();
+
+                try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        entity.setId(generatedKeys.getLong(1));
+                        DaoTransactions.afterCommit(() -> indexRecipe(entity));
+                    }
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.add", throwables);
             throwables.printStackTrace();
         }
+        return entity.getId();
+    }
+
+    @Override
+    public void update(Recipe entity) throws ElementDoesNotExistException {
+        updateAll(Collections.singletonList(entity));
     }
 
     @Override
@@ -105,18 +286,13 @@ public class RecipeDaoImpl implements RecipeDao {
             preparedStatement.setLong(1, id);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
-                    recipe.setId(resultSet.getLong(ID_FIELD));
-                    recipe.setPatientId(resultSet.getLong(PATIENT_ID_FIELD));
-                    recipe.setDoctorId(resultSet.getLong(DOCTOR_ID_FIELD));
-                    recipe.setDescription(resultSet.getString(DESCRIPTION_FIELD));
-                    recipe.setCreationDate(resultSet.getDate(CREATION_DATE_FIELD));
-                    recipe.setValidity(resultSet.getInt(VALIDITY_FIELD));
-                    recipe.setPriority(Priority.valueOf(resultSet.getString(PRIORITY_FIELD)));
+                    recipe = RecipeRowMapper.of(resultSet.getMetaData()).mapRow(resultSet);
                 } else {
                     throw new ElementDoesNotExistException();
                 }
             }
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getById", throwables);
             throwables.printStackTrace();
         }
 
@@ -126,17 +302,42 @@ public class RecipeDaoImpl implements RecipeDao {
     @Override
     public void delete(Recipe entity) throws ElementDoesNotExistException {
         String query = "delete from" + " " + TABLE_NAME + " " + "where" + " " + ID_FIELD + " " + "= ?";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setLong(1, entity.getId());
-            int affectedRowsQty = preparedStatement.executeUpdate();
+        boolean deleted = true;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                Recipe storedRecipe = getStoredRecipes(connection, Collections.singletonList(entity.getId()))
+                        .get(entity.getId());
+                preparedStatement.setLong(1, entity.getId());
+                deleted = storedRecipe != null && preparedStatement.executeUpdate() > 0;
 
-            if (affectedRowsQty == 0) {
-                throw new ElementDoesNotExistException();
+                if (deleted) {
+                    RecipeQtyCounters.Deltas deltas = new RecipeQtyCounters.Deltas();
+                    deltas.add(storedRecipe.getDoctorId(), storedRecipe.getPatientId(), -1);
+                    RecipeQtyCounters.apply(connection, deltas);
+                    connection.commit();
+                    DaoTransactions.afterCommit(() -> {
+                        descriptionIndex.remove(storedRecipe.getId(), storedRecipe.getDescription());
+                        expiryIndex.remove(storedRecipe.getId(),
+                                ExpiryIndex.getExpiryDay(storedRecipe.getCreationDate(), storedRecipe.getValidity()));
+                    });
+                } else {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.delete", throwables);
             throwables.printStackTrace();
         }
+
+        if (!deleted) {
+            throw new ElementDoesNotExistException();
+        }
     }
 
     @Override
@@ -146,19 +347,12 @@ public class RecipeDaoImpl implements RecipeDao {
         try (Connection connection = dataSource.getConnection();
              Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery(query)) {
+            RecipeRowMapper rowMapper = RecipeRowMapper.of(resultSet.getMetaData());
             while (resultSet.next()) {
-                Recipe recipe = new Recipe();
-                recipe.setId(resultSet.getLong(ID_FIELD));
-                recipe.setPatientId(resultSet.getLong(PATIENT_ID_FIELD));
-                recipe.setDoctorId(resultSet.getLong(DOCTOR_ID_FIELD));
-                recipe.setDescription(resultSet.getString(DESCRIPTION_FIELD));
-                recipe.setCreationDate(resultSet.getDate(CREATION_DATE_FIELD));
-                recipe.setValidity(resultSet.getInt(VALIDITY_FIELD));
-                recipe.setPriority(Priority.valueOf(resultSet.getString(PRIORITY_FIELD)));
-
-                recipes.add(recipe);
+                recipes.add(rowMapper.mapRow(resultSet));
             }
         } catch (SQLException e) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getAll", e);
             e.printStackTrace();
         }
 
@@ -167,84 +361,766 @@ public class RecipeDaoImpl implements RecipeDao {
 
     @Override
     public int getRecipeQtyByPatientId(long patientId) {
-        String query = "select count(*) from" + " " + TABLE_NAME + " "
-                + "where" + " " + PATIENT_ID_FIELD + " " + "= ?";
         int recipeQty = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            recipeQty = RecipeQtyCounters.get(connection, RecipeQtyCounters.PATIENT_COUNTERS_TABLE_NAME,
+                    RecipeQtyCounters.PATIENT_ID_FIELD, patientId);
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getRecipeQtyByPatientId", throwables);
+            throwables.printStackTrace();
+        }
+
+        return recipeQty;
+    }
+
+    @Override
+    public int getRecipeQtyByDoctorId(long doctorId) {
+        int recipeQty = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            recipeQty = RecipeQtyCounters.get(connection, RecipeQtyCounters.DOCTOR_COUNTERS_TABLE_NAME,
+                    RecipeQtyCounters.DOCTOR_ID_FIELD, doctorId);
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getRecipeQtyByDoctorId", throwables);
+            throwables.printStackTrace();
+        }
+
+        return recipeQty;
+    }
+
+    @Override
+    public Map<Long, Integer> getRecipeQtyForAllDoctors() {
+        Map<Long, Integer> recipeQtys = new HashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            recipeQtys = RecipeQtyCounters.getAll(connection, RecipeQtyCounters.DOCTOR_COUNTERS_TABLE_NAME,
+                    RecipeQtyCounters.DOCTOR_ID_FIELD);
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getRecipeQtyForAllDoctors", throwables);
+            throwables.printStackTrace();
+        }
+
+        return recipeQtys;
+    }
+
+    @Override
+    public Map<Long, DoctorStatistics> getStatisticsForAllDoctors() {
+        String patientQtyQuery = "select" + " " + DOCTOR_ID_FIELD + "," + " " + "count(*)," + " "
+                + "count(distinct" + " " + PATIENT_ID_FIELD + ")" + " "
+                + "from" + " " + TABLE_NAME + " "
+                + "group by" + " " + DOCTOR_ID_FIELD;
+        String priorityQuery = "select" + " " + DOCTOR_ID_FIELD + "," + " " + PRIORITY_FIELD + "," + " " + "count(*)" + " "
+                + "from" + " " + TABLE_NAME + " "
+                + "group by" + " " + DOCTOR_ID_FIELD + "," + " " + PRIORITY_FIELD;
+        String monthQuery = "select" + " " + DOCTOR_ID_FIELD + "," + " " + CREATION_MONTH + "," + " " + "count(*)" + " "
+                + "from" + " " + TABLE_NAME + " "
+                + "group by" + " " + DOCTOR_ID_FIELD + "," + " " + CREATION_MONTH;
+        Map<Long, DoctorStatistics> statistics = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery(patientQtyQuery)) {
+                while (resultSet.next()) {
+                    DoctorStatistics doctorStatistics = new DoctorStatistics(resultSet.getLong(1));
+                    doctorStatistics.setRecipeQty(resultSet.getInt(2));
+                    doctorStatistics.setPatientQty(resultSet.getInt(3));
+                    statistics.put(doctorStatistics.getDoctorId(), doctorStatistics);
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery(priorityQuery)) {
+                while (resultSet.next()) {
+                    statistics.computeIfAbsent(resultSet.getLong(1), DoctorStatistics::new)
+                            .setRecipeQty(Priority.fromName(resultSet.getString(2)), resultSet.getInt(3));
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery(monthQuery)) {
+                while (resultSet.next()) {
+                    int month = resultSet.getInt(2);
+                    statistics.computeIfAbsent(resultSet.getLong(1), DoctorStatistics::new)
+                            .setRecipeQty(YearMonth.of(month / 12, month % 12 + 1), resultSet.getInt(3));
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getStatisticsForAllDoctors", throwables);
+            throwables.printStackTrace();
+        }
+
+        return statistics;
+    }
+
+    @Override
+    public List<RecipeListItem> findAll(RecipeFilter filter) {
+        List<RecipeListItem> recipes = new ArrayList<>();
+        int[] candidateIds = getCandidateIds(filter);
+        if (candidateIds != null && candidateIds.length == 0) {
+            return recipes;
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(getFindQuery(filter, candidateIds))) {
+            setFilterParameters(preparedStatement, filter, candidateIds);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                RecipeListItemRowMapper rowMapper = RecipeListItemRowMapper.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    recipes.add(rowMapper.mapRow(resultSet));
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.findAll", throwables);
+            throwables.printStackTrace();
+        }
+
+        return recipes;
+    }
+
+    @Override
+    public int forEachFound(RecipeFilter filter, Consumer<RecipeListItem> consumer) {
+        int foundQty = 0;
+        int[] candidateIds = getCandidateIds(filter);
+        if (candidateIds != null && candidateIds.length == 0) {
+            return foundQty;
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(getFindQuery(filter, candidateIds),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            preparedStatement.setFetchSize(cursorFetchSize);
+            setFilterParameters(preparedStatement, filter, candidateIds);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                RecipeListItemRowMapper rowMapper = RecipeListItemRowMapper.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    consumer.accept(rowMapper.mapRow(resultSet));
+                    foundQty++;
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.forEachFound", throwables);
+            throwables.printStackTrace();
+        }
+
+        return foundQty;
+    }
+
+    @Override
+    public List<Recipe> getPage(int offset, int limit) {
+        String query = "select * from" + " " + TABLE_NAME + " "
+                + "order by" + " " + ID_FIELD + " "
+                + "limit ? offset ?";
+        List<Recipe> recipes = new ArrayList<>();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setLong(1, patientId);
+            preparedStatement.setInt(1, limit);
+            preparedStatement.setInt(2, offset);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    recipeQty = resultSet.getInt(1);
+                RecipeRowMapper rowMapper = RecipeRowMapper.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    recipes.add(rowMapper.mapRow(resultSet));
                 }
             }
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getPage", throwables);
             throwables.printStackTrace();
         }
 
-        return recipeQty;
+        return recipes;
     }
 
     @Override
-    public int getRecipeQtyByDoctorId(long doctorId) {
-        String query = "select count(*) from" + " " + TABLE_NAME + " "
-                + "where" + " " + DOCTOR_ID_FIELD + " " + "= ?";
-        int recipeQty = 0;
+    public List<Recipe> getPageAfter(long afterId, int limit) {
+        String query = "select * from" + " " + TABLE_NAME + " "
+                + "where" + " " + ID_FIELD + " " + "> ?" + " "
+                + "order by" + " " + ID_FIELD + " "
+                + "limit ?";
+        List<Recipe> recipes = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setLong(1, afterId);
+            preparedStatement.setInt(2, limit);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                RecipeRowMapper rowMapper = RecipeRowMapper.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    recipes.add(rowMapper.mapRow(resultSet));
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getPageAfter", throwables);
+            throwables.printStackTrace();
+        }
+
+        return recipes;
+    }
+
+    @Override
+    public int getCount() {
+        String query = "select count(*) from" + " " + TABLE_NAME;
+        int count = 0;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            if (resultSet.next()) {
+                count = resultSet.getInt(1);
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getCount", throwables);
+            throwables.printStackTrace();
+        }
+
+        return count;
+    }
+
+    @Override
+    public List<RecipeListItem> findPage(RecipeFilter filter, int offset, int limit) {
+        List<RecipeListItem> recipes = new ArrayList<>();
+        int[] candidateIds = getCandidateIds(filter);
+        if (candidateIds != null && candidateIds.length == 0) {
+            return recipes;
+        }
+
+        String query = LIST_ITEM_SELECT + " "
+                + "from" + " " + getFilterSource(candidateIds) + " "
+                + LIST_ITEM_JOINS + " "
+                + getFilterCondition(filter) + " "
+                + "order by" + " " + TABLE_NAME + "." + ID_FIELD + " "
+                + "limit ? offset ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            int parameterIndex = setFilterParameters(preparedStatement, filter, candidateIds);
+            preparedStatement.setInt(parameterIndex++, limit);
+            preparedStatement.setInt(parameterIndex, offset);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                RecipeListItemRowMapper rowMapper = RecipeListItemRowMapper.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    recipes.add(rowMapper.mapRow(resultSet));
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.findPage", throwables);
+            throwables.printStackTrace();
+        }
+
+        return recipes;
+    }
+
+    @Override
+    public int findCount(RecipeFilter filter) {
+        int count = 0;
+        int[] candidateIds = getCandidateIds(filter);
+        if (candidateIds != null && candidateIds.length == 0) {
+            return count;
+        }
+
+        String query = "select count(*) from" + " " + getFilterSource(candidateIds) + " "
+                + getFilterCondition(filter);
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setLong(1, doctorId);
+            setFilterParameters(preparedStatement, filter, candidateIds);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
-                    recipeQty = resultSet.getInt(1);
+                    count = resultSet.getInt(1);
                 }
             }
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.findCount", throwables);
             throwables.printStackTrace();
         }
 
-        return recipeQty;
+        return count;
     }
 
     @Override
-    public List<Recipe> findAll(Long patientId, String priority, String description) {
-        String query = "select * from" + " " + TABLE_NAME + " "
-                + "where" + " " + PRIORITY_FIELD + " " + "like ? and" + " "
-                + DESCRIPTION_FIELD + " " + "like ?";
-        String patientNotNullQuery = " " + "and" + " " + PATIENT_ID_FIELD + " " + "= ?";
+    public List<Recipe> getExpiring(LocalDate afterDate, LocalDate toDate) {
         List<Recipe> recipes = new ArrayList<>();
-        if (patientId == null && priority == null && description.equals("")) {
-            recipes = getAll();
+        int[] ids = expiryIndex.search(afterDate, toDate, Integer.MAX_VALUE);
+        if (ids != null && ids.length == 0) {
+            return recipes;
+        }
+
+        String condition = "where" + " " + EXPIRY_DATE + " " + "<= ?";
+        if (afterDate != null) {
+            condition = condition + " " + "and" + " " + EXPIRY_DATE + " " + "> ?";
+        }
+        String query = "select" + " " + TABLE_NAME + ".*" + " "
+                + "from" + " " + (ids == null ? TABLE_NAME : CANDIDATES_SOURCE) + " "
+                + condition + " "
+                + "order by" + " " + TABLE_NAME + "." + ID_FIELD;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            int chunkQty = ids == null ? 1 : (ids.length - 1) / DescriptionIndex.MAX_CANDIDATE_QTY + 1;
+            for (int chunk = 0; chunk < chunkQty; chunk++) {
+                int parameterIndex = 1;
+                if (ids != null) {
+                    int from = chunk * DescriptionIndex.MAX_CANDIDATE_QTY;
+                    int to = Math.min(from + DescriptionIndex.MAX_CANDIDATE_QTY, ids.length);
+                    preparedStatement.setArray(parameterIndex++, createIdArray(connection, ids, from, to));
+                }
+                preparedStatement.setDate(parameterIndex++, Date.valueOf(toDate));
+                if (afterDate != null) {
+                    preparedStatement.setDate(parameterIndex, Date.valueOf(afterDate));
+                }
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    RecipeRowMapper rowMapper = RecipeRowMapper.of(resultSet.getMetaData());
+                    while (resultSet.next()) {
+                        recipes.add(rowMapper.mapRow(resultSet));
+                    }
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getExpiring", throwables);
+            throwables.printStackTrace();
         }
 
-        if (patientId != null) {
-            query = query + patientNotNullQuery;
+        return recipes;
+    }
+
+    @Override
+    public List<Long> getExpiringIds(LocalDate afterDate, LocalDate toDate) {
+        List<Long> ids = new ArrayList<>();
+        int[] indexedIds = expiryIndex.search(afterDate, toDate, Integer.MAX_VALUE);
+        if (indexedIds != null) {
+            for (int id : indexedIds) {
+                ids.add((long) id);
+            }
+            return ids;
+        }
+
+        String condition = "where" + " " + EXPIRY_DATE + " " + "<= ?";
+        if (afterDate != null) {
+            condition = condition + " " + "and" + " " + EXPIRY_DATE + " " + "> ?";
+        }
+        String query = "select" + " " + ID_FIELD + " " + "from" + " " + TABLE_NAME + " "
+                + condition + " "
+                + "order by" + " " + ID_FIELD;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setDate(1, Date.valueOf(toDate));
+            if (afterDate != null) {
+                preparedStatement.setDate(2, Date.valueOf(afterDate));
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getExpiringIds", throwables);
+            throwables.printStackTrace();
         }
 
+        return ids;
+    }
+
+    @Override
+    public LocalDate getLastExpirySweepDate() {
+        LocalDate sweepDate = null;
+        String query = "select" + " " + LAST_SWEEP_DATE_FIELD + " " + "from" + " " + SWEEPS_TABLE_NAME + " "
+                + "where" + " " + ID_FIELD + " " + "= ?";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setString(1, "%" + priority);
-            preparedStatement.setString(2, "%" + description + "%");
-            if (patientId != null) {
-                preparedStatement.setLong(3, patientId);
+            preparedStatement.setInt(1, SWEEP_ID);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    sweepDate = resultSet.getDate(1).toLocalDate();
+                }
             }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getLastExpirySweepDate", throwables);
+            throwables.printStackTrace();
+        }
+
+        return sweepDate;
+    }
+
+    @Override
+    public void setLastExpirySweepDate(LocalDate sweepDate) {
+        String query = "merge into" + " " + SWEEPS_TABLE_NAME + " "
+                + "using (values(cast(? as int), cast(? as date))) as sweep(" + ID_FIELD + "," + " "
+                + LAST_SWEEP_DATE_FIELD + ")" + " "
+                + "on" + " " + SWEEPS_TABLE_NAME + "." + ID_FIELD + " " + "= sweep." + ID_FIELD + " "
+                + "when matched then update set" + " " + SWEEPS_TABLE_NAME + "." + LAST_SWEEP_DATE_FIELD + " "
+                + "= sweep." + LAST_SWEEP_DATE_FIELD + " "
+                + "when not matched then insert values sweep." + ID_FIELD + "," + " "
+                + "sweep." + LAST_SWEEP_DATE_FIELD;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setInt(1, SWEEP_ID);
+            preparedStatement.setDate(2, Date.valueOf(sweepDate));
+            preparedStatement.executeUpdate();
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.setLastExpirySweepDate", throwables);
+            throwables.printStackTrace();
+        }
+    }
+
+    @Override
+    public List<RecipeListItem> getListItemPage(int offset, int limit) {
+        String query = LIST_ITEM_QUERY + " "
+                + "order by" + " " + TABLE_NAME + "." + ID_FIELD + " "
+                + "limit ? offset ?";
+        List<RecipeListItem> recipes = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setInt(1, limit);
+            preparedStatement.setInt(2, offset);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                RecipeListItemRowMapper rowMapper = RecipeListItemRowMapper.of(resultSet.getMetaData());
                 while (resultSet.next()) {
-                    Recipe recipe = new Recipe();
-                    recipe.setId(resultSet.getLong(ID_FIELD));
-                    recipe.setPatientId(resultSet.getLong(PATIENT_ID_FIELD));
-                    recipe.setDoctorId(resultSet.getLong(DOCTOR_ID_FIELD));
-                    recipe.setDescription(resultSet.getString(DESCRIPTION_FIELD));
-                    recipe.setCreationDate(resultSet.getDate(CREATION_DATE_FIELD));
-                    recipe.setValidity(resultSet.getInt(VALIDITY_FIELD));
-                    recipe.setPriority(Priority.valueOf(resultSet.getString(PRIORITY_FIELD)));
+                    recipes.add(rowMapper.mapRow(resultSet));
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getListItemPage", throwables);
+            throwables.printStackTrace();
+        }
 
-                    recipes.add(recipe);
+        return recipes;
+    }
+
+    @Override
+    public List<RecipeListItem> getListItemPageAfter(long afterId, int limit) {
+        String query = LIST_ITEM_QUERY + " "
+                + "where" + " " + TABLE_NAME + "." + ID_FIELD + " " + "> ?" + " "
+                + "order by" + " " + TABLE_NAME + "." + ID_FIELD + " "
+                + "limit ?";
+        List<RecipeListItem> recipes = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setLong(1, afterId);
+            preparedStatement.setInt(2, limit);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                RecipeListItemRowMapper rowMapper = RecipeListItemRowMapper.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    recipes.add(rowMapper.mapRow(resultSet));
                 }
             }
         } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getListItemPageAfter", throwables);
             throwables.printStackTrace();
         }
 
         return recipes;
     }
+
+    @Override
+    public RecipeListItem getListItemById(long id) throws ElementDoesNotExistException {
+        String query = LIST_ITEM_QUERY + " "
+                + "where" + " " + TABLE_NAME + "." + ID_FIELD + " " + "= ?";
+        RecipeListItem recipe = null;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setLong(1, id);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    recipe = RecipeListItemRowMapper.of(resultSet.getMetaData()).mapRow(resultSet);
+                } else {
+                    throw new ElementDoesNotExistException();
+                }
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.getListItemById", throwables);
+            throwables.printStackTrace();
+        }
+
+        return recipe;
+    }
+
+    @Override
+    public void addAll(Collection<Recipe> entities) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long[] ids = JdbcBatches.insert(connection, INSERT_QUERY, entities, batchSize,
+                        this::setInsertParameters);
+
+                RecipeQtyCounters.Deltas deltas = new RecipeQtyCounters.Deltas();
+                for (Recipe entity : entities) {
+                    deltas.add(entity.getDoctorId(), entity.getPatientId(), 1);
+                }
+                RecipeQtyCounters.apply(connection, deltas);
+                connection.commit();
+
+                int i = 0;
+                for (Recipe entity : entities) {
+                    entity.setId(ids[i++]);
+                }
+                DaoTransactions.afterCommit(() -> entities.forEach(this::indexRecipe));
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.addAll", throwables);
+            throwables.printStackTrace();
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<Recipe> entities) throws ElementDoesNotExistException {
+        boolean allUpdated = true;
+        boolean allExist = true;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                List<Long> ids = new ArrayList<>(entities.size());
+                for (Recipe entity : entities) {
+                    ids.add(entity.getId());
+                }
+                Map<Long, Recipe> storedRecipes = getStoredRecipes(connection, ids);
+                for (Recipe entity : entities) {
+                    Recipe storedRecipe = storedRecipes.get(entity.getId());
+                    if (storedRecipe == null) {
+                        allExist = false;
+                        allUpdated = false;
+                    } else if (storedRecipe.getVersion() != entity.getVersion()) {
+                        allUpdated = false;
+                    }
+                }
+
+                if (allUpdated) {
+                    allUpdated = JdbcBatches.update(connection, UPDATE_QUERY, entities, batchSize,
+                            this::setUpdateParameters);
+                }
+                if (allUpdated) {
+                    RecipeQtyCounters.Deltas deltas = new RecipeQtyCounters.Deltas();
+                    for (Recipe entity : entities) {
+                        Recipe storedRecipe = storedRecipes.get(entity.getId());
+                        deltas.add(storedRecipe.getDoctorId(), storedRecipe.getPatientId(), -1);
+                        deltas.add(entity.getDoctorId(), entity.getPatientId(), 1);
+                    }
+                    RecipeQtyCounters.apply(connection, deltas);
+                    connection.commit();
+
+                    DaoTransactions.afterCommit(() -> {
+                        for (Recipe entity : entities) {
+                            entity.setVersion(entity.getVersion() + 1);
+                            Recipe storedRecipe = storedRecipes.get(entity.getId());
+                            descriptionIndex.update(entity.getId(), storedRecipe.getDescription(),
+                                    entity.getDescription());
+                            expiryIndex.update(entity.getId(),
+                                    ExpiryIndex.getExpiryDay(storedRecipe.getCreationDate(),
+                                            storedRecipe.getValidity()),
+                                    ExpiryIndex.getExpiryDay(entity.getCreationDate(), entity.getValidity()));
+                        }
+                    });
+                } else {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException throwables) {
+            DaoTransactions.rethrowInTransaction("RecipeDao.updateAll", throwables);
+            throwables.printStackTrace();
+        }
+
+        if (!allUpdated) {
+            throw allExist ? new StaleElementException() : new ElementDoesNotExistException();
+        }
+    }
+
+    /**
+     * Adds the specified committed recipe to the in-memory indexes.
+     *
+     * @param entity recipe with its id
+     */
+    private void indexRecipe(Recipe entity) {
+        descriptionIndex.add(entity.getId(), entity.getDescription());
+        expiryIndex.add(entity.getId(), ExpiryIndex.getExpiryDay(entity.getCreationDate(), entity.getValidity()));
+    }
+
+    /**
+     * Returns currently stored recipes with the specified ids.
+     *
+     * @param connection connection to be used
+     * @param ids        recipe ids
+     * @return stored recipes by id, missing recipes are absent.
+     * @throws SQLException if the recipes can't be read
+     */
+    private Map<Long, Recipe> getStoredRecipes(Connection connection, Collection<Long> ids) throws SQLException {
+        String query = "select * from" + " " + TABLE_NAME + " "
+                + "where" + " " + ID_FIELD + " " + "in (unnest(?))";
+        Map<Long, Recipe> recipes = new HashMap<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setArray(1, connection.createArrayOf("BIGINT", ids.toArray()));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                RecipeRowMapper rowMapper = RecipeRowMapper.of(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    Recipe recipe = rowMapper.mapRow(resultSet);
+                    recipes.put(recipe.getId(), recipe);
+                }
+            }
+        }
+        return recipes;
+    }
+
+    /**
+     * Returns ids of the recipes which may match the specified filter, found by the in-memory indexes.
+     *
+     * @param filter recipe filter
+     * @return sorted candidate ids or {@code null} if the indexes can't narrow the search.
+     */
+    private int[] getCandidateIds(RecipeFilter filter) {
+        int[] candidateIds = descriptionIndex.search(filter.getDescription());
+        if (filter.getExpiresBy() != null && (candidateIds == null || candidateIds.length > 0)) {
+            int[] expiringIds = expiryIndex.search(filter.getExpiresAfter(), filter.getExpiresBy(),
+                    DescriptionIndex.MAX_CANDIDATE_QTY);
+            if (candidateIds == null) {
+                candidateIds = expiringIds;
+            } else if (expiringIds != null) {
+                candidateIds = intersect(candidateIds, expiringIds);
+            }
+        }
+        return candidateIds;
+    }
+
+    /**
+     * Returns ids present in both specified sorted arrays.
+     *
+     * @return sorted common ids.
+     */
+    private static int[] intersect(int[] ids, int[] otherIds) {
+        int[] commonIds = new int[Math.min(ids.length, otherIds.length)];
+        int commonQty = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ids.length && j < otherIds.length) {
+            if (ids[i] < otherIds[j]) {
+                i++;
+            } else if (ids[i] > otherIds[j]) {
+                j++;
+            } else {
+                commonIds[commonQty++] = ids[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(commonIds, commonQty);
+    }
+
+    /**
+     * Returns query of the recipe list items filtered by the specified filter, ordered by id.
+     *
+     * @param filter       recipe filter
+     * @param candidateIds ids found by the in-memory indexes, {@code null} if the indexes weren't used
+     * @return query of the filtered recipe list items.
+     */
+    private String getFindQuery(RecipeFilter filter, int[] candidateIds) {
+        return LIST_ITEM_SELECT + " "
+                + "from" + " " + getFilterSource(candidateIds) + " "
+                + LIST_ITEM_JOINS + " "
+                + getFilterCondition(filter) + " "
+                + "order by" + " " + TABLE_NAME + "." + ID_FIELD;
+    }
+
+    /**
+     * Returns {@code from} clause source of the filtered recipes.
+     *
+     * @param candidateIds ids found by the in-memory indexes, {@code null} if the indexes weren't used
+     * @return recipes table or recipes restricted to the specified ids.
+     */
+    private String getFilterSource(int[] candidateIds) {
+        return candidateIds == null ? TABLE_NAME : CANDIDATES_SOURCE;
+    }
+
+    /**
+     * Returns {@code where} clause of the recipe filter.
+     *
+     * @param filter recipe filter
+     * @return {@code where} clause for the specified filter.
+     */
+    private String getFilterCondition(RecipeFilter filter) {
+        String condition = "where" + " " + PRIORITY_FIELD + " " + "like ? and" + " "
+                + DESCRIPTION_FIELD + " " + "like ?";
+        if (filter.getPatientId() != null) {
+            condition = condition + " " + "and" + " " + PATIENT_ID_FIELD + " " + "= ?";
+        }
+        if (filter.getExpiresAfter() != null) {
+            condition = condition + " " + "and" + " " + EXPIRY_DATE + " " + "> ?";
+        }
+        if (filter.getExpiresBy() != null) {
+            condition = condition + " " + "and" + " " + EXPIRY_DATE + " " + "<= ?";
+        }
+        return condition;
+    }
+
+    /**
+     * Sets parameters of the {@code from} and {@code where} clauses returned by
+     * {@link #getFilterSource(int[])} and {@link #getFilterCondition(RecipeFilter)}.
+     *
+     * @param preparedStatement statement to be filled
+     * @param filter            recipe filter
+     * @param candidateIds      ids found by the in-memory indexes, {@code null} if the indexes weren't used
+     * @return index of the next statement parameter.
+     * @throws SQLException if a parameter can't be set
+     */
+    private int setFilterParameters(PreparedStatement preparedStatement, RecipeFilter filter,
+                                    int[] candidateIds) throws SQLException {
+        int parameterIndex = 1;
+        if (candidateIds != null) {
+            preparedStatement.setArray(parameterIndex++,
+                    createIdArray(preparedStatement.getConnection(), candidateIds, 0, candidateIds.length));
+        }
+        String priority = filter.getPriority();
+        String description = filter.getDescription();
+        preparedStatement.setString(parameterIndex++, "%" + (priority == null ? "" : priority));
+        preparedStatement.setString(parameterIndex++, "%" + (description == null ? "" : description) + "%");
+        if (filter.getPatientId() != null) {
+            preparedStatement.setLong(parameterIndex++, filter.getPatientId());
+        }
+        if (filter.getExpiresAfter() != null) {
+            preparedStatement.setDate(parameterIndex++, Date.valueOf(filter.getExpiresAfter()));
+        }
+        if (filter.getExpiresBy() != null) {
+            preparedStatement.setDate(parameterIndex++, Date.valueOf(filter.getExpiresBy()));
+        }
+        return parameterIndex;
+    }
+
+    /**
+     * Returns SQL array of the specified range of ids.
+     *
+     * @param connection connection to be used
+     * @param ids        ids
+     * @param from       index of the first id inclusive
+     * @param to         index of the last id exclusive
+     * @return SQL {@code BIGINT} array of the ids.
+     * @throws SQLException if the array can't be created
+     */
+    private static Array createIdArray(Connection connection, int[] ids, int from, int to) throws SQLException {
+        Long[] elements = new Long[to - from];
+        for (int i = from; i < to; i++) {
+            elements[i - from] = (long) ids[i];
+        }
+        return connection.createArrayOf("BIGINT", elements);
+    }
+
+    /**
+     * Sets {@code INSERT_QUERY} parameters for the specified entity.
+     *
+     * @param preparedStatement statement to be filled
+     * @param entity            entity to be inserted
+     * @throws SQLException if a parameter can't be set
+     */
+    private void setInsertParameters(PreparedStatement preparedStatement, Recipe entity) throws SQLException {
+        preparedStatement.setLong(1, entity.getPatientId());
+        preparedStatement.setLong(2, entity.getDoctorId());
+        preparedStatement.setString(3, entity.getDescription());
+        preparedStatement.setObject(4, entity.getCreationDate());
+        preparedStatement.setInt(5, entity.getValidity());
+        preparedStatement.setString(6, entity.getPriority().name());
+    }
+
+    /**
+     * Sets {@code UPDATE_QUERY} parameters for the specified entity.
+     *
+     * @param preparedStatement statement to be filled
+     * @param entity            entity to be updated
+     * @throws SQLException if a parameter can't be set
+     */
+    private void setUpdateParameters(PreparedStatement preparedStatement, Recipe entity) throws SQLException {
+        setInsertParameters(preparedStatement, entity);
+        preparedStatement.setLong(7, entity.getId());
+        preparedStatement.setInt(8, entity.getVersion());
+    }
 }
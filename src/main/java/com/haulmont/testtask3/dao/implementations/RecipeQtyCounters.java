@@ -0,0 +1,149 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maintains per-doctor and per-patient recipe counter tables.
+ * <p>
+ * Counters are changed by deltas on the connection of the recipe write, so they are committed
+ * or rolled back together with it.
+ */
+final class RecipeQtyCounters {
+    static final String DOCTOR_COUNTERS_TABLE_NAME = "doctor_recipe_counts";
+    static final String PATIENT_COUNTERS_TABLE_NAME = "patient_recipe_counts";
+    static final String DOCTOR_ID_FIELD = "doctor_id";
+    static final String PATIENT_ID_FIELD = "patient_id";
+    static final String RECIPE_QTY_FIELD = "recipe_qty";
+
+    private static final String RECIPES_TABLE_NAME = "recipes";
+
+    private RecipeQtyCounters() {
+    }
+
+    /**
+     * Accumulates recipe quantity changes of one write.
+     */
+    static final class Deltas {
+        private final Map<Long, Integer> doctorDeltas = new HashMap<>();
+        private final Map<Long, Integer> patientDeltas = new HashMap<>();
+
+        /**
+         * Adds recipe quantity change for the specified doctor and patient.
+         *
+         * @param doctorId  doctor id
+         * @param patientId patient id
+         * @param delta     recipe quantity change
+         */
+        void add(long doctorId, long patientId, int delta) {
+            doctorDeltas.merge(doctorId, delta, Integer::sum);
+            patientDeltas.merge(patientId, delta, Integer::sum);
+        }
+    }
+
+    /**
+     * Applies specified deltas to the counter tables.
+     *
+     * @param connection connection of the recipe write
+     * @param deltas     deltas to be applied
+     * @throws SQLException if the counters can't be updated
+     */
+    static void apply(Connection connection, Deltas deltas) throws SQLException {
+        apply(connection, DOCTOR_COUNTERS_TABLE_NAME, DOCTOR_ID_FIELD, deltas.doctorDeltas);
+        apply(connection, PATIENT_COUNTERS_TABLE_NAME, PATIENT_ID_FIELD, deltas.patientDeltas);
+    }
+
+    /**
+     * Recalculates both counter tables from the {@code recipes} table.
+     *
+     * @param connection connection to be used
+     * @throws SQLException if the counters can't be recalculated
+     */
+    static void rebuild(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            rebuild(statement, DOCTOR_COUNTERS_TABLE_NAME, DOCTOR_ID_FIELD);
+            rebuild(statement, PATIENT_COUNTERS_TABLE_NAME, PATIENT_ID_FIELD);
+        }
+    }
+
+    /**
+     * Returns recipe quantity stored in the specified counter table.
+     *
+     * @param connection connection to be used
+     * @param tableName  counter table name
+     * @param keyField   counter key column
+     * @param id         doctor or patient id
+     * @return recipe quantity, {@code 0} if there is no counter row.
+     * @throws SQLException if the counter can't be read
+     */
+    static int get(Connection connection, String tableName, String keyField, long id) throws SQLException {
+        String query = "select" + " " + RECIPE_QTY_FIELD + " " + "from" + " " + tableName + " "
+                + "where" + " " + keyField + " " + "= ?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setLong(1, id);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Returns all non-zero recipe quantities stored in the specified counter table.
+     *
+     * @param connection connection to be used
+     * @param tableName  counter table name
+     * @param keyField   counter key column
+     * @return recipe quantities by doctor or patient id.
+     * @throws SQLException if the counters can't be read
+     */
+    static Map<Long, Integer> getAll(Connection connection, String tableName, String keyField)
+            throws SQLException {
+        String query = "select" + " " + keyField + "," + " " + RECIPE_QTY_FIELD + " " + "from" + " " + tableName + " "
+                + "where" + " " + RECIPE_QTY_FIELD + " " + "> 0";
+        Map<Long, Integer> recipeQtys = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                recipeQtys.put(resultSet.getLong(1), resultSet.getInt(2));
+            }
+        }
+        return recipeQtys;
+    }
+
+    private static void apply(Connection connection, String tableName, String keyField,
+                              Map<Long, Integer> deltas) throws SQLException {
+        String query = "merge into" + " " + tableName + " " + "using" + " "
+                + "(values(cast(? as bigint), cast(? as int))) as changes(id, qty)" + " "
+                + "on" + " " + tableName + "." + keyField + " " + "= changes.id" + " "
+                + "when matched then update set" + " "
+                + RECIPE_QTY_FIELD + " " + "=" + " " + tableName + "." + RECIPE_QTY_FIELD + " " + "+ changes.qty" + " "
+                + "when not matched then insert values (changes.id, changes.qty)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            boolean batched = false;
+            for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+                if (delta.getValue() != 0) {
+                    preparedStatement.setLong(1, delta.getKey());
+                    preparedStatement.setInt(2, delta.getValue());
+                    preparedStatement.addBatch();
+                    batched = true;
+                }
+            }
+            if (batched) {
+                preparedStatement.executeBatch();
+            }
+        }
+    }
+
+    private static void rebuild(Statement statement, String tableName, String keyField) throws SQLException {
+        statement.executeUpdate("delete from" + " " + tableName);
+        statement.executeUpdate("insert into" + " " + tableName + " "
+                + "select" + " " + keyField + "," + " " + "count(*)" + " "
+                + "from" + " " + RECIPES_TABLE_NAME + " "
+                + "group by" + " " + keyField);
+    }
+}
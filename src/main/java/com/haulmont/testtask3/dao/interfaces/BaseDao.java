@@ -1,7 +1,9 @@
 package com.haulmont.testtask3.dao.interfaces;
 
 import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.exceptions.StaleElementException;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -12,20 +14,41 @@ import java.util.List;
 public interface BaseDao<T> {
 
     /**
-     * Adds specified entity.
+     * Adds specified entity and sets generated id to it.
      *
      * @param entity entity to be added
+     * @return generated id of the added entity.
      */
-    void add(T entity);
+    Long add(T entity);
 
     /**
-     * Updates specified entity.
+     * Adds specified entities in JDBC batches within one transaction
+     * and sets generated ids to them.
+     *
+     * @param entities entities to be added
+     */
+    void addAll(Collection<T> entities);
+
+    /**
+     * Updates specified entity if it is stored in the same version and increments its version.
      *
      * @param entity entity to be updated
      * @throws ElementDoesNotExistException if specified entity does not exist
+     * @throws StaleElementException        if specified entity was changed after it had been read
      */
     void update(T entity) throws ElementDoesNotExistException;
 
+    /**
+     * Updates specified entities in JDBC batches within one transaction and increments their versions.
+     *
+     * @param entities entities to be updated
+     * @throws ElementDoesNotExistException if any of specified entities does not exist,
+     *                                      nothing is updated in this case
+     * @throws StaleElementException        if all specified entities exist, but any of them was changed
+     *                                      after it had been read, nothing is updated in this case
+     */
+    void updateAll(Collection<T> entities) throws ElementDoesNotExistException;
+
     /**
      * Returns entity with the specified id.
      *
@@ -49,4 +72,29 @@ public interface BaseDao<T> {
      * @return all entities.
      */
     List<T> getAll();
+
+    /**
+     * Returns page of entities ordered by id.
+     *
+     * @param offset quantity of entities to be skipped
+     * @param limit  max quantity of entities to be returned
+     * @return page of entities ordered by id.
+     */
+    List<T> getPage(int offset, int limit);
+
+    /**
+     * Returns page of entities with id greater than the specified one, ordered by id.
+     *
+     * @param afterId id of the last entity of the previous page
+     * @param limit   max quantity of entities to be returned
+     * @return page of entities with id greater than the specified one, ordered by id.
+     */
+    List<T> getPageAfter(long afterId, int limit);
+
+    /**
+     * Returns quantity of all entities.
+     *
+     * @return quantity of all entities.
+     */
+    int getCount();
 }
@@ -2,8 +2,20 @@ package com.haulmont.testtask3.dao.interfaces;
 
 import com.haulmont.testtask3.models.Doctor;
 
+import java.util.List;
+
 /**
  * Doctor Data Access Object interface.
  */
 public interface DoctorDao extends BaseDao<Doctor> {
+
+    /**
+     * Returns doctors with every word of the search term being a case insensitive prefix of a word
+     * of their surname, name or patronymic.
+     *
+     * @param term  searched name words, an empty term matches every doctor
+     * @param limit max quantity of doctors to be returned
+     * @return {@code List} of the matching doctors, at most {@code limit} ones.
+     */
+    List<Doctor> findByName(String term, int limit);
 }
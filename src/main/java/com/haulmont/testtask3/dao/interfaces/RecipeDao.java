@@ -1,8 +1,15 @@
 package com.haulmont.testtask3.dao.interfaces;
 
+import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.models.DoctorStatistics;
 import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.models.RecipeListItem;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Recipe Data Access Object interface.
@@ -26,12 +33,115 @@ public interface RecipeDao extends BaseDao<Recipe> {
     int getRecipeQtyByDoctorId(long doctorId);
 
     /**
-     * Returns recipes {@code List} filtered by specified properties.
+     * Returns recipe quantities of all doctors which have recipes.
      *
-     * @param patientId   patient filter
-     * @param priority    priority filter
-     * @param description description filter
-     * @return recipes {@code List} filtered by specified properties.
+     * @return recipe quantities by doctor id, doctors without recipes are absent.
      */
-    List<Recipe> findAll(Long patientId, String priority, String description);
+    Map<Long, Integer> getRecipeQtyForAllDoctors();
+
+    /**
+     * Returns recipe statistics of all doctors which have recipes, computed with one grouped query per statistic.
+     *
+     * @return recipe statistics by doctor id, doctors without recipes are absent.
+     */
+    Map<Long, DoctorStatistics> getStatisticsForAllDoctors();
+
+    /**
+     * Returns recipe list items {@code List} filtered by specified filter.
+     *
+     * @param filter recipe filter
+     * @return recipe list items {@code List} filtered by specified filter.
+     */
+    List<RecipeListItem> findAll(RecipeFilter filter);
+
+    /**
+     * Passes recipe list items filtered by specified filter to the consumer one by one, ordered by id.
+     * The items are read with a forward-only cursor, so they are never held in memory together.
+     *
+     * @param filter   recipe filter
+     * @param consumer consumer of the recipe list items, called on the calling thread
+     * @return quantity of the passed recipe list items.
+     */
+    int forEachFound(RecipeFilter filter, Consumer<RecipeListItem> consumer);
+
+    /**
+     * Returns page of recipe list items filtered by specified filter, ordered by id.
+     *
+     * @param filter recipe filter
+     * @param offset quantity of recipes to be skipped
+     * @param limit  max quantity of recipes to be returned
+     * @return page of recipe list items filtered by specified filter, ordered by id.
+     */
+    List<RecipeListItem> findPage(RecipeFilter filter, int offset, int limit);
+
+    /**
+     * Returns quantity of recipes filtered by specified filter.
+     *
+     * @param filter recipe filter
+     * @return quantity of recipes filtered by specified filter.
+     */
+    int findCount(RecipeFilter filter);
+
+    /**
+     * Returns recipes which expire after the first specified date and not later than the second one.
+     * Recipes expiring within {@code N} days of date {@code D} are returned for {@code (D, D + N)},
+     * recipes expired as of date {@code D} are returned for {@code (null, D)}.
+     *
+     * @param afterDate date after which recipes expire, {@code null} for no lower bound
+     * @param toDate    date by which recipes expire inclusive
+     * @return recipes expiring within the specified dates ordered by id.
+     */
+    List<Recipe> getExpiring(LocalDate afterDate, LocalDate toDate);
+
+    /**
+     * Returns ids of the recipes which expire after the first specified date and not later than the second one,
+     * without reading the recipes themselves.
+     *
+     * @param afterDate date after which recipes expire, {@code null} for no lower bound
+     * @param toDate    date by which recipes expire inclusive
+     * @return sorted ids of the recipes expiring within the specified dates.
+     * @see #getExpiring(LocalDate, LocalDate)
+     */
+    List<Long> getExpiringIds(LocalDate afterDate, LocalDate toDate);
+
+    /**
+     * Returns date of the last published recipe expiry sweep.
+     *
+     * @return date of the last sweep or {@code null} if no sweep was recorded.
+     */
+    LocalDate getLastExpirySweepDate();
+
+    /**
+     * Records date of the last published recipe expiry sweep.
+     *
+     * @param sweepDate date by which recipe expiries are published inclusive
+     */
+    void setLastExpirySweepDate(LocalDate sweepDate);
+
+    /**
+     * Returns page of recipe list items ordered by id.
+     *
+     * @param offset quantity of recipes to be skipped
+     * @param limit  max quantity of recipes to be returned
+     * @return page of recipe list items ordered by id.
+     */
+    List<RecipeListItem> getListItemPage(int offset, int limit);
+
+    /**
+     * Returns page of recipe list items with id greater than the specified one, ordered by id.
+     *
+     * @param afterId id of the last recipe of the previous page
+     * @param limit   max quantity of recipes to be returned
+     * @return page of recipe list items with id greater than the specified one, ordered by id.
+     */
+    List<RecipeListItem> getListItemPageAfter(long afterId, int limit);
+
+    /**
+     * Returns recipe list item with the specified id.
+     *
+     * @param id recipe id
+     * @return recipe list item with the specified id.
+     * @throws ElementDoesNotExistException if recipe with the specified id does not exist
+     */
+    RecipeListItem getListItemById(long id) throws ElementDoesNotExistException;
 }
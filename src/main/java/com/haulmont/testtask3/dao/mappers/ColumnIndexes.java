@@ -0,0 +1,48 @@
+package com.haulmont.testtask3.dao.mappers;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column indexes of a result set by case insensitive column label.
+ */
+final class ColumnIndexes {
+    private final Map<String, Integer> indexes;
+
+    private ColumnIndexes(Map<String, Integer> indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * Resolves indexes of all columns of the specified result set.
+     *
+     * @param metaData result set metadata
+     * @return column indexes of the result set.
+     * @throws SQLException if the metadata can't be read
+     */
+    static ColumnIndexes of(ResultSetMetaData metaData) throws SQLException {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            indexes.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return new ColumnIndexes(indexes);
+    }
+
+    /**
+     * Returns index of the column with the specified label.
+     *
+     * @param label column label
+     * @return index of the column.
+     * @throws SQLException if there is no column with the specified label
+     */
+    int get(String label) throws SQLException {
+        Integer index = indexes.get(label);
+        if (index == null) {
+            throw new SQLException("Column not found: " + label);
+        }
+        return index;
+    }
+}
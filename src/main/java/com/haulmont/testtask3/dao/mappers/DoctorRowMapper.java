@@ -0,0 +1,51 @@
+package com.haulmont.testtask3.dao.mappers;
+
+import com.haulmont.testtask3.models.Doctor;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * {@link RowMapper} of the {@code doctors} table rows.
+ */
+public class DoctorRowMapper implements RowMapper<Doctor> {
+    private final int idIndex;
+    private final int versionIndex;
+    private final int nameIndex;
+    private final int surnameIndex;
+    private final int patronymicIndex;
+    private final int specializationIndex;
+
+    private DoctorRowMapper(ColumnIndexes columnIndexes) throws SQLException {
+        idIndex = columnIndexes.get("id");
+        versionIndex = columnIndexes.get("version");
+        nameIndex = columnIndexes.get("name");
+        surnameIndex = columnIndexes.get("surname");
+        patronymicIndex = columnIndexes.get("patronymic");
+        specializationIndex = columnIndexes.get("specialization");
+    }
+
+    /**
+     * Creates mapper for the result set with the specified metadata.
+     *
+     * @param metaData result set metadata
+     * @return mapper for the result set.
+     * @throws SQLException if a doctor column is missing
+     */
+    public static DoctorRowMapper of(ResultSetMetaData metaData) throws SQLException {
+        return new DoctorRowMapper(ColumnIndexes.of(metaData));
+    }
+
+    @Override
+    public Doctor mapRow(ResultSet resultSet) throws SQLException {
+        Doctor doctor = new Doctor();
+        doctor.setId(resultSet.getLong(idIndex));
+        doctor.setVersion(resultSet.getInt(versionIndex));
+        doctor.setName(resultSet.getString(nameIndex));
+        doctor.setSurname(resultSet.getString(surnameIndex));
+        doctor.setPatronymic(resultSet.getString(patronymicIndex));
+        doctor.setSpecialization(resultSet.getString(specializationIndex));
+        return doctor;
+    }
+}
@@ -0,0 +1,51 @@
+package com.haulmont.testtask3.dao.mappers;
+
+import com.haulmont.testtask3.models.Patient;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * {@link RowMapper} of the {@code patients} table rows.
+ */
+public class PatientRowMapper implements RowMapper<Patient> {
+    private final int idIndex;
+    private final int versionIndex;
+    private final int nameIndex;
+    private final int surnameIndex;
+    private final int patronymicIndex;
+    private final int phoneNumberIndex;
+
+    private PatientRowMapper(ColumnIndexes columnIndexes) throws SQLException {
+        idIndex = columnIndexes.get("id");
+        versionIndex = columnIndexes.get("version");
+        nameIndex = columnIndexes.get("name");
+        surnameIndex = columnIndexes.get("surname");
+        patronymicIndex = columnIndexes.get("patronymic");
+        phoneNumberIndex = columnIndexes.get("phone_number");
+    }
+
+    /**
+     * Creates mapper for the result set with the specified metadata.
+     *
+     * @param metaData result set metadata
+     * @return mapper for the result set.
+     * @throws SQLException if a patient column is missing
+     */
+    public static PatientRowMapper of(ResultSetMetaData metaData) throws SQLException {
+        return new PatientRowMapper(ColumnIndexes.of(metaData));
+    }
+
+    @Override
+    public Patient mapRow(ResultSet resultSet) throws SQLException {
+        Patient patient = new Patient();
+        patient.setId(resultSet.getLong(idIndex));
+        patient.setVersion(resultSet.getInt(versionIndex));
+        patient.setName(resultSet.getString(nameIndex));
+        patient.setSurname(resultSet.getString(surnameIndex));
+        patient.setPatronymic(resultSet.getString(patronymicIndex));
+        patient.setPhoneNumber(resultSet.getString(phoneNumberIndex));
+        return patient;
+    }
+}
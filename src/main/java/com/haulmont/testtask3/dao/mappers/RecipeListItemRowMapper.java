@@ -0,0 +1,70 @@
+package com.haulmont.testtask3.dao.mappers;
+
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.RecipeListItem;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * {@link RowMapper} of the recipe rows joined with patient and doctor names.
+ * <p>
+ * Expects the {@code recipes} columns plus {@code patient_name}, {@code patient_surname},
+ * {@code doctor_name} and {@code doctor_surname}.
+ */
+public class RecipeListItemRowMapper implements RowMapper<RecipeListItem> {
+    private final int idIndex;
+    private final int versionIndex;
+    private final int patientIdIndex;
+    private final int doctorIdIndex;
+    private final int descriptionIndex;
+    private final int creationDateIndex;
+    private final int validityIndex;
+    private final int priorityIndex;
+    private final int patientNameIndex;
+    private final int patientSurnameIndex;
+    private final int doctorNameIndex;
+    private final int doctorSurnameIndex;
+
+    private RecipeListItemRowMapper(ColumnIndexes columnIndexes) throws SQLException {
+        idIndex = columnIndexes.get("id");
+        versionIndex = columnIndexes.get("version");
+        patientIdIndex = columnIndexes.get("patient_id");
+        doctorIdIndex = columnIndexes.get("doctor_id");
+        descriptionIndex = columnIndexes.get("description");
+        creationDateIndex = columnIndexes.get("creation_date");
+        validityIndex = columnIndexes.get("validity");
+        priorityIndex = columnIndexes.get("priority");
+        patientNameIndex = columnIndexes.get("patient_name");
+        patientSurnameIndex = columnIndexes.get("patient_surname");
+        doctorNameIndex = columnIndexes.get("doctor_name");
+        doctorSurnameIndex = columnIndexes.get("doctor_surname");
+    }
+
+    /**
+     * Creates mapper for the result set with the specified metadata.
+     *
+     * @param metaData result set metadata
+     * @return mapper for the result set.
+     * @throws SQLException if a recipe list item column is missing
+     */
+    public static RecipeListItemRowMapper of(ResultSetMetaData metaData) throws SQLException {
+        return new RecipeListItemRowMapper(ColumnIndexes.of(metaData));
+    }
+
+    @Override
+    public RecipeListItem mapRow(ResultSet resultSet) throws SQLException {
+        return new RecipeListItem(
+                resultSet.getLong(idIndex),
+                resultSet.getInt(versionIndex),
+                resultSet.getLong(patientIdIndex),
+                resultSet.getLong(doctorIdIndex),
+                resultSet.getString(descriptionIndex),
+                resultSet.getDate(creationDateIndex),
+                resultSet.getInt(validityIndex),
+                Priority.fromName(resultSet.getString(priorityIndex)),
+                resultSet.getString(patientNameIndex) + " " + resultSet.getString(patientSurnameIndex),
+                resultSet.getString(doctorNameIndex) + " " + resultSet.getString(doctorSurnameIndex));
+    }
+}
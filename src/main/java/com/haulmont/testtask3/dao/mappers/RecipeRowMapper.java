@@ -0,0 +1,58 @@
+package com.haulmont.testtask3.dao.mappers;
+
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * {@link RowMapper} of the {@code recipes} table rows.
+ */
+public class RecipeRowMapper implements RowMapper<Recipe> {
+    private final int idIndex;
+    private final int versionIndex;
+    private final int patientIdIndex;
+    private final int doctorIdIndex;
+    private final int descriptionIndex;
+    private final int creationDateIndex;
+    private final int validityIndex;
+    private final int priorityIndex;
+
+    private RecipeRowMapper(ColumnIndexes columnIndexes) throws SQLException {
+        idIndex = columnIndexes.get("id");
+        versionIndex = columnIndexes.get("version");
+        patientIdIndex = columnIndexes.get("patient_id");
+        doctorIdIndex = columnIndexes.get("doctor_id");
+        descriptionIndex = columnIndexes.get("description");
+        creationDateIndex = columnIndexes.get("creation_date");
+        validityIndex = columnIndexes.get("validity");
+        priorityIndex = columnIndexes.get("priority");
+    }
+
+    /**
+     * Creates mapper for the result set with the specified metadata.
+     *
+     * @param metaData result set metadata
+     * @return mapper for the result set.
+     * @throws SQLException if a recipe column is missing
+     */
+    public static RecipeRowMapper of(ResultSetMetaData metaData) throws SQLException {
+        return new RecipeRowMapper(ColumnIndexes.of(metaData));
+    }
+
+    @Override
+    public Recipe mapRow(ResultSet resultSet) throws SQLException {
+        Recipe recipe = new Recipe();
+        recipe.setId(resultSet.getLong(idIndex));
+        recipe.setVersion(resultSet.getInt(versionIndex));
+        recipe.setPatientId(resultSet.getLong(patientIdIndex));
+        recipe.setDoctorId(resultSet.getLong(doctorIdIndex));
+        recipe.setDescription(resultSet.getString(descriptionIndex));
+        recipe.setCreationDate(resultSet.getDate(creationDateIndex));
+        recipe.setValidity(resultSet.getInt(validityIndex));
+        recipe.setPriority(Priority.fromName(resultSet.getString(priorityIndex)));
+        return recipe;
+    }
+}
@@ -0,0 +1,25 @@
+package com.haulmont.testtask3.dao.mappers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps rows of one {@code ResultSet} to objects.
+ * <p>
+ * Implementations resolve column indexes once, when created for the result set,
+ * so reading a row doesn't look columns up by name.
+ *
+ * @param <T> row object type
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Returns object read from the current row.
+     *
+     * @param resultSet result set positioned on the row to be read
+     * @return object read from the current row.
+     * @throws SQLException if a column can't be read
+     */
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
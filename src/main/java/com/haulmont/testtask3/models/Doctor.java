@@ -8,6 +8,8 @@ public class Doctor {
 
     private Long id;
 
+    private int version;
+
     @NotEmpty
     @Pattern(regexp = STRING_FIELDS_REGEX)
     private String name;
@@ -34,6 +36,14 @@ public class Doctor {
         this.id = id;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
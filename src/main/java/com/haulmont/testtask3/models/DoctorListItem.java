@@ -0,0 +1,47 @@
+package com.haulmont.testtask3.models;
+
+/**
+ * Read-only {@link Doctor} projection with the fields shown in doctor lists.
+ * <p>
+ * Names and specializations repeat across doctors, so they are interned and shared by all rows of all sessions.
+ * Surnames are mostly unique and are kept as they are.
+ */
+public class DoctorListItem {
+    private final long id;
+    private final String name;
+    private final String surname;
+    private final String specialization;
+
+    public DoctorListItem(long id, String name, String surname, String specialization) {
+        this.id = id;
+        this.name = name.intern();
+        this.surname = surname;
+        this.specialization = specialization.intern();
+    }
+
+    /**
+     * Creates list item of the specified doctor.
+     *
+     * @param doctor doctor
+     * @return list item with the doctor field values.
+     */
+    public static DoctorListItem of(Doctor doctor) {
+        return new DoctorListItem(doctor.getId(), doctor.getName(), doctor.getSurname(), doctor.getSpecialization());
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSurname() {
+        return surname;
+    }
+
+    public String getSpecialization() {
+        return specialization;
+    }
+}
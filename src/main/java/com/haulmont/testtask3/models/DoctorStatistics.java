@@ -0,0 +1,74 @@
+package com.haulmont.testtask3.models;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Recipe statistics of one {@link Doctor}.
+ */
+public class DoctorStatistics {
+    private final long doctorId;
+    private int recipeQty;
+    private int patientQty;
+    private final Map<Priority, Integer> recipeQtyByPriority = new EnumMap<>(Priority.class);
+    private final Map<YearMonth, Integer> recipeQtyByMonth = new TreeMap<>();
+
+    public DoctorStatistics(long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public long getDoctorId() {
+        return doctorId;
+    }
+
+    public int getRecipeQty() {
+        return recipeQty;
+    }
+
+    public void setRecipeQty(int recipeQty) {
+        this.recipeQty = recipeQty;
+    }
+
+    /**
+     * Returns quantity of distinct patients the doctor wrote recipes for.
+     *
+     * @return quantity of distinct patients.
+     */
+    public int getPatientQty() {
+        return patientQty;
+    }
+
+    public void setPatientQty(int patientQty) {
+        this.patientQty = patientQty;
+    }
+
+    /**
+     * Returns quantity of recipes with the specified priority.
+     *
+     * @param priority recipe priority
+     * @return quantity of recipes with the specified priority.
+     */
+    public int getRecipeQty(Priority priority) {
+        return recipeQtyByPriority.getOrDefault(priority, 0);
+    }
+
+    public void setRecipeQty(Priority priority, int recipeQty) {
+        recipeQtyByPriority.put(priority, recipeQty);
+    }
+
+    /**
+     * Returns quantities of recipes by creation month.
+     *
+     * @return quantities of recipes by creation month ordered by month, months without recipes are absent.
+     */
+    public Map<YearMonth, Integer> getRecipeQtyByMonth() {
+        return Collections.unmodifiableMap(recipeQtyByMonth);
+    }
+
+    public void setRecipeQty(YearMonth month, int recipeQty) {
+        recipeQtyByMonth.put(month, recipeQty);
+    }
+}
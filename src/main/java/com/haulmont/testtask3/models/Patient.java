@@ -9,6 +9,8 @@ public class Patient {
 
     private Long id;
 
+    private int version;
+
     @NotEmpty
     @Pattern(regexp = STRING_FIELDS_REGEX)
     private String name;
@@ -35,6 +37,14 @@ public class Patient {
         this.id = id;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -1,7 +1,35 @@
 package com.haulmont.testtask3.models;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum Priority {
     NORMAL,
     CITO,
-    STATIM
+    STATIM;
+
+    private static final Map<String, Priority> BY_NAME = new HashMap<>();
+
+    static {
+        for (Priority priority : values()) {
+            BY_NAME.put(priority.name(), priority);
+        }
+    }
+
+    /**
+     * Returns priority with the specified name.
+     * <p>
+     * Unlike {@link #valueOf(String)} doesn't go through the reflective enum constant directory.
+     *
+     * @param name priority name
+     * @return priority with the specified name.
+     * @throws IllegalArgumentException if there is no priority with the specified name
+     */
+    public static Priority fromName(String name) {
+        Priority priority = BY_NAME.get(name);
+        if (priority == null) {
+            throw new IllegalArgumentException("No priority " + name);
+        }
+        return priority;
+    }
 }
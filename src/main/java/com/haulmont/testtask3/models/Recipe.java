@@ -11,6 +11,8 @@ public class Recipe {
 
     private Long id;
 
+    private int version;
+
     @Positive
     private Long patientId;
 
@@ -41,6 +43,14 @@ public class Recipe {
         this.id = id;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public Long getPatientId() {
         return patientId;
     }
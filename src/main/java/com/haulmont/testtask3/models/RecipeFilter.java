@@ -0,0 +1,97 @@
+package com.haulmont.testtask3.models;
+
+import java.time.LocalDate;
+
+/**
+ * Recipe list filter, properties which are not set don't restrict the list.
+ */
+public class RecipeFilter {
+    private Long patientId;
+    private String priority = "";
+    private String description = "";
+    private LocalDate expiresAfter;
+    private LocalDate expiresBy;
+
+    public RecipeFilter() {
+    }
+
+    public RecipeFilter(Long patientId, String priority, String description) {
+        this.patientId = patientId;
+        this.priority = priority;
+        this.description = description;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(Long patientId) {
+        this.patientId = patientId;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Returns date after which recipes expire.
+     *
+     * @return date after which recipes expire, {@code null} if not restricted.
+     */
+    public LocalDate getExpiresAfter() {
+        return expiresAfter;
+    }
+
+    public void setExpiresAfter(LocalDate expiresAfter) {
+        this.expiresAfter = expiresAfter;
+    }
+
+    /**
+     * Returns date by which recipes expire inclusive.
+     *
+     * @return date by which recipes expire inclusive, {@code null} if not restricted.
+     */
+    public LocalDate getExpiresBy() {
+        return expiresBy;
+    }
+
+    public void setExpiresBy(LocalDate expiresBy) {
+        this.expiresBy = expiresBy;
+    }
+
+    /**
+     * Restricts the filter to recipes which are valid on the specified date and expire within the specified days.
+     *
+     * @param date date
+     * @param days quantity of days
+     * @return this filter.
+     */
+    public RecipeFilter expiringWithin(LocalDate date, int days) {
+        expiresAfter = date;
+        expiresBy = date.plusDays(days);
+        return this;
+    }
+
+    /**
+     * Returns whether the filter restricts the list.
+     *
+     * @return {@code true} if the filter doesn't restrict the list.
+     */
+    public boolean isEmpty() {
+        return patientId == null && (priority == null || priority.isEmpty())
+                && (description == null || description.isEmpty())
+                && expiresAfter == null && expiresBy == null;
+    }
+}
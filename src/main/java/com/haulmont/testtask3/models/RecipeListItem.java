@@ -0,0 +1,95 @@
+package com.haulmont.testtask3.models;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Read-only {@link Recipe} projection with patient and doctor display names.
+ * <p>
+ * Rows of the recipe grid are held by every session, so the creation date is kept as an epoch day
+ * rather than a {@link Date} object.
+ */
+public class RecipeListItem {
+    private final long id;
+    private final int version;
+    private final long patientId;
+    private final long doctorId;
+    private final String description;
+    private final int creationDay;
+    private final int validity;
+    private final Priority priority;
+    private final String patientName;
+    private final String doctorName;
+
+    public RecipeListItem(long id, int version, long patientId, long doctorId, String description, Date creationDate,
+                          int validity, Priority priority, String patientName, String doctorName) {
+        this.id = id;
+        this.version = version;
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.description = description;
+        this.creationDay = (int) creationDate.toLocalDate().toEpochDay();
+        this.validity = validity;
+        this.priority = priority;
+        this.patientName = patientName;
+        this.doctorName = doctorName;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public long getPatientId() {
+        return patientId;
+    }
+
+    public long getDoctorId() {
+        return doctorId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDate getCreationDate() {
+        return LocalDate.ofEpochDay(creationDay);
+    }
+
+    public int getValidity() {
+        return validity;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public String getDoctorName() {
+        return doctorName;
+    }
+
+    /**
+     * Returns editable {@link Recipe} with the same field values.
+     *
+     * @return editable {@link Recipe} with the same field values.
+     */
+    public Recipe toRecipe() {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setVersion(version);
+        recipe.setPatientId(patientId);
+        recipe.setDoctorId(doctorId);
+        recipe.setDescription(description);
+        recipe.setCreationDate(Date.valueOf(getCreationDate()));
+        recipe.setValidity(validity);
+        recipe.setPriority(priority);
+        return recipe;
+    }
+}
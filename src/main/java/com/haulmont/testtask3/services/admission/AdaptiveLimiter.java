@@ -0,0 +1,241 @@
+package com.haulmont.testtask3.services.admission;
+
+import com.haulmont.testtask3.services.exceptions.ServiceBusyException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit of one kind of service calls with a bounded wait queue.
+ * <p>
+ * A call is admitted while fewer calls than the limit are running and no call is waiting, otherwise it waits
+ * in the queue at most {@code maxWait}. Queued calls are admitted in the arrival order, so a new call can't
+ * overtake the waiting ones and the newest calls are the ones shed when the queue is full. A call arriving
+ * to the full queue or waiting longer is rejected at once with {@link ServiceBusyException}, so callers
+ * don't pile up on the connection pool.
+ * <p>
+ * The limit follows the latency of the calls. A short and a long moving average of the call time are kept,
+ * the long one is the latency the database has without overload. While the short average stays within
+ * {@code latencyTolerance} times the long one, the limit grows by about its square root per call. Once calls
+ * get slower, the limit shrinks in proportion to the slowdown, at most by half per call. The limit grows only
+ * while at least half of it is in use, so an idle budget doesn't grow without bound.
+ */
+public class AdaptiveLimiter {
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 500;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+    private final long maxWaitNanos;
+    private final double latencyTolerance;
+
+    private final Lock lock = new ReentrantLock();
+    private final Deque<Condition> waiters = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private double shortRttNanos;
+    private double longRttNanos;
+    private long admittedQty;
+    private long rejectedQty;
+
+    /**
+     * @param name             name used in rejection messages
+     * @param initialLimit     limit until the first calls are measured
+     * @param minLimit         lower bound of the limit
+     * @param maxLimit         upper bound of the limit
+     * @param queueCapacity    max quantity of waiting calls
+     * @param maxWaitNanos     max wait time of a queued call
+     * @param latencyTolerance max ratio of the recent to the usual latency which doesn't shrink the limit
+     */
+    public AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit, int queueCapacity,
+                           long maxWaitNanos, double latencyTolerance) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitNanos = maxWaitNanos;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Admits a call, waiting for a running call to finish if the limit is reached.
+     * Every admitted call must be followed by {@link #release(long)}.
+     *
+     * @throws ServiceBusyException if the queue is full, the wait timed out or the thread was interrupted
+     */
+    public void acquire() {
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                admittedQty++;
+                return;
+            }
+            if (waiters.size() >= queueCapacity) {
+                throw reject("queue is full");
+            }
+
+            Condition turn = lock.newCondition();
+            waiters.addLast(turn);
+            try {
+                long remainingNanos = maxWaitNanos;
+                while (waiters.peekFirst() != turn || inFlight >= (int) limit) {
+                    if (remainingNanos <= 0) {
+                        throw reject("wait timed out");
+                    }
+                    remainingNanos = turn.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject("wait interrupted");
+            } finally {
+                waiters.remove(turn);
+                signalFirstWaiter();
+            }
+            inFlight++;
+            admittedQty++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finishes an admitted call and adjusts the limit by its duration.
+     *
+     * @param rttNanos duration of the call in nanoseconds
+     */
+    public void release(long rttNanos) {
+        lock.lock();
+        try {
+            boolean busy = inFlight * 2 >= limit;
+            inFlight--;
+            if (longRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+            } else {
+                shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+                longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+            }
+
+            double gradient = Math.max(MIN_GRADIENT,
+                    Math.min(1, latencyTolerance * longRttNanos / Math.max(shortRttNanos, 1)));
+            if (gradient < 1 || busy) {
+                double newLimit = limit * gradient + (gradient < 1 ? 0 : Math.sqrt(limit));
+                limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+            }
+            signalFirstWaiter();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wakes up the oldest waiting call, which admits itself if the limit allows and then wakes up the next one.
+     */
+    private void signalFirstWaiter() {
+        Condition first = waiters.peekFirst();
+        if (first != null) {
+            first.signal();
+        }
+    }
+
+    private ServiceBusyException reject(String reason) {
+        rejectedQty++;
+        return new ServiceBusyException("Too many " + name + " calls, " + reason);
+    }
+
+    /**
+     * Returns current limit of running calls.
+     *
+     * @return current limit of running calls.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns quantity of running calls.
+     *
+     * @return quantity of running calls.
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns quantity of calls waiting in the queue.
+     *
+     * @return quantity of calls waiting in the queue.
+     */
+    public int getQueuedQty() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns quantity of admitted calls.
+     *
+     * @return quantity of admitted calls.
+     */
+    public long getAdmittedQty() {
+        lock.lock();
+        try {
+            return admittedQty;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns quantity of rejected calls.
+     *
+     * @return quantity of rejected calls.
+     */
+    public long getRejectedQty() {
+        lock.lock();
+        try {
+            return rejectedQty;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns usual latency of the calls, i.e. the long moving average of their duration.
+     *
+     * @param unit time unit of the result
+     * @return usual latency of the calls.
+     */
+    public double getLatency(TimeUnit unit) {
+        lock.lock();
+        try {
+            return longRttNanos / unit.toNanos(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.haulmont.testtask3.services.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks service methods admitted by the concurrency budget of the specified {@link OperationClass}.
+ * <p>
+ * An annotation on the class applies to all its public methods, an annotation on a method overrides it.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Admission {
+
+    OperationClass value();
+}
@@ -0,0 +1,34 @@
+package com.haulmont.testtask3.services.admission;
+
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Applies {@link AdmissionControl} to the methods marked by {@link Admission}.
+ * <p>
+ * Has the infrastructure role to be picked up by the proxy creator of the transaction management
+ * and the highest precedence to run before the transaction is started.
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+@ConditionalOnProperty(prefix = "service.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionAdvisor extends StaticMethodMatcherPointcutAdvisor {
+
+    @Autowired
+    public AdmissionAdvisor(AdmissionControl admissionControl) {
+        super(admissionControl);
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return AdmissionControl.getOperationClass(method, targetClass) != null;
+    }
+}
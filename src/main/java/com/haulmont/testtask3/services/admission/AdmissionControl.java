@@ -0,0 +1,101 @@
+package com.haulmont.testtask3.services.admission;
+
+import com.haulmont.testtask3.config.AdmissionProperties;
+import com.haulmont.testtask3.services.exceptions.ServiceBusyException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admits calls of the methods marked by {@link Admission} through the {@link AdaptiveLimiter} of their
+ * {@link OperationClass}, so an overloaded service rejects calls with {@link ServiceBusyException}
+ * instead of letting them wait for a database connection.
+ * <p>
+ * Runs outside the transaction of the call, so a waiting call doesn't hold a connection. Services called
+ * by an admitted call, e.g. recipe counting on a doctor delete, are part of that call and aren't limited again.
+ */
+@Component
+@ConditionalOnProperty(prefix = "service.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControl implements MethodInterceptor {
+    private static final ThreadLocal<Boolean> ADMITTED = new ThreadLocal<>();
+
+    private final Map<OperationClass, AdaptiveLimiter> limiters = new EnumMap<>(OperationClass.class);
+    private final Map<MethodClassKey, Optional<OperationClass>> operationClasses = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AdmissionControl(AdmissionProperties properties) {
+        for (OperationClass operationClass : OperationClass.values()) {
+            AdmissionProperties.Budget budget = properties.getBudget(operationClass);
+            limiters.put(operationClass, new AdaptiveLimiter(operationClass.getTag(), budget.getInitialLimit(),
+                    budget.getMinLimit(), budget.getMaxLimit(), budget.getQueueCapacity(),
+                    budget.getMaxWait().toNanos(), properties.getLatencyTolerance()));
+        }
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (ADMITTED.get() != null) {
+            return invocation.proceed();
+        }
+        Object target = invocation.getThis();
+        Class<?> targetClass = target == null ? null : target.getClass();
+        Optional<OperationClass> operationClass = operationClasses.computeIfAbsent(
+                new MethodClassKey(invocation.getMethod(), targetClass),
+                key -> Optional.ofNullable(getOperationClass(invocation.getMethod(), targetClass)));
+        if (!operationClass.isPresent()) {
+            return invocation.proceed();
+        }
+
+        AdaptiveLimiter limiter = limiters.get(operationClass.get());
+        limiter.acquire();
+        ADMITTED.set(Boolean.TRUE);
+        long startedAt = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            ADMITTED.remove();
+            limiter.release(System.nanoTime() - startedAt);
+        }
+    }
+
+    /**
+     * Returns limiter of the specified kind of calls.
+     *
+     * @param operationClass kind of calls
+     * @return limiter of the specified kind of calls.
+     */
+    public AdaptiveLimiter getLimiter(OperationClass operationClass) {
+        return limiters.get(operationClass);
+    }
+
+    /**
+     * Returns kind of the specified method calls, taken from {@link Admission} of the method or its class.
+     *
+     * @param method      called method
+     * @param targetClass class of the called object, may be {@code null}
+     * @return kind of the specified method calls or {@code null} if the calls aren't limited.
+     */
+    static OperationClass getOperationClass(Method method, Class<?> targetClass) {
+        if (!Modifier.isPublic(method.getModifiers()) || method.getDeclaringClass() == Object.class) {
+            return null;
+        }
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        Admission admission = AnnotatedElementUtils.findMergedAnnotation(specificMethod, Admission.class);
+        if (admission == null && targetClass != null) {
+            admission = AnnotatedElementUtils.findMergedAnnotation(targetClass, Admission.class);
+        }
+        return admission == null ? null : admission.value();
+    }
+}
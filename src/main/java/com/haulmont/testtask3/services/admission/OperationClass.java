@@ -0,0 +1,31 @@
+package com.haulmont.testtask3.services.admission;
+
+/**
+ * Kind of service operation, every kind has its own concurrency budget.
+ */
+public enum OperationClass {
+
+    /**
+     * Lookups of single entities and pages.
+     */
+    READ,
+
+    /**
+     * Inserts, updates and deletes.
+     */
+    WRITE,
+
+    /**
+     * Scans of whole tables, e.g. exports and full lists.
+     */
+    REPORT;
+
+    /**
+     * Returns lower-case name used in properties and metric tags.
+     *
+     * @return lower-case name used in properties and metric tags.
+     */
+    public String getTag() {
+        return name().toLowerCase();
+    }
+}
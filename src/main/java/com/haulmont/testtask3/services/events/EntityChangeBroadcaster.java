@@ -0,0 +1,102 @@
+package com.haulmont.testtask3.services.events;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers {@link EntityChangeEvent}s to the listeners registered in this process, e.g. open views.
+ * <p>
+ * Listeners are called on the thread which made the change, so they must not block. A change made inside
+ * a transaction is delivered once the transaction is committed and isn't delivered if it is rolled back.
+ */
+@Component
+public class EntityChangeBroadcaster {
+    private final Map<Class<?>, List<Consumer<EntityChangeEvent<?>>>> listenersByType = new ConcurrentHashMap<>();
+
+    /**
+     * Registers listener of changes of the specified entity type.
+     *
+     * @param entityType entity type
+     * @param listener   change listener
+     * @param <T>        entity type
+     * @return subscription which removes the listener.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Subscription register(Class<T> entityType, Consumer<EntityChangeEvent<T>> listener) {
+        Consumer<EntityChangeEvent<?>> typedListener = event -> listener.accept((EntityChangeEvent<T>) event);
+        List<Consumer<EntityChangeEvent<?>>> listeners =
+                listenersByType.computeIfAbsent(entityType, type -> new CopyOnWriteArrayList<>());
+        listeners.add(typedListener);
+        return () -> listeners.remove(typedListener);
+    }
+
+    /**
+     * Delivers specified change to the listeners of the specified entity type.
+     *
+     * @param entityType entity type
+     * @param type       kind of change
+     * @param entity     changed entity, {@code null} for {@link EntityChangeEvent.Type#BATCH_CHANGED}
+     * @param <T>        entity type
+     */
+    public <T> void publish(Class<T> entityType, EntityChangeEvent.Type type, T entity) {
+        publish(entityType, new EntityChangeEvent<>(type, entity));
+    }
+
+    /**
+     * Delivers specified change of several entities to the listeners of the specified entity type as one event.
+     *
+     * @param entityType entity type
+     * @param type       kind of change, e.g. {@link EntityChangeEvent.Type#EXPIRED}
+     * @param ids        ids of the changed entities
+     * @param <T>        entity type
+     */
+    public <T> void publishAll(Class<T> entityType, EntityChangeEvent.Type type, List<Long> ids) {
+        publish(entityType, new EntityChangeEvent<T>(type, null, ids));
+    }
+
+    private void publish(Class<?> entityType, EntityChangeEvent<?> event) {
+        List<Consumer<EntityChangeEvent<?>>> listeners = listenersByType.get(entityType);
+        if (listeners == null || listeners.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(listeners, event);
+                }
+            });
+        } else {
+            deliver(listeners, event);
+        }
+    }
+
+    private static void deliver(List<Consumer<EntityChangeEvent<?>>> listeners, EntityChangeEvent<?> event) {
+        for (Consumer<EntityChangeEvent<?>> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Registration of a change listener.
+     */
+    @FunctionalInterface
+    public interface Subscription {
+
+        /**
+         * Removes the listener.
+         */
+        void unsubscribe();
+    }
+}
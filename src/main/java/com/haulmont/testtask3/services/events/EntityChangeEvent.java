@@ -0,0 +1,67 @@
+package com.haulmont.testtask3.services.events;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Change of an entity made through a service.
+ *
+ * @param <T> entity type
+ */
+public class EntityChangeEvent<T> {
+    private final Type type;
+    private final T entity;
+    private final List<Long> ids;
+
+    public EntityChangeEvent(Type type, T entity) {
+        this(type, entity, Collections.emptyList());
+    }
+
+    public EntityChangeEvent(Type type, T entity, List<Long> ids) {
+        this.type = type;
+        this.entity = entity;
+        this.ids = ids;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns changed entity.
+     *
+     * @return changed entity, {@code null} for {@link Type#BATCH_CHANGED} and {@link Type#EXPIRED} events.
+     */
+    public T getEntity() {
+        return entity;
+    }
+
+    /**
+     * Returns ids of the entities changed at once.
+     *
+     * @return ids of the changed entities for {@link Type#EXPIRED} events, empty for the other ones.
+     */
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    /**
+     * Kind of change.
+     */
+    public enum Type {
+        ADDED,
+        UPDATED,
+        DELETED,
+
+        /**
+         * Several entities were added or updated at once.
+         */
+        BATCH_CHANGED,
+
+        /**
+         * Entities weren't changed but some of them became expired as time passed, their ids are listed
+         * in the event.
+         */
+        EXPIRED
+    }
+}
@@ -0,0 +1,28 @@
+package com.haulmont.testtask3.services.exceptions;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Validation exception of a batch operation. Holds failure description of every invalid item.
+ */
+public class BatchValidationException extends ValidationException {
+    private final Map<Integer, String> failures;
+
+    /**
+     * @param failures failure descriptions keyed by item index in the batch
+     */
+    public BatchValidationException(Map<Integer, String> failures) {
+        super(failures.size() + " invalid item(s): " + failures);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Returns failure descriptions keyed by item index in the batch.
+     *
+     * @return failure descriptions keyed by item index in the batch.
+     */
+    public Map<Integer, String> getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,15 @@
+package com.haulmont.testtask3.services.exceptions;
+
+/**
+ * Custom checked exception of a record or a whole file which can't be imported.
+ */
+public class ImportException extends Exception {
+
+    public ImportException(String message) {
+        super(message);
+    }
+
+    public ImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,17 @@
+package com.haulmont.testtask3.services.exceptions;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Custom unchecked exception of a service call rejected by the admission control because too many calls
+ * of the same kind are running and waiting already.
+ * <p>
+ * The call wasn't started, so it can be retried later. It extends {@link RejectedExecutionException} to be handled
+ * like a call rejected by the full queue of the service executor.
+ */
+public class ServiceBusyException extends RejectedExecutionException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
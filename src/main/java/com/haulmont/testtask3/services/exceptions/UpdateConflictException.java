@@ -0,0 +1,22 @@
+package com.haulmont.testtask3.services.exceptions;
+
+/**
+ * Custom checked update conflict exception.
+ * <p>
+ * Thrown when the updated entity was changed by another user after it had been read,
+ * the entity must be read again before it can be updated.
+ */
+public class UpdateConflictException extends Exception {
+
+    public UpdateConflictException() {
+        super();
+    }
+
+    public UpdateConflictException(String message) {
+        super(message);
+    }
+
+    public UpdateConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
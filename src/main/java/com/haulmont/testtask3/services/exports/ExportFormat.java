@@ -0,0 +1,62 @@
+package com.haulmont.testtask3.services.exports;
+
+import java.io.Writer;
+
+/**
+ * Format of exported recipes.
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv") {
+        @Override
+        public RecipeWriter createWriter(Writer writer) {
+            return new RecipeCsvWriter(writer);
+        }
+    },
+    JSON("application/json", "json") {
+        @Override
+        public RecipeWriter createWriter(Writer writer) {
+            return new RecipeJsonWriter(writer);
+        }
+    };
+
+    private static final String GZIP_CONTENT_TYPE = "application/gzip";
+    private static final String GZIP_EXTENSION = "gz";
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * Returns content type of the exported file.
+     *
+     * @param compressed whether the file is gzipped
+     * @return content type of the exported file.
+     */
+    public String getContentType(boolean compressed) {
+        return compressed ? GZIP_CONTENT_TYPE : contentType + ";charset=UTF-8";
+    }
+
+    /**
+     * Returns name of the exported file.
+     *
+     * @param name       file name without extension
+     * @param compressed whether the file is gzipped
+     * @return name of the exported file with extension.
+     */
+    public String getFileName(String name, boolean compressed) {
+        String fileName = name + "." + extension;
+        return compressed ? fileName + "." + GZIP_EXTENSION : fileName;
+    }
+
+    /**
+     * Creates writer of recipes in this format.
+     *
+     * @param writer writer of the exported text
+     * @return writer of recipes.
+     */
+    public abstract RecipeWriter createWriter(Writer writer);
+}
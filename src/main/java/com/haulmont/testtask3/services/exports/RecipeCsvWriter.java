@@ -0,0 +1,85 @@
+package com.haulmont.testtask3.services.exports;
+
+import com.haulmont.testtask3.models.RecipeListItem;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer of recipes in CSV as described by RFC 4180.
+ * <p>
+ * The columns include {@code doctor_id} and {@code patient_id}, so the file can be imported back.
+ */
+public class RecipeCsvWriter implements RecipeWriter {
+    private static final String HEADER = "id,doctor_id,doctor,patient_id,patient,description,creation_date,"
+            + "validity,priority";
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final String LINE_BREAK = "\r\n";
+
+    private final Writer writer;
+
+    public RecipeCsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeStart() throws IOException {
+        writer.write(HEADER);
+        writer.write(LINE_BREAK);
+    }
+
+    @Override
+    public void write(RecipeListItem recipe) throws IOException {
+        writer.write(Long.toString(recipe.getId()));
+        writer.write(SEPARATOR);
+        writer.write(Long.toString(recipe.getDoctorId()));
+        writer.write(SEPARATOR);
+        writeText(recipe.getDoctorName());
+        writer.write(SEPARATOR);
+        writer.write(Long.toString(recipe.getPatientId()));
+        writer.write(SEPARATOR);
+        writeText(recipe.getPatientName());
+        writer.write(SEPARATOR);
+        writeText(recipe.getDescription());
+        writer.write(SEPARATOR);
+        writer.write(recipe.getCreationDate().toString());
+        writer.write(SEPARATOR);
+        writer.write(Integer.toString(recipe.getValidity()));
+        writer.write(SEPARATOR);
+        writer.write(recipe.getPriority().name());
+        writer.write(LINE_BREAK);
+    }
+
+    @Override
+    public void writeEnd() {
+    }
+
+    /**
+     * Writes text field, quoted if it contains separators, quotes or line breaks.
+     */
+    private void writeText(String text) throws IOException {
+        if (text == null) {
+            return;
+        }
+        boolean quoted = false;
+        for (int i = 0; i < text.length() && !quoted; i++) {
+            char c = text.charAt(i);
+            quoted = c == SEPARATOR || c == QUOTE || c == '\r' || c == '\n';
+        }
+        if (!quoted) {
+            writer.write(text);
+            return;
+        }
+
+        writer.write(QUOTE);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == QUOTE) {
+                writer.write(QUOTE);
+            }
+            writer.write(c);
+        }
+        writer.write(QUOTE);
+    }
+}
@@ -0,0 +1,77 @@
+package com.haulmont.testtask3.services.exports;
+
+import com.haulmont.testtask3.models.RecipeListItem;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer of recipes as JSON array of objects, one object per line.
+ */
+public class RecipeJsonWriter implements RecipeWriter {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Writer writer;
+    private boolean first = true;
+
+    public RecipeJsonWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeStart() throws IOException {
+        writer.write('[');
+    }
+
+    @Override
+    public void write(RecipeListItem recipe) throws IOException {
+        writer.write(first ? "\n" : ",\n");
+        first = false;
+        writer.write("{\"id\":");
+        writer.write(Long.toString(recipe.getId()));
+        writer.write(",\"doctorId\":");
+        writer.write(Long.toString(recipe.getDoctorId()));
+        writer.write(",\"doctor\":");
+        writeString(recipe.getDoctorName());
+        writer.write(",\"patientId\":");
+        writer.write(Long.toString(recipe.getPatientId()));
+        writer.write(",\"patient\":");
+        writeString(recipe.getPatientName());
+        writer.write(",\"description\":");
+        writeString(recipe.getDescription());
+        writer.write(",\"creationDate\":\"");
+        writer.write(recipe.getCreationDate().toString());
+        writer.write("\",\"validity\":");
+        writer.write(Integer.toString(recipe.getValidity()));
+        writer.write(",\"priority\":\"");
+        writer.write(recipe.getPriority().name());
+        writer.write("\"}");
+    }
+
+    @Override
+    public void writeEnd() throws IOException {
+        writer.write(first ? "]\n" : "\n]\n");
+    }
+
+    private void writeString(String text) throws IOException {
+        if (text == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < ' ') {
+                writer.write("\\u00");
+                writer.write(HEX_DIGITS[c >> 4]);
+                writer.write(HEX_DIGITS[c & 0xF]);
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+}
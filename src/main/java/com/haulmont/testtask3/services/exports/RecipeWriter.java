@@ -0,0 +1,17 @@
+package com.haulmont.testtask3.services.exports;
+
+import com.haulmont.testtask3.models.RecipeListItem;
+
+import java.io.IOException;
+
+/**
+ * Writer of exported recipes, writes every recipe as soon as it is passed.
+ */
+public interface RecipeWriter {
+
+    void writeStart() throws IOException;
+
+    void write(RecipeListItem recipe) throws IOException;
+
+    void writeEnd() throws IOException;
+}
@@ -0,0 +1,130 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.services.interfaces.AsyncBaseService;
+import com.haulmont.testtask3.services.interfaces.BaseService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Implementation of {@link AsyncBaseService} which runs methods of the wrapped service on the specified executor.
+ *
+ * @param <T> entity type
+ */
+public abstract class AsyncBaseServiceImpl<T> implements AsyncBaseService<T> {
+    private final BaseService<T> service;
+    private final Executor executor;
+
+    protected AsyncBaseServiceImpl(BaseService<T> service, Executor executor) {
+        this.service = service;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Long> add(T entity) {
+        return call(() -> service.add(entity));
+    }
+
+    @Override
+    public CompletableFuture<Void> addAll(Collection<T> entities) {
+        return run(() -> service.addAll(entities));
+    }
+
+    @Override
+    public CompletableFuture<Void> update(T entity) {
+        return run(() -> service.update(entity));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAll(Collection<T> entities) {
+        return run(() -> service.updateAll(entities));
+    }
+
+    @Override
+    public CompletableFuture<T> getById(long id) {
+        return call(() -> service.getById(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(T entity) {
+        return run(() -> service.delete(entity));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> getAll() {
+        return call(service::getAll);
+    }
+
+    @Override
+    public CompletableFuture<List<T>> getPage(int offset, int limit) {
+        return call(() -> service.getPage(offset, limit));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> getPageAfter(long afterId, int limit) {
+        return call(() -> service.getPageAfter(afterId, limit));
+    }
+
+    @Override
+    public CompletableFuture<Integer> getCount() {
+        return call(service::getCount);
+    }
+
+    /**
+     * Runs specified service call on the executor.
+     *
+     * @param serviceCall service call
+     * @param <R>         result type
+     * @return future of the service call result, completed exceptionally with the exception thrown by the call
+     * or with {@link RejectedExecutionException} if the executor is overloaded.
+     */
+    protected <R> CompletableFuture<R> call(ServiceCall<R> serviceCall) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(serviceCall.call());
+                } catch (Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Runs specified service action on the executor.
+     *
+     * @param serviceAction service action
+     * @return future completed when the action is finished.
+     */
+    protected CompletableFuture<Void> run(ServiceAction serviceAction) {
+        return call(() -> {
+            serviceAction.run();
+            return null;
+        });
+    }
+
+    /**
+     * Service method call which returns a result.
+     *
+     * @param <R> result type
+     */
+    @FunctionalInterface
+    protected interface ServiceCall<R> {
+        R call() throws Exception;
+    }
+
+    /**
+     * Service method call without a result.
+     */
+    @FunctionalInterface
+    protected interface ServiceAction {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,22 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.config.ServiceExecutor;
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.services.interfaces.AsyncDoctorService;
+import com.haulmont.testtask3.services.interfaces.DoctorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link AsyncDoctorService} interface.
+ */
+@Service
+@Primary
+public class AsyncDoctorServiceImpl extends AsyncBaseServiceImpl<Doctor> implements AsyncDoctorService {
+
+    @Autowired
+    public AsyncDoctorServiceImpl(DoctorService doctorService, ServiceExecutor executor) {
+        super(doctorService, executor);
+    }
+}
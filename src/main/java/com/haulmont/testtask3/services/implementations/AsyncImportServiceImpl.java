@@ -0,0 +1,61 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.config.ServiceExecutor;
+import com.haulmont.testtask3.services.exceptions.ImportException;
+import com.haulmont.testtask3.services.imports.ImportProgress;
+import com.haulmont.testtask3.services.imports.ImportType;
+import com.haulmont.testtask3.services.interfaces.AsyncImportService;
+import com.haulmont.testtask3.services.interfaces.ImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of {@link AsyncImportService} interface.
+ * <p>
+ * An import occupies one thread of the executor for its whole duration, records are converted
+ * by the own threads of the import.
+ */
+@Service
+@Primary
+public class AsyncImportServiceImpl implements AsyncImportService {
+    private final ImportService importService;
+    private final Executor executor;
+
+    @Autowired
+    public AsyncImportServiceImpl(ImportService importService, ServiceExecutor executor) {
+        this.importService = importService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<ImportProgress> importCsv(ImportType type, Reader reader,
+                                                       Consumer<ImportProgress> progressListener) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try (Reader closedReader = reader) {
+                    return importService.importCsv(type, closedReader, progressListener);
+                } catch (ImportException | IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            try {
+                reader.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            CompletableFuture<ImportProgress> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.config.ServiceExecutor;
+import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.services.interfaces.AsyncPatientService;
+import com.haulmont.testtask3.services.interfaces.PatientService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link AsyncPatientService} interface.
+ */
+@Service
+@Primary
+public class AsyncPatientServiceImpl extends AsyncBaseServiceImpl<Patient> implements AsyncPatientService {
+
+    @Autowired
+    public AsyncPatientServiceImpl(PatientService patientService, ServiceExecutor executor) {
+        super(patientService, executor);
+    }
+}
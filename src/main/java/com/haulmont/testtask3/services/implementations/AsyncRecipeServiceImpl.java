@@ -0,0 +1,104 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.config.ServiceExecutor;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.models.RecipeListItem;
+import com.haulmont.testtask3.services.interfaces.AsyncRecipeService;
+import com.haulmont.testtask3.services.interfaces.RecipeService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementation of {@link AsyncRecipeService} interface.
+ * <p>
+ * New recipes are written through {@link RecipeWriteBehind} if it is enabled.
+ */
+@Service
+@Primary
+public class AsyncRecipeServiceImpl extends AsyncBaseServiceImpl<Recipe> implements AsyncRecipeService {
+    private final RecipeService recipeService;
+    private final RecipeWriteBehind writeBehind;
+
+    public AsyncRecipeServiceImpl(RecipeService recipeService, ServiceExecutor executor) {
+        this(recipeService, executor, (RecipeWriteBehind) null);
+    }
+
+    @Autowired
+    public AsyncRecipeServiceImpl(RecipeService recipeService, ServiceExecutor executor,
+                                  ObjectProvider<RecipeWriteBehind> writeBehind) {
+        this(recipeService, executor, writeBehind.getIfAvailable());
+    }
+
+    public AsyncRecipeServiceImpl(RecipeService recipeService, ServiceExecutor executor,
+                                  RecipeWriteBehind writeBehind) {
+        super(recipeService, executor);
+        this.recipeService = recipeService;
+        this.writeBehind = writeBehind;
+    }
+
+    @Override
+    public CompletableFuture<Long> add(Recipe entity) {
+        if (writeBehind != null) {
+            return writeBehind.add(entity);
+        }
+        return super.add(entity);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getRecipeQtyByPatientId(long patientId) {
+        return call(() -> recipeService.getRecipeQtyByPatientId(patientId));
+    }
+
+    @Override
+    public CompletableFuture<Integer> getRecipeQtyByDoctorId(long doctorId) {
+        return call(() -> recipeService.getRecipeQtyByDoctorId(doctorId));
+    }
+
+    @Override
+    public CompletableFuture<Map<Long, Integer>> getRecipeQtyForAllDoctors() {
+        return call(recipeService::getRecipeQtyForAllDoctors);
+    }
+
+    @Override
+    public CompletableFuture<List<RecipeListItem>> findAll(RecipeFilter filter) {
+        return call(() -> recipeService.findAll(filter));
+    }
+
+    @Override
+    public CompletableFuture<List<RecipeListItem>> findPage(RecipeFilter filter, int offset, int limit) {
+        return call(() -> recipeService.findPage(filter, offset, limit));
+    }
+
+    @Override
+    public CompletableFuture<Integer> findCount(RecipeFilter filter) {
+        return call(() -> recipeService.findCount(filter));
+    }
+
+    @Override
+    public CompletableFuture<List<Recipe>> getExpiring(LocalDate afterDate, LocalDate toDate) {
+        return call(() -> recipeService.getExpiring(afterDate, toDate));
+    }
+
+    @Override
+    public CompletableFuture<List<RecipeListItem>> getListItemPage(int offset, int limit) {
+        return call(() -> recipeService.getListItemPage(offset, limit));
+    }
+
+    @Override
+    public CompletableFuture<List<RecipeListItem>> getListItemPageAfter(long afterId, int limit) {
+        return call(() -> recipeService.getListItemPageAfter(afterId, limit));
+    }
+
+    @Override
+    public CompletableFuture<RecipeListItem> getListItemById(long id) {
+        return call(() -> recipeService.getListItemById(id));
+    }
+}
@@ -0,0 +1,59 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.config.ServiceExecutor;
+import com.haulmont.testtask3.models.DoctorStatistics;
+import com.haulmont.testtask3.services.interfaces.AsyncStatisticsService;
+import com.haulmont.testtask3.services.interfaces.StatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of {@link AsyncStatisticsService} interface.
+ */
+@Service
+@Primary
+public class AsyncStatisticsServiceImpl implements AsyncStatisticsService {
+    private final StatisticsService statisticsService;
+    private final Executor executor;
+
+    @Autowired
+    public AsyncStatisticsServiceImpl(StatisticsService statisticsService, ServiceExecutor executor) {
+        this.statisticsService = statisticsService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Map<Long, DoctorStatistics>> getStatisticsForAllDoctors() {
+        return call(statisticsService::getStatisticsForAllDoctors);
+    }
+
+    @Override
+    public CompletableFuture<DoctorStatistics> getStatisticsByDoctorId(long doctorId) {
+        return call(() -> statisticsService.getStatisticsByDoctorId(doctorId));
+    }
+
+    /**
+     * Runs specified service call on the executor.
+     *
+     * @param serviceCall service call
+     * @param <R>         result type
+     * @return future of the service call result, completed exceptionally with {@link RejectedExecutionException}
+     * if the executor is overloaded.
+     */
+    private <R> CompletableFuture<R> call(Supplier<R> serviceCall) {
+        try {
+            return CompletableFuture.supplyAsync(serviceCall, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<R> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+}
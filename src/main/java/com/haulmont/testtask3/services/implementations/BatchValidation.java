@@ -0,0 +1,64 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.services.exceptions.BatchValidationException;
+import com.haulmont.testtask3.services.validation.EntityValidator;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Whole-batch validation shared by the service implementations.
+ */
+final class BatchValidation {
+    private static final String ID_NOT_SET_MESSAGE = "id must be set";
+
+    private BatchValidation() {
+    }
+
+    /**
+     * Validates every entity of the batch before any of them is written. An {@link EntityValidator}
+     * validates large batches in parallel.
+     *
+     * @param validator  validator to be used
+     * @param entities   entities to be validated
+     * @param idGetter   entity id getter, {@code null} if id is not required
+     * @param <T>        entity type
+     * @throws BatchValidationException if any of specified entities is not valid
+     */
+    static <T> void validateAll(Validator validator, Collection<T> entities, Function<T, Long> idGetter)
+            throws BatchValidationException {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        Iterator<Set<ConstraintViolation<T>>> results = validator instanceof EntityValidator
+                ? ((EntityValidator) validator).validateAll(entities).iterator()
+                : null;
+        int index = 0;
+        for (T entity : entities) {
+            Set<ConstraintViolation<T>> violations = results == null ? validator.validate(entity) : results.next();
+            if (!violations.isEmpty()) {
+                failures.put(index, describe(violations));
+            } else if (idGetter != null && idGetter.apply(entity) == null) {
+                failures.put(index, ID_NOT_SET_MESSAGE);
+            }
+            index++;
+        }
+
+        if (!failures.isEmpty()) {
+            throw new BatchValidationException(failures);
+        }
+    }
+
+    private static <T> String describe(Set<ConstraintViolation<T>> violations) {
+        return violations.stream()
+                .filter(Objects::nonNull)
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.joining(", "));
+    }
+}
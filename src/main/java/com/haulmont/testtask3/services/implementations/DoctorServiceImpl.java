@@ -1,17 +1,26 @@
 package com.haulmont.testtask3.services.implementations;
 
 import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.exceptions.StaleElementException;
 import com.haulmont.testtask3.dao.interfaces.DoctorDao;
 import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.services.exceptions.BatchValidationException;
+import com.haulmont.testtask3.services.admission.Admission;
+import com.haulmont.testtask3.services.admission.OperationClass;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.exceptions.UpdateConflictException;
 import com.haulmont.testtask3.services.exceptions.ValidationException;
 import com.haulmont.testtask3.services.interfaces.DoctorService;
 import com.haulmont.testtask3.services.interfaces.RecipeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.Validator;
 import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,55 +28,121 @@ import java.util.List;
  */
 @Service
 @Primary
+@Admission(OperationClass.READ)
 public class DoctorServiceImpl implements DoctorService {
     private DoctorDao doctorDao;
     private RecipeService recipeService;
     private Validator validator;
+    private EntityChangeBroadcaster changeBroadcaster;
 
     public DoctorServiceImpl() {
     }
 
     @Autowired
-    public DoctorServiceImpl(DoctorDao doctorDao, RecipeService recipeService, Validator validator) {
+    public DoctorServiceImpl(DoctorDao doctorDao, RecipeService recipeService, Validator validator,
+                             EntityChangeBroadcaster changeBroadcaster) {
         this.doctorDao = doctorDao;
         this.recipeService = recipeService;
         this.validator = validator;
+        this.changeBroadcaster = changeBroadcaster;
     }
 
     @Override
-    public void add(Doctor entity) throws ValidationException {
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
+    public Long add(Doctor entity) throws ValidationException {
         if (validator.validate(entity).isEmpty()) {
-            doctorDao.add(entity);
+            Long id = doctorDao.add(entity);
+            if (id != null) {
+                changeBroadcaster.publish(Doctor.class, EntityChangeEvent.Type.ADDED, entity);
+            }
+            return id;
         } else {
             throw new ValidationException();
         }
     }
 
     @Override
-    public void update(Doctor entity) throws ElementDoesNotExistException, ValidationException {
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
+    public void addAll(Collection<Doctor> entities) throws BatchValidationException {
+        BatchValidation.validateAll(validator, entities, null);
+        doctorDao.addAll(entities);
+        changeBroadcaster.publish(Doctor.class, EntityChangeEvent.Type.BATCH_CHANGED, null);
+    }
+
+    @Override
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
+    public void update(Doctor entity) throws ElementDoesNotExistException, ValidationException,
+            UpdateConflictException {
         if (validator.validate(entity).isEmpty() && entity.getId() != null) {
-            doctorDao.update(entity);
+            try {
+                doctorDao.update(entity);
+            } catch (StaleElementException e) {
+                throw new UpdateConflictException(Doctor.class.getSimpleName() + " " + entity.getId()
+                        + " was changed by another user", e);
+            }
+            changeBroadcaster.publish(Doctor.class, EntityChangeEvent.Type.UPDATED, entity);
         } else {
             throw new ValidationException();
         }
     }
 
+    @Override
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
+    public void updateAll(Collection<Doctor> entities) throws ElementDoesNotExistException, BatchValidationException,
+            UpdateConflictException {
+        BatchValidation.validateAll(validator, entities, Doctor::getId);
+        try {
+            doctorDao.updateAll(entities);
+        } catch (StaleElementException e) {
+            throw new UpdateConflictException(Doctor.class.getSimpleName() + "s were changed by another user", e);
+        }
+        changeBroadcaster.publish(Doctor.class, EntityChangeEvent.Type.BATCH_CHANGED, null);
+    }
+
     @Override
     public Doctor getById(long id) throws ElementDoesNotExistException {
         return doctorDao.getById(id);
     }
 
     @Override
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
     public void delete(Doctor entity) throws ElementDoesNotExistException, SQLIntegrityConstraintViolationException {
         if (recipeService.getRecipeQtyByDoctorId(entity.getId()) == 0 && entity.getId() != null) {
             doctorDao.delete(entity);
+            changeBroadcaster.publish(Doctor.class, EntityChangeEvent.Type.DELETED, entity);
         } else {
             throw new SQLIntegrityConstraintViolationException();
         }
     }
 
     @Override
+    @Admission(OperationClass.REPORT)
     public List<Doctor> getAll() {
         return doctorDao.getAll();
     }
+
+    @Override
+    public List<Doctor> getPage(int offset, int limit) {
+        return doctorDao.getPage(offset, limit);
+    }
+
+    @Override
+    public List<Doctor> getPageAfter(long afterId, int limit) {
+        return doctorDao.getPageAfter(afterId, limit);
+    }
+
+    @Override
+    public int getCount() {
+        return doctorDao.getCount();
+    }
+
+    @Override
+    public List<Doctor> findByName(String term, int limit) {
+        return doctorDao.findByName(term, limit);
+    }
 }
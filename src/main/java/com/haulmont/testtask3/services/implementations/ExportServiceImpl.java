@@ -0,0 +1,82 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.services.admission.Admission;
+import com.haulmont.testtask3.services.admission.OperationClass;
+import com.haulmont.testtask3.services.exports.ExportFormat;
+import com.haulmont.testtask3.services.exports.RecipeWriter;
+import com.haulmont.testtask3.services.interfaces.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implementation of {@link ExportService} interface.
+ */
+@Service
+@Primary
+@Admission(OperationClass.REPORT)
+public class ExportServiceImpl implements ExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final RecipeDao recipeDao;
+
+    @Autowired
+    public ExportServiceImpl(RecipeDao recipeDao) {
+        this.recipeDao = recipeDao;
+    }
+
+    @Override
+    public int exportRecipes(RecipeFilter filter, ExportFormat format, boolean compressed,
+                             OutputStream outputStream) throws IOException {
+        GZIPOutputStream gzipStream = compressed ? new FastGzipOutputStream(outputStream) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(compressed ? gzipStream : outputStream,
+                StandardCharsets.UTF_8), BUFFER_SIZE);
+        RecipeWriter recipeWriter = format.createWriter(writer);
+
+        recipeWriter.writeStart();
+        int exportedQty;
+        try {
+            exportedQty = recipeDao.forEachFound(filter, recipe -> {
+                try {
+                    recipeWriter.write(recipe);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        recipeWriter.writeEnd();
+
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        outputStream.flush();
+        return exportedQty;
+    }
+
+    /**
+     * Gzip stream with the fastest compression level, so compression doesn't slow down the export
+     * more than the database does.
+     */
+    private static final class FastGzipOutputStream extends GZIPOutputStream {
+
+        private FastGzipOutputStream(OutputStream outputStream) throws IOException {
+            super(outputStream, BUFFER_SIZE);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
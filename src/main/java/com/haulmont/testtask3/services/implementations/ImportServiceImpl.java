@@ -0,0 +1,120 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.dao.interfaces.DoctorDao;
+import com.haulmont.testtask3.dao.interfaces.PatientDao;
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.exceptions.ImportException;
+import com.haulmont.testtask3.services.imports.CsvImportPipeline;
+import com.haulmont.testtask3.services.imports.DoctorImport;
+import com.haulmont.testtask3.services.imports.EntityImport;
+import com.haulmont.testtask3.services.imports.ImportProgress;
+import com.haulmont.testtask3.services.imports.ImportType;
+import com.haulmont.testtask3.services.imports.PatientImport;
+import com.haulmont.testtask3.services.imports.RecipeImport;
+import com.haulmont.testtask3.services.interfaces.ImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.Validator;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of {@link ImportService} interface.
+ * <p>
+ * Records are validated like in the other services, but an invalid record is rejected alone instead of
+ * failing the whole file. Open views are notified once the import finishes.
+ * <p>
+ * The chunks are written straight through the DAOs in transactions of their own, bypassing the admission
+ * control and the transactions of the other services, see {@link CsvImportPipeline}.
+ */
+@Service
+@Primary
+public class ImportServiceImpl implements ImportService {
+    private final DoctorDao doctorDao;
+    private final PatientDao patientDao;
+    private final RecipeDao recipeDao;
+    private final Validator validator;
+    private final EntityChangeBroadcaster changeBroadcaster;
+    private int chunkSize = CsvImportPipeline.DEFAULT_CHUNK_SIZE;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private TransactionOperations transactions = TransactionOperations.withoutTransaction();
+
+    @Autowired
+    public ImportServiceImpl(DoctorDao doctorDao, PatientDao patientDao, RecipeDao recipeDao, Validator validator,
+                             EntityChangeBroadcaster changeBroadcaster) {
+        this.doctorDao = doctorDao;
+        this.patientDao = patientDao;
+        this.recipeDao = recipeDao;
+        this.validator = validator;
+        this.changeBroadcaster = changeBroadcaster;
+    }
+
+    /**
+     * Sets quantity of records written at once, the same as the DAO batch size by default,
+     * so every chunk is sent to the database in one JDBC batch.
+     *
+     * @param chunkSize quantity of records written at once
+     */
+    @Value("${dao.batch-size:" + CsvImportPipeline.DEFAULT_CHUNK_SIZE + "}")
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Sets quantity of threads converting and validating records.
+     *
+     * @param parallelism quantity of threads
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets transaction manager of the chunk writes. Inside a transaction a failed write throws its SQL error,
+     * so rejected records are reported with the actual reason.
+     *
+     * @param transactionManager transaction manager of the DAO data source
+     */
+    @Autowired(required = false)
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactions = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ImportProgress importCsv(ImportType type, Reader reader, Consumer<ImportProgress> progressListener)
+            throws ImportException {
+        switch (type) {
+            case DOCTORS:
+                return importCsv(Doctor.class, new DoctorImport(doctorDao), reader, progressListener);
+            case PATIENTS:
+                return importCsv(Patient.class, new PatientImport(patientDao), reader, progressListener);
+            case RECIPES:
+                return importCsv(Recipe.class, new RecipeImport(recipeDao, doctorDao, patientDao), reader,
+                        progressListener);
+            default:
+                throw new ImportException("Unknown import type: " + type);
+        }
+    }
+
+    private <T> ImportProgress importCsv(Class<T> entityType, EntityImport<T> entityImport, Reader reader,
+                                         Consumer<ImportProgress> progressListener) throws ImportException {
+        CsvImportPipeline<T> pipeline = new CsvImportPipeline<>(entityImport, validator, chunkSize, parallelism,
+                transactions);
+        try {
+            return pipeline.run(reader, progressListener);
+        } finally {
+            changeBroadcaster.publish(entityType, EntityChangeEvent.Type.BATCH_CHANGED, null);
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package com.haulmont.testtask3.services.implementations;
 
 import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.exceptions.StaleElementException;
 import com.haulmont.testtask3.dao.interfaces.PatientDao;
 import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.services.exceptions.BatchValidationException;
+import com.haulmont.testtask3.services.admission.Admission;
+import com.haulmont.testtask3.services.admission.OperationClass;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.exceptions.UpdateConflictException;
 import com.haulmont.testtask3.services.exceptions.ValidationException;
 import com.haulmont.testtask3.services.interfaces.PatientService;
 import com.haulmont.testtask3.services.interfaces.RecipeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.Validator;
 import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,55 +28,121 @@ import java.util.List;
  */
 @Service
 @Primary
+@Admission(OperationClass.READ)
 public class PatientServiceImpl implements PatientService {
     private PatientDao patientDao;
     private RecipeService recipeService;
     private Validator validator;
+    private EntityChangeBroadcaster changeBroadcaster;
 
     public PatientServiceImpl() {
     }
 
     @Autowired
-    public PatientServiceImpl(PatientDao patientDao, RecipeService recipeService, Validator validator) {
+    public PatientServiceImpl(PatientDao patientDao, RecipeService recipeService, Validator validator,
+                              EntityChangeBroadcaster changeBroadcaster) {
         this.patientDao = patientDao;
         this.recipeService = recipeService;
         this.validator = validator;
+        this.changeBroadcaster = changeBroadcaster;
     }
 
     @Override
-    public void add(Patient entity) throws ValidationException {
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
+    public Long add(Patient entity) throws ValidationException {
         if (validator.validate(entity).isEmpty()) {
-            patientDao.add(entity);
+            Long id = patientDao.add(entity);
+            if (id != null) {
+                changeBroadcaster.publish(Patient.class, EntityChangeEvent.Type.ADDED, entity);
+            }
+            return id;
         } else {
             throw new ValidationException();
         }
     }
 
     @Override
-    public void update(Patient entity) throws ElementDoesNotExistException, ValidationException {
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
+    public void addAll(Collection<Patient> entities) throws BatchValidationException {
+        BatchValidation.validateAll(validator, entities, null);
+        patientDao.addAll(entities);
+        changeBroadcaster.publish(Patient.class, EntityChangeEvent.Type.BATCH_CHANGED, null);
+    }
+
+    @Override
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
+    public void update(Patient entity) throws ElementDoesNotExistException, ValidationException,
+            UpdateConflictException {
         if (validator.validate(entity).isEmpty() && entity.getId() != null) {
-            patientDao.update(entity);
+            try {
+                patientDao.update(entity);
+            } catch (StaleElementException e) {
+                throw new UpdateConflictException(Patient.class.getSimpleName() + " " + entity.getId()
+                        + " was changed by another user", e);
+            }
+            changeBroadcaster.publish(Patient.class, EntityChangeEvent.Type.UPDATED, entity);
         } else {
             throw new ValidationException();
         }
     }
 
+    @Override
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
+    public void updateAll(Collection<Patient> entities) throws ElementDoesNotExistException, BatchValidationException,
+            UpdateConflictException {
+        BatchValidation.validateAll(validator, entities, Patient::getId);
+        try {
+            patientDao.updateAll(entities);
+        } catch (StaleElementException e) {
+            throw new UpdateConflictException(Patient.class.getSimpleName() + "s were changed by another user", e);
+        }
+        changeBroadcaster.publish(Patient.class, EntityChangeEvent.Type.BATCH_CHANGED, null);
+    }
+
     @Override
     public Patient getById(long id) throws ElementDoesNotExistException {
         return patientDao.getById(id);
     }
 
     @Override
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
     public void delete(Patient entity) throws ElementDoesNotExistException, SQLIntegrityConstraintViolationException {
         if (recipeService.getRecipeQtyByPatientId(entity.getId()) == 0 && entity.getId() != null) {
             patientDao.delete(entity);
+            changeBroadcaster.publish(Patient.class, EntityChangeEvent.Type.DELETED, entity);
         } else {
             throw new SQLIntegrityConstraintViolationException();
         }
     }
 
     @Override
+    @Admission(OperationClass.REPORT)
     public List<Patient> getAll() {
         return patientDao.getAll();
     }
+
+    @Override
+    public List<Patient> getPage(int offset, int limit) {
+        return patientDao.getPage(offset, limit);
+    }
+
+    @Override
+    public List<Patient> getPageAfter(long afterId, int limit) {
+        return patientDao.getPageAfter(afterId, limit);
+    }
+
+    @Override
+    public int getCount() {
+        return patientDao.getCount();
+    }
+
+    @Override
+    public List<Patient> findByName(String term, int limit) {
+        return patientDao.findByName(term, limit);
+    }
 }
@@ -0,0 +1,66 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Periodically publishes ids of the recipes expired since the last sweep in one
+ * {@link EntityChangeEvent.Type#EXPIRED} event, so every open view refreshes once per sweep rather than once
+ * per recipe.
+ * <p>
+ * The ids are taken from the expiry index of the DAO without reading the recipes, so the sweep doesn't compete
+ * with the report calls. The date of the last sweep is stored in the database, so recipes which expired while
+ * the application was down are published by the first sweep after the start. The very first sweep of a new
+ * database starts from the day it runs.
+ */
+@Component
+public class RecipeExpirySweep {
+    private final RecipeDao recipeDao;
+    private final EntityChangeBroadcaster changeBroadcaster;
+    private final Clock clock;
+    private LocalDate lastSweepDate;
+
+    @Autowired
+    public RecipeExpirySweep(RecipeDao recipeDao, EntityChangeBroadcaster changeBroadcaster, Clock clock) {
+        this.recipeDao = recipeDao;
+        this.changeBroadcaster = changeBroadcaster;
+        this.clock = clock;
+    }
+
+    /**
+     * Publishes expiry of the recipes which expired after the date of the last sweep and not later than today.
+     *
+     * @return quantity of the expired recipes.
+     */
+    @Scheduled(cron = "${service.expiry-sweep.cron:0 0 * * * *}")
+    public synchronized int sweep() {
+        LocalDate today = LocalDate.now(clock);
+        if (lastSweepDate == null) {
+            lastSweepDate = recipeDao.getLastExpirySweepDate();
+            if (lastSweepDate == null) {
+                lastSweepDate = today;
+                recipeDao.setLastExpirySweepDate(today);
+            }
+        }
+        if (!today.isAfter(lastSweepDate)) {
+            return 0;
+        }
+
+        List<Long> expiredIds = recipeDao.getExpiringIds(lastSweepDate, today);
+        if (!expiredIds.isEmpty()) {
+            changeBroadcaster.publishAll(Recipe.class, EntityChangeEvent.Type.EXPIRED, expiredIds);
+        }
+        recipeDao.setLastExpirySweepDate(today);
+        lastSweepDate = today;
+        return expiredIds.size();
+    }
+}
@@ -1,68 +1,127 @@
 package com.haulmont.testtask3.services.implementations;
 
 import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.exceptions.StaleElementException;
 import com.haulmont.testtask3.dao.interfaces.RecipeDao;
 import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.models.RecipeListItem;
+import com.haulmont.testtask3.services.exceptions.BatchValidationException;
+import com.haulmont.testtask3.services.admission.Admission;
+import com.haulmont.testtask3.services.admission.OperationClass;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.exceptions.UpdateConflictException;
 import com.haulmont.testtask3.services.exceptions.ValidationException;
 import com.haulmont.testtask3.services.interfaces.RecipeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.Validator;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementation of {@link RecipeService} interface.
  */
 @Service
 @Primary
+@Admission(OperationClass.READ)
 public class RecipeServiceImpl implements RecipeService {
     private RecipeDao recipeDao;
     private Validator validator;
+    private EntityChangeBroadcaster changeBroadcaster;
 
     public RecipeServiceImpl() {
     }
 
     @Autowired
-    public RecipeServiceImpl(RecipeDao recipeDao, Validator validator) {
+    public RecipeServiceImpl(RecipeDao recipeDao, Validator validator,
+                             EntityChangeBroadcaster changeBroadcaster) {
         this.recipeDao = recipeDao;
         this.validator = validator;
+        this.changeBroadcaster = changeBroadcaster;
     }
 
     @Override
-    public void add(Recipe entity) throws ValidationException {
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
+    public Long add(Recipe entity) throws ValidationException {
         if (validator.validate(entity).isEmpty()) {
-            recipeDao.add(entity);
+            Long id = recipeDao.add(entity);
+            if (id != null) {
+                changeBroadcaster.publish(Recipe.class, EntityChangeEvent.Type.ADDED, entity);
+            }
+            return id;
         } else {
             throw new ValidationException();
         }
     }
 
     @Override
-    public void update(Recipe entity) throws ElementDoesNotExistException, ValidationException {
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
+    public void addAll(Collection<Recipe> entities) throws BatchValidationException {
+        BatchValidation.validateAll(validator, entities, null);
+        recipeDao.addAll(entities);
+        changeBroadcaster.publish(Recipe.class, EntityChangeEvent.Type.BATCH_CHANGED, null);
+    }
+
+    @Override
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
+    public void update(Recipe entity) throws ElementDoesNotExistException, ValidationException,
+            UpdateConflictException {
         if (validator.validate(entity).isEmpty() && entity.getId() != null) {
-            recipeDao.update(entity);
+            try {
+                recipeDao.update(entity);
+            } catch (StaleElementException e) {
+                throw new UpdateConflictException(Recipe.class.getSimpleName() + " " + entity.getId()
+                        + " was changed by another user", e);
+            }
+            changeBroadcaster.publish(Recipe.class, EntityChangeEvent.Type.UPDATED, entity);
         } else {
             throw new ValidationException();
         }
     }
 
+    @Override
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
+    public void updateAll(Collection<Recipe> entities) throws ElementDoesNotExistException, BatchValidationException,
+            UpdateConflictException {
+        BatchValidation.validateAll(validator, entities, Recipe::getId);
+        try {
+            recipeDao.updateAll(entities);
+        } catch (StaleElementException e) {
+            throw new UpdateConflictException(Recipe.class.getSimpleName() + "s were changed by another user", e);
+        }
+        changeBroadcaster.publish(Recipe.class, EntityChangeEvent.Type.BATCH_CHANGED, null);
+    }
+
     @Override
     public Recipe getById(long id) throws ElementDoesNotExistException {
         return recipeDao.getById(id);
     }
 
     @Override
+    @Admission(OperationClass.WRITE)
+    @Transactional(rollbackFor = Exception.class)
     public void delete(Recipe entity) throws ElementDoesNotExistException {
         if (entity.getId() != null) {
             recipeDao.delete(entity);
+            changeBroadcaster.publish(Recipe.class, EntityChangeEvent.Type.DELETED, entity);
         } else {
             throw new ElementDoesNotExistException();
         }
     }
 
     @Override
+    @Admission(OperationClass.REPORT)
     public List<Recipe> getAll() {
         return recipeDao.getAll();
     }
@@ -78,7 +137,59 @@ public class RecipeServiceImpl implements RecipeService {
     }
 
     @Override
-    public List<Recipe> findAll(Long patientId, String priority, String description) {
-        return recipeDao.findAll(patientId, priority, description);
+    public Map<Long, Integer> getRecipeQtyForAllDoctors() {
+        return recipeDao.getRecipeQtyForAllDoctors();
+    }
+
+    @Override
+    @Admission(OperationClass.REPORT)
+    public List<RecipeListItem> findAll(RecipeFilter filter) {
+        return recipeDao.findAll(filter);
+    }
+
+    @Override
+    public List<Recipe> getPage(int offset, int limit) {
+        return recipeDao.getPage(offset, limit);
+    }
+
+    @Override
+    public List<Recipe> getPageAfter(long afterId, int limit) {
+        return recipeDao.getPageAfter(afterId, limit);
+    }
+
+    @Override
+    public int getCount() {
+        return recipeDao.getCount();
+    }
+
+    @Override
+    public List<RecipeListItem> findPage(RecipeFilter filter, int offset, int limit) {
+        return recipeDao.findPage(filter, offset, limit);
+    }
+
+    @Override
+    public int findCount(RecipeFilter filter) {
+        return recipeDao.findCount(filter);
+    }
+
+    @Override
+    @Admission(OperationClass.REPORT)
+    public List<Recipe> getExpiring(LocalDate afterDate, LocalDate toDate) {
+        return recipeDao.getExpiring(afterDate, toDate);
+    }
+
+    @Override
+    public List<RecipeListItem> getListItemPage(int offset, int limit) {
+        return recipeDao.getListItemPage(offset, limit);
+    }
+
+    @Override
+    public List<RecipeListItem> getListItemPageAfter(long afterId, int limit) {
+        return recipeDao.getListItemPageAfter(afterId, limit);
+    }
+
+    @Override
+    public RecipeListItem getListItemById(long id) throws ElementDoesNotExistException {
+        return recipeDao.getListItemById(id);
     }
 }
@@ -0,0 +1,253 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.config.RecipeWriteBehindProperties;
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.exceptions.ValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group-commit write path of new recipes.
+ * <p>
+ * Validated recipes are queued in a bounded lock-free queue. A single writer thread drains the queue into groups
+ * of at most {@code maxGroupSize} recipes, waiting at most {@code maxDelay} after the first recipe of a group
+ * for more ones, and inserts every group as one batch with one commit. The future of a recipe is completed
+ * with its id once the group is committed, so concurrent callers share the cost of a commit and its log sync.
+ * The writer waits for more recipes only if the previous group had several ones, so a single caller doesn't pay
+ * the delay for nothing.
+ * If the group can't be inserted, e.g. because of one recipe with a deleted doctor, its recipes are inserted
+ * one by one, and the future of a recipe which still can't be inserted is completed exceptionally.
+ */
+@Component
+@ConditionalOnProperty(prefix = "service.recipe-write-behind", name = "enabled", havingValue = "true")
+public class RecipeWriteBehind {
+    private static final String WRITER_THREAD_NAME = "recipe-writer";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long STOP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final RecipeDao recipeDao;
+    private final Validator validator;
+    private final EntityChangeBroadcaster changeBroadcaster;
+    private final int queueCapacity;
+    private final int maxGroupSize;
+    private final long maxDelayNanos;
+
+    private final Queue<PendingRecipe> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedQty = new AtomicInteger();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile TransactionOperations transactions = TransactionOperations.withoutTransaction();
+
+    @Autowired
+    public RecipeWriteBehind(RecipeDao recipeDao, Validator validator, EntityChangeBroadcaster changeBroadcaster,
+                             RecipeWriteBehindProperties properties) {
+        this(recipeDao, validator, changeBroadcaster, properties.getQueueCapacity(), properties.getMaxGroupSize(),
+                properties.getMaxDelay().toNanos());
+    }
+
+    public RecipeWriteBehind(RecipeDao recipeDao, Validator validator, EntityChangeBroadcaster changeBroadcaster,
+                             int queueCapacity, int maxGroupSize, long maxDelayNanos) {
+        this.recipeDao = recipeDao;
+        this.validator = validator;
+        this.changeBroadcaster = changeBroadcaster;
+        this.queueCapacity = queueCapacity;
+        this.maxGroupSize = maxGroupSize;
+        this.maxDelayNanos = maxDelayNanos;
+
+        writer = new Thread(this::writeGroups, WRITER_THREAD_NAME);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Sets transaction manager of the writes. Inside a transaction a failed write throws its SQL error,
+     * so the future of a rejected recipe is completed with the actual reason.
+     *
+     * @param transactionManager transaction manager of the DAO data source
+     */
+    @Autowired(required = false)
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactions = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Validates the specified recipe and queues it to be written with the next group.
+     * The future is completed on the writer thread, so its callbacks must not block.
+     *
+     * @param recipe recipe to be added
+     * @return future of the recipe id, completed once the recipe is committed, or completed exceptionally with
+     * {@link ValidationException} if the recipe isn't valid, with {@link RejectedExecutionException}
+     * if the queue is full or the writer is stopped and with the write error if the recipe can't be inserted.
+     */
+    public CompletableFuture<Long> add(Recipe recipe) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        if (!validator.validate(recipe).isEmpty()) {
+            future.completeExceptionally(new ValidationException());
+            return future;
+        }
+        if (!running || !reserveSlot()) {
+            future.completeExceptionally(new RejectedExecutionException("Recipe write queue is full"));
+            return future;
+        }
+        PendingRecipe pendingRecipe = new PendingRecipe(recipe, future);
+        queue.offer(pendingRecipe);
+        LockSupport.unpark(writer);
+        if (!running && queue.remove(pendingRecipe)) {
+            future.completeExceptionally(new RejectedExecutionException("Recipe writer is stopped"));
+        }
+        return future;
+    }
+
+    /**
+     * Returns quantity of recipes waiting to be written.
+     *
+     * @return quantity of recipes waiting to be written.
+     */
+    public int getQueuedQty() {
+        return queuedQty.get();
+    }
+
+    /**
+     * Stops accepting recipes, writes the queued ones and stops the writer.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PendingRecipe pendingRecipe;
+        while ((pendingRecipe = queue.poll()) != null) {
+            pendingRecipe.future.completeExceptionally(new RejectedExecutionException("Recipe writer is stopped"));
+        }
+    }
+
+    private boolean reserveSlot() {
+        int qty;
+        do {
+            qty = queuedQty.get();
+            if (qty >= queueCapacity) {
+                return false;
+            }
+        } while (!queuedQty.compareAndSet(qty, qty + 1));
+        return true;
+    }
+
+    /**
+     * Writer loop, runs until the writer is stopped and the queue is empty.
+     */
+    private void writeGroups() {
+        List<PendingRecipe> group = new ArrayList<>(maxGroupSize);
+        int previousGroupSize = maxGroupSize;
+        while (running || !queue.isEmpty()) {
+            PendingRecipe first = queue.poll();
+            if (first == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+
+            group.add(first);
+            long deadline = System.nanoTime() + (previousGroupSize > 1 ? maxDelayNanos : 0);
+            while (group.size() < maxGroupSize) {
+                PendingRecipe next = queue.poll();
+                if (next != null) {
+                    group.add(next);
+                    continue;
+                }
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0 || !running) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remainingNanos);
+            }
+            queuedQty.addAndGet(-group.size());
+            previousGroupSize = group.size();
+
+            try {
+                write(group);
+            } catch (RuntimeException e) {
+                for (PendingRecipe pendingRecipe : group) {
+                    pendingRecipe.future.completeExceptionally(e);
+                }
+            }
+            group.clear();
+        }
+    }
+
+    private void write(List<PendingRecipe> group) {
+        List<Recipe> recipes = new ArrayList<>(group.size());
+        for (PendingRecipe pendingRecipe : group) {
+            recipes.add(pendingRecipe.recipe);
+        }
+        boolean groupAdded;
+        try {
+            transactions.executeWithoutResult(status -> recipeDao.addAll(recipes));
+            groupAdded = recipes.stream().allMatch(recipe -> recipe.getId() != null);
+        } catch (RuntimeException e) {
+            groupAdded = false;
+        }
+
+        for (PendingRecipe pendingRecipe : group) {
+            if (groupAdded) {
+                complete(pendingRecipe, pendingRecipe.recipe.getId());
+            } else {
+                writeOne(pendingRecipe);
+            }
+        }
+    }
+
+    private void writeOne(PendingRecipe pendingRecipe) {
+        Long id;
+        try {
+            id = transactions.execute(status -> recipeDao.add(pendingRecipe.recipe));
+        } catch (RuntimeException e) {
+            pendingRecipe.future.completeExceptionally(e);
+            return;
+        }
+        if (id == null) {
+            pendingRecipe.future.completeExceptionally(new IllegalStateException("Recipe isn't written"));
+            return;
+        }
+        complete(pendingRecipe, id);
+    }
+
+    private void complete(PendingRecipe pendingRecipe, Long id) {
+        changeBroadcaster.publish(Recipe.class, EntityChangeEvent.Type.ADDED, pendingRecipe.recipe);
+        pendingRecipe.future.complete(id);
+    }
+
+    /**
+     * Queued recipe with the future of its id.
+     */
+    private static final class PendingRecipe {
+        private final Recipe recipe;
+        private final CompletableFuture<Long> future;
+
+        private PendingRecipe(Recipe recipe, CompletableFuture<Long> future) {
+            this.recipe = recipe;
+            this.future = future;
+        }
+    }
+}
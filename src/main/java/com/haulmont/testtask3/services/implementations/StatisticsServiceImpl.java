@@ -0,0 +1,205 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.config.ServiceExecutor;
+import com.haulmont.testtask3.config.StatisticsProperties;
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.DoctorStatistics;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.interfaces.StatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementation of {@link StatisticsService} interface.
+ * <p>
+ * Statistics of all doctors are computed at once and cached. Cached statistics become stale after the TTL
+ * or once a recipe is changed through the services. Stale statistics are recomputed on the executor by one
+ * caller at a time, the callers wait for the recomputation at most for the configured time and get the stale
+ * statistics after that, so a call takes bounded time whatever the quantity of recipes is. The first statistics
+ * are computed in background on startup, a call made before they are ready waits for them.
+ */
+@Service
+@Primary
+public class StatisticsServiceImpl implements StatisticsService {
+    private final RecipeDao recipeDao;
+    private final Executor executor;
+    private final LongSupplier nanoClock;
+    private final long ttlNanos;
+    private final long maxWaitNanos;
+
+    /**
+     * Incremented on every recipe change, statistics computed before the change are stale.
+     */
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private CompletableFuture<Snapshot> refreshing;
+
+    @Autowired
+    public StatisticsServiceImpl(RecipeDao recipeDao, EntityChangeBroadcaster changeBroadcaster,
+                                 ServiceExecutor executor, StatisticsProperties statisticsProperties) {
+        this(recipeDao, changeBroadcaster, executor, statisticsProperties, System::nanoTime);
+    }
+
+    StatisticsServiceImpl(RecipeDao recipeDao, EntityChangeBroadcaster changeBroadcaster, Executor executor,
+                          StatisticsProperties statisticsProperties, LongSupplier nanoClock) {
+        this.recipeDao = recipeDao;
+        this.executor = executor;
+        this.nanoClock = nanoClock;
+        this.ttlNanos = statisticsProperties.getTtl().toNanos();
+        this.maxWaitNanos = statisticsProperties.getMaxWait().toNanos();
+        changeBroadcaster.register(Recipe.class, event -> {
+            if (event.getType() != EntityChangeEvent.Type.EXPIRED) {
+                invalidate();
+            }
+        });
+    }
+
+    /**
+     * Starts computation of the first statistics, so views don't wait for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            executor.execute(this::loadFirst);
+        } catch (RejectedExecutionException e) {
+            // the first call computes the statistics
+        }
+    }
+
+    /**
+     * Marks cached statistics stale.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    @Override
+    public Map<Long, DoctorStatistics> getStatisticsForAllDoctors() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            return loadFirst().statistics;
+        }
+        if (isFresh(current)) {
+            return current.statistics;
+        }
+
+        try {
+            return refresh().get(maxWaitNanos, TimeUnit.NANOSECONDS).statistics;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // the stale statistics are returned
+        }
+        return current.statistics;
+    }
+
+    @Override
+    public DoctorStatistics getStatisticsByDoctorId(long doctorId) {
+        DoctorStatistics statistics = getStatisticsForAllDoctors().get(doctorId);
+        return statistics == null ? new DoctorStatistics(doctorId) : statistics;
+    }
+
+    private boolean isFresh(Snapshot snapshot) {
+        return snapshot.version == version.get() && nanoClock.getAsLong() - snapshot.loadedAt < ttlNanos;
+    }
+
+    /**
+     * Computes statistics on the calling thread unless they were computed by a concurrent call.
+     *
+     * @return computed statistics.
+     */
+    private synchronized Snapshot loadFirst() {
+        Snapshot current = snapshot.get();
+        return current == null ? load() : current;
+    }
+
+    /**
+     * Starts recomputation of the statistics on the executor unless it is already running.
+     *
+     * @return future of the recomputed statistics.
+     */
+    private synchronized CompletableFuture<Snapshot> refresh() {
+        CompletableFuture<Snapshot> future = refreshing;
+        if (future == null) {
+            CompletableFuture<Snapshot> newFuture = new CompletableFuture<>();
+            future = newFuture;
+            refreshing = newFuture;
+            try {
+                executor.execute(() -> {
+                    try {
+                        newFuture.complete(load());
+                    } catch (Throwable throwable) {
+                        newFuture.completeExceptionally(throwable);
+                    } finally {
+                        finishRefresh();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                refreshing = null;
+                newFuture.completeExceptionally(e);
+            }
+        }
+        return future;
+    }
+
+    private synchronized void finishRefresh() {
+        refreshing = null;
+    }
+
+    /**
+     * Computes statistics and caches them unless newer ones were cached by a concurrent computation
+     * which started later.
+     *
+     * @return the newest computed statistics.
+     */
+    private Snapshot load() {
+        long loadVersion = version.get();
+        long loadedAt = nanoClock.getAsLong();
+        Snapshot loaded = new Snapshot(Collections.unmodifiableMap(recipeDao.getStatisticsForAllDoctors()),
+                loadVersion, loadedAt);
+        Snapshot current;
+        do {
+            current = snapshot.get();
+            if (current != null && !loaded.isNewerThan(current)) {
+                return current;
+            }
+        } while (!snapshot.compareAndSet(current, loaded));
+        return loaded;
+    }
+
+    /**
+     * Computed statistics with the recipe change version and the time they were computed at.
+     */
+    private static final class Snapshot {
+        private final Map<Long, DoctorStatistics> statistics;
+        private final long version;
+        private final long loadedAt;
+
+        private Snapshot(Map<Long, DoctorStatistics> statistics, long version, long loadedAt) {
+            this.statistics = statistics;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isNewerThan(Snapshot other) {
+            return version != other.version ? version > other.version : loadedAt - other.loadedAt > 0;
+        }
+    }
+}
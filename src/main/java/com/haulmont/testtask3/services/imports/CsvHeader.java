@@ -0,0 +1,60 @@
+package com.haulmont.testtask3.services.imports;
+
+import com.haulmont.testtask3.services.exceptions.ImportException;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column names of a CSV file, read from its first record.
+ */
+public class CsvHeader {
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    public CsvHeader(CsvRecord header) {
+        for (int i = 0; i < header.size(); i++) {
+            indexes.put(normalize(header.get(i)), i);
+        }
+    }
+
+    /**
+     * Returns whether the file has the specified column.
+     *
+     * @param column column name
+     * @return {@code true} if the file has the specified column.
+     */
+    public boolean has(String column) {
+        return indexes.containsKey(column);
+    }
+
+    /**
+     * Checks that the file has all of the specified columns.
+     *
+     * @param columns required column names
+     * @throws ImportException if any of the columns is missing
+     */
+    public void require(String... columns) throws ImportException {
+        for (String column : columns) {
+            if (!has(column)) {
+                throw new ImportException("Column " + column + " is missing");
+            }
+        }
+    }
+
+    /**
+     * Returns value of the specified column.
+     *
+     * @param record record
+     * @param column column name
+     * @return trimmed value of the specified column, empty if the file has no such column.
+     */
+    public String get(CsvRecord record, String column) {
+        Integer index = indexes.get(column);
+        return index == null ? "" : record.get(index).trim();
+    }
+
+    private static String normalize(String column) {
+        return column.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,235 @@
+package com.haulmont.testtask3.services.imports;
+
+import com.haulmont.testtask3.config.ServiceExecutorProperties;
+import com.haulmont.testtask3.services.exceptions.ImportException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Imports one CSV file in three stages: the calling thread reads records and groups them into chunks,
+ * the chunks are converted to entities and validated in parallel, then the calling thread writes valid
+ * entities of every chunk in one batch, in the file order.
+ * <p>
+ * At most {@code parallelism + 1} chunks are held in memory at once, so the file is never loaded whole.
+ * <p>
+ * Every chunk is written in its own transaction. If the chunk fails, e.g. because of one record referencing
+ * a deleted doctor, its entities are written one by one and the failed ones are rejected with their SQL error.
+ * The entities are written through the DAOs, so the admission budgets of the services don't apply: an import
+ * writes one chunk at a time on one connection and must not be rejected halfway through a file.
+ *
+ * @param <T> entity type
+ */
+public class CsvImportPipeline<T> {
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+    public static final int MAX_REPORTED_REJECT_QTY = 1000;
+
+    private static final String PARSER_THREAD_NAME_PREFIX = "import-";
+    private static final String NOT_WRITTEN_REASON = "not written, see the application log";
+
+    private final EntityImport<T> entityImport;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int parallelism;
+    private final TransactionOperations transactions;
+
+    private long startNanos;
+    private long importedQty;
+    private long rejectedQty;
+    private final List<ImportReject> rejects = new ArrayList<>();
+
+    public CsvImportPipeline(EntityImport<T> entityImport, Validator validator) {
+        this(entityImport, validator, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public CsvImportPipeline(EntityImport<T> entityImport, Validator validator, int chunkSize, int parallelism) {
+        this(entityImport, validator, chunkSize, parallelism, TransactionOperations.withoutTransaction());
+    }
+
+    public CsvImportPipeline(EntityImport<T> entityImport, Validator validator, int chunkSize, int parallelism,
+                             TransactionOperations transactions) {
+        this.entityImport = entityImport;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.transactions = transactions;
+    }
+
+    /**
+     * Imports records of the specified CSV file, the first record holds column names.
+     *
+     * @param reader           file to be imported
+     * @param progressListener listener called after every written chunk
+     * @return final progress of the import.
+     * @throws ImportException if the file can't be read or imported at all
+     */
+    public ImportProgress run(Reader reader, Consumer<ImportProgress> progressListener) throws ImportException {
+        startNanos = System.nanoTime();
+        ExecutorService parsers = Executors.newFixedThreadPool(parallelism,
+                ServiceExecutorProperties.ThreadType.PLATFORM.createThreadFactory(PARSER_THREAD_NAME_PREFIX));
+        try (CsvReader csvReader = new CsvReader(reader)) {
+            CsvRecord header = csvReader.read();
+            if (header == null) {
+                throw new ImportException("File is empty");
+            }
+            entityImport.start(new CsvHeader(header));
+
+            Deque<Future<Chunk<T>>> chunks = new ArrayDeque<>();
+            List<CsvRecord> records = new ArrayList<>(chunkSize);
+            CsvRecord record;
+            while ((record = csvReader.read()) != null) {
+                records.add(record);
+                if (records.size() == chunkSize) {
+                    List<CsvRecord> chunkRecords = records;
+                    chunks.add(parsers.submit(() -> parse(chunkRecords)));
+                    records = new ArrayList<>(chunkSize);
+                    if (chunks.size() > parallelism) {
+                        write(chunks.poll(), progressListener);
+                    }
+                }
+            }
+            if (!records.isEmpty()) {
+                List<CsvRecord> chunkRecords = records;
+                chunks.add(parsers.submit(() -> parse(chunkRecords)));
+            }
+            while (!chunks.isEmpty()) {
+                write(chunks.poll(), progressListener);
+            }
+        } catch (IOException e) {
+            throw new ImportException("File can't be read: " + e.getMessage(), e);
+        } finally {
+            parsers.shutdownNow();
+        }
+
+        ImportProgress progress = getProgress(true);
+        progressListener.accept(progress);
+        return progress;
+    }
+
+    /**
+     * Converts and validates records of one chunk.
+     *
+     * @param records records of the chunk
+     * @return valid entities and rejected records of the chunk.
+     */
+    private Chunk<T> parse(List<CsvRecord> records) {
+        Chunk<T> chunk = new Chunk<>(records.size());
+        for (CsvRecord record : records) {
+            try {
+                T entity = entityImport.map(record);
+                Set<ConstraintViolation<T>> violations = validator.validate(entity);
+                if (violations.isEmpty()) {
+                    chunk.entities.add(entity);
+                    chunk.lineNumbers.add(record.getLineNumber());
+                } else {
+                    chunk.rejects.add(new ImportReject(record.getLineNumber(), describe(violations)));
+                }
+            } catch (ImportException e) {
+                chunk.rejects.add(new ImportReject(record.getLineNumber(), e.getMessage()));
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Waits for the specified chunk to be parsed and writes its valid entities, one by one if the chunk fails.
+     */
+    private void write(Future<Chunk<T>> parsedChunk, Consumer<ImportProgress> progressListener)
+            throws ImportException {
+        Chunk<T> chunk;
+        try {
+            chunk = parsedChunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImportException("Import is interrupted", e);
+        } catch (ExecutionException e) {
+            throw new ImportException("Records can't be parsed: " + e.getCause(), e.getCause());
+        }
+
+        List<ImportReject> chunkRejects = new ArrayList<>(chunk.rejects);
+        if (!chunk.entities.isEmpty()) {
+            boolean chunkWritten = tryWrite(chunk.entities) == null
+                    && chunk.entities.stream().allMatch(entity -> entityImport.getId(entity) != null);
+            for (int i = 0; i < chunk.entities.size(); i++) {
+                T entity = chunk.entities.get(i);
+                RuntimeException failure = chunkWritten ? null : tryWrite(Collections.singletonList(entity));
+                if (entityImport.getId(entity) == null) {
+                    chunkRejects.add(new ImportReject(chunk.lineNumbers.get(i),
+                            failure == null ? NOT_WRITTEN_REASON : describe(failure)));
+                } else {
+                    importedQty++;
+                }
+            }
+        }
+        rejectedQty += chunkRejects.size();
+        for (ImportReject reject : chunkRejects) {
+            if (rejects.size() < MAX_REPORTED_REJECT_QTY) {
+                rejects.add(reject);
+            }
+        }
+        progressListener.accept(getProgress(false));
+    }
+
+    /**
+     * Writes the specified entities in one transaction.
+     *
+     * @return exception the write failed with, {@code null} if it didn't throw.
+     */
+    private RuntimeException tryWrite(List<T> entities) {
+        try {
+            transactions.executeWithoutResult(status -> entityImport.write(entities));
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private ImportProgress getProgress(boolean finished) {
+        return new ImportProgress(entityImport.getType(), importedQty, rejectedQty, System.nanoTime() - startNanos,
+                Collections.unmodifiableList(new ArrayList<>(rejects)), finished);
+    }
+
+    private static <T> String describe(Set<ConstraintViolation<T>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String describe(Throwable failure) {
+        Throwable cause = failure;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return "not written: " + cause.getMessage();
+    }
+
+    /**
+     * Parsed chunk: valid entities with their line numbers and rejected records.
+     */
+    private static final class Chunk<T> {
+        private final List<T> entities;
+        private final List<Long> lineNumbers;
+        private final List<ImportReject> rejects = new ArrayList<>();
+
+        private Chunk(int size) {
+            entities = new ArrayList<>(size);
+            lineNumbers = new ArrayList<>(size);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.haulmont.testtask3.services.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of CSV records as described by RFC 4180: fields are separated by commas, a field may be
+ * enclosed in double quotes and then contain commas, line breaks and doubled double quotes. Both {@code \n}
+ * and {@code \r\n} line breaks are accepted, blank lines and the byte order mark are skipped.
+ * <p>
+ * Only the current record is held in memory, so files of any size can be read.
+ */
+public class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int EOF = -1;
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+    private boolean started;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads next record.
+     *
+     * @return next record or {@code null} if the end of the stream is reached.
+     * @throws IOException if the stream can't be read or a quoted field isn't closed
+     */
+    public CsvRecord read() throws IOException {
+        if (!started) {
+            started = true;
+            if (peek() == BYTE_ORDER_MARK) {
+                position++;
+            }
+        }
+
+        CsvRecord record;
+        do {
+            record = readRecord();
+        } while (record != null && record.size() == 1 && record.get(0).isEmpty());
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private CsvRecord readRecord() throws IOException {
+        int c = next();
+        if (c == EOF) {
+            return null;
+        }
+
+        long recordLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    throw new IOException("Quoted field is not closed, line " + recordLineNumber);
+                } else if (c == QUOTE) {
+                    if (peek() == QUOTE) {
+                        position++;
+                        field.append(QUOTE);
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == QUOTE && fieldStart) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+                c = next();
+                continue;
+            } else if (c == '\n' || c == EOF) {
+                if (c == '\n') {
+                    lineNumber++;
+                }
+                fields.add(field.toString());
+                return new CsvRecord(recordLineNumber, fields.toArray(new String[0]));
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            fieldStart = false;
+            c = next();
+        }
+    }
+
+    private int next() throws IOException {
+        int c = peek();
+        if (c != EOF) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buffer[position];
+    }
+}
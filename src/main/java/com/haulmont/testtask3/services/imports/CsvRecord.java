@@ -0,0 +1,37 @@
+package com.haulmont.testtask3.services.imports;
+
+/**
+ * One record of a CSV file.
+ */
+public class CsvRecord {
+    private final long lineNumber;
+    private final String[] values;
+
+    public CsvRecord(long lineNumber, String[] values) {
+        this.lineNumber = lineNumber;
+        this.values = values;
+    }
+
+    /**
+     * Returns number of the line the record starts at.
+     *
+     * @return number of the line the record starts at, starting from 1.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns value of the specified field.
+     *
+     * @param index field index
+     * @return value of the specified field, empty if the record has fewer fields.
+     */
+    public String get(int index) {
+        return index < values.length ? values[index] : "";
+    }
+}
@@ -0,0 +1,55 @@
+package com.haulmont.testtask3.services.imports;
+
+import com.haulmont.testtask3.dao.interfaces.DoctorDao;
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.services.exceptions.ImportException;
+
+import java.util.List;
+
+/**
+ * Import of doctors from columns {@code name, surname, patronymic, specialization}.
+ */
+public class DoctorImport implements EntityImport<Doctor> {
+    static final String NAME_COLUMN = "name";
+    static final String SURNAME_COLUMN = "surname";
+    static final String PATRONYMIC_COLUMN = "patronymic";
+    static final String SPECIALIZATION_COLUMN = "specialization";
+
+    private final DoctorDao doctorDao;
+    private CsvHeader header;
+
+    public DoctorImport(DoctorDao doctorDao) {
+        this.doctorDao = doctorDao;
+    }
+
+    @Override
+    public ImportType getType() {
+        return ImportType.DOCTORS;
+    }
+
+    @Override
+    public void start(CsvHeader header) throws ImportException {
+        header.require(NAME_COLUMN, SURNAME_COLUMN, SPECIALIZATION_COLUMN);
+        this.header = header;
+    }
+
+    @Override
+    public Doctor map(CsvRecord record) {
+        Doctor doctor = new Doctor();
+        doctor.setName(header.get(record, NAME_COLUMN));
+        doctor.setSurname(header.get(record, SURNAME_COLUMN));
+        doctor.setPatronymic(header.get(record, PATRONYMIC_COLUMN));
+        doctor.setSpecialization(header.get(record, SPECIALIZATION_COLUMN));
+        return doctor;
+    }
+
+    @Override
+    public void write(List<Doctor> entities) {
+        doctorDao.addAll(entities);
+    }
+
+    @Override
+    public Long getId(Doctor entity) {
+        return entity.getId();
+    }
+}
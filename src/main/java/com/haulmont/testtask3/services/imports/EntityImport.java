@@ -0,0 +1,47 @@
+package com.haulmont.testtask3.services.imports;
+
+import com.haulmont.testtask3.services.exceptions.ImportException;
+
+import java.util.List;
+
+/**
+ * Import of one kind of entities, used by {@link CsvImportPipeline} for one file.
+ *
+ * @param <T> entity type
+ */
+public interface EntityImport<T> {
+
+    ImportType getType();
+
+    /**
+     * Prepares import of a file with the specified columns, e.g. checks required columns.
+     *
+     * @param header file columns
+     * @throws ImportException if the file can't be imported
+     */
+    void start(CsvHeader header) throws ImportException;
+
+    /**
+     * Creates entity from the specified record. Called from several threads at once.
+     *
+     * @param record record
+     * @return entity created from the record, not validated yet.
+     * @throws ImportException if the record can't be converted, the message describes the reason
+     */
+    T map(CsvRecord record) throws ImportException;
+
+    /**
+     * Writes valid entities in one batch.
+     *
+     * @param entities entities to be written
+     */
+    void write(List<T> entities);
+
+    /**
+     * Returns id of the specified entity.
+     *
+     * @param entity entity
+     * @return id of the entity, {@code null} if the entity wasn't written.
+     */
+    Long getId(T entity);
+}
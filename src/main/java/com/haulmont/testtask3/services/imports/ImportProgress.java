@@ -0,0 +1,71 @@
+package com.haulmont.testtask3.services.imports;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State of an import: quantities of the processed records, elapsed time and rejected records.
+ */
+public class ImportProgress {
+    private final ImportType type;
+    private final long importedQty;
+    private final long rejectedQty;
+    private final long elapsedNanos;
+    private final List<ImportReject> rejects;
+    private final boolean finished;
+
+    public ImportProgress(ImportType type, long importedQty, long rejectedQty, long elapsedNanos,
+                          List<ImportReject> rejects, boolean finished) {
+        this.type = type;
+        this.importedQty = importedQty;
+        this.rejectedQty = rejectedQty;
+        this.elapsedNanos = elapsedNanos;
+        this.rejects = rejects;
+        this.finished = finished;
+    }
+
+    public ImportType getType() {
+        return type;
+    }
+
+    public long getImportedQty() {
+        return importedQty;
+    }
+
+    public long getRejectedQty() {
+        return rejectedQty;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * Returns quantity of the processed, i.e. imported or rejected, records per second.
+     *
+     * @return quantity of the processed records per second.
+     */
+    public long getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : (importedQty + rejectedQty) * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * Returns rejected records.
+     *
+     * @return rejected records ordered by line, at most {@link CsvImportPipeline#MAX_REPORTED_REJECT_QTY}
+     * first of them.
+     */
+    public List<ImportReject> getRejects() {
+        return rejects;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public String toString() {
+        return type + ": " + importedQty + " imported, " + rejectedQty + " rejected, "
+                + getRowsPerSecond() + " rows/s";
+    }
+}
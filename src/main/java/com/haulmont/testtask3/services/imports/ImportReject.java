@@ -0,0 +1,27 @@
+package com.haulmont.testtask3.services.imports;
+
+/**
+ * Record which wasn't imported.
+ */
+public class ImportReject {
+    private final long lineNumber;
+    private final String reason;
+
+    public ImportReject(long lineNumber, String reason) {
+        this.lineNumber = lineNumber;
+        this.reason = reason;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return "line " + lineNumber + ": " + reason;
+    }
+}
@@ -0,0 +1,10 @@
+package com.haulmont.testtask3.services.imports;
+
+/**
+ * Kind of imported records.
+ */
+public enum ImportType {
+    DOCTORS,
+    PATIENTS,
+    RECIPES
+}
@@ -0,0 +1,51 @@
+package com.haulmont.testtask3.services.imports;
+
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.services.exceptions.ImportException;
+
+import java.sql.Date;
+import java.util.Locale;
+
+/**
+ * Conversions of the imported values.
+ */
+final class ImportValues {
+
+    private ImportValues() {
+    }
+
+    static long parseLong(String value, String column) throws ImportException {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ImportException(column + " is not a number: " + value);
+        }
+    }
+
+    static int parseInt(String value, String column) throws ImportException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ImportException(column + " is not a number: " + value);
+        }
+    }
+
+    /**
+     * Parses date in {@code yyyy-mm-dd} format.
+     */
+    static Date parseDate(String value, String column) throws ImportException {
+        try {
+            return Date.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new ImportException(column + " is not a yyyy-mm-dd date: " + value);
+        }
+    }
+
+    static Priority parsePriority(String value, String column) throws ImportException {
+        try {
+            return Priority.fromName(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ImportException(column + " is not a priority: " + value);
+        }
+    }
+}
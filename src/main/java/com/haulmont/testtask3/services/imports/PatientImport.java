@@ -0,0 +1,55 @@
+package com.haulmont.testtask3.services.imports;
+
+import com.haulmont.testtask3.dao.interfaces.PatientDao;
+import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.services.exceptions.ImportException;
+
+import java.util.List;
+
+/**
+ * Import of patients from columns {@code name, surname, patronymic, phone_number}.
+ */
+public class PatientImport implements EntityImport<Patient> {
+    static final String NAME_COLUMN = "name";
+    static final String SURNAME_COLUMN = "surname";
+    static final String PATRONYMIC_COLUMN = "patronymic";
+    static final String PHONE_NUMBER_COLUMN = "phone_number";
+
+    private final PatientDao patientDao;
+    private CsvHeader header;
+
+    public PatientImport(PatientDao patientDao) {
+        this.patientDao = patientDao;
+    }
+
+    @Override
+    public ImportType getType() {
+        return ImportType.PATIENTS;
+    }
+
+    @Override
+    public void start(CsvHeader header) throws ImportException {
+        header.require(NAME_COLUMN, SURNAME_COLUMN, PHONE_NUMBER_COLUMN);
+        this.header = header;
+    }
+
+    @Override
+    public Patient map(CsvRecord record) {
+        Patient patient = new Patient();
+        patient.setName(header.get(record, NAME_COLUMN));
+        patient.setSurname(header.get(record, SURNAME_COLUMN));
+        patient.setPatronymic(header.get(record, PATRONYMIC_COLUMN));
+        patient.setPhoneNumber(header.get(record, PHONE_NUMBER_COLUMN));
+        return patient;
+    }
+
+    @Override
+    public void write(List<Patient> entities) {
+        patientDao.addAll(entities);
+    }
+
+    @Override
+    public Long getId(Patient entity) {
+        return entity.getId();
+    }
+}
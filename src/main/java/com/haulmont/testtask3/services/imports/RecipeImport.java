@@ -0,0 +1,130 @@
+package com.haulmont.testtask3.services.imports;
+
+import com.haulmont.testtask3.dao.interfaces.DoctorDao;
+import com.haulmont.testtask3.dao.interfaces.PatientDao;
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.exceptions.ImportException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Import of recipes from columns {@code doctor, patient_phone, description, creation_date, validity, priority}.
+ * <p>
+ * A doctor is referenced by id in {@code doctor_id} column or by full name, {@code surname name patronymic},
+ * in {@code doctor} column. A patient is referenced by id in {@code patient_id} column or by phone number
+ * in {@code patient_phone} column. Stored doctors and patients are loaded once when the import starts,
+ * so they must be imported before the recipes referencing them.
+ */
+public class RecipeImport implements EntityImport<Recipe> {
+    static final String DOCTOR_ID_COLUMN = "doctor_id";
+    static final String DOCTOR_COLUMN = "doctor";
+    static final String PATIENT_ID_COLUMN = "patient_id";
+    static final String PATIENT_PHONE_COLUMN = "patient_phone";
+    static final String DESCRIPTION_COLUMN = "description";
+    static final String CREATION_DATE_COLUMN = "creation_date";
+    static final String VALIDITY_COLUMN = "validity";
+    static final String PRIORITY_COLUMN = "priority";
+
+    /**
+     * Id of a reference which matches several stored entities.
+     */
+    private static final long AMBIGUOUS_ID = -1;
+
+    private final RecipeDao recipeDao;
+    private final DoctorDao doctorDao;
+    private final PatientDao patientDao;
+    private CsvHeader header;
+    private String doctorColumn;
+    private String patientColumn;
+    private Map<String, Long> doctorIds;
+    private Map<String, Long> patientIds;
+
+    public RecipeImport(RecipeDao recipeDao, DoctorDao doctorDao, PatientDao patientDao) {
+        this.recipeDao = recipeDao;
+        this.doctorDao = doctorDao;
+        this.patientDao = patientDao;
+    }
+
+    @Override
+    public ImportType getType() {
+        return ImportType.RECIPES;
+    }
+
+    @Override
+    public void start(CsvHeader header) throws ImportException {
+        header.require(DESCRIPTION_COLUMN, CREATION_DATE_COLUMN, VALIDITY_COLUMN, PRIORITY_COLUMN);
+        doctorColumn = header.has(DOCTOR_ID_COLUMN) ? DOCTOR_ID_COLUMN : DOCTOR_COLUMN;
+        patientColumn = header.has(PATIENT_ID_COLUMN) ? PATIENT_ID_COLUMN : PATIENT_PHONE_COLUMN;
+        header.require(doctorColumn, patientColumn);
+        this.header = header;
+
+        doctorIds = new HashMap<>();
+        for (Doctor doctor : doctorDao.getAll()) {
+            String key = doctorColumn.equals(DOCTOR_ID_COLUMN) ? String.valueOf(doctor.getId())
+                    : getFullName(doctor.getSurname(), doctor.getName(), doctor.getPatronymic());
+            doctorIds.merge(key, doctor.getId(), (id, otherId) -> AMBIGUOUS_ID);
+        }
+        patientIds = new HashMap<>();
+        for (Patient patient : patientDao.getAll()) {
+            String key = patientColumn.equals(PATIENT_ID_COLUMN) ? String.valueOf(patient.getId())
+                    : patient.getPhoneNumber();
+            patientIds.merge(key, patient.getId(), (id, otherId) -> AMBIGUOUS_ID);
+        }
+    }
+
+    @Override
+    public Recipe map(CsvRecord record) throws ImportException {
+        Recipe recipe = new Recipe();
+        String doctor = header.get(record, doctorColumn);
+        recipe.setDoctorId(resolve(doctorIds, doctorColumn.equals(DOCTOR_ID_COLUMN) ? doctor
+                : getFullName(doctor.split("\\s+")), doctorColumn, doctor));
+        String patient = header.get(record, patientColumn);
+        recipe.setPatientId(resolve(patientIds, patient, patientColumn, patient));
+        recipe.setDescription(header.get(record, DESCRIPTION_COLUMN));
+        recipe.setCreationDate(ImportValues.parseDate(header.get(record, CREATION_DATE_COLUMN),
+                CREATION_DATE_COLUMN));
+        recipe.setValidity(ImportValues.parseInt(header.get(record, VALIDITY_COLUMN), VALIDITY_COLUMN));
+        recipe.setPriority(ImportValues.parsePriority(header.get(record, PRIORITY_COLUMN), PRIORITY_COLUMN));
+        return recipe;
+    }
+
+    @Override
+    public void write(List<Recipe> entities) {
+        recipeDao.addAll(entities);
+    }
+
+    @Override
+    public Long getId(Recipe entity) {
+        return entity.getId();
+    }
+
+    private static long resolve(Map<String, Long> ids, String key, String column, String value)
+            throws ImportException {
+        Long id = ids.get(key);
+        if (id == null) {
+            throw new ImportException(column + " is not found: " + value);
+        } else if (id == AMBIGUOUS_ID) {
+            throw new ImportException(column + " matches several records: " + value);
+        }
+        return id;
+    }
+
+    private static String getFullName(String... nameParts) {
+        StringBuilder fullName = new StringBuilder();
+        for (String namePart : nameParts) {
+            if (namePart != null && !namePart.isEmpty()) {
+                if (fullName.length() > 0) {
+                    fullName.append(' ');
+                }
+                fullName.append(namePart.toLowerCase(Locale.ROOT));
+            }
+        }
+        return fullName.toString();
+    }
+}
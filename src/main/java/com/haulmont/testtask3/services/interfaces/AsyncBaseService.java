@@ -0,0 +1,107 @@
+package com.haulmont.testtask3.services.interfaces;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variant of {@link BaseService}.
+ * <p>
+ * Every method returns at once and runs the corresponding {@link BaseService} method on the service executor.
+ * The returned future completes exceptionally with the exception thrown by that method,
+ * or with {@link java.util.concurrent.RejectedExecutionException} if the executor is overloaded.
+ *
+ * @param <T> entity type
+ */
+public interface AsyncBaseService<T> {
+
+    /**
+     * Adds specified entity.
+     *
+     * @param entity entity to be added
+     * @return future of the generated id of the added entity.
+     * @see BaseService#add(Object)
+     */
+    CompletableFuture<Long> add(T entity);
+
+    /**
+     * Adds specified entities within one transaction and sets generated ids to them.
+     *
+     * @param entities entities to be added
+     * @return future completed when the entities are added.
+     * @see BaseService#addAll(Collection)
+     */
+    CompletableFuture<Void> addAll(Collection<T> entities);
+
+    /**
+     * Updates specified entity.
+     *
+     * @param entity entity to be updated
+     * @return future completed when the entity is updated.
+     * @see BaseService#update(Object)
+     */
+    CompletableFuture<Void> update(T entity);
+
+    /**
+     * Updates specified entities within one transaction.
+     *
+     * @param entities entities to be updated
+     * @return future completed when the entities are updated.
+     * @see BaseService#updateAll(Collection)
+     */
+    CompletableFuture<Void> updateAll(Collection<T> entities);
+
+    /**
+     * Returns entity with the specified id.
+     *
+     * @param id entity id
+     * @return future of the entity with the specified id.
+     * @see BaseService#getById(long)
+     */
+    CompletableFuture<T> getById(long id);
+
+    /**
+     * Deletes specified entity.
+     *
+     * @param entity entity to be deleted
+     * @return future completed when the entity is deleted.
+     * @see BaseService#delete(Object)
+     */
+    CompletableFuture<Void> delete(T entity);
+
+    /**
+     * Returns all entities.
+     *
+     * @return future of all entities.
+     * @see BaseService#getAll()
+     */
+    CompletableFuture<List<T>> getAll();
+
+    /**
+     * Returns page of entities ordered by id.
+     *
+     * @param offset quantity of entities to be skipped
+     * @param limit  max quantity of entities to be returned
+     * @return future of the page of entities ordered by id.
+     * @see BaseService#getPage(int, int)
+     */
+    CompletableFuture<List<T>> getPage(int offset, int limit);
+
+    /**
+     * Returns page of entities with id greater than the specified one, ordered by id.
+     *
+     * @param afterId id of the last entity of the previous page
+     * @param limit   max quantity of entities to be returned
+     * @return future of the page of entities with id greater than the specified one, ordered by id.
+     * @see BaseService#getPageAfter(long, int)
+     */
+    CompletableFuture<List<T>> getPageAfter(long afterId, int limit);
+
+    /**
+     * Returns quantity of all entities.
+     *
+     * @return future of the quantity of all entities.
+     * @see BaseService#getCount()
+     */
+    CompletableFuture<Integer> getCount();
+}
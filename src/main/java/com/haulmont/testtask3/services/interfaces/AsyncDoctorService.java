@@ -0,0 +1,9 @@
+package com.haulmont.testtask3.services.interfaces;
+
+import com.haulmont.testtask3.models.Doctor;
+
+/**
+ * Asynchronous variant of {@link DoctorService}.
+ */
+public interface AsyncDoctorService extends AsyncBaseService<Doctor> {
+}
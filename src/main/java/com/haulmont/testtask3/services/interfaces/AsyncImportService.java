@@ -0,0 +1,26 @@
+package com.haulmont.testtask3.services.interfaces;
+
+import com.haulmont.testtask3.services.imports.ImportProgress;
+import com.haulmont.testtask3.services.imports.ImportType;
+
+import java.io.Reader;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous variant of {@link ImportService}.
+ */
+public interface AsyncImportService {
+
+    /**
+     * Imports entities of the specified type from CSV file.
+     *
+     * @param type             type of the imported entities
+     * @param reader           CSV file, closed once the import finishes
+     * @param progressListener listener called from the importing thread as records are written
+     * @return future of the final progress of the import.
+     * @see ImportService#importCsv(ImportType, Reader, Consumer)
+     */
+    CompletableFuture<ImportProgress> importCsv(ImportType type, Reader reader,
+                                                Consumer<ImportProgress> progressListener);
+}
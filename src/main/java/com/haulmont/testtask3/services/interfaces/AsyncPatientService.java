@@ -0,0 +1,9 @@
+package com.haulmont.testtask3.services.interfaces;
+
+import com.haulmont.testtask3.models.Patient;
+
+/**
+ * Asynchronous variant of {@link PatientService}.
+ */
+public interface AsyncPatientService extends AsyncBaseService<Patient> {
+}
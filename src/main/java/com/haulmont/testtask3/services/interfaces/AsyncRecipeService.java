@@ -0,0 +1,110 @@
+package com.haulmont.testtask3.services.interfaces;
+
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.models.RecipeListItem;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variant of {@link RecipeService}.
+ */
+public interface AsyncRecipeService extends AsyncBaseService<Recipe> {
+
+    /**
+     * Returns quantity of recipes with specified patient id.
+     *
+     * @param patientId patient id
+     * @return future of the quantity of recipes with specified patient id.
+     * @see RecipeService#getRecipeQtyByPatientId(long)
+     */
+    CompletableFuture<Integer> getRecipeQtyByPatientId(long patientId);
+
+    /**
+     * Returns quantity of recipes with specified doctor id.
+     *
+     * @param doctorId doctor id
+     * @return future of the quantity of recipes with specified doctor id.
+     * @see RecipeService#getRecipeQtyByDoctorId(long)
+     */
+    CompletableFuture<Integer> getRecipeQtyByDoctorId(long doctorId);
+
+    /**
+     * Returns recipe quantities of all doctors which have recipes.
+     *
+     * @return future of the recipe quantities by doctor id.
+     * @see RecipeService#getRecipeQtyForAllDoctors()
+     */
+    CompletableFuture<Map<Long, Integer>> getRecipeQtyForAllDoctors();
+
+    /**
+     * Returns recipe list items filtered by specified filter.
+     *
+     * @param filter recipe filter
+     * @return future of the recipe list items filtered by specified filter.
+     * @see RecipeService#findAll(RecipeFilter)
+     */
+    CompletableFuture<List<RecipeListItem>> findAll(RecipeFilter filter);
+
+    /**
+     * Returns page of recipe list items filtered by specified filter, ordered by id.
+     *
+     * @param filter recipe filter
+     * @param offset quantity of recipes to be skipped
+     * @param limit  max quantity of recipes to be returned
+     * @return future of the page of recipe list items filtered by specified filter.
+     * @see RecipeService#findPage(RecipeFilter, int, int)
+     */
+    CompletableFuture<List<RecipeListItem>> findPage(RecipeFilter filter, int offset, int limit);
+
+    /**
+     * Returns quantity of recipes filtered by specified filter.
+     *
+     * @param filter recipe filter
+     * @return future of the quantity of recipes filtered by specified filter.
+     * @see RecipeService#findCount(RecipeFilter)
+     */
+    CompletableFuture<Integer> findCount(RecipeFilter filter);
+
+    /**
+     * Returns recipes which expire after the first specified date and not later than the second one.
+     *
+     * @param afterDate date after which recipes expire, {@code null} for no lower bound
+     * @param toDate    date by which recipes expire inclusive
+     * @return future of the recipes expiring within the specified dates.
+     * @see RecipeService#getExpiring(LocalDate, LocalDate)
+     */
+    CompletableFuture<List<Recipe>> getExpiring(LocalDate afterDate, LocalDate toDate);
+
+    /**
+     * Returns page of recipe list items ordered by id.
+     *
+     * @param offset quantity of recipes to be skipped
+     * @param limit  max quantity of recipes to be returned
+     * @return future of the page of recipe list items ordered by id.
+     * @see RecipeService#getListItemPage(int, int)
+     */
+    CompletableFuture<List<RecipeListItem>> getListItemPage(int offset, int limit);
+
+    /**
+     * Returns page of recipe list items with id greater than the specified one, ordered by id.
+     *
+     * @param afterId id of the last recipe of the previous page
+     * @param limit   max quantity of recipes to be returned
+     * @return future of the page of recipe list items with id greater than the specified one.
+     * @see RecipeService#getListItemPageAfter(long, int)
+     */
+    CompletableFuture<List<RecipeListItem>> getListItemPageAfter(long afterId, int limit);
+
+    /**
+     * Returns recipe list item with the specified id.
+     *
+     * @param id recipe id
+     * @return future of the recipe list item with the specified id.
+     * @see RecipeService#getListItemById(long)
+     */
+    CompletableFuture<RecipeListItem> getListItemById(long id);
+}
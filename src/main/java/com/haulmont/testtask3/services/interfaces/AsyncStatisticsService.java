@@ -0,0 +1,29 @@
+package com.haulmont.testtask3.services.interfaces;
+
+import com.haulmont.testtask3.models.DoctorStatistics;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variant of {@link StatisticsService}.
+ */
+public interface AsyncStatisticsService {
+
+    /**
+     * Returns recipe statistics of all doctors which have recipes.
+     *
+     * @return future of the recipe statistics by doctor id.
+     * @see StatisticsService#getStatisticsForAllDoctors()
+     */
+    CompletableFuture<Map<Long, DoctorStatistics>> getStatisticsForAllDoctors();
+
+    /**
+     * Returns recipe statistics of the specified doctor.
+     *
+     * @param doctorId doctor id
+     * @return future of the recipe statistics of the specified doctor.
+     * @see StatisticsService#getStatisticsByDoctorId(long)
+     */
+    CompletableFuture<DoctorStatistics> getStatisticsByDoctorId(long doctorId);
+}
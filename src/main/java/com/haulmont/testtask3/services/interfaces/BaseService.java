@@ -1,9 +1,12 @@
 package com.haulmont.testtask3.services.interfaces;
 
 import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.services.exceptions.BatchValidationException;
+import com.haulmont.testtask3.services.exceptions.UpdateConflictException;
 import com.haulmont.testtask3.services.exceptions.ValidationException;
 
 import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,12 +17,22 @@ import java.util.List;
 public interface BaseService<T> {
 
     /**
-     * Adds specified entity.
+     * Adds specified entity and sets generated id to it.
      *
      * @param entity entity to be added
+     * @return generated id of the added entity.
      * @throws ValidationException if specified entity is no valid.
      */
-    void add(T entity) throws ValidationException;
+    Long add(T entity) throws ValidationException;
+
+    /**
+     * Adds specified entities within one transaction and sets generated ids to them.
+     * Nothing is added if any of specified entities is not valid.
+     *
+     * @param entities entities to be added
+     * @throws BatchValidationException if any of specified entities is not valid
+     */
+    void addAll(Collection<T> entities) throws BatchValidationException;
 
     /**
      * Updates specified entity.
@@ -27,8 +40,23 @@ public interface BaseService<T> {
      * @param entity entity to be updated
      * @throws ElementDoesNotExistException if specified entity does not exist
      * @throws ValidationException          if specified entity is not valid
+     * @throws UpdateConflictException      if specified entity was changed by another user after it had been read
+     */
+    void update(T entity) throws ElementDoesNotExistException, ValidationException, UpdateConflictException;
+
+    /**
+     * Updates specified entities within one transaction.
+     * Nothing is updated if any of specified entities is not valid, does not exist or was changed
+     * after it had been read.
+     *
+     * @param entities entities to be updated
+     * @throws ElementDoesNotExistException if any of specified entities does not exist
+     * @throws BatchValidationException     if any of specified entities is not valid
+     * @throws UpdateConflictException      if any of specified entities was changed by another user
+     *                                      after it had been read
      */
-    void update(T entity) throws ElementDoesNotExistException, ValidationException;
+    void updateAll(Collection<T> entities) throws ElementDoesNotExistException, BatchValidationException,
+            UpdateConflictException;
 
     /**
      * Returns entity with the specified id.
@@ -55,4 +83,29 @@ public interface BaseService<T> {
      * @return all entities.
      */
     List<T> getAll();
+
+    /**
+     * Returns page of entities ordered by id.
+     *
+     * @param offset quantity of entities to be skipped
+     * @param limit  max quantity of entities to be returned
+     * @return page of entities ordered by id.
+     */
+    List<T> getPage(int offset, int limit);
+
+    /**
+     * Returns page of entities with id greater than the specified one, ordered by id.
+     *
+     * @param afterId id of the last entity of the previous page
+     * @param limit   max quantity of entities to be returned
+     * @return page of entities with id greater than the specified one, ordered by id.
+     */
+    List<T> getPageAfter(long afterId, int limit);
+
+    /**
+     * Returns quantity of all entities.
+     *
+     * @return quantity of all entities.
+     */
+    int getCount();
 }
@@ -0,0 +1,28 @@
+package com.haulmont.testtask3.services.interfaces;
+
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.services.exports.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service of full data exports.
+ */
+public interface ExportService {
+
+    /**
+     * Writes recipes filtered by specified filter with patient and doctor names to the specified stream,
+     * ordered by id. The recipes are written as they are read from the database, so memory use doesn't depend
+     * on their quantity. The stream is flushed but not closed.
+     *
+     * @param filter       recipe filter
+     * @param format       export format
+     * @param compressed   whether the output is compressed with gzip
+     * @param outputStream stream the recipes are written to
+     * @return quantity of the written recipes.
+     * @throws IOException if the stream can't be written
+     */
+    int exportRecipes(RecipeFilter filter, ExportFormat format, boolean compressed, OutputStream outputStream)
+            throws IOException;
+}
@@ -0,0 +1,27 @@
+package com.haulmont.testtask3.services.interfaces;
+
+import com.haulmont.testtask3.services.exceptions.ImportException;
+import com.haulmont.testtask3.services.imports.ImportProgress;
+import com.haulmont.testtask3.services.imports.ImportType;
+
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * Service of bulk import of entities from CSV files.
+ */
+public interface ImportService {
+
+    /**
+     * Imports entities of the specified type from CSV file. Valid records are written, invalid ones
+     * are rejected and reported without stopping the import.
+     *
+     * @param type             type of the imported entities
+     * @param reader           CSV file, the first record holds column names
+     * @param progressListener listener called from the importing thread as records are written
+     * @return final progress of the import.
+     * @throws ImportException if the file can't be read or has no required columns
+     */
+    ImportProgress importCsv(ImportType type, Reader reader, Consumer<ImportProgress> progressListener)
+            throws ImportException;
+}
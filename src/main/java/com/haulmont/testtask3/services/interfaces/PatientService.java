@@ -2,8 +2,20 @@ package com.haulmont.testtask3.services.interfaces;
 
 import com.haulmont.testtask3.models.Patient;
 
+import java.util.List;
+
 /**
  * Patient Service interface.
  */
 public interface PatientService extends BaseService<Patient> {
+
+    /**
+     * Returns patients with every word of the search term being a case insensitive prefix of a word
+     * of their surname, name or patronymic.
+     *
+     * @param term  searched name words, an empty term matches every patient
+     * @param limit max quantity of patients to be returned
+     * @return {@code List} of the matching patients, at most {@code limit} ones.
+     */
+    List<Patient> findByName(String term, int limit);
 }
@@ -1,8 +1,13 @@
 package com.haulmont.testtask3.services.interfaces;
 
+import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
 import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.models.RecipeListItem;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Recipe Service interface.
@@ -26,12 +31,73 @@ public interface RecipeService extends BaseService<Recipe> {
     int getRecipeQtyByDoctorId(long doctorId);
 
     /**
-     * Returns recipes {@code List} filtered by specified properties.
+     * Returns recipe quantities of all doctors which have recipes.
      *
-     * @param patientId   patient filter
-     * @param priority    priority filter
-     * @param description description filter
-     * @return recipes {@code List} filtered by specified properties.
+     * @return recipe quantities by doctor id, doctors without recipes are absent.
      */
-    List<Recipe> findAll(Long patientId, String priority, String description);
+    Map<Long, Integer> getRecipeQtyForAllDoctors();
+
+    /**
+     * Returns recipe list items {@code List} filtered by specified filter.
+     *
+     * @param filter recipe filter
+     * @return recipe list items {@code List} filtered by specified filter.
+     */
+    List<RecipeListItem> findAll(RecipeFilter filter);
+
+    /**
+     * Returns page of recipe list items filtered by specified filter, ordered by id.
+     *
+     * @param filter recipe filter
+     * @param offset quantity of recipes to be skipped
+     * @param limit  max quantity of recipes to be returned
+     * @return page of recipe list items filtered by specified filter, ordered by id.
+     */
+    List<RecipeListItem> findPage(RecipeFilter filter, int offset, int limit);
+
+    /**
+     * Returns quantity of recipes filtered by specified filter.
+     *
+     * @param filter recipe filter
+     * @return quantity of recipes filtered by specified filter.
+     */
+    int findCount(RecipeFilter filter);
+
+    /**
+     * Returns recipes which expire after the first specified date and not later than the second one.
+     * Recipes expiring within {@code N} days of date {@code D} are returned for {@code (D, D + N)},
+     * recipes expired as of date {@code D} are returned for {@code (null, D)}.
+     *
+     * @param afterDate date after which recipes expire, {@code null} for no lower bound
+     * @param toDate    date by which recipes expire inclusive
+     * @return recipes expiring within the specified dates ordered by id.
+     */
+    List<Recipe> getExpiring(LocalDate afterDate, LocalDate toDate);
+
+    /**
+     * Returns page of recipe list items ordered by id.
+     *
+     * @param offset quantity of recipes to be skipped
+     * @param limit  max quantity of recipes to be returned
+     * @return page of recipe list items ordered by id.
+     */
+    List<RecipeListItem> getListItemPage(int offset, int limit);
+
+    /**
+     * Returns page of recipe list items with id greater than the specified one, ordered by id.
+     *
+     * @param afterId id of the last recipe of the previous page
+     * @param limit   max quantity of recipes to be returned
+     * @return page of recipe list items with id greater than the specified one, ordered by id.
+     */
+    List<RecipeListItem> getListItemPageAfter(long afterId, int limit);
+
+    /**
+     * Returns recipe list item with the specified id.
+     *
+     * @param id recipe id
+     * @return recipe list item with the specified id.
+     * @throws ElementDoesNotExistException if recipe with the specified id does not exist
+     */
+    RecipeListItem getListItemById(long id) throws ElementDoesNotExistException;
 }
@@ -0,0 +1,26 @@
+package com.haulmont.testtask3.services.interfaces;
+
+import com.haulmont.testtask3.models.DoctorStatistics;
+
+import java.util.Map;
+
+/**
+ * Service of recipe statistics.
+ */
+public interface StatisticsService {
+
+    /**
+     * Returns recipe statistics of all doctors which have recipes.
+     *
+     * @return recipe statistics by doctor id, doctors without recipes are absent.
+     */
+    Map<Long, DoctorStatistics> getStatisticsForAllDoctors();
+
+    /**
+     * Returns recipe statistics of the specified doctor.
+     *
+     * @param doctorId doctor id
+     * @return recipe statistics of the specified doctor, empty if the doctor has no recipes.
+     */
+    DoctorStatistics getStatisticsByDoctorId(long doctorId);
+}
@@ -0,0 +1,146 @@
+package com.haulmont.testtask3.services.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-compiled form of the regular expressions like {@code ^[a-zA-Z ]{0,50}$}, i.e. one character class
+ * repeated a bounded number of times. Matching is a length check and a loop over characters, without
+ * a {@link java.util.regex.Matcher}.
+ */
+final class CharClassPattern {
+    private static final int ASCII_SIZE = 128;
+
+    private final boolean[] ascii = new boolean[ASCII_SIZE];
+    private final char[] lows;
+    private final char[] highs;
+    private final int minLength;
+    private final int maxLength;
+
+    private CharClassPattern(List<char[]> ranges, int minLength, int maxLength) {
+        lows = new char[ranges.size()];
+        highs = new char[ranges.size()];
+        for (int i = 0; i < ranges.size(); i++) {
+            char[] range = ranges.get(i);
+            lows[i] = range[0];
+            highs[i] = range[1];
+            for (int c = range[0]; c <= range[1] && c < ASCII_SIZE; c++) {
+                ascii[c] = true;
+            }
+        }
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Compiles the specified regular expression.
+     *
+     * @param regexp regular expression
+     * @return compiled pattern or {@code null} if the expression has any other form.
+     */
+    static CharClassPattern compile(String regexp) {
+        int position = regexp.startsWith("^") ? 1 : 0;
+        if (position >= regexp.length() || regexp.charAt(position) != '[') {
+            return null;
+        }
+        position++;
+
+        List<char[]> ranges = new ArrayList<>();
+        while (position < regexp.length() && regexp.charAt(position) != ']') {
+            char low = regexp.charAt(position);
+            if (!isPlain(low)) {
+                return null;
+            }
+            char high = low;
+            if (position + 2 < regexp.length() && regexp.charAt(position + 1) == '-'
+                    && regexp.charAt(position + 2) != ']') {
+                high = regexp.charAt(position + 2);
+                if (!isPlain(high) || high < low || (low <= Character.MAX_SURROGATE
+                        && high >= Character.MIN_SURROGATE)) {
+                    return null;
+                }
+                position += 3;
+            } else {
+                position++;
+            }
+            ranges.add(new char[]{low, high});
+        }
+        if (ranges.isEmpty() || position >= regexp.length()) {
+            return null;
+        }
+        position++;
+
+        String quantifier = regexp.endsWith("$")
+                ? regexp.substring(position, regexp.length() - 1)
+                : regexp.substring(position);
+        int minLength;
+        int maxLength;
+        if (quantifier.isEmpty()) {
+            minLength = 1;
+            maxLength = 1;
+        } else if (quantifier.equals("*")) {
+            minLength = 0;
+            maxLength = Integer.MAX_VALUE;
+        } else if (quantifier.equals("+")) {
+            minLength = 1;
+            maxLength = Integer.MAX_VALUE;
+        } else if (quantifier.equals("?")) {
+            minLength = 0;
+            maxLength = 1;
+        } else if (quantifier.matches("\\{[0-9]{1,9}}")) {
+            minLength = Integer.parseInt(quantifier.substring(1, quantifier.length() - 1));
+            maxLength = minLength;
+        } else if (quantifier.matches("\\{[0-9]{1,9},[0-9]{0,9}}")) {
+            int separatorIndex = quantifier.indexOf(',');
+            minLength = Integer.parseInt(quantifier.substring(1, separatorIndex));
+            maxLength = separatorIndex == quantifier.length() - 2
+                    ? Integer.MAX_VALUE
+                    : Integer.parseInt(quantifier.substring(separatorIndex + 1, quantifier.length() - 1));
+            if (maxLength < minLength) {
+                return null;
+            }
+        } else {
+            return null;
+        }
+        return new CharClassPattern(ranges, minLength, maxLength);
+    }
+
+    /**
+     * Checks if the whole specified value matches the pattern, as {@link java.util.regex.Matcher#matches()} does.
+     *
+     * @param value value to be checked
+     * @return {@code true} if the value matches.
+     */
+    boolean matches(CharSequence value) {
+        int length = value.length();
+        if (length < minLength || length > maxLength) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (!contains(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean contains(char c) {
+        if (c < ASCII_SIZE) {
+            return ascii[c];
+        }
+        for (int i = 0; i < lows.length; i++) {
+            if (c >= lows[i] && c <= highs[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the specified class character stands for itself.
+     */
+    private static boolean isPlain(char c) {
+        return c != '\\' && c != '[' && c != ']' && c != '^' && c != '&' && c != '-'
+                && !Character.isSurrogate(c);
+    }
+}
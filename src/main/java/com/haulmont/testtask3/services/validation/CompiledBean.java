@@ -0,0 +1,181 @@
+package com.haulmont.testtask3.services.validation;
+
+import javax.validation.Validator;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import javax.validation.groups.Default;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.ConstraintDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Constraints of one class compiled to plain checks of field values.
+ * <p>
+ * A class is compiled only if every constraint it has is a field constraint of the default group
+ * among {@link NotNull}, {@link NotEmpty}, {@link Size} and {@link Pattern} of character sequences and
+ * {@link Positive} of integral numbers validated by the built-in validators; the checks give the same result
+ * as these validators do.
+ */
+final class CompiledBean {
+    private static final String BUILT_IN_VALIDATOR_PACKAGE = "org.hibernate.validator.internal.constraintvalidators.";
+    private static final Set<Class<?>> DEFAULT_GROUPS = Collections.singleton(Default.class);
+
+    private final List<PropertyCheck> checks;
+
+    private CompiledBean(List<PropertyCheck> checks) {
+        this.checks = checks;
+    }
+
+    /**
+     * Compiles constraints of the specified class.
+     *
+     * @param validator validator the constraint metadata is taken from
+     * @param type      class to be compiled
+     * @return compiled constraints or {@code null} if any constraint of the class can't be compiled.
+     */
+    static CompiledBean compile(Validator validator, Class<?> type) {
+        BeanDescriptor bean = validator.getConstraintsForClass(type);
+        if (!bean.getConstraintDescriptors().isEmpty()) {
+            return null;
+        }
+
+        List<PropertyCheck> checks = new ArrayList<>();
+        for (PropertyDescriptor property : bean.getConstrainedProperties()) {
+            Set<ConstraintDescriptor<?>> constraints = property.getConstraintDescriptors();
+            if (property.isCascaded() || !property.getConstrainedContainerElementTypes().isEmpty()
+                    || property.findConstraints().declaredOn(ElementType.FIELD)
+                    .getConstraintDescriptors().size() != constraints.size()) {
+                return null;
+            }
+            Field field = findField(type, property.getPropertyName());
+            if (field == null) {
+                return null;
+            }
+            for (ConstraintDescriptor<?> constraint : constraints) {
+                Predicate<Object> check = compile(constraint, field.getType());
+                if (check == null) {
+                    return null;
+                }
+                checks.add(new PropertyCheck(field, check));
+            }
+        }
+        return new CompiledBean(checks);
+    }
+
+    /**
+     * Checks if the specified object satisfies all the constraints.
+     *
+     * @param object object to be checked
+     * @return {@code true} if the object is valid, {@code false} if it isn't or can't be checked.
+     */
+    boolean isValid(Object object) {
+        try {
+            for (PropertyCheck check : checks) {
+                if (!check.check.test(check.field.get(object))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IllegalAccessException e) {
+            return false;
+        }
+    }
+
+    private static Predicate<Object> compile(ConstraintDescriptor<?> constraint, Class<?> valueType) {
+        if (!constraint.getGroups().equals(DEFAULT_GROUPS) || !constraint.getPayload().isEmpty()
+                || !constraint.getComposingConstraints().isEmpty()
+                || !constraint.getConstraintValidatorClasses().stream()
+                .allMatch(validatorClass -> validatorClass.getName().startsWith(BUILT_IN_VALIDATOR_PACKAGE))) {
+            return null;
+        }
+
+        Annotation annotation = constraint.getAnnotation();
+        if (annotation instanceof NotNull) {
+            return value -> value != null;
+        }
+        if (CharSequence.class.isAssignableFrom(valueType)) {
+            if (annotation instanceof NotEmpty) {
+                return value -> value != null && ((CharSequence) value).length() > 0;
+            }
+            if (annotation instanceof Size) {
+                int min = ((Size) annotation).min();
+                int max = ((Size) annotation).max();
+                return value -> value == null
+                        || (((CharSequence) value).length() >= min && ((CharSequence) value).length() <= max);
+            }
+            if (annotation instanceof Pattern && ((Pattern) annotation).flags().length == 0) {
+                return compilePattern(((Pattern) annotation).regexp());
+            }
+        }
+        if (annotation instanceof Positive && isIntegral(valueType)) {
+            return value -> value == null || ((Number) value).longValue() > 0;
+        }
+        return null;
+    }
+
+    private static Predicate<Object> compilePattern(String regexp) {
+        CharClassPattern charClassPattern = CharClassPattern.compile(regexp);
+        if (charClassPattern != null) {
+            return value -> value == null || charClassPattern.matches((CharSequence) value);
+        }
+        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(regexp);
+        return value -> value == null || pattern.matcher((CharSequence) value).matches();
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        return type == int.class || type == long.class || type == short.class || type == byte.class
+                || type == Integer.class || type == Long.class || type == Short.class || type == Byte.class;
+    }
+
+    /**
+     * Finds the field of the specified property, the property name must not be declared twice in the hierarchy.
+     *
+     * @return accessible field or {@code null} if it isn't found or is ambiguous.
+     */
+    private static Field findField(Class<?> type, String name) {
+        Field found = null;
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.getName().equals(name) && !Modifier.isStatic(field.getModifiers())) {
+                    if (found != null) {
+                        return null;
+                    }
+                    found = field;
+                }
+            }
+        }
+        if (found != null) {
+            try {
+                found.setAccessible(true);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Compiled constraint of one field.
+     */
+    private static final class PropertyCheck {
+        private final Field field;
+        private final Predicate<Object> check;
+
+        private PropertyCheck(Field field, Predicate<Object> check) {
+            this.field = field;
+            this.check = check;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.haulmont.testtask3.services.validation;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.executable.ExecutableValidator;
+import javax.validation.groups.Default;
+import javax.validation.metadata.BeanDescriptor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@link Validator} with a fast path for valid objects.
+ * <p>
+ * Constraints of every validated class are compiled once from its metadata (see {@link CompiledBean}).
+ * An object passing the compiled checks gets an empty result without the delegate, an invalid object and
+ * an object of a class that can't be compiled are validated by the delegate, so the results are always
+ * the ones of the delegate.
+ */
+public class EntityValidator implements Validator {
+    /**
+     * Minimal quantity of objects validated by {@link #validateAll(Collection)} in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 2048;
+
+    private final Validator delegate;
+    private final ConcurrentMap<Class<?>, Optional<CompiledBean>> compiledBeans = new ConcurrentHashMap<>();
+
+    public EntityValidator(Validator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public <T> Set<ConstraintViolation<T>> validate(T object, Class<?>... groups) {
+        if (object != null && isDefaultGroup(groups)) {
+            Optional<CompiledBean> compiledBean = compiledBeans.computeIfAbsent(object.getClass(),
+                    type -> Optional.ofNullable(CompiledBean.compile(delegate, type)));
+            if (compiledBean.isPresent() && compiledBean.get().isValid(object)) {
+                return Collections.emptySet();
+            }
+        }
+        return delegate.validate(object, groups);
+    }
+
+    /**
+     * Validates every object of the specified collection in the default group. Large collections are
+     * validated in parallel on the common fork-join pool, so the service executor isn't occupied.
+     *
+     * @param objects objects to be validated
+     * @param <T>     object type
+     * @return constraint violations of every object, in the iteration order of the collection.
+     */
+    public <T> List<Set<ConstraintViolation<T>>> validateAll(Collection<T> objects) {
+        List<T> list = new ArrayList<>(objects);
+        IntStream indexes = IntStream.range(0, list.size());
+        if (list.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        return indexes.mapToObj(index -> validate(list.get(index))).collect(Collectors.toList());
+    }
+
+    @Override
+    public <T> Set<ConstraintViolation<T>> validateProperty(T object, String propertyName, Class<?>... groups) {
+        return delegate.validateProperty(object, propertyName, groups);
+    }
+
+    @Override
+    public <T> Set<ConstraintViolation<T>> validateValue(Class<T> beanType, String propertyName, Object value,
+                                                         Class<?>... groups) {
+        return delegate.validateValue(beanType, propertyName, value, groups);
+    }
+
+    @Override
+    public BeanDescriptor getConstraintsForClass(Class<?> clazz) {
+        return delegate.getConstraintsForClass(clazz);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        if (type.isInstance(this)) {
+            return type.cast(this);
+        }
+        return delegate.unwrap(type);
+    }
+
+    @Override
+    public ExecutableValidator forExecutables() {
+        return delegate.forExecutables();
+    }
+
+    private static boolean isDefaultGroup(Class<?>[] groups) {
+        return groups != null && (groups.length == 0 || groups.length == 1 && groups[0] == Default.class);
+    }
+}
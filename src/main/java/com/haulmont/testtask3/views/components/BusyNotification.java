@@ -0,0 +1,33 @@
+package com.haulmont.testtask3.views.components;
+
+import com.vaadin.flow.component.notification.Notification;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Notification shown when a service call was rejected because the system is overloaded.
+ */
+public final class BusyNotification {
+    private static final String MESSAGE = "The system is busy, please try again in a moment.";
+    private static final int DURATION_MILLIS = 5000;
+
+    private BusyNotification() {
+    }
+
+    /**
+     * Shows the notification if the specified exception or one of its causes is a rejection of a service call.
+     * Must be called with the UI locked.
+     *
+     * @param throwable exception thrown by a service call
+     * @return {@code true} if the notification was shown.
+     */
+    public static boolean showIfBusy(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedExecutionException) {
+                Notification.show(MESSAGE, DURATION_MILLIS, Notification.Position.MIDDLE);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package com.haulmont.testtask3.views.components;
+
+import com.vaadin.flow.component.ClickEvent;
+import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+
+/**
+ * Message shown by an entity dialog when the entity was changed by another user,
+ * with the button loading the current values of the entity.
+ */
+public class ConflictNotice extends HorizontalLayout {
+    private static final String MESSAGE = "This record was changed by another user.";
+    private static final String RELOAD_BUTTON_TEXT = "Reload";
+
+    public ConflictNotice(ComponentEventListener<ClickEvent<Button>> reloadListener) {
+        setDefaultVerticalComponentAlignment(Alignment.CENTER);
+        add(new Span(MESSAGE), new Button(RELOAD_BUTTON_TEXT, reloadListener));
+        setVisible(false);
+    }
+}
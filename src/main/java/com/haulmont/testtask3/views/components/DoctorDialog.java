@@ -1,7 +1,8 @@
 package com.haulmont.testtask3.views.components;
 
-import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
 import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.services.exceptions.UpdateConflictException;
+import com.haulmont.testtask3.services.interfaces.AsyncDoctorService;
 import com.haulmont.testtask3.views.pages.DoctorView;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.dialog.Dialog;
@@ -13,6 +14,8 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.ValidationException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Dialog modal window for editing and adding {@link com.haulmont.testtask3.models.Doctor} entities.
  */
@@ -38,6 +41,8 @@ public class DoctorDialog extends Dialog {
 
     private final Button okButton = new Button(OK_BUTTON_TEXT);
     private final Button cancelButton = new Button(CANCEL_BUTTON_TEXT);
+    private final LoadingIndicator loadingIndicator = new LoadingIndicator();
+    private final ConflictNotice conflictNotice = new ConflictNotice(e -> reload());
 
     private DoctorView doctorView;
 
@@ -96,7 +101,8 @@ public class DoctorDialog extends Dialog {
         VerticalLayout verticalLayout = new VerticalLayout();
         H6 formTitle = new H6(FORM_TITLE);
         setInputsWidth(nameField, surnameField, patronymicField, specializationField);
-        verticalLayout.add(formTitle, nameField, surnameField, patronymicField, specializationField, getButtonsBar());
+        verticalLayout.add(formTitle, nameField, surnameField, patronymicField, specializationField,
+                getButtonsBar(), conflictNotice, loadingIndicator);
         form.add(verticalLayout);
 
         return form;
@@ -133,18 +139,32 @@ public class DoctorDialog extends Dialog {
         okButton.addClickListener(e -> {
             try {
                 binder.writeBean(doctor);
-                if (isDoctorNew) {
-                    doctorView.getDoctorService().add(doctor);
-                } else {
-                    doctorView.getDoctorService().update(doctor);
-                }
-                doctorView.updateTable();
-                this.close();
-            } catch (ValidationException | ElementDoesNotExistException exception) {
+            } catch (ValidationException exception) {
                 exception.printStackTrace();
-            } catch (com.haulmont.testtask3.services.exceptions.ValidationException validationException) {
-                validationException.printStackTrace();
+                return;
             }
+            AsyncDoctorService doctorService = doctorView.getAsyncDoctorService();
+            CompletableFuture<?> saving = isDoctorNew ? doctorService.add(doctor) : doctorService.update(doctor);
+            okButton.setEnabled(false);
+            loadingIndicator.track(saving, saved -> this.close(), throwable -> {
+                if (throwable instanceof UpdateConflictException) {
+                    conflictNotice.setVisible(true);
+                } else {
+                    throwable.printStackTrace();
+                }
+                okButton.setEnabled(true);
+            });
+        });
+    }
+
+    /**
+     * Replaces the edited values with the current values of the doctor, so it can be updated again.
+     */
+    private void reload() {
+        loadingIndicator.track(doctorView.getAsyncDoctorService().getById(doctor.getId()), reloaded -> {
+            doctor = reloaded;
+            binder.readBean(doctor);
+            conflictNotice.setVisible(false);
         });
     }
 
@@ -0,0 +1,76 @@
+package com.haulmont.testtask3.views.components;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.function.SerializableConsumer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Progress bar shown while asynchronous service calls are running.
+ * <p>
+ * Results of the calls are applied through {@link UI#access(com.vaadin.flow.server.Command)},
+ * so the page must have server push enabled. A call rejected because the system is overloaded
+ * shows {@link BusyNotification}.
+ */
+public class LoadingIndicator extends ProgressBar {
+    private int runningQty;
+
+    public LoadingIndicator() {
+        setIndeterminate(true);
+        setVisible(false);
+    }
+
+    /**
+     * Shows the indicator until specified service call is finished, then passes its result to the specified callback.
+     * Failures other than rejected calls are printed.
+     *
+     * @param serviceCall service call
+     * @param onSuccess   callback run with the UI locked
+     * @param <T>         result type
+     */
+    public <T> void track(CompletableFuture<T> serviceCall, SerializableConsumer<T> onSuccess) {
+        track(serviceCall, onSuccess, throwable -> {
+            if (!(throwable instanceof RejectedExecutionException)) {
+                throwable.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Shows the indicator until specified service call is finished,
+     * then passes its result or failure to the specified callbacks. Must be called with the UI locked.
+     *
+     * @param serviceCall service call
+     * @param onSuccess   callback run with the UI locked
+     * @param onFailure   callback run with the UI locked, receives exception thrown by the service
+     * @param <T>         result type
+     */
+    public <T> void track(CompletableFuture<T> serviceCall, SerializableConsumer<T> onSuccess,
+                          SerializableConsumer<Throwable> onFailure) {
+        UI ui = UI.getCurrent();
+        runningQty++;
+        setVisible(true);
+        serviceCall.whenComplete((result, throwable) -> {
+            try {
+                ui.access(() -> {
+                    runningQty--;
+                    setVisible(runningQty > 0);
+                    if (throwable == null) {
+                        onSuccess.accept(result);
+                        return;
+                    }
+                    Throwable failure = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
+                    BusyNotification.showIfBusy(failure);
+                    onFailure.accept(failure);
+                });
+            } catch (UIDetachedException ignored) {
+                // The page was closed while the call was running.
+            }
+        });
+    }
+}
@@ -11,10 +11,14 @@ public class PageHeader extends Header {
     private static final String DOCTORS_LINK_NAME = "Doctors";
     private static final String PATIENTS_LINK_NAME = "Patients";
     private static final String RECIPES_LINK_NAME = "Recipes";
+    private static final String STATISTICS_LINK_NAME = "Statistics";
+    private static final String IMPORT_LINK_NAME = "Import";
 
     private static final String DOCTORS_LINK = "/";
     private static final String PATIENTS_LINK = "/patients";
     private static final String RECIPES_LINK = "/recipes";
+    private static final String STATISTICS_LINK = "/statistics";
+    private static final String IMPORT_LINK = "/import";
 
     private static final String HEADER_HEIGHT = "40px";
 
@@ -25,9 +29,13 @@ public class PageHeader extends Header {
         patientsLink.setText(PATIENTS_LINK_NAME);
         Anchor recipesLink = new Anchor(RECIPES_LINK);
         recipesLink.setText(RECIPES_LINK_NAME);
+        Anchor statisticsLink = new Anchor(STATISTICS_LINK);
+        statisticsLink.setText(STATISTICS_LINK_NAME);
+        Anchor importLink = new Anchor(IMPORT_LINK);
+        importLink.setText(IMPORT_LINK_NAME);
 
         HorizontalLayout headerLinks = new HorizontalLayout();
-        headerLinks.add(doctorsLink, patientsLink, recipesLink);
+        headerLinks.add(doctorsLink, patientsLink, recipesLink, statisticsLink, importLink);
 
         setWidthFull();
         setHeight(HEADER_HEIGHT);
@@ -1,7 +1,8 @@
 package com.haulmont.testtask3.views.components;
 
-import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
 import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.services.exceptions.UpdateConflictException;
+import com.haulmont.testtask3.services.interfaces.AsyncPatientService;
 import com.haulmont.testtask3.views.pages.PatientView;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.dialog.Dialog;
@@ -13,6 +14,8 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.ValidationException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Dialog for editing and adding {@link com.haulmont.testtask3.models.Patient} entities.
  */
@@ -41,6 +44,8 @@ public class PatientDialog extends Dialog {
 
     private Button okButton = new Button(OK_BUTTON_TEXT);
     private final Button cancelButton = new Button(CANCEL_BUTTON_TEXT);
+    private final LoadingIndicator loadingIndicator = new LoadingIndicator();
+    private final ConflictNotice conflictNotice = new ConflictNotice(e -> reload());
 
     private PatientView patientView;
 
@@ -101,7 +106,8 @@ public class PatientDialog extends Dialog {
         VerticalLayout verticalLayout = new VerticalLayout();
         H6 formTitle = new H6(FORM_TITLE);
         setInputsWidth(nameField, surnameField, patronymicField, phoneNumberField);
-        verticalLayout.add(formTitle, nameField, surnameField, patronymicField, phoneNumberField, getButtonsBar());
+        verticalLayout.add(formTitle, nameField, surnameField, patronymicField, phoneNumberField,
+                getButtonsBar(), conflictNotice, loadingIndicator);
         form.add(verticalLayout);
 
         return form;
@@ -138,18 +144,32 @@ public class PatientDialog extends Dialog {
         okButton.addClickListener(e -> {
             try {
                 binder.writeBean(patient);
-                if (isPatientNew) {
-                    patientView.getPatientService().add(patient);
-                } else {
-                    patientView.getPatientService().update(patient);
-                }
-                patientView.updateTable();
-                this.close();
-            } catch (ValidationException | ElementDoesNotExistException exception) {
+            } catch (ValidationException exception) {
                 exception.printStackTrace();
-            } catch (com.haulmont.testtask3.services.exceptions.ValidationException validationException) {
-                validationException.printStackTrace();
+                return;
             }
+            AsyncPatientService patientService = patientView.getAsyncPatientService();
+            CompletableFuture<?> saving = isPatientNew ? patientService.add(patient) : patientService.update(patient);
+            okButton.setEnabled(false);
+            loadingIndicator.track(saving, saved -> this.close(), throwable -> {
+                if (throwable instanceof UpdateConflictException) {
+                    conflictNotice.setVisible(true);
+                } else {
+                    throwable.printStackTrace();
+                }
+                okButton.setEnabled(true);
+            });
+        });
+    }
+
+    /**
+     * Replaces the edited values with the current values of the patient, so it can be updated again.
+     */
+    private void reload() {
+        loadingIndicator.track(patientView.getAsyncPatientService().getById(patient.getId()), reloaded -> {
+            patient = reloaded;
+            binder.readBean(patient);
+            conflictNotice.setVisible(false);
         });
     }
 
@@ -1,12 +1,15 @@
 package com.haulmont.testtask3.views.components;
 
-import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
 import com.haulmont.testtask3.models.Doctor;
 import com.haulmont.testtask3.models.Patient;
 import com.haulmont.testtask3.models.Priority;
 import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.exceptions.UpdateConflictException;
+import com.haulmont.testtask3.services.interfaces.AsyncRecipeService;
 import com.haulmont.testtask3.views.pages.RecipeView;
+import com.haulmont.testtask3.views.providers.TopMatchesDataProvider;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.html.H6;
@@ -19,7 +22,7 @@ import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.ValidationException;
 
 import java.sql.Date;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Dialog for editing and adding {@link com.haulmont.testtask3.models.Recipe} entities.
@@ -38,12 +41,13 @@ public class RecipeDialog extends Dialog {
     private static final String WRONG_DESCRIPTION_SIZE_MESSAGE = "Max size of the text is 200 symbols.";
 
     private static final String INPUT_WIDTH = "300px";
+    private static final int NAME_MATCHES_QTY = 50;
 
     private static final String OK_BUTTON_TEXT = "Ok";
     private static final String CANCEL_BUTTON_TEXT = "Cancel";
 
-    private Select<Doctor> doctorSelect = new Select<>();
-    private Select<Patient> patientSelect = new Select<>();
+    private ComboBox<Doctor> doctorSelect = new ComboBox<>();
+    private ComboBox<Patient> patientSelect = new ComboBox<>();
     private TextArea descriptionFiled = new TextArea(DESCRIPTION_FIELD);
     private TextField creationDateField = new TextField(CREATION_DATE_FIELD);
     private TextField validityField = new TextField(VALIDITY_FIELD);
@@ -51,6 +55,8 @@ public class RecipeDialog extends Dialog {
 
     private Button okButton = new Button(OK_BUTTON_TEXT);
     private final Button cancelButton = new Button(CANCEL_BUTTON_TEXT);
+    private final LoadingIndicator loadingIndicator = new LoadingIndicator();
+    private final ConflictNotice conflictNotice = new ConflictNotice(e -> reload());
 
     private RecipeView recipeView;
 
@@ -58,6 +64,9 @@ public class RecipeDialog extends Dialog {
 
     private Recipe recipe;
 
+    private Doctor recipeDoctor;
+    private Patient recipePatient;
+
     private boolean isRecipeNew;
 
     public RecipeDialog(RecipeView recipeView, Recipe recipe) {
@@ -67,25 +76,48 @@ public class RecipeDialog extends Dialog {
 
         setCloseOnEsc(false);
         setCloseOnOutsideClick(false);
-        initSelects();
         initFieldsValidators();
         add(getForm());
+        initSelects();
     }
 
     /**
-     * Inits selects values.
+     * Inits selects values, doctors and patients are searched by name as the select text is typed.
      */
     private void initSelects() {
-        List<Doctor> doctors = recipeView.getDoctorService().getAll();
         doctorSelect.setItemLabelGenerator(doctor -> doctor.getName() + " " + doctor.getSurname());
-        doctorSelect.setItems(doctors);
-
-        List<Patient> patients = recipeView.getPatientService().getAll();
+        doctorSelect.setDataProvider(TopMatchesDataProvider.of(recipeView.getDoctorService()::findByName,
+                NAME_MATCHES_QTY, Doctor::getId));
         patientSelect.setItemLabelGenerator(patient -> patient.getName() + " " + patient.getSurname());
-        patientSelect.setItems(patients);
-
+        patientSelect.setDataProvider(TopMatchesDataProvider.of(recipeView.getPatientService()::findByName,
+                NAME_MATCHES_QTY, Patient::getId));
         prioritySelect.setItemLabelGenerator(Priority::name);
         prioritySelect.setItems(Priority.NORMAL, Priority.CITO, Priority.STATIM);
+
+        if (isRecipeNew) {
+            binder.readBean(recipe);
+        } else {
+            okButton.setEnabled(false);
+            readRecipe(recipe, () -> okButton.setEnabled(true));
+        }
+    }
+
+    /**
+     * Shows the specified recipe once its doctor and patient are loaded.
+     *
+     * @param recipe  recipe to be shown
+     * @param onShown  callback called after the recipe is shown
+     */
+    private void readRecipe(Recipe recipe, Runnable onShown) {
+        CompletableFuture<Doctor> doctorLoading = recipeView.getAsyncDoctorService().getById(recipe.getDoctorId());
+        CompletableFuture<Patient> patientLoading = recipeView.getAsyncPatientService()
+                .getById(recipe.getPatientId());
+        loadingIndicator.track(CompletableFuture.allOf(doctorLoading, patientLoading), loaded -> {
+            recipeDoctor = doctorLoading.join();
+            recipePatient = patientLoading.join();
+            binder.readBean(recipe);
+            onShown.run();
+        });
     }
 
     /**
@@ -98,8 +130,8 @@ public class RecipeDialog extends Dialog {
                 .asRequired(EMPTY_FIELD_MESSAGE)
                 .bind(recipe -> {
                     Doctor doctor = null;
-                    if (recipe.getDoctorId() != null) {
-                        doctor = getDoctor(recipe.getDoctorId());
+                    if (recipeDoctor != null && recipeDoctor.getId().equals(recipe.getDoctorId())) {
+                        doctor = recipeDoctor;
                     }
                     return doctor;
                 }, (recipe, doctor) -> {
@@ -110,8 +142,8 @@ public class RecipeDialog extends Dialog {
                 .asRequired(EMPTY_FIELD_MESSAGE)
                 .bind(recipe -> {
                     Patient patient = null;
-                    if (recipe.getPatientId() != null) {
-                        patient = getPatient(recipe.getPatientId());
+                    if (recipePatient != null && recipePatient.getId().equals(recipe.getPatientId())) {
+                        patient = recipePatient;
                     }
                     return patient;
                 }, (recipe, patient) -> {
@@ -139,29 +171,8 @@ public class RecipeDialog extends Dialog {
                 .asRequired(EMPTY_FIELD_MESSAGE)
                 .withValidator(description -> description.length() <= 200, WRONG_DESCRIPTION_SIZE_MESSAGE)
                 .bind(Recipe::getDescription, Recipe::setDescription);
-
-        binder.readBean(recipe);
-    }
-
-    private Doctor getDoctor(long id) {
-        Doctor doctor = null;
-        try {
-            doctor = recipeView.getDoctorService().getById(id);
-        } catch (ElementDoesNotExistException e) {
-            e.printStackTrace();
-        }
-        return doctor;
     }
 
-    private Patient getPatient(long id) {
-        Patient patient = null;
-        try {
-            patient = recipeView.getPatientService().getById(id);
-        } catch (ElementDoesNotExistException e) {
-            e.printStackTrace();
-        }
-        return patient;
-    }
 
     /**
      * Returns dialog form.
@@ -174,7 +185,7 @@ public class RecipeDialog extends Dialog {
         H6 formTitle = new H6(FORM_TITLE);
         setFormFields();
         verticalLayout.add(formTitle, doctorSelect, patientSelect, creationDateField, validityField,
-                prioritySelect, descriptionFiled, getButtonsBar());
+                prioritySelect, descriptionFiled, getButtonsBar(), conflictNotice, loadingIndicator);
         form.add(verticalLayout);
 
         return form;
@@ -186,16 +197,8 @@ public class RecipeDialog extends Dialog {
     private void setFormFields() {
         doctorSelect.setLabel(DOCTOR_FIELD);
         doctorSelect.setWidth(INPUT_WIDTH);
-        if (recipe.getDoctorId() != null) {
-            doctorSelect.setPlaceholder(getDoctor(recipe.getDoctorId()).getName() + " "
-                    + getDoctor(recipe.getDoctorId()).getSurname());
-        }
         patientSelect.setLabel(PATIENT_FIELD);
         patientSelect.setWidth(INPUT_WIDTH);
-        if (recipe.getPatientId() != null) {
-            patientSelect.setPlaceholder(getPatient(recipe.getPatientId()).getName() + " "
-                    + getPatient(recipe.getPatientId()).getSurname());
-        }
         prioritySelect.setLabel(PRIORITY_FIELD);
         prioritySelect.setWidth(INPUT_WIDTH);
 
@@ -236,18 +239,31 @@ public class RecipeDialog extends Dialog {
         okButton.addClickListener(e -> {
             try {
                 binder.writeBean(recipe);
-                if (isRecipeNew) {
-                    recipeView.getRecipeService().add(recipe);
-                } else {
-                    recipeView.getRecipeService().update(recipe);
-                }
-                recipeView.updateTable();
-                this.close();
-            } catch (ValidationException | ElementDoesNotExistException exception) {
+            } catch (ValidationException exception) {
                 exception.printStackTrace();
-            } catch (com.haulmont.testtask3.services.exceptions.ValidationException validationException) {
-                validationException.printStackTrace();
+                return;
             }
+            AsyncRecipeService recipeService = recipeView.getAsyncRecipeService();
+            CompletableFuture<?> saving = isRecipeNew ? recipeService.add(recipe) : recipeService.update(recipe);
+            okButton.setEnabled(false);
+            loadingIndicator.track(saving, saved -> this.close(), throwable -> {
+                if (throwable instanceof UpdateConflictException) {
+                    conflictNotice.setVisible(true);
+                } else {
+                    throwable.printStackTrace();
+                }
+                okButton.setEnabled(true);
+            });
+        });
+    }
+
+    /**
+     * Replaces the edited values with the current values of the recipe, so it can be updated again.
+     */
+    private void reload() {
+        loadingIndicator.track(recipeView.getAsyncRecipeService().getById(recipe.getId()), reloaded -> {
+            recipe = reloaded;
+            readRecipe(recipe, () -> conflictNotice.setVisible(false));
         });
     }
 
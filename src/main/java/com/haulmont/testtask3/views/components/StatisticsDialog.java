@@ -1,16 +1,23 @@
 package com.haulmont.testtask3.views.components;
 
 import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.DoctorStatistics;
+import com.haulmont.testtask3.models.Priority;
 import com.haulmont.testtask3.views.pages.DoctorView;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.formlayout.FormLayout;
+import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.H6;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.Binder;
 
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Map;
+
 /**
  * Dialog needed to show {@link com.haulmont.testtask3.models.Doctor} statistics.
  */
@@ -20,9 +27,13 @@ public class StatisticsDialog extends Dialog {
     private static final String SURNAME_FIELD_LABEL = "Surname";
     private static final String PATRONYMIC_FIELD_LABEL = "Patronymic";
     private static final String SPECIALIZATION_FIELD_LABEL = "Specialization";
-    private static final String STATISTICS_FIELD_LABEL = "Statistics";
+    private static final String RECIPE_QTY_FIELD_LABEL = "Recipes";
+    private static final String PATIENT_QTY_FIELD_LABEL = "Patients";
+    private static final String MONTH_HEADER = "Month";
+    private static final String MONTH_RECIPE_QTY_HEADER = "Recipes";
 
     private static final String INPUT_WIDTH = "300px";
+    private static final String MONTHS_TABLE_HEIGHT = "200px";
 
     private static final String OK_BUTTON_TEXT = "Ok";
 
@@ -30,9 +41,15 @@ public class StatisticsDialog extends Dialog {
     private final TextField surnameField = new TextField(SURNAME_FIELD_LABEL);
     private final TextField patronymicField = new TextField(PATRONYMIC_FIELD_LABEL);
     private final TextField specializationField = new TextField(SPECIALIZATION_FIELD_LABEL);
-    private final TextField statisticsField = new TextField(STATISTICS_FIELD_LABEL);
+    private final TextField recipeQtyField = new TextField(RECIPE_QTY_FIELD_LABEL);
+    private final TextField normalQtyField = new TextField(Priority.NORMAL.name());
+    private final TextField citoQtyField = new TextField(Priority.CITO.name());
+    private final TextField statimQtyField = new TextField(Priority.STATIM.name());
+    private final TextField patientQtyField = new TextField(PATIENT_QTY_FIELD_LABEL);
+    private final Grid<Map.Entry<YearMonth, Integer>> monthsTable = new Grid<>();
 
     private Button okButton = new Button(OK_BUTTON_TEXT);
+    private final LoadingIndicator loadingIndicator = new LoadingIndicator();
 
     private DoctorView doctorView;
 
@@ -60,12 +77,25 @@ public class StatisticsDialog extends Dialog {
     }
 
     /**
-     * Sets statistics field value.
+     * Sets statistics fields values once the statistics are loaded.
      */
     private void setStatisticsFieldValue() {
-        int quantity = doctorView.getRecipeService().getRecipeQtyByDoctorId(doctor.getId());
-        String value = String.valueOf(quantity);
-        statisticsField.setValue(value);
+        loadingIndicator.track(doctorView.getAsyncStatisticsService().getStatisticsByDoctorId(doctor.getId()),
+                this::showStatistics);
+    }
+
+    /**
+     * Shows specified statistics.
+     *
+     * @param statistics doctor statistics
+     */
+    private void showStatistics(DoctorStatistics statistics) {
+        recipeQtyField.setValue(String.valueOf(statistics.getRecipeQty()));
+        normalQtyField.setValue(String.valueOf(statistics.getRecipeQty(Priority.NORMAL)));
+        citoQtyField.setValue(String.valueOf(statistics.getRecipeQty(Priority.CITO)));
+        statimQtyField.setValue(String.valueOf(statistics.getRecipeQty(Priority.STATIM)));
+        patientQtyField.setValue(String.valueOf(statistics.getPatientQty()));
+        monthsTable.setItems(new ArrayList<>(statistics.getRecipeQtyByMonth().entrySet()));
     }
 
     /**
@@ -77,14 +107,27 @@ public class StatisticsDialog extends Dialog {
         FormLayout form = new FormLayout();
         VerticalLayout verticalLayout = new VerticalLayout();
         H6 formTitle = new H6(FORM_TITLE);
-        setInputsWidth(nameField, surnameField, patronymicField, specializationField, statisticsField);
-        verticalLayout.add(formTitle, nameField, surnameField, patronymicField,
-                specializationField, statisticsField, getButtonsBar());
+        setInputsWidth(nameField, surnameField, patronymicField, specializationField, recipeQtyField,
+                normalQtyField, citoQtyField, statimQtyField, patientQtyField);
+        setMonthsTable();
+        verticalLayout.add(formTitle, nameField, surnameField, patronymicField, specializationField,
+                recipeQtyField, normalQtyField, citoQtyField, statimQtyField, patientQtyField, monthsTable,
+                loadingIndicator, getButtonsBar());
         form.add(verticalLayout);
 
         return form;
     }
 
+    /**
+     * Sets columns of the recipe quantities by month table.
+     */
+    private void setMonthsTable() {
+        monthsTable.addColumn(Map.Entry::getKey).setHeader(MONTH_HEADER);
+        monthsTable.addColumn(Map.Entry::getValue).setHeader(MONTH_RECIPE_QTY_HEADER);
+        monthsTable.setWidth(INPUT_WIDTH);
+        monthsTable.setHeight(MONTHS_TABLE_HEIGHT);
+    }
+
     /**
      * Sets width of the specified text fields.
      *
@@ -0,0 +1,73 @@
+package com.haulmont.testtask3.views.memory;
+
+/**
+ * Estimates of the heap taken by row objects on a 64-bit JVM with compressed references.
+ */
+public final class MemorySizes {
+    private static final int OBJECT_HEADER_SIZE = 12;
+    private static final int ARRAY_HEADER_SIZE = 16;
+    private static final int REFERENCE_SIZE = 4;
+    private static final int ALIGNMENT = 8;
+
+    /**
+     * A {@link String} object without its characters: header, array reference, hash and coder.
+     */
+    private static final long STRING_SIZE = align(OBJECT_HEADER_SIZE + REFERENCE_SIZE + Integer.BYTES + 1);
+
+    private MemorySizes() {
+    }
+
+    /**
+     * Returns size of an object with the specified fields, not counting the objects it refers to.
+     *
+     * @param primitiveBytes total size of the primitive fields
+     * @param referenceQty   quantity of the reference fields
+     * @return size in bytes.
+     */
+    public static long getObjectSize(int primitiveBytes, int referenceQty) {
+        return align(OBJECT_HEADER_SIZE + primitiveBytes + (long) referenceQty * REFERENCE_SIZE);
+    }
+
+    /**
+     * Returns size of a string with its characters, one byte per character for Latin-1 strings and two otherwise.
+     *
+     * @param value string
+     * @return size in bytes, {@code 0} for {@code null}.
+     */
+    public static long getStringSize(String value) {
+        if (value == null) {
+            return 0;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return getStringSize(value.length(), 2);
+            }
+        }
+        return getStringSize(value.length(), 1);
+    }
+
+    /**
+     * Returns size of a string of the specified length.
+     *
+     * @param length       quantity of characters
+     * @param bytesPerChar {@code 1} for Latin-1 strings, {@code 2} otherwise
+     * @return size in bytes.
+     */
+    public static long getStringSize(int length, int bytesPerChar) {
+        return STRING_SIZE + align(ARRAY_HEADER_SIZE + (long) length * bytesPerChar);
+    }
+
+    /**
+     * Returns size of a list holding the specified quantity of elements, not counting the elements.
+     *
+     * @param qty quantity of elements
+     * @return size in bytes.
+     */
+    public static long getListSize(int qty) {
+        return getObjectSize(2 * Integer.BYTES, 1) + align(ARRAY_HEADER_SIZE + (long) qty * REFERENCE_SIZE);
+    }
+
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
@@ -0,0 +1,22 @@
+package com.haulmont.testtask3.views.memory;
+
+/**
+ * View which holds a whole list in the session instead of paging it lazily, so its rows count against
+ * the {@link SessionMemoryBudget}.
+ */
+public enum RetainingView {
+
+    /**
+     * Doctors with their recipe statistics.
+     */
+    STATISTICS;
+
+    /**
+     * Returns lower-case name used in metric tags.
+     *
+     * @return lower-case name used in metric tags.
+     */
+    public String getTag() {
+        return name().toLowerCase();
+    }
+}
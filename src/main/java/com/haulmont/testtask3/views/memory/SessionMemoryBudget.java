@@ -0,0 +1,101 @@
+package com.haulmont.testtask3.views.memory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estimated heap retained by the views of one Vaadin session.
+ * <p>
+ * A view reserves the estimated size of a list before loading it and releases the reservation on detach.
+ * A reservation which would take the session over its cap is refused, and the view pages the list lazily instead.
+ */
+public class SessionMemoryBudget {
+    private final long capBytes;
+    private final Map<RetainingView, Long> retainedBytes = new EnumMap<>(RetainingView.class);
+    private final Map<RetainingView, LongAdder> fallbackQty;
+
+    SessionMemoryBudget(long capBytes, Map<RetainingView, LongAdder> fallbackQty) {
+        this.capBytes = capBytes;
+        this.fallbackQty = fallbackQty;
+    }
+
+    /**
+     * Reserves memory for a list held by the view if the session stays within its cap.
+     *
+     * @param view  view holding the list
+     * @param bytes estimated size of the list
+     * @return {@code true} if reserved, {@code false} if the view should page the list lazily.
+     */
+    public synchronized boolean reserve(RetainingView view, long bytes) {
+        if (getRetainedBytes() + bytes > capBytes) {
+            fallbackQty.get(view).increment();
+            return false;
+        }
+        retainedBytes.merge(view, bytes, Long::sum);
+        return true;
+    }
+
+    /**
+     * Corrects a reservation once the actual size of the list is known.
+     *
+     * @param view          view holding the list
+     * @param reservedBytes previously reserved size
+     * @param actualBytes   actual size, may exceed the cap
+     */
+    public synchronized void adjust(RetainingView view, long reservedBytes, long actualBytes) {
+        retainedBytes.merge(view, actualBytes - reservedBytes, Long::sum);
+    }
+
+    /**
+     * Releases memory reserved for a list which is no longer held.
+     *
+     * @param view  view which held the list
+     * @param bytes reserved size
+     */
+    public synchronized void release(RetainingView view, long bytes) {
+        retainedBytes.merge(view, -bytes, Long::sum);
+    }
+
+    /**
+     * Returns estimated heap retained by every view of the session.
+     *
+     * @return retained bytes by view, views without lists are absent.
+     */
+    public synchronized Map<RetainingView, Long> getRetainedBytesByView() {
+        Map<RetainingView, Long> result = new EnumMap<>(RetainingView.class);
+        retainedBytes.forEach((view, bytes) -> {
+            if (bytes > 0) {
+                result.put(view, bytes);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns estimated heap retained by the view.
+     *
+     * @param view view
+     * @return retained bytes.
+     */
+    public synchronized long getRetainedBytes(RetainingView view) {
+        return retainedBytes.getOrDefault(view, 0L);
+    }
+
+    /**
+     * Returns estimated heap retained by all views of the session.
+     *
+     * @return retained bytes.
+     */
+    public synchronized long getRetainedBytes() {
+        long sum = 0;
+        for (long bytes : retainedBytes.values()) {
+            sum += bytes;
+        }
+        return sum;
+    }
+
+    public long getCapBytes() {
+        return capBytes;
+    }
+}
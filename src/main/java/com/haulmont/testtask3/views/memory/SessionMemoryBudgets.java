@@ -0,0 +1,122 @@
+package com.haulmont.testtask3.views.memory;
+
+import com.haulmont.testtask3.config.ViewMemoryProperties;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memory budgets of the open Vaadin sessions.
+ * <p>
+ * Every session gets a {@link SessionMemoryBudget} with the configured cap on init, which is dropped on destroy.
+ */
+@Component
+public class SessionMemoryBudgets implements VaadinServiceInitListener {
+    private final long capBytes;
+    private final Set<SessionMemoryBudget> budgets = ConcurrentHashMap.newKeySet();
+    private final Map<RetainingView, LongAdder> fallbackQty = new EnumMap<>(RetainingView.class);
+
+    @Autowired
+    public SessionMemoryBudgets(ViewMemoryProperties viewMemoryProperties) {
+        this.capBytes = viewMemoryProperties.getSessionBudget().toBytes();
+        for (RetainingView view : RetainingView.values()) {
+            fallbackQty.put(view, new LongAdder());
+        }
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        VaadinService service = event.getSource();
+        service.addSessionInitListener(sessionInitEvent -> get(sessionInitEvent.getSession()));
+        service.addSessionDestroyListener(sessionDestroyEvent -> {
+            SessionMemoryBudget budget = sessionDestroyEvent.getSession().getAttribute(SessionMemoryBudget.class);
+            if (budget != null) {
+                budgets.remove(budget);
+            }
+        });
+    }
+
+    /**
+     * Returns budget of the current session.
+     *
+     * @return budget of the current session.
+     * @throws IllegalStateException if there is no current session
+     */
+    public SessionMemoryBudget getCurrent() {
+        VaadinSession session = VaadinSession.getCurrent();
+        if (session == null) {
+            throw new IllegalStateException("No current Vaadin session");
+        }
+        return get(session);
+    }
+
+    /**
+     * Returns budget of the session, creating it if the session has none yet.
+     *
+     * @param session Vaadin session
+     * @return budget of the session.
+     */
+    public SessionMemoryBudget get(VaadinSession session) {
+        SessionMemoryBudget budget = session.getAttribute(SessionMemoryBudget.class);
+        if (budget == null) {
+            budget = new SessionMemoryBudget(capBytes, fallbackQty);
+            session.setAttribute(SessionMemoryBudget.class, budget);
+            budgets.add(budget);
+        }
+        return budget;
+    }
+
+    /**
+     * Returns estimated heap retained by the view in all sessions.
+     *
+     * @param view view
+     * @return retained bytes.
+     */
+    public long getRetainedBytes(RetainingView view) {
+        long sum = 0;
+        for (SessionMemoryBudget budget : budgets) {
+            sum += budget.getRetainedBytes(view);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns estimated heap retained by the views of the session retaining most.
+     *
+     * @return retained bytes.
+     */
+    public long getMaxSessionRetainedBytes() {
+        long max = 0;
+        for (SessionMemoryBudget budget : budgets) {
+            max = Math.max(max, budget.getRetainedBytes());
+        }
+        return max;
+    }
+
+    /**
+     * Returns quantity of the lists the view paged lazily because the session budget was exhausted.
+     *
+     * @param view view
+     * @return quantity of fallbacks.
+     */
+    public long getFallbackQty(RetainingView view) {
+        return fallbackQty.get(view).sum();
+    }
+
+    public int getSessionQty() {
+        return budgets.size();
+    }
+
+    public long getCapBytes() {
+        return capBytes;
+    }
+}
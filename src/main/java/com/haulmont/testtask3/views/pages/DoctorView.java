@@ -1,26 +1,37 @@
 package com.haulmont.testtask3.views.pages;
 
-import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
 import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.interfaces.AsyncDoctorService;
+import com.haulmont.testtask3.services.interfaces.AsyncRecipeService;
+import com.haulmont.testtask3.services.interfaces.AsyncStatisticsService;
 import com.haulmont.testtask3.services.interfaces.DoctorService;
-import com.haulmont.testtask3.services.interfaces.RecipeService;
 import com.haulmont.testtask3.views.components.DoctorDialog;
+import com.haulmont.testtask3.views.components.LoadingIndicator;
 import com.haulmont.testtask3.views.components.PageHeader;
 import com.haulmont.testtask3.views.components.StatisticsDialog;
+import com.haulmont.testtask3.views.providers.KeysetDataProvider;
+import com.haulmont.testtask3.views.providers.UiChangeListeners;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.router.Route;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.sql.SQLIntegrityConstraintViolationException;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Doctors page.
  */
 @Route(value = "")
+@Push
 public class DoctorView extends VerticalLayout {
     private static final String ADD_BUTTON_TEXT = "Add";
     private static final String UPDATE_BUTTON_TEXT = "Update";
@@ -32,25 +43,40 @@ public class DoctorView extends VerticalLayout {
     private static final String SURNAME_FIELD = "surname";
     private static final String PATRONYMIC_FIELD = "patronymic";
     private static final String SPECIALIZATION_FIELD = "specialization";
+    private static final String RECIPE_QTY_HEADER = "Recipes";
 
-    private final DoctorService doctorService;
-    private final RecipeService recipeService;
+    private final AsyncDoctorService asyncDoctorService;
+    private final AsyncRecipeService asyncRecipeService;
+    private final AsyncStatisticsService asyncStatisticsService;
+    private final EntityChangeBroadcaster changeBroadcaster;
+    private EntityChangeBroadcaster.Subscription doctorChanges;
+    private EntityChangeBroadcaster.Subscription recipeChanges;
 
     private Button addButton;
     private Button updateButton;
     private Button deleteButton;
     private Button statisticsButton;
+    private final LoadingIndicator loadingIndicator = new LoadingIndicator();
 
     private Grid<Doctor> doctorsTable = new Grid<>(Doctor.class);
+    private final KeysetDataProvider<Doctor> doctorsDataProvider;
+    private Map<Long, Integer> recipeQtyByDoctorId;
 
     @Autowired
-    public DoctorView(DoctorService doctorService, RecipeService recipeService) {
-        this.doctorService = doctorService;
-        this.recipeService = recipeService;
+    public DoctorView(DoctorService doctorService, AsyncDoctorService asyncDoctorService,
+                      AsyncRecipeService asyncRecipeService, AsyncStatisticsService asyncStatisticsService,
+                      EntityChangeBroadcaster changeBroadcaster) {
+        this.asyncDoctorService = asyncDoctorService;
+        this.asyncRecipeService = asyncRecipeService;
+        this.asyncStatisticsService = asyncStatisticsService;
+        this.changeBroadcaster = changeBroadcaster;
+        doctorsDataProvider = KeysetDataProvider.of(doctorService::getPage, doctorService::getPageAfter,
+                doctorService::getCount, Doctor::getId);
 
         PageHeader pageHeader = new PageHeader();
         add(pageHeader);
         add(getButtonsBar());
+        add(loadingIndicator);
         setTable();
         add(doctorsTable);
 
@@ -109,12 +135,7 @@ public class DoctorView extends VerticalLayout {
     private void setDeleteButtonClickListener() {
         deleteButton.addClickListener(e -> {
             doctorsTable.getSelectionModel().getFirstSelectedItem().ifPresent(doctor -> {
-                try {
-                    doctorService.delete(doctor);
-                    updateTable();
-                } catch (ElementDoesNotExistException | SQLIntegrityConstraintViolationException exception) {
-                    exception.printStackTrace();
-                }
+                loadingIndicator.track(asyncDoctorService.delete(doctor), deleted -> doctorsTable.deselectAll());
             });
         });
     }
@@ -136,16 +157,81 @@ public class DoctorView extends VerticalLayout {
      */
     private void setTable() {
         doctorsTable.setColumns(ID_FIELD, NAME_FIELD, SURNAME_FIELD, PATRONYMIC_FIELD, SPECIALIZATION_FIELD);
+        recipeQtyByDoctorId = new HashMap<>();
+        doctorsTable.addColumn(doctor -> recipeQtyByDoctorId.getOrDefault(doctor.getId(), 0))
+                .setHeader(RECIPE_QTY_HEADER);
+        doctorsTable.setDataProvider(doctorsDataProvider);
         setTableSelectionListener();
         updateTable();
     }
 
     /**
-     * Updates page {@link Grid} rows.
+     * Updates page {@link Grid} rows once recipe quantities are loaded.
      */
     public void updateTable() {
-        List<Doctor> doctorList = doctorService.getAll();
-        doctorsTable.setItems(doctorList);
+        loadingIndicator.track(asyncRecipeService.getRecipeQtyForAllDoctors(), recipeQty -> {
+            recipeQtyByDoctorId = new HashMap<>(recipeQty);
+            doctorsDataProvider.refreshAll();
+        });
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        doctorChanges = changeBroadcaster.register(Doctor.class,
+                UiChangeListeners.accessing(attachEvent.getUI(), this::applyDoctorChange));
+        recipeChanges = changeBroadcaster.register(Recipe.class,
+                UiChangeListeners.accessing(attachEvent.getUI(), this::applyRecipeChange));
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        doctorChanges.unsubscribe();
+        recipeChanges.unsubscribe();
+    }
+
+    /**
+     * Applies doctor change made in this or another session to the page {@link Grid}.
+     *
+     * @param event doctor change
+     */
+    private void applyDoctorChange(EntityChangeEvent<Doctor> event) {
+        if (event.getType() == EntityChangeEvent.Type.UPDATED) {
+            doctorsDataProvider.refreshItem(event.getEntity());
+        } else {
+            doctorsDataProvider.refreshAll();
+        }
+    }
+
+    /**
+     * Applies recipe change made in this or another session to the recipe quantity of its doctor.
+     * An updated recipe may have moved to another doctor, so all quantities are reloaded then.
+     *
+     * @param event recipe change
+     */
+    private void applyRecipeChange(EntityChangeEvent<Recipe> event) {
+        switch (event.getType()) {
+            case ADDED:
+                refreshRecipeQty(event.getEntity().getDoctorId(), 1);
+                break;
+            case DELETED:
+                refreshRecipeQty(event.getEntity().getDoctorId(), -1);
+                break;
+            case EXPIRED:
+                break;
+            default:
+                updateTable();
+        }
+    }
+
+    /**
+     * Changes recipe quantity of the specified doctor by the specified delta and refreshes the doctor row.
+     *
+     * @param doctorId doctor id
+     * @param delta    recipe quantity change
+     */
+    private void refreshRecipeQty(long doctorId, int delta) {
+        recipeQtyByDoctorId.merge(doctorId, delta, Integer::sum);
+        loadingIndicator.track(asyncDoctorService.getById(doctorId), doctorsDataProvider::refreshItem);
     }
 
     /**
@@ -183,11 +269,11 @@ public class DoctorView extends VerticalLayout {
         }
     }
 
-    public DoctorService getDoctorService() {
-        return doctorService;
+    public AsyncDoctorService getAsyncDoctorService() {
+        return asyncDoctorService;
     }
 
-    public RecipeService getRecipeService() {
-        return recipeService;
+    public AsyncStatisticsService getAsyncStatisticsService() {
+        return asyncStatisticsService;
     }
 }
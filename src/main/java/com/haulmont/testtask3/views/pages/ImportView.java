@@ -0,0 +1,166 @@
+package com.haulmont.testtask3.views.pages;
+
+import com.haulmont.testtask3.services.imports.ImportProgress;
+import com.haulmont.testtask3.services.imports.ImportReject;
+import com.haulmont.testtask3.services.imports.ImportType;
+import com.haulmont.testtask3.services.interfaces.AsyncImportService;
+import com.haulmont.testtask3.views.components.LoadingIndicator;
+import com.haulmont.testtask3.views.components.PageHeader;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.page.Push;
+import com.vaadin.flow.component.select.Select;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.router.Route;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk import page.
+ * <p>
+ * An uploaded file is stored in a temporary file and imported from it in background,
+ * the progress is pushed to the page as records are written.
+ */
+@Route(value = "import")
+@Push
+public class ImportView extends VerticalLayout {
+    private static final String TYPE_SELECT_LABEL = "Import";
+    private static final String LINE_HEADER = "Line";
+    private static final String REASON_HEADER = "Reason";
+    private static final String CSV_FILE_TYPE = ".csv";
+    private static final String UPLOADED_FILE_PREFIX = "import-";
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AsyncImportService asyncImportService;
+
+    private Select<ImportType> typeSelect = new Select<>();
+    private Upload upload = new Upload(this::receiveUpload);
+    private File uploadedFile;
+    private final LoadingIndicator loadingIndicator = new LoadingIndicator();
+    private Span status = new Span();
+    private Grid<ImportReject> rejectsTable = new Grid<>();
+
+    @Autowired
+    public ImportView(AsyncImportService asyncImportService) {
+        this.asyncImportService = asyncImportService;
+
+        PageHeader pageHeader = new PageHeader();
+        add(pageHeader);
+        add(getUploadBar());
+        add(loadingIndicator);
+        add(status);
+        setTable();
+        add(rejectsTable);
+
+        setSizeFull();
+    }
+
+    /**
+     * Returns bar with the import type and the file upload.
+     *
+     * @return upload bar.
+     */
+    private HorizontalLayout getUploadBar() {
+        typeSelect.setLabel(TYPE_SELECT_LABEL);
+        typeSelect.setItems(ImportType.values());
+        typeSelect.setValue(ImportType.DOCTORS);
+
+        upload.setAcceptedFileTypes(CSV_FILE_TYPE);
+        upload.addSucceededListener(e -> importFile(typeSelect.getValue(), uploadedFile));
+        upload.addFailedListener(e -> deleteFile(uploadedFile));
+
+        HorizontalLayout uploadBar = new HorizontalLayout();
+        uploadBar.setDefaultVerticalComponentAlignment(Alignment.END);
+        uploadBar.add(typeSelect, upload);
+        return uploadBar;
+    }
+
+    /**
+     * Sets rejects {@link Grid} to needed state.
+     */
+    private void setTable() {
+        rejectsTable.addColumn(ImportReject::getLineNumber).setHeader(LINE_HEADER).setFlexGrow(0);
+        rejectsTable.addColumn(ImportReject::getReason).setHeader(REASON_HEADER);
+    }
+
+    /**
+     * Stores the uploaded file in a temporary file, so it isn't held in memory.
+     *
+     * @param fileName name of the uploaded file
+     * @param mimeType MIME type of the uploaded file
+     * @return stream the uploaded file is written to.
+     */
+    private OutputStream receiveUpload(String fileName, String mimeType) {
+        try {
+            uploadedFile = File.createTempFile(UPLOADED_FILE_PREFIX, CSV_FILE_TYPE);
+            return new FileOutputStream(uploadedFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Imports the uploaded file in background and deletes it once the import finishes.
+     *
+     * @param type type of the imported entities
+     * @param file uploaded file
+     */
+    private void importFile(ImportType type, File file) {
+        UI ui = UI.getCurrent();
+        AtomicLong lastShownAt = new AtomicLong(System.nanoTime());
+        rejectsTable.setItems();
+        status.setText("");
+
+        CompletableFuture<ImportProgress> importCall;
+        try {
+            Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+            importCall = asyncImportService.importCsv(type, reader, progress -> {
+                long now = System.nanoTime();
+                long shownAt = lastShownAt.get();
+                if (now - shownAt >= PROGRESS_INTERVAL_NANOS && lastShownAt.compareAndSet(shownAt, now)) {
+                    try {
+                        ui.access(() -> status.setText(progress.toString()));
+                    } catch (UIDetachedException ignored) {
+                        // The page was closed, the import goes on.
+                    }
+                }
+            });
+        } catch (IOException e) {
+            status.setText(e.getMessage());
+            deleteFile(file);
+            return;
+        }
+
+        importCall.whenComplete((progress, throwable) -> deleteFile(file));
+        loadingIndicator.track(importCall, progress -> {
+            status.setText(progress + " in " + progress.getElapsedMillis() + " ms");
+            rejectsTable.setItems(progress.getRejects());
+        }, throwable -> status.setText(throwable.getMessage()));
+    }
+
+    private static void deleteFile(File file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
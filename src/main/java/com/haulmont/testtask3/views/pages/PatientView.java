@@ -1,24 +1,30 @@
 package com.haulmont.testtask3.views.pages;
 
-import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
 import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.interfaces.AsyncPatientService;
 import com.haulmont.testtask3.services.interfaces.PatientService;
+import com.haulmont.testtask3.views.components.LoadingIndicator;
 import com.haulmont.testtask3.views.components.PageHeader;
 import com.haulmont.testtask3.views.components.PatientDialog;
+import com.haulmont.testtask3.views.providers.KeysetDataProvider;
+import com.haulmont.testtask3.views.providers.UiChangeListeners;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.router.Route;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.sql.SQLIntegrityConstraintViolationException;
-import java.util.List;
-
 /**
  * Patients page.
  */
 @Route(value = "patients")
+@Push
 public class PatientView extends VerticalLayout {
     private static final String ADD_BUTTON_TEXT = "Add";
     private static final String UPDATE_BUTTON_TEXT = "Update";
@@ -30,21 +36,30 @@ public class PatientView extends VerticalLayout {
     private static final String PATRONYMIC_FIELD = "patronymic";
     private static final String PHONE_NUMBER_FIELD = "phoneNumber";
 
-    private final PatientService patientService;
+    private final AsyncPatientService asyncPatientService;
+    private final EntityChangeBroadcaster changeBroadcaster;
+    private EntityChangeBroadcaster.Subscription patientChanges;
 
     private Button addButton;
     private Button updateButton;
     private Button deleteButton;
+    private final LoadingIndicator loadingIndicator = new LoadingIndicator();
 
     private Grid<Patient> patientTable = new Grid<>(Patient.class);
+    private final KeysetDataProvider<Patient> patientsDataProvider;
 
     @Autowired
-    public PatientView(PatientService patientService) {
-        this.patientService = patientService;
+    public PatientView(PatientService patientService, AsyncPatientService asyncPatientService,
+                       EntityChangeBroadcaster changeBroadcaster) {
+        this.asyncPatientService = asyncPatientService;
+        this.changeBroadcaster = changeBroadcaster;
+        patientsDataProvider = KeysetDataProvider.of(patientService::getPage, patientService::getPageAfter,
+                patientService::getCount, Patient::getId);
 
         PageHeader pageHeader = new PageHeader();
         add(pageHeader);
         add(getButtonsBar());
+        add(loadingIndicator);
         setTable();
         add(patientTable);
 
@@ -101,12 +116,7 @@ public class PatientView extends VerticalLayout {
     private void setDeleteButtonClickListener() {
         deleteButton.addClickListener(event -> {
             patientTable.getSelectionModel().getFirstSelectedItem().ifPresent(patient -> {
-                try {
-                    patientService.delete(patient);
-                    updateTable();
-                } catch (ElementDoesNotExistException | SQLIntegrityConstraintViolationException e) {
-                    e.printStackTrace();
-                }
+                loadingIndicator.track(asyncPatientService.delete(patient), deleted -> patientTable.deselectAll());
             });
         });
     }
@@ -116,16 +126,39 @@ public class PatientView extends VerticalLayout {
      */
     private void setTable() {
         patientTable.setColumns(ID_FIELD, NAME_FIELD, SURNAME_FIELD, PATRONYMIC_FIELD, PHONE_NUMBER_FIELD);
+        patientTable.setDataProvider(patientsDataProvider);
         setTableSelectionListener();
-        updateTable();
     }
 
     /**
      * Updates page {@link Grid} rows.
      */
     public void updateTable() {
-        List<Patient> patients = patientService.getAll();
-        patientTable.setItems(patients);
+        patientsDataProvider.refreshAll();
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        patientChanges = changeBroadcaster.register(Patient.class,
+                UiChangeListeners.accessing(attachEvent.getUI(), this::applyPatientChange));
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        patientChanges.unsubscribe();
+    }
+
+    /**
+     * Applies patient change made in this or another session to the page {@link Grid}.
+     *
+     * @param event patient change
+     */
+    private void applyPatientChange(EntityChangeEvent<Patient> event) {
+        if (event.getType() == EntityChangeEvent.Type.UPDATED) {
+            patientsDataProvider.refreshItem(event.getEntity());
+        } else {
+            updateTable();
+        }
     }
 
     /**
@@ -163,7 +196,7 @@ public class PatientView extends VerticalLayout {
         }
     }
 
-    public PatientService getPatientService() {
-        return patientService;
+    public AsyncPatientService getAsyncPatientService() {
+        return asyncPatientService;
     }
 }
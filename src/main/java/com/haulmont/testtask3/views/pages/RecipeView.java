@@ -1,75 +1,126 @@
 package com.haulmont.testtask3.views.pages;
 
-import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
-import com.haulmont.testtask3.models.Doctor;
 import com.haulmont.testtask3.models.Patient;
 import com.haulmont.testtask3.models.Priority;
 import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.models.RecipeListItem;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.exports.ExportFormat;
+import com.haulmont.testtask3.services.interfaces.AsyncDoctorService;
+import com.haulmont.testtask3.services.interfaces.AsyncPatientService;
+import com.haulmont.testtask3.services.interfaces.AsyncRecipeService;
 import com.haulmont.testtask3.services.interfaces.DoctorService;
+import com.haulmont.testtask3.services.interfaces.ExportService;
 import com.haulmont.testtask3.services.interfaces.PatientService;
 import com.haulmont.testtask3.services.interfaces.RecipeService;
+import com.haulmont.testtask3.views.components.LoadingIndicator;
 import com.haulmont.testtask3.views.components.PageHeader;
 import com.haulmont.testtask3.views.components.RecipeDialog;
+import com.haulmont.testtask3.views.providers.KeysetDataProvider;
+import com.haulmont.testtask3.views.providers.TopMatchesDataProvider;
+import com.haulmont.testtask3.views.providers.UiChangeListeners;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.checkbox.Checkbox;
+import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.data.provider.DataProvider;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.StreamResource;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.sql.SQLIntegrityConstraintViolationException;
-import java.util.List;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Recipes page.
  */
 @Route(value = "recipes")
+@Push
 public class RecipeView extends VerticalLayout {
     private static final String APPLY_BUTTON_TEXT = "Apply";
     private static final String ADD_BUTTON_TEXT = "Add";
     private static final String UPDATE_BUTTON_TEXT = "Update";
     private static final String DELETE_BUTTON_TEXT = "Delete";
+    private static final String EXPORT_LINK_TEXT = "Export ";
+    private static final String EXPORT_FILE_NAME = "recipes";
 
     private static final String PATIENT_FILTER_PLACEHOLDER = "Filter by patient...";
     private static final String PRIORITY_FILTER_PLACEHOLDER = "Filter by priority...";
     private static final String DESCRIPTION_FILTER_PLACEHOLDER = "Filter by description...";
+    private static final String EXPIRING_SOON_FILTER_LABEL = "Expiring soon";
+    private static final int EXPIRING_SOON_DAYS = 7;
+    private static final int PATIENT_MATCHES_QTY = 50;
     private static final String NONE_FILTER_VALUE = "NONE";
 
     private static final String ID_FIELD = "id";
     private static final String DOCTOR_FIELD = "Doctor";
     private static final String PATIENT_FIELD = "Patient";
+    private static final String DOCTOR_NAME_FIELD = "doctorName";
+    private static final String PATIENT_NAME_FIELD = "patientName";
     private static final String DESCRIPTION_FIELD = "description";
     private static final String CREATION_DATE_FIELD = "creationDate";
     private static final String VALIDITY_FIELD = "validity";
     private static final String PRIORITY_FIELD = "priority";
 
     private final RecipeService recipeService;
+    private final AsyncRecipeService asyncRecipeService;
+    private final AsyncPatientService asyncPatientService;
+    private final AsyncDoctorService asyncDoctorService;
     private final PatientService patientService;
     private final DoctorService doctorService;
+    private final ExportService exportService;
+    private final EntityChangeBroadcaster changeBroadcaster;
+    private EntityChangeBroadcaster.Subscription recipeChanges;
 
-    private Select<Patient> patientFilter = new Select<>();
+    private ComboBox<Patient> patientFilter = new ComboBox<>();
     private Select<String> priorityFilter = new Select<>();
     private TextField descriptionFilter = new TextField();
+    private Checkbox expiringSoonFilter = new Checkbox(EXPIRING_SOON_FILTER_LABEL);
     private Button applyButton = new Button(APPLY_BUTTON_TEXT);
 
     private Button addButton;
     private Button updateButton;
     private Button deleteButton;
+    private final Map<ExportFormat, Anchor> exportLinks = new EnumMap<>(ExportFormat.class);
+    private final LoadingIndicator loadingIndicator = new LoadingIndicator();
 
-    private Grid<Recipe> recipesTable = new Grid<>(Recipe.class);
+    private Grid<RecipeListItem> recipesTable = new Grid<>(RecipeListItem.class);
+    private final KeysetDataProvider<RecipeListItem> recipesDataProvider;
+    private RecipeFilter appliedFilter = new RecipeFilter();
 
     @Autowired
-    public RecipeView(RecipeService recipeService, PatientService patientService, DoctorService doctorService) {
+    public RecipeView(RecipeService recipeService, AsyncRecipeService asyncRecipeService,
+                      AsyncPatientService asyncPatientService, AsyncDoctorService asyncDoctorService,
+                      PatientService patientService, DoctorService doctorService,
+                      ExportService exportService, EntityChangeBroadcaster changeBroadcaster) {
         this.recipeService = recipeService;
+        this.asyncRecipeService = asyncRecipeService;
+        this.asyncPatientService = asyncPatientService;
+        this.asyncDoctorService = asyncDoctorService;
         this.patientService = patientService;
         this.doctorService = doctorService;
+        this.exportService = exportService;
+        this.changeBroadcaster = changeBroadcaster;
+        recipesDataProvider = KeysetDataProvider.of(recipeService::getListItemPage,
+                recipeService::getListItemPageAfter, recipeService::getCount, RecipeListItem::getId);
 
         PageHeader pageHeader = new PageHeader();
         add(pageHeader);
         add(getFiltersPanel());
         add(getButtonsBar());
+        add(loadingIndicator);
         setTable();
         add(recipesTable);
 
@@ -88,21 +139,18 @@ public class RecipeView extends VerticalLayout {
         descriptionFilter.setPlaceholder(DESCRIPTION_FILTER_PLACEHOLDER);
         setSelectsFilterValues();
         addApplyButtonClickListener();
-        filtersPanel.add(patientFilter, priorityFilter, descriptionFilter, applyButton);
+        filtersPanel.add(patientFilter, priorityFilter, descriptionFilter, expiringSoonFilter, applyButton);
         return filtersPanel;
     }
 
     /**
-     * Sets selects filters values.
+     * Sets selects filters values, patients are searched by name as the filter text is typed.
      */
     private void setSelectsFilterValues() {
-        List<Patient> patients = patientService.getAll();
-        Patient nonePatient = new Patient();
-        nonePatient.setName(NONE_FILTER_VALUE);
-        nonePatient.setSurname("");
-        patients.add(0, nonePatient);
         patientFilter.setItemLabelGenerator(patient -> patient.getName() + " " + patient.getSurname());
-        patientFilter.setItems(patients);
+        patientFilter.setClearButtonVisible(true);
+        patientFilter.setDataProvider(TopMatchesDataProvider.of(patientService::findByName, PATIENT_MATCHES_QTY,
+                Patient::getId));
 
         priorityFilter.setItems(NONE_FILTER_VALUE, Priority.NORMAL.name(), Priority.CITO.name(), Priority.STATIM.name());
     }
@@ -127,10 +175,33 @@ public class RecipeView extends VerticalLayout {
             }
             String description = descriptionFilter.getValue();
 
-            recipesTable.setItems(recipeService.findAll(patientId, priority, description));
+            RecipeFilter filter = new RecipeFilter(patientId, priority, description);
+            if (expiringSoonFilter.getValue()) {
+                filter.expiringWithin(LocalDate.now(), EXPIRING_SOON_DAYS);
+            }
+            appliedFilter = filter;
+            setExportResources(filter);
+            if (filter.isEmpty()) {
+                recipesTable.setDataProvider(recipesDataProvider);
+            } else {
+                recipesTable.setDataProvider(getFilteredDataProvider(filter));
+            }
         });
     }
 
+    /**
+     * Returns lazy data provider of recipes filtered by specified filter.
+     *
+     * @param filter recipe filter
+     * @return lazy data provider of recipes filtered by specified filter.
+     */
+    private DataProvider<RecipeListItem, Void> getFilteredDataProvider(RecipeFilter filter) {
+        return new CallbackDataProvider<>(
+                query -> recipeService.findPage(filter, query.getOffset(), query.getLimit()).stream(),
+                query -> recipeService.findCount(filter),
+                RecipeListItem::getId);
+    }
+
     /**
      * Returns buttons bar.
      *
@@ -148,11 +219,35 @@ public class RecipeView extends VerticalLayout {
         setDeleteButtonClickListener();
 
         HorizontalLayout buttonsBar = new HorizontalLayout();
+        buttonsBar.setDefaultVerticalComponentAlignment(Alignment.CENTER);
         buttonsBar.add(addButton, updateButton, deleteButton);
+        for (ExportFormat format : ExportFormat.values()) {
+            Anchor exportLink = new Anchor();
+            exportLink.setText(EXPORT_LINK_TEXT + format.name());
+            exportLink.getElement().setAttribute("download", true);
+            exportLinks.put(format, exportLink);
+            buttonsBar.add(exportLink);
+        }
+        setExportResources(appliedFilter);
 
         return buttonsBar;
     }
 
+    /**
+     * Points export links to the gzipped export of recipes filtered by specified filter.
+     * The export is streamed from the database when a link is clicked.
+     *
+     * @param filter recipe filter
+     */
+    private void setExportResources(RecipeFilter filter) {
+        exportLinks.forEach((format, exportLink) -> {
+            StreamResource resource = new StreamResource(format.getFileName(EXPORT_FILE_NAME, true),
+                    (outputStream, session) -> exportService.exportRecipes(filter, format, true, outputStream));
+            resource.setContentType(format.getContentType(true));
+            exportLink.setHref(resource);
+        });
+    }
+
     /**
      * Sets add button click listener.
      */
@@ -169,44 +264,19 @@ public class RecipeView extends VerticalLayout {
     private void setUpdateButtonClickListener() {
         updateButton.addClickListener(event -> {
             recipesTable.getSelectionModel().getFirstSelectedItem().ifPresent(recipe -> {
-                RecipeDialog recipeDialog = new RecipeDialog(this, recipe);
+                RecipeDialog recipeDialog = new RecipeDialog(this, recipe.toRecipe());
                 recipeDialog.open();
             });
         });
     }
 
-    private Doctor getDoctor(long id) {
-        Doctor doctor = null;
-        try {
-            doctor = doctorService.getById(id);
-        } catch (ElementDoesNotExistException e) {
-            e.printStackTrace();
-        }
-        return doctor;
-    }
-
-    private Patient getPatient(long id) {
-        Patient patient = null;
-        try {
-            patient = patientService.getById(id);
-        } catch (ElementDoesNotExistException e) {
-            e.printStackTrace();
-        }
-        return patient;
-    }
-
     /**
      * Sets delete button click listener.
      */
     private void setDeleteButtonClickListener() {
         deleteButton.addClickListener(event -> {
             recipesTable.getSelectionModel().getFirstSelectedItem().ifPresent(recipe -> {
-                try {
-                    recipeService.delete(recipe);
-                    updateTable();
-                } catch (ElementDoesNotExistException | SQLIntegrityConstraintViolationException e) {
-                    e.printStackTrace();
-                }
+                loadingIndicator.track(asyncRecipeService.delete(recipe.toRecipe()), deleted -> recipesTable.deselectAll());
             });
         });
     }
@@ -217,36 +287,52 @@ public class RecipeView extends VerticalLayout {
     private void setTable() {
         recipesTable.setColumns(ID_FIELD, DESCRIPTION_FIELD,
                 CREATION_DATE_FIELD, VALIDITY_FIELD, PRIORITY_FIELD);
-        recipesTable.addColumn(recipe -> {
-            Patient patient = null;
-            try {
-                patient = patientService.getById(recipe.getPatientId());
-            } catch (ElementDoesNotExistException e) {
-                e.printStackTrace();
-            }
-            return patient != null ? patient.getName() + " " + patient.getSurname() : " ";
-        }).setHeader(PATIENT_FIELD);
-
-        recipesTable.addColumn(recipe -> {
-            Doctor doctor = null;
-            try {
-                doctor = doctorService.getById(recipe.getDoctorId());
-            } catch (ElementDoesNotExistException e) {
-                e.printStackTrace();
-            }
-            return doctor != null ? doctor.getName() + " " + doctor.getSurname() : " ";
-        }).setHeader(DOCTOR_FIELD);
+        recipesTable.addColumn(PATIENT_NAME_FIELD).setHeader(PATIENT_FIELD);
+        recipesTable.addColumn(DOCTOR_NAME_FIELD).setHeader(DOCTOR_FIELD);
 
+        recipesTable.setDataProvider(recipesDataProvider);
         setTableSelectionListener();
-        updateTable();
     }
 
     /**
      * Updates page {@link Grid} rows.
      */
     public void updateTable() {
-        List<Recipe> recipes = recipeService.getAll();
-        recipesTable.setItems(recipes);
+        recipesTable.getDataProvider().refreshAll();
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        recipeChanges = changeBroadcaster.register(Recipe.class,
+                UiChangeListeners.accessing(attachEvent.getUI(), this::applyRecipeChange));
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        recipeChanges.unsubscribe();
+    }
+
+    /**
+     * Applies recipe change made in this or another session to the page {@link Grid}.
+     * An updated row is reloaded by id since it shows doctor and patient names,
+     * expired recipes only change the rows if they are filtered by expiry.
+     *
+     * @param event recipe change
+     */
+    private void applyRecipeChange(EntityChangeEvent<Recipe> event) {
+        switch (event.getType()) {
+            case UPDATED:
+                loadingIndicator.track(asyncRecipeService.getListItemById(event.getEntity().getId()),
+                        recipe -> recipesTable.getDataProvider().refreshItem(recipe));
+                break;
+            case EXPIRED:
+                if (appliedFilter.getExpiresAfter() != null || appliedFilter.getExpiresBy() != null) {
+                    updateTable();
+                }
+                break;
+            default:
+                updateTable();
+        }
     }
 
     /**
@@ -284,8 +370,16 @@ public class RecipeView extends VerticalLayout {
         }
     }
 
-    public RecipeService getRecipeService() {
-        return recipeService;
+    public AsyncRecipeService getAsyncRecipeService() {
+        return asyncRecipeService;
+    }
+
+    public AsyncDoctorService getAsyncDoctorService() {
+        return asyncDoctorService;
+    }
+
+    public AsyncPatientService getAsyncPatientService() {
+        return asyncPatientService;
     }
 
     public DoctorService getDoctorService() {
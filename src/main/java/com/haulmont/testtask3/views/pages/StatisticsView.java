@@ -0,0 +1,196 @@
+package com.haulmont.testtask3.views.pages;
+
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.DoctorListItem;
+import com.haulmont.testtask3.models.DoctorStatistics;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.services.interfaces.AsyncDoctorService;
+import com.haulmont.testtask3.services.interfaces.AsyncStatisticsService;
+import com.haulmont.testtask3.services.interfaces.DoctorService;
+import com.haulmont.testtask3.views.components.LoadingIndicator;
+import com.haulmont.testtask3.views.components.PageHeader;
+import com.haulmont.testtask3.views.memory.MemorySizes;
+import com.haulmont.testtask3.views.memory.RetainingView;
+import com.haulmont.testtask3.views.memory.SessionMemoryBudget;
+import com.haulmont.testtask3.views.memory.SessionMemoryBudgets;
+import com.haulmont.testtask3.views.providers.KeysetDataProvider;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.page.Push;
+import com.vaadin.flow.router.Route;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recipe statistics page.
+ * <p>
+ * Doctors are held in the session as {@link DoctorListItem}s while their estimated size fits the session memory
+ * budget, and are paged lazily otherwise.
+ */
+@Route(value = "statistics")
+@Push
+public class StatisticsView extends VerticalLayout {
+    private static final String REFRESH_BUTTON_TEXT = "Refresh";
+
+    private static final String NAME_FIELD = "name";
+    private static final String SURNAME_FIELD = "surname";
+    private static final String SPECIALIZATION_FIELD = "specialization";
+    private static final String RECIPE_QTY_HEADER = "Recipes";
+    private static final String PATIENT_QTY_HEADER = "Patients";
+    private static final String MONTH_HEADER = "Month";
+
+    /**
+     * Names and specializations are interned and shared, so only the surname is counted.
+     */
+    private static final long DOCTOR_ITEM_SHALLOW_SIZE = MemorySizes.getObjectSize(Long.BYTES, 3);
+    private static final int ESTIMATED_SURNAME_LENGTH = 12;
+
+    private final AsyncDoctorService asyncDoctorService;
+    private final AsyncStatisticsService asyncStatisticsService;
+    private final DoctorService doctorService;
+    private final SessionMemoryBudget memoryBudget;
+    private long reservedBytes;
+
+    private Button refreshButton = new Button(REFRESH_BUTTON_TEXT);
+    private final LoadingIndicator loadingIndicator = new LoadingIndicator();
+
+    private Grid<DoctorListItem> doctorsTable = new Grid<>(DoctorListItem.class);
+    private Grid<Map.Entry<YearMonth, Integer>> monthsTable = new Grid<>();
+    private Map<Long, DoctorStatistics> statisticsByDoctorId = Collections.emptyMap();
+
+    @Autowired
+    public StatisticsView(AsyncDoctorService asyncDoctorService, AsyncStatisticsService asyncStatisticsService,
+                          DoctorService doctorService, SessionMemoryBudgets memoryBudgets) {
+        this.asyncDoctorService = asyncDoctorService;
+        this.asyncStatisticsService = asyncStatisticsService;
+        this.doctorService = doctorService;
+        this.memoryBudget = memoryBudgets.getCurrent();
+
+        PageHeader pageHeader = new PageHeader();
+        add(pageHeader);
+        add(getButtonsBar());
+        add(loadingIndicator);
+        setTables();
+        HorizontalLayout tables = new HorizontalLayout(doctorsTable, monthsTable);
+        tables.setSizeFull();
+        tables.setFlexGrow(3, doctorsTable);
+        tables.setFlexGrow(1, monthsTable);
+        add(tables);
+
+        setSizeFull();
+        addDetachListener(e -> releaseDoctors());
+        loadDoctors();
+    }
+
+    /**
+     * Returns buttons bar.
+     *
+     * @return buttons bar.
+     */
+    private HorizontalLayout getButtonsBar() {
+        refreshButton.addClickListener(e -> updateTable());
+        HorizontalLayout buttonsBar = new HorizontalLayout();
+        buttonsBar.add(refreshButton);
+        return buttonsBar;
+    }
+
+    /**
+     * Sets page {@link Grid}s to needed state.
+     */
+    private void setTables() {
+        doctorsTable.setColumns(NAME_FIELD, SURNAME_FIELD, SPECIALIZATION_FIELD);
+        doctorsTable.addColumn(doctor -> getStatistics(doctor).getRecipeQty()).setHeader(RECIPE_QTY_HEADER);
+        for (Priority priority : Priority.values()) {
+            doctorsTable.addColumn(doctor -> getStatistics(doctor).getRecipeQty(priority))
+                    .setHeader(priority.name());
+        }
+        doctorsTable.addColumn(doctor -> getStatistics(doctor).getPatientQty()).setHeader(PATIENT_QTY_HEADER);
+        doctorsTable.addSelectionListener(e -> updateMonthsTable());
+
+        monthsTable.addColumn(Map.Entry::getKey).setHeader(MONTH_HEADER);
+        monthsTable.addColumn(Map.Entry::getValue).setHeader(RECIPE_QTY_HEADER);
+    }
+
+    /**
+     * Loads doctors if they fit the session memory budget or sets a lazy data provider otherwise,
+     * and then loads their statistics.
+     */
+    private void loadDoctors() {
+        loadingIndicator.track(asyncDoctorService.getCount(), doctorQty -> {
+            long estimatedBytes = doctorQty * (DOCTOR_ITEM_SHALLOW_SIZE
+                    + MemorySizes.getStringSize(ESTIMATED_SURNAME_LENGTH, 2)) + MemorySizes.getListSize(doctorQty);
+            if (!memoryBudget.reserve(RetainingView.STATISTICS, estimatedBytes)) {
+                doctorsTable.setDataProvider(KeysetDataProvider.of(
+                        (offset, limit) -> toListItems(doctorService.getPage(offset, limit)),
+                        (afterId, limit) -> toListItems(doctorService.getPageAfter(afterId, limit)),
+                        doctorService::getCount, DoctorListItem::getId));
+                updateTable();
+                return;
+            }
+
+            reservedBytes = estimatedBytes;
+            loadingIndicator.track(asyncDoctorService.getAll(), doctors -> {
+                if (reservedBytes == 0) {
+                    return;
+                }
+                List<DoctorListItem> items = toListItems(doctors);
+                long actualBytes = MemorySizes.getListSize(items.size());
+                for (DoctorListItem item : items) {
+                    actualBytes += DOCTOR_ITEM_SHALLOW_SIZE + MemorySizes.getStringSize(item.getSurname());
+                }
+                memoryBudget.adjust(RetainingView.STATISTICS, reservedBytes, actualBytes);
+                reservedBytes = actualBytes;
+                doctorsTable.setItems(items);
+                updateTable();
+            });
+        });
+    }
+
+    /**
+     * Releases the memory reserved for the doctors held by the view.
+     */
+    private void releaseDoctors() {
+        memoryBudget.release(RetainingView.STATISTICS, reservedBytes);
+        reservedBytes = 0;
+    }
+
+    private static List<DoctorListItem> toListItems(List<Doctor> doctors) {
+        List<DoctorListItem> items = new ArrayList<>(doctors.size());
+        for (Doctor doctor : doctors) {
+            items.add(DoctorListItem.of(doctor));
+        }
+        return items;
+    }
+
+    /**
+     * Updates page {@link Grid}s once the statistics are loaded.
+     */
+    public void updateTable() {
+        loadingIndicator.track(asyncStatisticsService.getStatisticsForAllDoctors(), statistics -> {
+            statisticsByDoctorId = statistics;
+            doctorsTable.getDataProvider().refreshAll();
+            updateMonthsTable();
+        });
+    }
+
+    /**
+     * Shows recipe quantities by month of the selected doctor.
+     */
+    private void updateMonthsTable() {
+        monthsTable.setItems(doctorsTable.getSelectionModel().getFirstSelectedItem()
+                .map(doctor -> new ArrayList<>(getStatistics(doctor).getRecipeQtyByMonth().entrySet()))
+                .orElseGet(ArrayList::new));
+    }
+
+    private DoctorStatistics getStatistics(DoctorListItem doctor) {
+        DoctorStatistics statistics = statisticsByDoctorId.get(doctor.getId());
+        return statistics == null ? new DoctorStatistics(doctor.getId()) : statistics;
+    }
+}
@@ -0,0 +1,108 @@
+package com.haulmont.testtask3.views.providers;
+
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.function.ValueProvider;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Lazy data provider which fetches only the rows visible in a {@link com.vaadin.flow.component.grid.Grid}.
+ * <p>
+ * A window which directly follows the previously fetched one (the usual case while scrolling down)
+ * is fetched by keyset ("after id N"), any other window is fetched by offset.
+ *
+ * @param <T> row type
+ */
+public class KeysetDataProvider<T> extends CallbackDataProvider<T, Void> {
+    private final KeysetCursor<T> cursor;
+
+    private KeysetDataProvider(KeysetCursor<T> cursor, SerializableSupplier<Integer> countFetch,
+                               ValueProvider<T, Long> idGetter) {
+        super(query -> cursor.fetch(query.getOffset(), query.getLimit()),
+                query -> countFetch.get(),
+                idGetter::apply);
+        this.cursor = cursor;
+    }
+
+    /**
+     * Creates data provider backed by the specified callbacks.
+     *
+     * @param pageFetch   offset page callback
+     * @param keysetFetch keyset page callback
+     * @param countFetch  rows quantity callback
+     * @param idGetter    row id getter
+     * @param <T>         row type
+     * @return data provider backed by the specified callbacks.
+     */
+    public static <T> KeysetDataProvider<T> of(PageFetch<T> pageFetch, KeysetFetch<T> keysetFetch,
+                                               SerializableSupplier<Integer> countFetch,
+                                               ValueProvider<T, Long> idGetter) {
+        return new KeysetDataProvider<>(new KeysetCursor<>(pageFetch, keysetFetch, idGetter), countFetch, idGetter);
+    }
+
+    @Override
+    public void refreshAll() {
+        cursor.reset();
+        super.refreshAll();
+    }
+
+    /**
+     * Offset page callback.
+     *
+     * @param <T> row type
+     */
+    @FunctionalInterface
+    public interface PageFetch<T> extends Serializable {
+        List<T> fetch(int offset, int limit);
+    }
+
+    /**
+     * Keyset page callback.
+     *
+     * @param <T> row type
+     */
+    @FunctionalInterface
+    public interface KeysetFetch<T> extends Serializable {
+        List<T> fetch(long afterId, int limit);
+    }
+
+    /**
+     * Remembers where the previously fetched window ended.
+     *
+     * @param <T> row type
+     */
+    private static class KeysetCursor<T> implements Serializable {
+        private final PageFetch<T> pageFetch;
+        private final KeysetFetch<T> keysetFetch;
+        private final ValueProvider<T, Long> idGetter;
+
+        private int nextOffset = -1;
+        private long lastId;
+
+        KeysetCursor(PageFetch<T> pageFetch, KeysetFetch<T> keysetFetch, ValueProvider<T, Long> idGetter) {
+            this.pageFetch = pageFetch;
+            this.keysetFetch = keysetFetch;
+            this.idGetter = idGetter;
+        }
+
+        synchronized Stream<T> fetch(int offset, int limit) {
+            List<T> rows = offset > 0 && offset == nextOffset
+                    ? keysetFetch.fetch(lastId, limit)
+                    : pageFetch.fetch(offset, limit);
+            if (rows.isEmpty()) {
+                reset();
+            } else {
+                nextOffset = offset + rows.size();
+                lastId = idGetter.apply(rows.get(rows.size() - 1));
+            }
+            return rows.stream();
+        }
+
+        synchronized void reset() {
+            nextOffset = -1;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.haulmont.testtask3.views.providers;
+
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.function.ValueProvider;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lazy data provider of a {@link com.vaadin.flow.component.combobox.ComboBox} which shows only the top matches
+ * of the typed filter text.
+ * <p>
+ * The matches of a filter are searched once, the size and the item requests of the same filter are served
+ * from the remembered result.
+ *
+ * @param <T> item type
+ */
+public class TopMatchesDataProvider<T> extends CallbackDataProvider<T, String> {
+    private final LastMatches<T> matches;
+
+    private TopMatchesDataProvider(LastMatches<T> matches, ValueProvider<T, Long> idGetter) {
+        super(query -> matches.get(query.getFilter().orElse("")).stream()
+                        .skip(query.getOffset())
+                        .limit(query.getLimit()),
+                query -> matches.get(query.getFilter().orElse("")).size(),
+                idGetter::apply);
+        this.matches = matches;
+    }
+
+    /**
+     * Creates data provider backed by the specified search.
+     *
+     * @param search   search callback
+     * @param maxQty   max quantity of matches shown for one filter
+     * @param idGetter item id getter
+     * @param <T>      item type
+     * @return data provider backed by the specified search.
+     */
+    public static <T> TopMatchesDataProvider<T> of(Search<T> search, int maxQty, ValueProvider<T, Long> idGetter) {
+        return new TopMatchesDataProvider<>(new LastMatches<>(search, maxQty), idGetter);
+    }
+
+    @Override
+    public void refreshAll() {
+        matches.reset();
+        super.refreshAll();
+    }
+
+    /**
+     * Search callback.
+     *
+     * @param <T> item type
+     */
+    @FunctionalInterface
+    public interface Search<T> extends Serializable {
+        List<T> find(String filter, int limit);
+    }
+
+    /**
+     * Remembers the matches of the previously searched filter.
+     *
+     * @param <T> item type
+     */
+    private static class LastMatches<T> implements Serializable {
+        private final Search<T> search;
+        private final int maxQty;
+
+        private String filter;
+        private List<T> items;
+
+        LastMatches(Search<T> search, int maxQty) {
+            this.search = search;
+            this.maxQty = maxQty;
+        }
+
+        synchronized List<T> get(String filter) {
+            if (items == null || !Objects.equals(this.filter, filter)) {
+                items = search.find(filter, maxQty);
+                this.filter = filter;
+            }
+            return items;
+        }
+
+        synchronized void reset() {
+            items = null;
+        }
+    }
+}
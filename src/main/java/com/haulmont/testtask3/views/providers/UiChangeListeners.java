@@ -0,0 +1,36 @@
+package com.haulmont.testtask3.views.providers;
+
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.function.SerializableConsumer;
+
+import java.util.function.Consumer;
+
+/**
+ * Adapts {@link EntityChangeEvent} listeners to Vaadin UIs.
+ */
+public final class UiChangeListeners {
+
+    private UiChangeListeners() {
+    }
+
+    /**
+     * Returns listener which passes events to the specified one with the specified UI locked.
+     * Changes are pushed to the browser, events which arrive after the UI is closed are dropped.
+     *
+     * @param ui       UI to be locked
+     * @param listener listener to be called with the UI locked
+     * @param <T>      entity type
+     * @return listener which passes events to the specified one with the specified UI locked.
+     */
+    public static <T> Consumer<EntityChangeEvent<T>> accessing(UI ui, SerializableConsumer<EntityChangeEvent<T>> listener) {
+        return event -> {
+            try {
+                ui.access(() -> listener.accept(event));
+            } catch (UIDetachedException ignored) {
+                // The page was closed, its subscription is removed on detach.
+            }
+        };
+    }
+}
@@ -1,4 +1,4 @@
-create table doctors(
+create table if not exists doctors(
     id bigint identity primary key,
     name varchar(50) not null,
     surname varchar(50) not null,
@@ -6,7 +6,7 @@ create table doctors(
     specialization varchar(200) not null
 );
 
-create table patients(
+create table if not exists patients(
     id bigint identity primary key not null,
     name varchar(50) not null,
     surname varchar(50) not null,
@@ -14,7 +14,7 @@ create table patients(
     phone_number varchar(50) not null
 );
 
-create table recipes(
+create table if not exists recipes(
     id bigint identity primary key not null,
     doctor_id bigint not null,
     patient_id bigint not null,
@@ -24,4 +24,4 @@ create table recipes(
     priority varchar(50) not null,
     foreign key(doctor_id) references doctors(id),
     foreign key(patient_id) references patients(id)
-);
\ No newline at end of file
+);
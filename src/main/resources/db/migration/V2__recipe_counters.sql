@@ -0,0 +1,18 @@
+create table if not exists doctor_recipe_counts(
+    doctor_id bigint primary key not null,
+    recipe_qty int not null,
+    foreign key(doctor_id) references doctors(id) on delete cascade
+);
+
+create table if not exists patient_recipe_counts(
+    patient_id bigint primary key not null,
+    recipe_qty int not null,
+    foreign key(patient_id) references patients(id) on delete cascade
+);
+
+-- Counters of the recipes existing before the migration, later writes change them by deltas
+insert into doctor_recipe_counts
+select doctor_id, count(*) from recipes group by doctor_id;
+
+insert into patient_recipe_counts
+select patient_id, count(*) from recipes group by patient_id;
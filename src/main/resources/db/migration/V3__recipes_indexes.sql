@@ -0,0 +1,7 @@
+create index if not exists recipes_doctor_id_idx on recipes(doctor_id);
+
+create index if not exists recipes_patient_id_idx on recipes(patient_id);
+
+create index if not exists recipes_priority_idx on recipes(priority);
+
+create index if not exists recipes_creation_date_idx on recipes(creation_date);
@@ -0,0 +1,2 @@
+-- Results larger than this are kept in temporary files instead of the heap, e.g. full recipe exports
+set database default result memory rows 10000;
@@ -0,0 +1,6 @@
+-- Incremented by every update, an update of a row read in an older version is rejected
+alter table doctors add column if not exists version int default 0 not null;
+
+alter table patients add column if not exists version int default 0 not null;
+
+alter table recipes add column if not exists version int default 0 not null;
@@ -0,0 +1,6 @@
+-- Date up to which recipe expiries are published, kept so expiries missed while the application is down
+-- are published by the first sweep after the start
+create table if not exists recipe_expiry_sweeps(
+    id int primary key not null,
+    last_sweep_date date not null
+);
@@ -0,0 +1,58 @@
+package com.haulmont.testtask3.config;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MeteredDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    public void getConnectionTest() throws SQLException {
+        MeteredDataSource meteredDataSource = new MeteredDataSource(targetDataSource);
+        List<Long> waitTimes = new ArrayList<>();
+        meteredDataSource.setAcquireTimeListener(waitTimes::add);
+        when(targetDataSource.getConnection()).thenAnswer(invocation -> {
+            assertEquals(1, meteredDataSource.getWaitingQty());
+            return connection;
+        });
+
+        assertSame(connection, meteredDataSource.getConnection());
+        assertEquals(0, meteredDataSource.getWaitingQty());
+        assertEquals(1, waitTimes.size());
+    }
+
+    @Test
+    public void getConnectionTimeoutTest() throws SQLException {
+        MeteredDataSource meteredDataSource = new MeteredDataSource(targetDataSource);
+        List<Long> waitTimes = new ArrayList<>();
+        meteredDataSource.setAcquireTimeListener(waitTimes::add);
+        when(targetDataSource.getConnection()).thenThrow(new SQLException());
+
+        try {
+            meteredDataSource.getConnection();
+            fail();
+        } catch (SQLException ignored) {
+        }
+        assertEquals(0, meteredDataSource.getWaitingQty());
+        assertEquals(1, waitTimes.size());
+    }
+}
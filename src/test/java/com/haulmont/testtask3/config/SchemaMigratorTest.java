@@ -0,0 +1,107 @@
+package com.haulmont.testtask3.config;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SchemaMigratorTest {
+    private DataSource dataSource;
+
+    @Before
+    public void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:hsqldb:mem:" + UUID.randomUUID(), "sa", "");
+    }
+
+    private void execute(String query) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(query);
+        }
+    }
+
+    @Test
+    public void migrateEmptyDatabaseTest() throws SQLException {
+        assertTrue(new SchemaMigrator(dataSource).migrate() > 0);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from information_schema.system_indexinfo"
+                     + " " + "where index_name = 'RECIPES_DOCTOR_ID_IDX'")) {
+            resultSet.next();
+            assertEquals(1, resultSet.getInt(1));
+        }
+    }
+
+    @Test
+    public void migrateCurrentDatabaseTest() {
+        new SchemaMigrator(dataSource).migrate();
+        assertEquals(0, new SchemaMigrator(dataSource).migrate());
+    }
+
+    @Test
+    public void migrateDatabaseWithoutVersionTableTest() throws SQLException {
+        execute("create table doctors(id bigint identity primary key, name varchar(50) not null,"
+                + " " + "surname varchar(50) not null, patronymic varchar(50), specialization varchar(200) not null)");
+        assertTrue(new SchemaMigrator(dataSource).migrate() > 0);
+    }
+
+    @Test
+    public void migrateDatabaseWithRecipesTest() throws SQLException {
+        execute("create table doctors(id bigint identity primary key, name varchar(50) not null,"
+                + " " + "surname varchar(50) not null, patronymic varchar(50), specialization varchar(200) not null)");
+        execute("create table patients(id bigint identity primary key, name varchar(50) not null,"
+                + " " + "surname varchar(50) not null, patronymic varchar(50), phone_number varchar(50) not null)");
+        execute("create table recipes(id bigint identity primary key, doctor_id bigint not null,"
+                + " " + "patient_id bigint not null, description varchar(200) not null, creation_date date not null,"
+                + " " + "validity smallint not null, priority varchar(50) not null,"
+                + " " + "foreign key(doctor_id) references doctors(id),"
+                + " " + "foreign key(patient_id) references patients(id))");
+        execute("insert into doctors(id, name, surname, specialization) values (1, 'a', 'b', 'c')");
+        execute("insert into patients(id, name, surname, phone_number) values (1, 'a', 'b', '0')");
+        execute("insert into recipes(doctor_id, patient_id, description, creation_date, validity, priority)"
+                + " " + "values (1, 1, 'd', date '2020-12-01', 1, 'NORMAL'), (1, 1, 'd', date '2020-12-01', 1, 'CITO')");
+
+        new SchemaMigrator(dataSource).migrate();
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select recipe_qty from doctor_recipe_counts"
+                     + " " + "where doctor_id = 1")) {
+            resultSet.next();
+            assertEquals(2, resultSet.getInt(1));
+        }
+    }
+
+    @Test
+    public void migrateHalfAppliedScriptTest() throws SQLException {
+        new SchemaMigrator(dataSource).migrate();
+        execute("delete from schema_version where version = 5");
+        execute("alter table recipes drop column version");
+
+        assertEquals(1, new SchemaMigrator(dataSource).migrate());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void migrateChangedScriptTest() throws SQLException {
+        new SchemaMigrator(dataSource).migrate();
+        execute("update schema_version set checksum = checksum + 1 where version = 1");
+        new SchemaMigrator(dataSource).migrate();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void migrateMissingScriptTest() throws SQLException {
+        new SchemaMigrator(dataSource).migrate();
+        execute("insert into schema_version (version, description, checksum) values (1000, 'unknown', 0)");
+        new SchemaMigrator(dataSource).migrate();
+    }
+}
@@ -0,0 +1,107 @@
+package com.haulmont.testtask3.config;
+
+import com.haulmont.testtask3.config.StorageProperties.StorageProfile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StorageConfigurerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final StorageProperties storageProperties = new StorageProperties();
+    private SingleConnectionDataSource dataSource;
+
+    @Before
+    public void setUp() throws Exception {
+        storageProperties.setPath(new File(temporaryFolder.getRoot(), "data").getPath());
+        storageProperties.setLogSize(DataSize.ofMegabytes(10));
+        storageProperties.setWriteDelay(Duration.ofMillis(100));
+        storageProperties.setCacheSize(DataSize.ofMegabytes(8));
+        storageProperties.setCacheRows(5000);
+        dataSource = new SingleConnectionDataSource(
+                StorageProfile.FILE_MEMORY_TABLES.getUrl(storageProperties.getPath()), "sa", "", true);
+        new SchemaMigrator(dataSource).migrate();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("shutdown");
+        }
+        dataSource.destroy();
+    }
+
+    private String query(String query) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private String getProperty(String name) throws SQLException {
+        return query("select property_value from information_schema.system_properties"
+                + " " + "where property_name = '" + name + "'");
+    }
+
+    private String getTableType(String tableName) throws SQLException {
+        return query("select hsqldb_type from information_schema.system_tables"
+                + " " + "where table_schem = 'PUBLIC' and table_name = '" + tableName + "'");
+    }
+
+    @Test
+    public void configureCachedTablesTest() throws SQLException {
+        storageProperties.setProfile(StorageProfile.FILE_CACHED_TABLES);
+        assertTrue(new StorageConfigurer(dataSource, storageProperties).configure() > 0);
+
+        assertEquals("CACHED", getTableType("RECIPES"));
+        assertEquals("CACHED", getTableType("DOCTORS"));
+        assertEquals("CACHED", getProperty("hsqldb.default_table_type"));
+        assertEquals("10", getProperty("hsqldb.log_size"));
+        assertEquals("100", getProperty("hsqldb.write_delay_millis"));
+        assertEquals("8192", getProperty("hsqldb.cache_size"));
+        assertEquals("5000", getProperty("hsqldb.cache_rows"));
+    }
+
+    @Test
+    public void configureTwiceTest() {
+        storageProperties.setProfile(StorageProfile.FILE_CACHED_TABLES);
+        new StorageConfigurer(dataSource, storageProperties).configure();
+        assertEquals(0, new StorageConfigurer(dataSource, storageProperties).configure());
+    }
+
+    @Test
+    public void configureMemoryTablesBackTest() throws SQLException {
+        storageProperties.setProfile(StorageProfile.FILE_CACHED_TABLES);
+        new StorageConfigurer(dataSource, storageProperties).configure();
+        storageProperties.setProfile(StorageProfile.FILE_MEMORY_TABLES);
+        assertTrue(new StorageConfigurer(dataSource, storageProperties).configure() > 0);
+
+        assertEquals("MEMORY", getTableType("RECIPES"));
+        assertEquals("MEMORY", getProperty("hsqldb.default_table_type"));
+    }
+
+    @Test
+    public void configureInMemoryTest() {
+        storageProperties.setProfile(StorageProfile.IN_MEMORY);
+        assertEquals(0, new StorageConfigurer(dataSource, storageProperties).configure());
+    }
+}
@@ -0,0 +1,202 @@
+package com.haulmont.testtask3.config;
+
+import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.implementations.DoctorDaoImpl;
+import com.haulmont.testtask3.dao.implementations.RecipeDaoImpl;
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.implementations.DoctorServiceImpl;
+import com.haulmont.testtask3.services.implementations.RecipeServiceImpl;
+import com.haulmont.testtask3.services.interfaces.DoctorService;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class UnitOfWorkDataSourceTest {
+    private MeteredDataSource meteredDataSource;
+    private DoctorDaoImpl doctorDao;
+    private RecipeDaoImpl recipeDao;
+    private EntityChangeBroadcaster changeBroadcaster;
+    private DoctorService doctorService;
+    private DoctorService transactionalDoctorService;
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setUp() {
+        DataSource targetDataSource = new DriverManagerDataSource("jdbc:hsqldb:mem:" + UUID.randomUUID(), "sa", "");
+        new SchemaMigrator(targetDataSource).migrate();
+        meteredDataSource = new MeteredDataSource(targetDataSource);
+        DataSource dataSource = new UnitOfWorkDataSource(meteredDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        changeBroadcaster = new EntityChangeBroadcaster();
+        doctorDao = new DoctorDaoImpl(dataSource);
+        recipeDao = new RecipeDaoImpl(dataSource);
+        RecipeServiceImpl recipeService = new RecipeServiceImpl(recipeDao, validator, changeBroadcaster);
+        doctorService = new DoctorServiceImpl(doctorDao, recipeService, validator, changeBroadcaster);
+
+        ProxyFactory proxyFactory = new ProxyFactory(doctorService);
+        proxyFactory.addAdvice(new TransactionInterceptor((TransactionManager) transactionManager,
+                new AnnotationTransactionAttributeSource()));
+        transactionalDoctorService = (DoctorService) proxyFactory.getProxy();
+    }
+
+    @Test
+    public void deleteInOneConnectionTest() throws Exception {
+        Doctor firstDoctor = createDoctor("Иван");
+        Doctor secondDoctor = createDoctor("Павел");
+        doctorDao.addAll(Arrays.asList(firstDoctor, secondDoctor));
+
+        long acquiredQty = meteredDataSource.getAcquiredQty();
+        doctorService.delete(firstDoctor);
+        assertEquals(2, meteredDataSource.getAcquiredQty() - acquiredQty);
+
+        acquiredQty = meteredDataSource.getAcquiredQty();
+        transactionalDoctorService.delete(secondDoctor);
+        assertEquals(1, meteredDataSource.getAcquiredQty() - acquiredQty);
+        assertEquals(0, doctorDao.getCount());
+    }
+
+    @Test
+    public void daoCommitDeferredTest() {
+        transactionTemplate.execute(status -> {
+            doctorDao.addAll(Arrays.asList(createDoctor("Иван"), createDoctor("Павел")));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertEquals(0, doctorDao.getCount());
+    }
+
+    @Test
+    public void daoRollbackMarksTransactionTest() {
+        Doctor missingDoctor = createDoctor("Павел");
+        missingDoctor.setId(100L);
+
+        try {
+            transactionTemplate.execute(status -> {
+                doctorDao.add(createDoctor("Иван"));
+                try {
+                    doctorDao.updateAll(Collections.singletonList(missingDoctor));
+                    fail();
+                } catch (ElementDoesNotExistException e) {
+                    // the failed batch is rolled back together with the whole transaction
+                }
+                return null;
+            });
+            fail();
+        } catch (UnexpectedRollbackException e) {
+            assertEquals(0, doctorDao.getCount());
+        }
+    }
+
+    @Test
+    public void versionIncrementedAfterCommitTest() throws Exception {
+        Doctor doctor = createDoctor("Иван");
+        doctorDao.add(doctor);
+
+        transactionTemplate.execute(status -> {
+            updateDoctor(doctor);
+            assertEquals(0, doctor.getVersion());
+            status.setRollbackOnly();
+            return null;
+        });
+        assertEquals(0, doctor.getVersion());
+
+        transactionTemplate.execute(status -> {
+            updateDoctor(doctor);
+            return null;
+        });
+        assertEquals(1, doctor.getVersion());
+        assertEquals(1, doctorDao.getById(doctor.getId()).getVersion());
+    }
+
+    @Test
+    public void sqlExceptionSurfacedInTransactionTest() {
+        Recipe recipe = new Recipe();
+        recipe.setDoctorId(100L);
+        recipe.setPatientId(100L);
+        recipe.setDescription("Аспирин");
+        recipe.setCreationDate(Date.valueOf("2020-01-01"));
+        recipe.setValidity(1);
+        recipe.setPriority(Priority.NORMAL);
+
+        try {
+            transactionTemplate.execute(status -> recipeDao.add(recipe));
+            fail();
+        } catch (DataIntegrityViolationException e) {
+            assertEquals(0, recipeDao.getCount());
+        }
+    }
+
+    @Test
+    public void publishAfterCommitTest() {
+        List<Object> events = new ArrayList<>();
+        changeBroadcaster.register(Doctor.class, events::add);
+
+        transactionTemplate.execute(status -> {
+            addDoctor(createDoctor("Иван"));
+            assertTrue(events.isEmpty());
+            return null;
+        });
+        assertEquals(1, events.size());
+
+        transactionTemplate.execute(status -> {
+            addDoctor(createDoctor("Павел"));
+            status.setRollbackOnly();
+            return null;
+        });
+        assertEquals(1, events.size());
+        assertEquals(1, doctorDao.getCount());
+    }
+
+    private void addDoctor(Doctor doctor) {
+        try {
+            doctorService.add(doctor);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void updateDoctor(Doctor doctor) {
+        try {
+            doctorDao.update(doctor);
+        } catch (ElementDoesNotExistException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Doctor createDoctor(String name) {
+        Doctor doctor = new Doctor();
+        doctor.setName(name);
+        doctor.setSurname("Петров");
+        doctor.setSpecialization("Терапевт");
+        return doctor;
+    }
+}
@@ -0,0 +1,131 @@
+package com.haulmont.testtask3.dao.cache;
+
+import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.interfaces.DoctorDao;
+import com.haulmont.testtask3.models.Doctor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CachingDoctorDaoTest {
+
+    @Mock
+    private DoctorDao doctorDao;
+
+    private CachingDoctorDao testCachingDoctorDao;
+
+    @Before
+    public void setUp() {
+        testCachingDoctorDao = new CachingDoctorDao(doctorDao,
+                new EntityCache<>(10, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+    }
+
+    private Doctor createDoctor(long id) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        doctor.setName("name");
+        return doctor;
+    }
+
+    @Test
+    public void getByIdFromCacheTest() throws ElementDoesNotExistException {
+        Doctor doctor = createDoctor(1);
+        when(doctorDao.getById(1)).thenReturn(doctor);
+
+        testCachingDoctorDao.getById(1);
+        Doctor result = testCachingDoctorDao.getById(1);
+
+        verify(doctorDao, times(1)).getById(1);
+        assertEquals("name", result.getName());
+        assertNotSame(doctor, result);
+        assertEquals(1, testCachingDoctorDao.getCacheStats().getHitCount());
+    }
+
+    @Test
+    public void getByIdOfMissingDoctorTest() throws ElementDoesNotExistException {
+        when(doctorDao.getById(1)).thenThrow(new ElementDoesNotExistException());
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                testCachingDoctorDao.getById(1);
+                fail();
+            } catch (ElementDoesNotExistException ignored) {
+            }
+        }
+
+        verify(doctorDao, times(1)).getById(1);
+    }
+
+    @Test
+    public void updateInvalidatesCacheTest() throws ElementDoesNotExistException {
+        Doctor doctor = createDoctor(1);
+        when(doctorDao.getById(1)).thenReturn(doctor);
+
+        testCachingDoctorDao.getById(1);
+        testCachingDoctorDao.update(doctor);
+        testCachingDoctorDao.getById(1);
+
+        verify(doctorDao, times(2)).getById(1);
+    }
+
+    @Test
+    public void addInvalidatesMissingIdTest() throws ElementDoesNotExistException {
+        Doctor doctor = createDoctor(1);
+        when(doctorDao.getById(1)).thenThrow(new ElementDoesNotExistException()).thenReturn(doctor);
+
+        try {
+            testCachingDoctorDao.getById(1);
+            fail();
+        } catch (ElementDoesNotExistException ignored) {
+        }
+        testCachingDoctorDao.add(doctor);
+
+        assertEquals("name", testCachingDoctorDao.getById(1).getName());
+    }
+
+    @Test
+    public void updateDuringReadNotCachedTest() throws ElementDoesNotExistException {
+        Doctor doctor = createDoctor(1);
+        when(doctorDao.getById(1)).thenAnswer(invocation -> {
+            testCachingDoctorDao.update(doctor);
+            return doctor;
+        });
+
+        testCachingDoctorDao.getById(1);
+        testCachingDoctorDao.getById(1);
+
+        verify(doctorDao, times(2)).getById(1);
+    }
+
+    @Test
+    public void invalidateAfterCommitTest() throws ElementDoesNotExistException {
+        Doctor doctor = createDoctor(1);
+        when(doctorDao.getById(1)).thenReturn(doctor);
+        testCachingDoctorDao.getById(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            testCachingDoctorDao.update(doctor);
+            testCachingDoctorDao.getById(1);
+            verify(doctorDao, times(1)).getById(1);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        testCachingDoctorDao.getById(1);
+        verify(doctorDao, times(2)).getById(1);
+    }
+}
@@ -0,0 +1,86 @@
+package com.haulmont.testtask3.dao.cache;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EntityCacheTest {
+    private final AtomicLong clock = new AtomicLong();
+
+    private EntityCache<String> createCache(int maxSize) {
+        return new EntityCache<>(maxSize, Duration.ofSeconds(10), Duration.ofSeconds(1), clock::get);
+    }
+
+    @Test
+    public void getCachedEntityTest() {
+        EntityCache<String> cache = createCache(10);
+        cache.put(1, "one");
+
+        assertEquals("one", cache.get(1).getValue());
+        assertNull(cache.get(2));
+        assertEquals(1, cache.getStats().getHitCount());
+        assertEquals(1, cache.getStats().getMissCount());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedTest() {
+        EntityCache<String> cache = createCache(2);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.get(1);
+        cache.put(3, "three");
+
+        assertNotNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(3));
+        assertEquals(1, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void expireEntityTest() {
+        EntityCache<String> cache = createCache(10);
+        cache.put(1, "one");
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertNull(cache.get(1));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    public void expireMissingEntityTest() {
+        EntityCache<String> cache = createCache(10);
+        cache.putMissing(1);
+
+        assertTrue(cache.get(1).isMissing());
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void invalidateTest() {
+        EntityCache<String> cache = createCache(10);
+        cache.put(1, "one");
+        cache.invalidate(1);
+
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void skipPutAfterInvalidateTest() {
+        EntityCache<String> cache = createCache(10);
+        long generation = cache.getGeneration(1);
+        cache.invalidate(1);
+        cache.put(1, "one", generation);
+        cache.putMissing(1, generation);
+
+        assertNull(cache.get(1));
+        cache.put(1, "one", cache.getGeneration(1));
+        assertEquals("one", cache.get(1).getValue());
+    }
+}
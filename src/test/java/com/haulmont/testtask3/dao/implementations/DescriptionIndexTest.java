@@ -0,0 +1,46 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+public class DescriptionIndexTest {
+    private DescriptionIndex descriptionIndex;
+
+    @Before
+    public void setUp() {
+        descriptionIndex = new DescriptionIndex();
+        descriptionIndex.add(3, "Аспирин по одной таблетке");
+        descriptionIndex.add(1, "аспирин вечером");
+        descriptionIndex.add(2, "Paracetamol");
+    }
+
+    @Test
+    public void searchCyrillicTest() {
+        assertArrayEquals(new int[]{1, 3}, descriptionIndex.search("спирин"));
+        assertArrayEquals(new int[]{3}, descriptionIndex.search("Аспирин"));
+    }
+
+    @Test
+    public void searchUnknownTermTest() {
+        assertArrayEquals(new int[0], descriptionIndex.search("Ибупрофен"));
+    }
+
+    @Test
+    public void searchWithoutIndexTest() {
+        assertNull(descriptionIndex.search("пи"));
+        assertNull(descriptionIndex.search("%рин"));
+        assertNull(descriptionIndex.search(null));
+    }
+
+    @Test
+    public void updateTest() {
+        descriptionIndex.update(2, "Paracetamol", "Аспирин");
+        descriptionIndex.remove(3, "Аспирин по одной таблетке");
+
+        assertArrayEquals(new int[]{1, 2}, descriptionIndex.search("спирин"));
+        assertArrayEquals(new int[0], descriptionIndex.search("Paracetamol"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ExpiryIndexTest {
+    private static final LocalDate TODAY = LocalDate.of(2020, 12, 1);
+
+    private ExpiryIndex expiryIndex;
+
+    @Before
+    public void setUp() {
+        expiryIndex = new ExpiryIndex();
+        expiryIndex.add(3, TODAY.plusDays(3).toEpochDay());
+        expiryIndex.add(1, TODAY.plusDays(3).toEpochDay());
+        expiryIndex.add(2, TODAY.minusDays(1).toEpochDay());
+        expiryIndex.add(4, TODAY.plusDays(10).toEpochDay());
+    }
+
+    @Test
+    public void getExpiryDayTest() {
+        assertEquals(TODAY.plusDays(30).toEpochDay(), ExpiryIndex.getExpiryDay(Date.valueOf(TODAY), 30));
+    }
+
+    @Test
+    public void searchExpiringTest() {
+        assertArrayEquals(new int[]{1, 3}, expiryIndex.search(TODAY, TODAY.plusDays(7), Integer.MAX_VALUE));
+        assertArrayEquals(new int[]{1, 3, 4}, expiryIndex.search(TODAY, TODAY.plusDays(10), Integer.MAX_VALUE));
+        assertArrayEquals(new int[0], expiryIndex.search(TODAY.plusDays(3), TODAY.plusDays(7), Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void searchExpiredTest() {
+        assertArrayEquals(new int[]{2}, expiryIndex.search(null, TODAY, Integer.MAX_VALUE));
+        assertArrayEquals(new int[]{1, 2, 3}, expiryIndex.search(null, TODAY.plusDays(3), Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void searchTooManyTest() {
+        assertNull(expiryIndex.search(null, TODAY.plusDays(10), 3));
+    }
+
+    @Test
+    public void updateTest() {
+        expiryIndex.update(4, TODAY.plusDays(10).toEpochDay(), TODAY.plusDays(1).toEpochDay());
+        expiryIndex.remove(3, TODAY.plusDays(3).toEpochDay());
+
+        assertArrayEquals(new int[]{1, 4}, expiryIndex.search(TODAY, TODAY.plusDays(7), Integer.MAX_VALUE));
+        assertArrayEquals(new int[0], expiryIndex.search(TODAY.plusDays(7), TODAY.plusDays(30), Integer.MAX_VALUE));
+    }
+}
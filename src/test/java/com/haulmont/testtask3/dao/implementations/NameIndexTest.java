@@ -0,0 +1,57 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+public class NameIndexTest {
+    private NameIndex nameIndex;
+
+    @Before
+    public void setUp() {
+        nameIndex = new NameIndex();
+        nameIndex.put(1, "Петров", "Иван", "Сергеевич");
+        nameIndex.put(2, "Иванов", "Пётр", null);
+        nameIndex.put(3, "Smith", "John", null);
+    }
+
+    @Test
+    public void searchPrefixCaseInsensitiveTest() {
+        assertArrayEquals(new int[]{1, 2}, nameIndex.search("ИВ", 10));
+        assertArrayEquals(new int[]{2}, nameIndex.search("иванов", 10));
+        assertArrayEquals(new int[]{3}, nameIndex.search("jo", 10));
+        assertArrayEquals(new int[0], nameIndex.search("Сидоров", 10));
+    }
+
+    @Test
+    public void searchSeveralWordsTest() {
+        assertArrayEquals(new int[]{1}, nameIndex.search("ив  пет", 10));
+        assertArrayEquals(new int[]{1}, nameIndex.search("Сергеевич Петров", 10));
+        assertArrayEquals(new int[0], nameIndex.search("John Петров", 10));
+    }
+
+    @Test
+    public void searchLimitTest() {
+        assertArrayEquals(new int[]{1}, nameIndex.search("ив", 1));
+        assertArrayEquals(new int[]{3, 1, 2}, nameIndex.search("", 10));
+        assertArrayEquals(new int[]{3, 1}, nameIndex.search(null, 2));
+    }
+
+    @Test
+    public void updateTest() {
+        nameIndex.put(2, "Сидоров", "Пётр", null);
+        nameIndex.remove(1);
+
+        assertArrayEquals(new int[0], nameIndex.search("ив", 10));
+        assertArrayEquals(new int[]{2}, nameIndex.search("сид", 10));
+    }
+
+    @Test
+    public void searchWithoutIndexTest() {
+        nameIndex.put(Integer.MAX_VALUE + 1L, "Петров", "Иван", null);
+
+        assertNull(nameIndex.search("ив", 10));
+    }
+}
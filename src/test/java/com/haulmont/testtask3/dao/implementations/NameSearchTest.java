@@ -0,0 +1,74 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import com.haulmont.testtask3.config.SchemaMigrator;
+import com.haulmont.testtask3.dao.mappers.PatientRowMapper;
+import com.haulmont.testtask3.models.Patient;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class NameSearchTest {
+    private DataSource dataSource;
+    private NameSearch<Patient> nameSearch;
+    private Patient firstPatient;
+    private Patient secondPatient;
+
+    @Before
+    public void setUp() throws SQLException {
+        dataSource = new DriverManagerDataSource("jdbc:hsqldb:mem:" + UUID.randomUUID(), "sa", "");
+        new SchemaMigrator(dataSource).migrate();
+        PatientDaoImpl patientDao = new PatientDaoImpl(dataSource);
+        firstPatient = createPatient("Иван", "Петров");
+        secondPatient = createPatient("Пётр", "Иванов");
+        patientDao.addAll(Arrays.asList(firstPatient, secondPatient));
+
+        nameSearch = new NameSearch<>("patients", "id", "surname", "name", "patronymic", PatientRowMapper::of,
+                Patient::getId);
+        try (Connection connection = dataSource.getConnection()) {
+            nameSearch.rebuild(connection, 100);
+        }
+    }
+
+    @Test
+    public void findByIndexTest() throws SQLException {
+        assertEquals(Arrays.asList(firstPatient.getId(), secondPatient.getId()), find("ив"));
+        assertEquals(Arrays.asList(firstPatient.getId()), find("петров ив"));
+
+        nameSearch.remove(firstPatient.getId());
+        assertEquals(Arrays.asList(secondPatient.getId()), find("ив"));
+    }
+
+    @Test
+    public void findWithoutIndexTest() throws SQLException {
+        nameSearch.put(Integer.MAX_VALUE + 1L, "Сидоров", "Иван", null);
+
+        assertEquals(Arrays.asList(secondPatient.getId(), firstPatient.getId()), find("ив"));
+        assertEquals(Arrays.asList(firstPatient.getId()), find("пет ив"));
+    }
+
+    private List<Long> find(String term) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return nameSearch.find(connection, term, 10).stream()
+                    .map(Patient::getId)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static Patient createPatient(String name, String surname) {
+        Patient patient = new Patient();
+        patient.setName(name);
+        patient.setSurname(surname);
+        patient.setPhoneNumber("0");
+        return patient;
+    }
+}
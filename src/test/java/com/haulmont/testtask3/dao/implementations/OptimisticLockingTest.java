@@ -0,0 +1,194 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import com.haulmont.testtask3.config.SchemaMigrator;
+import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.exceptions.StaleElementException;
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class OptimisticLockingTest {
+    private static final int WRITER_QTY = 8;
+    private static final int INCREMENT_QTY = 50;
+
+    private PatientDaoImpl patientDao;
+    private RecipeDaoImpl recipeDao;
+    private Patient patient;
+    private Recipe recipe;
+
+    @Before
+    public void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:hsqldb:mem:" + UUID.randomUUID(), "sa", "");
+        new SchemaMigrator(dataSource).migrate();
+        DoctorDaoImpl doctorDao = new DoctorDaoImpl(dataSource);
+        patientDao = new PatientDaoImpl(dataSource);
+        recipeDao = new RecipeDaoImpl(dataSource);
+        recipeDao.initialize();
+
+        Doctor doctor = new Doctor();
+        doctor.setName("Иван");
+        doctor.setSurname("Петров");
+        doctor.setSpecialization("Терапевт");
+        doctorDao.add(doctor);
+
+        patient = new Patient();
+        patient.setName("Анна");
+        patient.setSurname("Смирнова");
+        patient.setPhoneNumber("0");
+        patientDao.add(patient);
+
+        recipe = new Recipe();
+        recipe.setDoctorId(doctor.getId());
+        recipe.setPatientId(patient.getId());
+        recipe.setDescription("Аспирин");
+        recipe.setCreationDate(Date.valueOf("2020-01-01"));
+        recipe.setValidity(1);
+        recipe.setPriority(Priority.NORMAL);
+        recipeDao.add(recipe);
+    }
+
+    @Test
+    public void updateIncrementsVersionTest() throws ElementDoesNotExistException {
+        patient.setName("Мария");
+        patientDao.update(patient);
+
+        assertEquals(1, patient.getVersion());
+        assertEquals(1, patientDao.getById(patient.getId()).getVersion());
+    }
+
+    @Test
+    public void updateStalePatientTest() throws ElementDoesNotExistException {
+        Patient firstCopy = patientDao.getById(patient.getId());
+        Patient secondCopy = patientDao.getById(patient.getId());
+        firstCopy.setName("Мария");
+        patientDao.update(firstCopy);
+
+        secondCopy.setName("Ольга");
+        try {
+            patientDao.update(secondCopy);
+            fail();
+        } catch (StaleElementException e) {
+            assertEquals("Мария", patientDao.getById(patient.getId()).getName());
+        }
+    }
+
+    @Test(expected = ElementDoesNotExistException.class)
+    public void updateMissingPatientTest() throws ElementDoesNotExistException {
+        Patient missingPatient = patientDao.getById(patient.getId());
+        missingPatient.setId(patient.getId() + 100);
+        try {
+            patientDao.update(missingPatient);
+        } catch (StaleElementException e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void updateAllWithStaleRecipeTest() throws ElementDoesNotExistException {
+        Recipe secondRecipe = recipeDao.getById(recipe.getId());
+        secondRecipe.setId(null);
+        recipeDao.add(secondRecipe);
+        Recipe staleRecipe = recipeDao.getById(recipe.getId());
+        recipe.setValidity(10);
+        recipeDao.update(recipe);
+
+        staleRecipe.setValidity(20);
+        secondRecipe.setValidity(30);
+        try {
+            recipeDao.updateAll(Arrays.asList(secondRecipe, staleRecipe));
+            fail();
+        } catch (StaleElementException e) {
+            assertEquals(10, recipeDao.getById(recipe.getId()).getValidity());
+            assertEquals(1, recipeDao.getById(secondRecipe.getId()).getValidity());
+            assertEquals(0, secondRecipe.getVersion());
+        }
+    }
+
+    @Test
+    public void concurrentPatientWritersTest() throws Exception {
+        runWriters(() -> {
+            Patient current = patientDao.getById(patient.getId());
+            current.setPhoneNumber(String.valueOf(Long.parseLong(current.getPhoneNumber()) + 1));
+            patientDao.update(current);
+        });
+
+        Patient stored = patientDao.getById(patient.getId());
+        assertEquals(String.valueOf(WRITER_QTY * INCREMENT_QTY), stored.getPhoneNumber());
+        assertEquals(WRITER_QTY * INCREMENT_QTY, stored.getVersion());
+    }
+
+    @Test
+    public void concurrentRecipeWritersTest() throws Exception {
+        runWriters(() -> {
+            Recipe current = recipeDao.getById(recipe.getId());
+            current.setValidity(current.getValidity() + 1);
+            recipeDao.update(current);
+        });
+
+        Recipe stored = recipeDao.getById(recipe.getId());
+        assertEquals(1 + WRITER_QTY * INCREMENT_QTY, stored.getValidity());
+        assertEquals(WRITER_QTY * INCREMENT_QTY, stored.getVersion());
+        assertEquals(Integer.valueOf(1), recipeDao.getRecipeQtyForAllDoctors().get(recipe.getDoctorId()));
+    }
+
+    /**
+     * Runs {@code INCREMENT_QTY} successful read-modify-write cycles on each of {@code WRITER_QTY} threads,
+     * a cycle failed because of a concurrent update is repeated.
+     *
+     * @param increment read-modify-write cycle
+     */
+    private static void runWriters(Increment increment) throws Exception {
+        ExecutorService writers = Executors.newFixedThreadPool(WRITER_QTY);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < WRITER_QTY; i++) {
+                results.add(writers.submit((Callable<Void>) () -> {
+                    start.await();
+                    int doneQty = 0;
+                    while (doneQty < INCREMENT_QTY) {
+                        try {
+                            increment.run();
+                            doneQty++;
+                        } catch (StaleElementException e) {
+                            // another writer was first, the cycle is repeated with the current values
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Increment {
+        void run() throws ElementDoesNotExistException;
+    }
+}
@@ -0,0 +1,84 @@
+package com.haulmont.testtask3.dao.implementations;
+
+import com.haulmont.testtask3.config.SchemaMigrator;
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RecipeDaoImplTest {
+    private static final LocalDate TODAY = LocalDate.of(2020, 12, 1);
+
+    private RecipeDaoImpl recipeDao;
+    private Doctor doctor;
+    private Patient patient;
+
+    @Before
+    public void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:hsqldb:mem:" + UUID.randomUUID(), "sa", "");
+        new SchemaMigrator(dataSource).migrate();
+        recipeDao = new RecipeDaoImpl(dataSource);
+        recipeDao.initialize();
+
+        doctor = new Doctor();
+        doctor.setName("Иван");
+        doctor.setSurname("Петров");
+        doctor.setSpecialization("Терапевт");
+        new DoctorDaoImpl(dataSource).add(doctor);
+
+        patient = new Patient();
+        patient.setName("Анна");
+        patient.setSurname("Смирнова");
+        patient.setPhoneNumber("0");
+        new PatientDaoImpl(dataSource).add(patient);
+    }
+
+    @Test
+    public void getExpiringIdsTest() {
+        Recipe expired = addRecipe(TODAY.minusDays(10), 5);
+        Recipe expiringTomorrow = addRecipe(TODAY.minusDays(1), 2);
+        Recipe expiringLater = addRecipe(TODAY, 30);
+
+        assertEquals(Collections.singletonList(expired.getId()), recipeDao.getExpiringIds(null, TODAY));
+        assertEquals(Collections.singletonList(expiringTomorrow.getId()),
+                recipeDao.getExpiringIds(TODAY, TODAY.plusDays(1)));
+        assertEquals(Arrays.asList(expired.getId(), expiringTomorrow.getId(), expiringLater.getId()),
+                recipeDao.getExpiringIds(null, TODAY.plusDays(30)));
+    }
+
+    @Test
+    public void lastExpirySweepDateTest() {
+        assertNull(recipeDao.getLastExpirySweepDate());
+
+        recipeDao.setLastExpirySweepDate(TODAY);
+        assertEquals(TODAY, recipeDao.getLastExpirySweepDate());
+
+        recipeDao.setLastExpirySweepDate(TODAY.plusDays(1));
+        assertEquals(TODAY.plusDays(1), recipeDao.getLastExpirySweepDate());
+    }
+
+    private Recipe addRecipe(LocalDate creationDate, int validity) {
+        Recipe recipe = new Recipe();
+        recipe.setDoctorId(doctor.getId());
+        recipe.setPatientId(patient.getId());
+        recipe.setDescription("Аспирин");
+        recipe.setCreationDate(Date.valueOf(creationDate));
+        recipe.setValidity(validity);
+        recipe.setPriority(Priority.NORMAL);
+        recipeDao.add(recipe);
+        return recipe;
+    }
+}
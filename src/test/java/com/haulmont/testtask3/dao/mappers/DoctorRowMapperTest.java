@@ -0,0 +1,56 @@
+package com.haulmont.testtask3.dao.mappers;
+
+import com.haulmont.testtask3.models.Doctor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DoctorRowMapperTest {
+
+    @Mock
+    private ResultSetMetaData metaData;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Test
+    public void mapRowTest() throws SQLException {
+        String[] labels = {"ID", "NAME", "SURNAME", "PATRONYMIC", "SPECIALIZATION", "VERSION"};
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        for (int i = 0; i < labels.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(labels[i]);
+        }
+        when(resultSet.getLong(1)).thenReturn(1L);
+        when(resultSet.getString(2)).thenReturn("Иван");
+        when(resultSet.getString(3)).thenReturn("Петров");
+        when(resultSet.getString(4)).thenReturn("Сергеевич");
+        when(resultSet.getString(5)).thenReturn("Терапевт");
+        when(resultSet.getInt(6)).thenReturn(2);
+
+        Doctor doctor = DoctorRowMapper.of(metaData).mapRow(resultSet);
+
+        assertEquals(Long.valueOf(1L), doctor.getId());
+        assertEquals(2, doctor.getVersion());
+        assertEquals("Иван", doctor.getName());
+        assertEquals("Петров", doctor.getSurname());
+        assertEquals("Сергеевич", doctor.getPatronymic());
+        assertEquals("Терапевт", doctor.getSpecialization());
+    }
+
+    @Test(expected = SQLException.class)
+    public void missingColumnTest() throws SQLException {
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(metaData.getColumnLabel(1)).thenReturn("ID");
+
+        DoctorRowMapper.of(metaData);
+    }
+}
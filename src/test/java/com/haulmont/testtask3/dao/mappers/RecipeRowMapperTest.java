@@ -0,0 +1,55 @@
+package com.haulmont.testtask3.dao.mappers;
+
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RecipeRowMapperTest {
+
+    @Mock
+    private ResultSetMetaData metaData;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Test
+    public void mapRowTest() throws SQLException {
+        String[] labels = {"PRIORITY", "ID", "DOCTOR_ID", "PATIENT_ID", "DESCRIPTION", "CREATION_DATE", "VALIDITY",
+                "VERSION"};
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        for (int i = 0; i < labels.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(labels[i]);
+        }
+        Date creationDate = new Date(0);
+        when(resultSet.getString(1)).thenReturn("CITO");
+        when(resultSet.getLong(2)).thenReturn(1L);
+        when(resultSet.getLong(3)).thenReturn(2L);
+        when(resultSet.getLong(4)).thenReturn(3L);
+        when(resultSet.getString(5)).thenReturn("Аспирин");
+        when(resultSet.getDate(6)).thenReturn(creationDate);
+        when(resultSet.getInt(7)).thenReturn(10);
+        when(resultSet.getInt(8)).thenReturn(4);
+
+        Recipe recipe = RecipeRowMapper.of(metaData).mapRow(resultSet);
+
+        assertEquals(Long.valueOf(1L), recipe.getId());
+        assertEquals(4, recipe.getVersion());
+        assertEquals(Long.valueOf(2L), recipe.getDoctorId());
+        assertEquals(Long.valueOf(3L), recipe.getPatientId());
+        assertEquals("Аспирин", recipe.getDescription());
+        assertEquals(creationDate, recipe.getCreationDate());
+        assertEquals(Priority.CITO, recipe.getPriority());
+    }
+}
@@ -0,0 +1,131 @@
+package com.haulmont.testtask3.services.admission;
+
+import com.haulmont.testtask3.services.exceptions.ServiceBusyException;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AdaptiveLimiterTest {
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void rejectWhenQueueIsFullTest() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 1, 1, 0, TimeUnit.SECONDS.toNanos(1), 2);
+        limiter.acquire();
+
+        try {
+            limiter.acquire();
+            fail();
+        } catch (ServiceBusyException e) {
+            assertEquals(1, limiter.getRejectedQty());
+            assertEquals(1, limiter.getInFlight());
+        }
+    }
+
+    @Test
+    public void rejectWhenWaitTimesOutTest() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 1, 1, 1, 10 * MILLIS, 2);
+        limiter.acquire();
+
+        try {
+            limiter.acquire();
+            fail();
+        } catch (ServiceBusyException e) {
+            assertEquals(0, limiter.getQueuedQty());
+            assertEquals(1, limiter.getRejectedQty());
+        }
+    }
+
+    @Test
+    public void admitQueuedCallOnReleaseTest() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 1, 1, 1, TimeUnit.SECONDS.toNanos(5), 2);
+        limiter.acquire();
+        CountDownLatch admitted = new CountDownLatch(1);
+        Thread waiting = new Thread(() -> {
+            limiter.acquire();
+            admitted.countDown();
+        });
+        waiting.start();
+        while (limiter.getQueuedQty() == 0) {
+            Thread.sleep(1);
+        }
+
+        limiter.release(MILLIS);
+
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(2, limiter.getAdmittedQty());
+    }
+
+    @Test
+    public void admitQueuedCallsInArrivalOrderTest() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 1, 1, 2, TimeUnit.SECONDS.toNanos(5), 2);
+        limiter.acquire();
+        CountDownLatch firstAdmitted = new CountDownLatch(1);
+        CountDownLatch secondAdmitted = new CountDownLatch(1);
+        new Thread(() -> {
+            limiter.acquire();
+            firstAdmitted.countDown();
+        }).start();
+        while (limiter.getQueuedQty() < 1) {
+            Thread.sleep(1);
+        }
+        new Thread(() -> {
+            limiter.acquire();
+            secondAdmitted.countDown();
+        }).start();
+        while (limiter.getQueuedQty() < 2) {
+            Thread.sleep(1);
+        }
+
+        try {
+            limiter.acquire();
+            fail();
+        } catch (ServiceBusyException e) {
+            assertEquals(1, limiter.getRejectedQty());
+        }
+
+        limiter.release(MILLIS);
+        assertTrue(firstAdmitted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, secondAdmitted.getCount());
+        assertEquals(1, limiter.getQueuedQty());
+
+        limiter.release(MILLIS);
+        assertTrue(secondAdmitted.await(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getQueuedQty());
+    }
+
+    @Test
+    public void shrinkLimitWhenCallsGetSlowerTest() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 8, 1, 8, 0, 0, 2);
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            limiter.release(MILLIS);
+        }
+        assertEquals(8, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            limiter.release(10 * MILLIS);
+        }
+        assertTrue(limiter.getLimit() < 8);
+    }
+
+    @Test
+    public void growLimitOnlyWhileItIsUsedTest() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 2, 1, 10, 0, 0, 2);
+        limiter.acquire();
+        limiter.acquire();
+        for (int i = 0; i < 100; i++) {
+            limiter.release(MILLIS);
+            limiter.acquire();
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+}
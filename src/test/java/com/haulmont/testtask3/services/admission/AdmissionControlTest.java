@@ -0,0 +1,110 @@
+package com.haulmont.testtask3.services.admission;
+
+import com.haulmont.testtask3.config.AdmissionProperties;
+import com.haulmont.testtask3.dao.interfaces.DoctorDao;
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.exceptions.ServiceBusyException;
+import com.haulmont.testtask3.services.implementations.DoctorServiceImpl;
+import com.haulmont.testtask3.services.implementations.RecipeServiceImpl;
+import com.haulmont.testtask3.services.interfaces.DoctorService;
+import com.haulmont.testtask3.services.interfaces.RecipeService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.aop.framework.ProxyFactory;
+
+import javax.validation.Validator;
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdmissionControlTest {
+
+    @Mock
+    private DoctorDao doctorDao;
+
+    @Mock
+    private RecipeDao recipeDao;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private EntityChangeBroadcaster changeBroadcaster;
+
+    private AdmissionControl admissionControl;
+    private RecipeService recipeService;
+    private DoctorService doctorService;
+
+    @Before
+    public void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        for (OperationClass operationClass : OperationClass.values()) {
+            properties.getBudget(operationClass).setInitialLimit(1);
+            properties.getBudget(operationClass).setMinLimit(1);
+            properties.getBudget(operationClass).setQueueCapacity(0);
+            properties.getBudget(operationClass).setMaxWait(Duration.ZERO);
+        }
+        admissionControl = new AdmissionControl(properties);
+        AdmissionAdvisor advisor = new AdmissionAdvisor(admissionControl);
+
+        recipeService = (RecipeService) createProxy(new RecipeServiceImpl(recipeDao, validator, changeBroadcaster),
+                advisor);
+        doctorService = (DoctorService) createProxy(new DoctorServiceImpl(doctorDao, recipeService, validator,
+                changeBroadcaster), advisor);
+    }
+
+    @Test
+    public void operationClassTest() throws Exception {
+        assertEquals(OperationClass.WRITE, AdmissionControl.getOperationClass(
+                DoctorService.class.getMethod("delete", Object.class), DoctorServiceImpl.class));
+        assertEquals(OperationClass.READ, AdmissionControl.getOperationClass(
+                DoctorService.class.getMethod("getById", long.class), DoctorServiceImpl.class));
+        assertEquals(OperationClass.REPORT, AdmissionControl.getOperationClass(
+                DoctorService.class.getMethod("getAll"), DoctorServiceImpl.class));
+        assertNull(AdmissionControl.getOperationClass(Object.class.getMethod("toString"), DoctorServiceImpl.class));
+    }
+
+    @Test
+    public void rejectWhenBudgetIsExhaustedTest() {
+        AdaptiveLimiter readLimiter = admissionControl.getLimiter(OperationClass.READ);
+        readLimiter.acquire();
+
+        try {
+            recipeService.getRecipeQtyByDoctorId(1);
+            fail();
+        } catch (ServiceBusyException e) {
+            assertEquals(1, readLimiter.getRejectedQty());
+        }
+        verifyNoInteractions(recipeDao);
+    }
+
+    @Test
+    public void nestedCallNotLimitedTest() throws Exception {
+        admissionControl.getLimiter(OperationClass.READ).acquire();
+        Doctor doctor = new Doctor();
+        doctor.setId(1L);
+
+        doctorService.delete(doctor);
+
+        verify(recipeDao).getRecipeQtyByDoctorId(1);
+        verify(doctorDao).delete(doctor);
+        AdaptiveLimiter writeLimiter = admissionControl.getLimiter(OperationClass.WRITE);
+        assertEquals(1, writeLimiter.getAdmittedQty());
+        assertEquals(0, writeLimiter.getInFlight());
+    }
+
+    private static Object createProxy(Object target, AdmissionAdvisor advisor) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvisor(advisor);
+        return proxyFactory.getProxy();
+    }
+}
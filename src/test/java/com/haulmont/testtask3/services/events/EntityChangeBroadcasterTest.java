@@ -0,0 +1,46 @@
+package com.haulmont.testtask3.services.events;
+
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Patient;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class EntityChangeBroadcasterTest {
+
+    @Test
+    public void publishToListenersOfEntityTypeTest() {
+        EntityChangeBroadcaster broadcaster = new EntityChangeBroadcaster();
+        List<EntityChangeEvent<Doctor>> doctorEvents = new ArrayList<>();
+        List<EntityChangeEvent<Patient>> patientEvents = new ArrayList<>();
+        broadcaster.register(Doctor.class, event -> {
+            throw new IllegalStateException();
+        });
+        broadcaster.register(Doctor.class, doctorEvents::add);
+        broadcaster.register(Patient.class, patientEvents::add);
+        Doctor doctor = new Doctor();
+
+        broadcaster.publish(Doctor.class, EntityChangeEvent.Type.UPDATED, doctor);
+
+        assertEquals(1, doctorEvents.size());
+        assertEquals(EntityChangeEvent.Type.UPDATED, doctorEvents.get(0).getType());
+        assertSame(doctor, doctorEvents.get(0).getEntity());
+        assertEquals(0, patientEvents.size());
+    }
+
+    @Test
+    public void unsubscribeTest() {
+        EntityChangeBroadcaster broadcaster = new EntityChangeBroadcaster();
+        List<EntityChangeEvent<Doctor>> doctorEvents = new ArrayList<>();
+        EntityChangeBroadcaster.Subscription subscription = broadcaster.register(Doctor.class, doctorEvents::add);
+
+        subscription.unsubscribe();
+        broadcaster.publish(Doctor.class, EntityChangeEvent.Type.ADDED, new Doctor());
+
+        assertEquals(0, doctorEvents.size());
+    }
+}
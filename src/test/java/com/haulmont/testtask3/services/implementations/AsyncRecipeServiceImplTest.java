@@ -0,0 +1,99 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.config.ServiceExecutor;
+import com.haulmont.testtask3.config.ServiceExecutorProperties;
+import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.interfaces.RecipeService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncRecipeServiceImplTest {
+
+    @Mock
+    private RecipeService recipeService;
+
+    private ServiceExecutor executor;
+
+    private AsyncRecipeServiceImpl testAsyncRecipeServiceImpl;
+
+    @Before
+    public void setUp() {
+        executor = new ServiceExecutor(1, 1,
+                ServiceExecutorProperties.ThreadType.PLATFORM.createThreadFactory("test-"));
+        testAsyncRecipeServiceImpl = new AsyncRecipeServiceImpl(recipeService, executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void getRecipeQtyByDoctorIdTest() throws Exception {
+        when(recipeService.getRecipeQtyByDoctorId(1L)).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith("test-"));
+            return 3;
+        });
+
+        assertEquals(Integer.valueOf(3), testAsyncRecipeServiceImpl.getRecipeQtyByDoctorId(1L).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void getByIdNotExistTest() throws Exception {
+        when(recipeService.getById(1L)).thenThrow(new ElementDoesNotExistException());
+
+        try {
+            testAsyncRecipeServiceImpl.getById(1L).get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ElementDoesNotExistException);
+        }
+    }
+
+    @Test
+    public void rejectedWhenQueueIsFullTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(recipeService.getCount()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return 0;
+        });
+
+        CompletableFuture<Integer> running = testAsyncRecipeServiceImpl.getCount();
+        started.await(1, TimeUnit.SECONDS);
+        CompletableFuture<Void> queued = testAsyncRecipeServiceImpl.delete(new Recipe());
+        CompletableFuture<Integer> rejected = testAsyncRecipeServiceImpl.getCount();
+
+        assertTrue(rejected.isCompletedExceptionally());
+        try {
+            rejected.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        assertEquals(1, executor.getRejectedQty());
+
+        release.countDown();
+        assertEquals(Integer.valueOf(0), running.get(1, TimeUnit.SECONDS));
+        queued.get(1, TimeUnit.SECONDS);
+        verify(recipeService).delete(any(Recipe.class));
+    }
+}
@@ -3,6 +3,10 @@ package com.haulmont.testtask3.services.implementations;
 import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
 import com.haulmont.testtask3.dao.interfaces.DoctorDao;
 import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.exceptions.BatchValidationException;
+import com.haulmont.testtask3.services.exceptions.UpdateConflictException;
 import com.haulmont.testtask3.services.exceptions.ValidationException;
 import com.haulmont.testtask3.services.interfaces.RecipeService;
 import org.junit.Test;
@@ -15,11 +19,14 @@ import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
 import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -34,14 +41,18 @@ public class DoctorServiceImplTest {
     @Mock
     private Validator validator;
 
+    @Mock
+    private EntityChangeBroadcaster changeBroadcaster;
+
     @InjectMocks
     private DoctorServiceImpl testDoctorServiceImpl;
 
     @Test
     public void addValidDoctorTest() throws ValidationException {
         Doctor doctor = new Doctor();
-        doNothing().when(doctorDao).add(doctor);
-        testDoctorServiceImpl.add(doctor);
+        when(doctorDao.add(doctor)).thenReturn(1L);
+        assertEquals(Long.valueOf(1), testDoctorServiceImpl.add(doctor));
+        verify(changeBroadcaster).publish(Doctor.class, EntityChangeEvent.Type.ADDED, doctor);
     }
 
     @Test(expected = ValidationException.class)
@@ -54,7 +65,8 @@ public class DoctorServiceImplTest {
     }
 
     @Test
-    public void updateValidDoctorTest() throws ElementDoesNotExistException, ValidationException {
+    public void updateValidDoctorTest() throws ElementDoesNotExistException, ValidationException,
+            UpdateConflictException {
         Doctor doctor = new Doctor();
         doctor.setId(1L);
         doNothing().when(doctorDao).update(doctor);
@@ -62,7 +74,8 @@ public class DoctorServiceImplTest {
     }
 
     @Test(expected = ValidationException.class)
-    public void updateInvalidDoctorTest() throws ValidationException, ElementDoesNotExistException {
+    public void updateInvalidDoctorTest() throws ValidationException, ElementDoesNotExistException,
+            UpdateConflictException {
         Doctor doctor = new Doctor();
         Set<ConstraintViolation<Doctor>> set = new HashSet<>();
         set.add(null);
@@ -71,7 +84,8 @@ public class DoctorServiceImplTest {
     }
 
     @Test(expected = ElementDoesNotExistException.class)
-    public void updateNotExistingDoctorTest() throws ElementDoesNotExistException, ValidationException {
+    public void updateNotExistingDoctorTest() throws ElementDoesNotExistException, ValidationException,
+            UpdateConflictException {
         Doctor doctor = new Doctor();
         doctor.setId(1L);
         doThrow(ElementDoesNotExistException.class).when(doctorDao).update(doctor);
@@ -127,4 +141,72 @@ public class DoctorServiceImplTest {
         List<Doctor> actualDoctors = testDoctorServiceImpl.getAll();
         assertEquals(expectedDoctors, actualDoctors);
     }
+
+    @Test
+    public void getPageTest() {
+        int offset = 10;
+        int limit = 5;
+        List<Doctor> expectedDoctors = new ArrayList<>();
+        when(doctorDao.getPage(offset, limit)).thenReturn(expectedDoctors);
+        List<Doctor> actualDoctors = testDoctorServiceImpl.getPage(offset, limit);
+        assertEquals(expectedDoctors, actualDoctors);
+    }
+
+    @Test
+    public void getPageAfterTest() {
+        long afterId = 10L;
+        int limit = 5;
+        List<Doctor> expectedDoctors = new ArrayList<>();
+        when(doctorDao.getPageAfter(afterId, limit)).thenReturn(expectedDoctors);
+        List<Doctor> actualDoctors = testDoctorServiceImpl.getPageAfter(afterId, limit);
+        assertEquals(expectedDoctors, actualDoctors);
+    }
+
+    @Test
+    public void getCountTest() {
+        int expectedCount = 3;
+        when(doctorDao.getCount()).thenReturn(expectedCount);
+        int actualCount = testDoctorServiceImpl.getCount();
+        assertEquals(expectedCount, actualCount);
+    }
+
+    @Test
+    public void addAllValidDoctorsTest() throws BatchValidationException {
+        List<Doctor> doctors = Arrays.asList(new Doctor(), new Doctor());
+        testDoctorServiceImpl.addAll(doctors);
+        verify(doctorDao).addAll(doctors);
+    }
+
+    @Test
+    public void addAllInvalidDoctorsTest() {
+        Doctor validDoctor = new Doctor();
+        Doctor invalidDoctor = new Doctor();
+        Set<ConstraintViolation<Doctor>> set = new HashSet<>();
+        set.add(null);
+        when(validator.validate(invalidDoctor)).thenReturn(set);
+        try {
+            testDoctorServiceImpl.addAll(Arrays.asList(validDoctor, invalidDoctor));
+            fail();
+        } catch (BatchValidationException e) {
+            assertEquals(1, e.getFailures().size());
+            assertTrue(e.getFailures().containsKey(1));
+        }
+        verify(doctorDao, never()).addAll(anyCollection());
+    }
+
+    @Test
+    public void updateAllValidDoctorsTest() throws BatchValidationException, ElementDoesNotExistException,
+            UpdateConflictException {
+        Doctor doctor = new Doctor();
+        doctor.setId(1L);
+        List<Doctor> doctors = Arrays.asList(doctor);
+        testDoctorServiceImpl.updateAll(doctors);
+        verify(doctorDao).updateAll(doctors);
+    }
+
+    @Test(expected = BatchValidationException.class)
+    public void updateAllDoctorsWithoutIdTest() throws BatchValidationException, ElementDoesNotExistException,
+            UpdateConflictException {
+        testDoctorServiceImpl.updateAll(Arrays.asList(new Doctor()));
+    }
 }
\ No newline at end of file
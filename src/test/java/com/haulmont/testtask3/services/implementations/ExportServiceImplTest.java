@@ -0,0 +1,103 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.models.RecipeListItem;
+import com.haulmont.testtask3.services.exports.ExportFormat;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ExportServiceImplTest {
+    private final RecipeFilter filter = new RecipeFilter();
+
+    @Mock
+    private RecipeDao recipeDao;
+
+    @InjectMocks
+    private ExportServiceImpl testExportServiceImpl;
+
+    @Before
+    public void setUp() {
+        List<RecipeListItem> recipes = Arrays.asList(
+                new RecipeListItem(1L, 0, 2L, 3L, "Аспирин, по одной таблетке", Date.valueOf("2020-05-01"), 10,
+                        Priority.CITO, "Анна Смирнова", "Иван Петров"),
+                new RecipeListItem(4L, 0, 5L, 6L, "\"Но-шпа\"\nутром", Date.valueOf("2020-06-02"), 20,
+                        Priority.NORMAL, "Мария Иванова", "Олег Сидоров"));
+        when(recipeDao.forEachFound(same(filter), any())).thenAnswer(invocation -> {
+            Consumer<RecipeListItem> consumer = invocation.getArgument(1);
+            recipes.forEach(consumer);
+            return recipes.size();
+        });
+    }
+
+    @Test
+    public void exportCsvTest() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertEquals(2, testExportServiceImpl.exportRecipes(filter, ExportFormat.CSV, false, outputStream));
+        assertEquals("id,doctor_id,doctor,patient_id,patient,description,creation_date,validity,priority\r\n"
+                        + "1,3,Иван Петров,2,Анна Смирнова,\"Аспирин, по одной таблетке\",2020-05-01,10,CITO\r\n"
+                        + "4,6,Олег Сидоров,5,Мария Иванова,\"\"\"Но-шпа\"\"\nутром\",2020-06-02,20,NORMAL\r\n",
+                new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void exportGzippedJsonTest() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertEquals(2, testExportServiceImpl.exportRecipes(filter, ExportFormat.JSON, true, outputStream));
+        assertEquals("[\n"
+                        + "{\"id\":1,\"doctorId\":3,\"doctor\":\"Иван Петров\",\"patientId\":2,"
+                        + "\"patient\":\"Анна Смирнова\",\"description\":\"Аспирин, по одной таблетке\","
+                        + "\"creationDate\":\"2020-05-01\",\"validity\":10,\"priority\":\"CITO\"},\n"
+                        + "{\"id\":4,\"doctorId\":6,\"doctor\":\"Олег Сидоров\",\"patientId\":5,"
+                        + "\"patient\":\"Мария Иванова\",\"description\":\"\\\"Но-шпа\\\"\\u000aутром\","
+                        + "\"creationDate\":\"2020-06-02\",\"validity\":20,\"priority\":\"NORMAL\"}\n"
+                        + "]\n",
+                gunzip(outputStream.toByteArray()));
+    }
+
+    @Test(expected = IOException.class)
+    public void exportToBrokenStreamTest() throws IOException {
+        OutputStream brokenStream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+        testExportServiceImpl.exportRecipes(filter, ExportFormat.CSV, false, brokenStream);
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            byte[] buffer = new byte[4096];
+            int length;
+            while ((length = inputStream.read(buffer)) > 0) {
+                outputStream.write(buffer, 0, length);
+            }
+        }
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -1,8 +1,13 @@
 package com.haulmont.testtask3.services.implementations;
 
 import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
+import com.haulmont.testtask3.dao.exceptions.StaleElementException;
 import com.haulmont.testtask3.dao.interfaces.PatientDao;
 import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.exceptions.BatchValidationException;
+import com.haulmont.testtask3.services.exceptions.UpdateConflictException;
 import com.haulmont.testtask3.services.exceptions.ValidationException;
 import com.haulmont.testtask3.services.interfaces.RecipeService;
 import org.junit.Test;
@@ -15,11 +20,14 @@ import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
 import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -34,14 +42,18 @@ public class PatientServiceImplTest {
     @Mock
     private Validator validator;
 
+    @Mock
+    private EntityChangeBroadcaster changeBroadcaster;
+
     @InjectMocks
     private PatientServiceImpl testPatientServiceImpl;
 
     @Test
     public void addValidPatientTest() throws ValidationException {
         Patient patient = new Patient();
-        doNothing().when(patientDao).add(patient);
-        testPatientServiceImpl.add(patient);
+        when(patientDao.add(patient)).thenReturn(1L);
+        assertEquals(Long.valueOf(1), testPatientServiceImpl.add(patient));
+        verify(changeBroadcaster).publish(Patient.class, EntityChangeEvent.Type.ADDED, patient);
     }
 
     @Test(expected = ValidationException.class)
@@ -54,7 +66,8 @@ public class PatientServiceImplTest {
     }
 
     @Test
-    public void updateValidPatientTest() throws ElementDoesNotExistException, ValidationException {
+    public void updateValidPatientTest() throws ElementDoesNotExistException, ValidationException,
+            UpdateConflictException {
         Patient patient = new Patient();
         patient.setId(1L);
         doNothing().when(patientDao).update(patient);
@@ -62,19 +75,34 @@ public class PatientServiceImplTest {
     }
 
     @Test(expected = ValidationException.class)
-    public void updateInvalidPatientTest() throws ValidationException, ElementDoesNotExistException {
+    public void updateInvalidPatientTest() throws ValidationException, ElementDoesNotExistException,
+            UpdateConflictException {
         Patient patient = new Patient();
         testPatientServiceImpl.update(patient);
     }
 
     @Test(expected = ElementDoesNotExistException.class)
-    public void updateNotExistingPatientTest() throws ElementDoesNotExistException, ValidationException {
+    public void updateNotExistingPatientTest() throws ElementDoesNotExistException, ValidationException,
+            UpdateConflictException {
         Patient patient = new Patient();
         patient.setId(-1L);
         doThrow(ElementDoesNotExistException.class).when(patientDao).update(patient);
         testPatientServiceImpl.update(patient);
     }
 
+    @Test
+    public void updateChangedPatientTest() throws ElementDoesNotExistException, ValidationException {
+        Patient patient = new Patient();
+        patient.setId(1L);
+        doThrow(StaleElementException.class).when(patientDao).update(patient);
+        try {
+            testPatientServiceImpl.update(patient);
+            fail();
+        } catch (UpdateConflictException e) {
+            verify(changeBroadcaster, never()).publish(any(), any(), any());
+        }
+    }
+
     @Test
     public void getByIdExistingPatientTest() throws ElementDoesNotExistException {
         long id = 1L;
@@ -123,4 +151,72 @@ public class PatientServiceImplTest {
         List<Patient> actualPatients = testPatientServiceImpl.getAll();
         assertEquals(expectedPatients, actualPatients);
     }
+
+    @Test
+    public void getPageTest() {
+        int offset = 10;
+        int limit = 5;
+        List<Patient> expectedPatients = new ArrayList<>();
+        when(patientDao.getPage(offset, limit)).thenReturn(expectedPatients);
+        List<Patient> actualPatients = testPatientServiceImpl.getPage(offset, limit);
+        assertEquals(expectedPatients, actualPatients);
+    }
+
+    @Test
+    public void getPageAfterTest() {
+        long afterId = 10L;
+        int limit = 5;
+        List<Patient> expectedPatients = new ArrayList<>();
+        when(patientDao.getPageAfter(afterId, limit)).thenReturn(expectedPatients);
+        List<Patient> actualPatients = testPatientServiceImpl.getPageAfter(afterId, limit);
+        assertEquals(expectedPatients, actualPatients);
+    }
+
+    @Test
+    public void getCountTest() {
+        int expectedCount = 3;
+        when(patientDao.getCount()).thenReturn(expectedCount);
+        int actualCount = testPatientServiceImpl.getCount();
+        assertEquals(expectedCount, actualCount);
+    }
+
+    @Test
+    public void addAllValidPatientsTest() throws BatchValidationException {
+        List<Patient> patients = Arrays.asList(new Patient(), new Patient());
+        testPatientServiceImpl.addAll(patients);
+        verify(patientDao).addAll(patients);
+    }
+
+    @Test
+    public void addAllInvalidPatientsTest() {
+        Patient validPatient = new Patient();
+        Patient invalidPatient = new Patient();
+        Set<ConstraintViolation<Patient>> set = new HashSet<>();
+        set.add(null);
+        when(validator.validate(invalidPatient)).thenReturn(set);
+        try {
+            testPatientServiceImpl.addAll(Arrays.asList(validPatient, invalidPatient));
+            fail();
+        } catch (BatchValidationException e) {
+            assertEquals(1, e.getFailures().size());
+            assertTrue(e.getFailures().containsKey(1));
+        }
+        verify(patientDao, never()).addAll(anyCollection());
+    }
+
+    @Test
+    public void updateAllValidPatientsTest() throws BatchValidationException, ElementDoesNotExistException,
+            UpdateConflictException {
+        Patient patient = new Patient();
+        patient.setId(1L);
+        List<Patient> patients = Arrays.asList(patient);
+        testPatientServiceImpl.updateAll(patients);
+        verify(patientDao).updateAll(patients);
+    }
+
+    @Test(expected = BatchValidationException.class)
+    public void updateAllPatientsWithoutIdTest() throws BatchValidationException, ElementDoesNotExistException,
+            UpdateConflictException {
+        testPatientServiceImpl.updateAll(Arrays.asList(new Patient()));
+    }
 }
\ No newline at end of file
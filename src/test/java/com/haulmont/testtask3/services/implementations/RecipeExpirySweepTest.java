@@ -0,0 +1,98 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RecipeExpirySweepTest {
+    private static final LocalDate TODAY = LocalDate.of(2020, 12, 1);
+
+    @Mock
+    private RecipeDao recipeDao;
+
+    @Mock
+    private EntityChangeBroadcaster changeBroadcaster;
+
+    @Mock
+    private Clock clock;
+
+    private RecipeExpirySweep recipeExpirySweep;
+
+    @Before
+    public void setUp() {
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        setToday(TODAY);
+        recipeExpirySweep = new RecipeExpirySweep(recipeDao, changeBroadcaster, clock);
+    }
+
+    @Test
+    public void sweepSameDayTest() {
+        when(recipeDao.getLastExpirySweepDate()).thenReturn(TODAY);
+
+        assertEquals(0, recipeExpirySweep.sweep());
+        verify(recipeDao, never()).getExpiringIds(any(), any());
+        verifyNoInteractions(changeBroadcaster);
+    }
+
+    @Test
+    public void sweepNextDaysTest() {
+        List<Long> expiredIds = Arrays.asList(3L, 5L);
+        when(recipeDao.getLastExpirySweepDate()).thenReturn(TODAY);
+        when(recipeDao.getExpiringIds(TODAY, TODAY.plusDays(2))).thenReturn(expiredIds);
+        setToday(TODAY.plusDays(2));
+
+        assertEquals(2, recipeExpirySweep.sweep());
+        assertEquals(0, recipeExpirySweep.sweep());
+        verify(changeBroadcaster, times(1)).publishAll(Recipe.class, EntityChangeEvent.Type.EXPIRED, expiredIds);
+        verify(recipeDao, times(1)).getExpiringIds(any(), any());
+        verify(recipeDao).setLastExpirySweepDate(TODAY.plusDays(2));
+    }
+
+    @Test
+    public void sweepDaysMissedWhileStoppedTest() {
+        when(recipeDao.getLastExpirySweepDate()).thenReturn(TODAY.minusDays(3));
+        when(recipeDao.getExpiringIds(TODAY.minusDays(3), TODAY)).thenReturn(Collections.singletonList(7L));
+
+        assertEquals(1, recipeExpirySweep.sweep());
+        verify(changeBroadcaster).publishAll(Recipe.class, EntityChangeEvent.Type.EXPIRED,
+                Collections.singletonList(7L));
+    }
+
+    @Test
+    public void firstSweepTest() {
+        assertEquals(0, recipeExpirySweep.sweep());
+        verify(recipeDao).setLastExpirySweepDate(TODAY);
+        verify(recipeDao, never()).getExpiringIds(any(), any());
+    }
+
+    @Test
+    public void sweepWithoutExpiredRecipesTest() {
+        when(recipeDao.getLastExpirySweepDate()).thenReturn(TODAY);
+        when(recipeDao.getExpiringIds(TODAY, TODAY.plusDays(1))).thenReturn(Collections.emptyList());
+        setToday(TODAY.plusDays(1));
+
+        assertEquals(0, recipeExpirySweep.sweep());
+        verifyNoInteractions(changeBroadcaster);
+    }
+
+    private void setToday(LocalDate today) {
+        when(clock.instant()).thenReturn(today.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
@@ -3,6 +3,12 @@ package com.haulmont.testtask3.services.implementations;
 import com.haulmont.testtask3.dao.exceptions.ElementDoesNotExistException;
 import com.haulmont.testtask3.dao.interfaces.RecipeDao;
 import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.models.RecipeFilter;
+import com.haulmont.testtask3.models.RecipeListItem;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.exceptions.BatchValidationException;
+import com.haulmont.testtask3.services.exceptions.UpdateConflictException;
 import com.haulmont.testtask3.services.exceptions.ValidationException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -13,11 +19,16 @@ import org.mockito.junit.MockitoJUnitRunner;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -29,14 +40,18 @@ public class RecipeServiceImplTest {
     @Mock
     private Validator validator;
 
+    @Mock
+    private EntityChangeBroadcaster changeBroadcaster;
+
     @InjectMocks
     private RecipeServiceImpl testRecipeServiceImpl;
 
     @Test
     public void addValidRecipeTest() throws ValidationException {
         Recipe recipe = new Recipe();
-        doNothing().when(recipeDao).add(recipe);
-        testRecipeServiceImpl.add(recipe);
+        when(recipeDao.add(recipe)).thenReturn(1L);
+        assertEquals(Long.valueOf(1), testRecipeServiceImpl.add(recipe));
+        verify(changeBroadcaster).publish(Recipe.class, EntityChangeEvent.Type.ADDED, recipe);
     }
 
     @Test(expected = ValidationException.class)
@@ -49,7 +64,8 @@ public class RecipeServiceImplTest {
     }
 
     @Test
-    public void updateValidRecipeTest() throws ElementDoesNotExistException, ValidationException {
+    public void updateValidRecipeTest() throws ElementDoesNotExistException, ValidationException,
+            UpdateConflictException {
         Recipe recipe = new Recipe();
         recipe.setId(1L);
         doNothing().when(recipeDao).update(recipe);
@@ -57,13 +73,15 @@ public class RecipeServiceImplTest {
     }
 
     @Test(expected = ValidationException.class)
-    public void updateInvalidRecipeTest() throws ValidationException, ElementDoesNotExistException {
+    public void updateInvalidRecipeTest() throws ValidationException, ElementDoesNotExistException,
+            UpdateConflictException {
         Recipe recipe = new Recipe();
         testRecipeServiceImpl.update(recipe);
     }
 
     @Test(expected = ElementDoesNotExistException.class)
-    public void updateNotExistingRecipeTest() throws ValidationException, ElementDoesNotExistException {
+    public void updateNotExistingRecipeTest() throws ValidationException, ElementDoesNotExistException,
+            UpdateConflictException {
         Recipe recipe = new Recipe();
         recipe.setId(1L);
         doThrow(ElementDoesNotExistException.class).when(recipeDao).update(recipe);
@@ -129,14 +147,129 @@ public class RecipeServiceImplTest {
         assertEquals(expectedQty, actualQty);
     }
 
+    @Test
+    public void getRecipeQtyForAllDoctorsTest() {
+        Map<Long, Integer> expectedQtys = new HashMap<>();
+        expectedQtys.put(1L, 2);
+        when(recipeDao.getRecipeQtyForAllDoctors()).thenReturn(expectedQtys);
+        Map<Long, Integer> actualQtys = testRecipeServiceImpl.getRecipeQtyForAllDoctors();
+        assertEquals(expectedQtys, actualQtys);
+    }
+
     @Test
     public void findAllTest() {
-        long patientId = 1L;
-        String priority = "";
-        String description = "";
+        RecipeFilter filter = new RecipeFilter(1L, "", "");
+        List<RecipeListItem> expectedRecipes = new ArrayList<>();
+        when(recipeDao.findAll(filter)).thenReturn(expectedRecipes);
+        List<RecipeListItem> actualRecipes = testRecipeServiceImpl.findAll(filter);
+        assertEquals(expectedRecipes, actualRecipes);
+    }
+
+    @Test
+    public void getPageTest() {
+        int offset = 10;
+        int limit = 5;
+        List<Recipe> expectedRecipes = new ArrayList<>();
+        when(recipeDao.getPage(offset, limit)).thenReturn(expectedRecipes);
+        List<Recipe> actualRecipes = testRecipeServiceImpl.getPage(offset, limit);
+        assertEquals(expectedRecipes, actualRecipes);
+    }
+
+    @Test
+    public void getPageAfterTest() {
+        long afterId = 10L;
+        int limit = 5;
         List<Recipe> expectedRecipes = new ArrayList<>();
-        when(recipeDao.findAll(patientId, priority, description)).thenReturn(expectedRecipes);
-        List<Recipe> actualRecipes = testRecipeServiceImpl.findAll(patientId, priority, description);
+        when(recipeDao.getPageAfter(afterId, limit)).thenReturn(expectedRecipes);
+        List<Recipe> actualRecipes = testRecipeServiceImpl.getPageAfter(afterId, limit);
+        assertEquals(expectedRecipes, actualRecipes);
+    }
+
+    @Test
+    public void getCountTest() {
+        int expectedCount = 3;
+        when(recipeDao.getCount()).thenReturn(expectedCount);
+        int actualCount = testRecipeServiceImpl.getCount();
+        assertEquals(expectedCount, actualCount);
+    }
+
+    @Test
+    public void findPageTest() {
+        RecipeFilter filter = new RecipeFilter(1L, "", "");
+        int offset = 10;
+        int limit = 5;
+        List<RecipeListItem> expectedRecipes = new ArrayList<>();
+        when(recipeDao.findPage(filter, offset, limit)).thenReturn(expectedRecipes);
+        List<RecipeListItem> actualRecipes = testRecipeServiceImpl.findPage(filter, offset, limit);
+        assertEquals(expectedRecipes, actualRecipes);
+    }
+
+    @Test
+    public void findCountTest() {
+        RecipeFilter filter = new RecipeFilter(1L, "", "");
+        int expectedCount = 3;
+        when(recipeDao.findCount(filter)).thenReturn(expectedCount);
+        int actualCount = testRecipeServiceImpl.findCount(filter);
+        assertEquals(expectedCount, actualCount);
+    }
+
+    @Test
+    public void getListItemPageTest() {
+        int offset = 10;
+        int limit = 5;
+        List<RecipeListItem> expectedRecipes = new ArrayList<>();
+        when(recipeDao.getListItemPage(offset, limit)).thenReturn(expectedRecipes);
+        List<RecipeListItem> actualRecipes = testRecipeServiceImpl.getListItemPage(offset, limit);
+        assertEquals(expectedRecipes, actualRecipes);
+    }
+
+    @Test
+    public void getListItemPageAfterTest() {
+        long afterId = 10L;
+        int limit = 5;
+        List<RecipeListItem> expectedRecipes = new ArrayList<>();
+        when(recipeDao.getListItemPageAfter(afterId, limit)).thenReturn(expectedRecipes);
+        List<RecipeListItem> actualRecipes = testRecipeServiceImpl.getListItemPageAfter(afterId, limit);
         assertEquals(expectedRecipes, actualRecipes);
     }
+
+    @Test
+    public void addAllValidRecipesTest() throws BatchValidationException {
+        List<Recipe> recipes = Arrays.asList(new Recipe(), new Recipe());
+        testRecipeServiceImpl.addAll(recipes);
+        verify(recipeDao).addAll(recipes);
+    }
+
+    @Test
+    public void addAllInvalidRecipesTest() {
+        Recipe validRecipe = new Recipe();
+        Recipe invalidRecipe = new Recipe();
+        Set<ConstraintViolation<Recipe>> set = new HashSet<>();
+        set.add(null);
+        when(validator.validate(invalidRecipe)).thenReturn(set);
+        try {
+            testRecipeServiceImpl.addAll(Arrays.asList(validRecipe, invalidRecipe));
+            fail();
+        } catch (BatchValidationException e) {
+            assertEquals(1, e.getFailures().size());
+            assertTrue(e.getFailures().containsKey(1));
+        }
+        verify(recipeDao, never()).addAll(anyCollection());
+    }
+
+    @Test
+    public void updateAllValidRecipesTest() throws BatchValidationException, ElementDoesNotExistException,
+            UpdateConflictException {
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+        List<Recipe> recipes = Arrays.asList(recipe);
+        testRecipeServiceImpl.updateAll(recipes);
+        verify(recipeDao).updateAll(recipes);
+    }
+
+    @Test(expected = BatchValidationException.class)
+    public void updateAllRecipesWithoutIdTest() throws BatchValidationException, ElementDoesNotExistException,
+            UpdateConflictException {
+        testRecipeServiceImpl.updateAll(Arrays.asList(new Recipe()));
+    }
 }
\ No newline at end of file
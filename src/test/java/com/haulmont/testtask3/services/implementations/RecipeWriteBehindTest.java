@@ -0,0 +1,167 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import com.haulmont.testtask3.services.exceptions.ValidationException;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RecipeWriteBehindTest {
+    private static final long LONG_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Mock
+    private RecipeDao recipeDao;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private EntityChangeBroadcaster changeBroadcaster;
+
+    @Mock
+    private ConstraintViolation<Recipe> violation;
+
+    private RecipeWriteBehind writeBehind;
+
+    @After
+    public void tearDown() {
+        writeBehind.stop();
+    }
+
+    @Test
+    public void addGroupWithOneCommitTest() throws Exception {
+        AtomicLong nextId = new AtomicLong(1);
+        List<Integer> groupSizes = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            Collection<Recipe> recipes = invocation.getArgument(0);
+            groupSizes.add(recipes.size());
+            recipes.forEach(recipe -> recipe.setId(nextId.getAndIncrement()));
+            return null;
+        }).when(recipeDao).addAll(anyCollection());
+        writeBehind = new RecipeWriteBehind(recipeDao, validator, changeBroadcaster, 10, 3, LONG_DELAY_NANOS);
+
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(writeBehind.add(new Recipe()));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Long.valueOf(i + 1), futures.get(i).get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(Collections.singletonList(3), groupSizes);
+        verify(recipeDao, never()).add(any());
+        verify(changeBroadcaster, times(3)).publish(eq(Recipe.class), eq(EntityChangeEvent.Type.ADDED), any());
+    }
+
+    @Test
+    public void addInvalidRecipeTest() throws Exception {
+        Recipe recipe = new Recipe();
+        when(validator.validate(recipe)).thenReturn(Collections.singleton(violation));
+        writeBehind = new RecipeWriteBehind(recipeDao, validator, changeBroadcaster, 10, 3, 0);
+
+        try {
+            writeBehind.add(recipe).get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ValidationException);
+        }
+        verifyNoInteractions(recipeDao);
+    }
+
+    @Test
+    public void addOneByOneAfterFailedGroupTest() throws Exception {
+        Recipe validRecipe = new Recipe();
+        Recipe failingRecipe = new Recipe();
+        when(recipeDao.add(validRecipe)).thenAnswer(invocation -> {
+            validRecipe.setId(7L);
+            return 7L;
+        });
+        when(recipeDao.add(failingRecipe)).thenReturn(null);
+        writeBehind = new RecipeWriteBehind(recipeDao, validator, changeBroadcaster, 10, 2, LONG_DELAY_NANOS);
+
+        CompletableFuture<Long> validFuture = writeBehind.add(validRecipe);
+        CompletableFuture<Long> failingFuture = writeBehind.add(failingRecipe);
+
+        assertEquals(Long.valueOf(7), validFuture.get(1, TimeUnit.SECONDS));
+        try {
+            failingFuture.get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        verify(recipeDao).addAll(anyCollection());
+        verify(changeBroadcaster).publish(Recipe.class, EntityChangeEvent.Type.ADDED, validRecipe);
+        verify(changeBroadcaster, never()).publish(Recipe.class, EntityChangeEvent.Type.ADDED, failingRecipe);
+    }
+
+    @Test
+    public void completeWithWriteErrorTest() throws Exception {
+        Recipe recipe = new Recipe();
+        DataIntegrityViolationException writeError = new DataIntegrityViolationException("foreign key violation");
+        doThrow(writeError).when(recipeDao).addAll(anyCollection());
+        when(recipeDao.add(recipe)).thenThrow(writeError);
+        writeBehind = new RecipeWriteBehind(recipeDao, validator, changeBroadcaster, 10, 1, 0);
+
+        try {
+            writeBehind.add(recipe).get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals(writeError, e.getCause());
+        }
+        verify(changeBroadcaster, never()).publish(any(), any(), any());
+    }
+
+    @Test
+    public void addToFullQueueTest() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            Collection<Recipe> recipes = invocation.getArgument(0);
+            recipes.forEach(recipe -> recipe.setId(1L));
+            return null;
+        }).when(recipeDao).addAll(anyCollection());
+        writeBehind = new RecipeWriteBehind(recipeDao, validator, changeBroadcaster, 1, 1, 0);
+
+        CompletableFuture<Long> writtenFuture = writeBehind.add(new Recipe());
+        assertTrue(writing.await(1, TimeUnit.SECONDS));
+        CompletableFuture<Long> queuedFuture = writeBehind.add(new Recipe());
+        CompletableFuture<Long> rejectedFuture = writeBehind.add(new Recipe());
+
+        try {
+            rejectedFuture.get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        release.countDown();
+        assertEquals(Long.valueOf(1), writtenFuture.get(1, TimeUnit.SECONDS));
+        assertEquals(Long.valueOf(1), queuedFuture.get(1, TimeUnit.SECONDS));
+    }
+}
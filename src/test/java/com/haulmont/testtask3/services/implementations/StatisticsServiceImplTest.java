@@ -0,0 +1,100 @@
+package com.haulmont.testtask3.services.implementations;
+
+import com.haulmont.testtask3.config.StatisticsProperties;
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.DoctorStatistics;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.events.EntityChangeBroadcaster;
+import com.haulmont.testtask3.services.events.EntityChangeEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StatisticsServiceImplTest {
+    private static final long TTL_NANOS = Duration.ofMinutes(1).toNanos();
+
+    @Mock
+    private RecipeDao recipeDao;
+
+    private final EntityChangeBroadcaster changeBroadcaster = new EntityChangeBroadcaster();
+    private final List<Runnable> tasks = new ArrayList<>();
+    private long nanoTime;
+    private StatisticsServiceImpl testStatisticsServiceImpl;
+
+    @Before
+    public void setUp() {
+        StatisticsProperties statisticsProperties = new StatisticsProperties();
+        statisticsProperties.setTtl(Duration.ofNanos(TTL_NANOS));
+        statisticsProperties.setMaxWait(Duration.ZERO);
+        testStatisticsServiceImpl = new StatisticsServiceImpl(recipeDao, changeBroadcaster, tasks::add,
+                statisticsProperties, () -> nanoTime);
+    }
+
+    @Test
+    public void getStatisticsByDoctorIdTest() {
+        DoctorStatistics statistics = new DoctorStatistics(1L);
+        statistics.setRecipeQty(Priority.CITO, 2);
+        when(recipeDao.getStatisticsForAllDoctors()).thenReturn(Collections.singletonMap(1L, statistics));
+
+        assertSame(statistics, testStatisticsServiceImpl.getStatisticsByDoctorId(1L));
+        assertEquals(2, testStatisticsServiceImpl.getStatisticsByDoctorId(1L).getRecipeQty(Priority.CITO));
+        assertEquals(0, testStatisticsServiceImpl.getStatisticsByDoctorId(2L).getRecipeQty());
+        verify(recipeDao, times(1)).getStatisticsForAllDoctors();
+    }
+
+    @Test
+    public void recipeChangeTest() {
+        Map<Long, DoctorStatistics> oldStatistics = Collections.singletonMap(1L, new DoctorStatistics(1L));
+        Map<Long, DoctorStatistics> newStatistics = Collections.singletonMap(2L, new DoctorStatistics(2L));
+        when(recipeDao.getStatisticsForAllDoctors()).thenReturn(oldStatistics).thenReturn(newStatistics);
+        testStatisticsServiceImpl.getStatisticsForAllDoctors();
+
+        changeBroadcaster.publish(Recipe.class, EntityChangeEvent.Type.ADDED, new Recipe());
+
+        assertEquals(oldStatistics, testStatisticsServiceImpl.getStatisticsForAllDoctors());
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertEquals(newStatistics, testStatisticsServiceImpl.getStatisticsForAllDoctors());
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void expiredRecipeTest() {
+        when(recipeDao.getStatisticsForAllDoctors()).thenReturn(Collections.emptyMap());
+        testStatisticsServiceImpl.getStatisticsForAllDoctors();
+
+        changeBroadcaster.publishAll(Recipe.class, EntityChangeEvent.Type.EXPIRED, Collections.singletonList(1L));
+        testStatisticsServiceImpl.getStatisticsForAllDoctors();
+
+        assertEquals(0, tasks.size());
+    }
+
+    @Test
+    public void ttlTest() {
+        when(recipeDao.getStatisticsForAllDoctors()).thenReturn(Collections.emptyMap());
+        testStatisticsServiceImpl.getStatisticsForAllDoctors();
+
+        nanoTime += TTL_NANOS - 1;
+        testStatisticsServiceImpl.getStatisticsForAllDoctors();
+        assertEquals(0, tasks.size());
+
+        nanoTime += 1;
+        testStatisticsServiceImpl.getStatisticsForAllDoctors();
+        testStatisticsServiceImpl.getStatisticsForAllDoctors();
+        assertEquals(1, tasks.size());
+    }
+}
@@ -0,0 +1,163 @@
+package com.haulmont.testtask3.services.imports;
+
+import com.haulmont.testtask3.dao.interfaces.DoctorDao;
+import com.haulmont.testtask3.dao.interfaces.PatientDao;
+import com.haulmont.testtask3.dao.interfaces.RecipeDao;
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import com.haulmont.testtask3.services.exceptions.ImportException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.io.StringReader;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CsvImportPipelineTest {
+    private static final String HEADER = "doctor,patient_phone,description,creation_date,validity,priority\n";
+
+    @Mock
+    private RecipeDao recipeDao;
+
+    @Mock
+    private DoctorDao doctorDao;
+
+    @Mock
+    private PatientDao patientDao;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final List<Recipe> writtenRecipes = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        Doctor doctor = new Doctor();
+        doctor.setId(1L);
+        doctor.setName("Иван");
+        doctor.setSurname("Петров");
+        doctor.setPatronymic("Сергеевич");
+        when(doctorDao.getAll()).thenReturn(Collections.singletonList(doctor));
+
+        Patient patient = new Patient();
+        patient.setId(2L);
+        patient.setPhoneNumber("89000000000");
+        when(patientDao.getAll()).thenReturn(Collections.singletonList(patient));
+
+        AtomicLong nextId = new AtomicLong(1);
+        doAnswer(invocation -> {
+            Collection<Recipe> recipes = invocation.getArgument(0);
+            for (Recipe recipe : recipes) {
+                recipe.setId(nextId.getAndIncrement());
+                writtenRecipes.add(recipe);
+            }
+            return null;
+        }).when(recipeDao).addAll(anyCollection());
+    }
+
+    @Test
+    public void importValidRecordsInFileOrderTest() throws ImportException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 1000; i++) {
+            csv.append("Петров Иван Сергеевич,89000000000,Аспирин ").append(i).append(",2020-05-01,30,normal\n");
+        }
+
+        List<ImportProgress> progresses = new ArrayList<>();
+        ImportProgress progress = runPipeline(csv.toString(), progresses);
+
+        assertEquals(1000, progress.getImportedQty());
+        assertEquals(0, progress.getRejectedQty());
+        assertTrue(progress.isFinished());
+        assertEquals(1000 / 7 + 2, progresses.size());
+        assertEquals(1000, writtenRecipes.size());
+        for (int i = 0; i < writtenRecipes.size(); i++) {
+            Recipe recipe = writtenRecipes.get(i);
+            assertEquals("Аспирин " + i, recipe.getDescription());
+            assertEquals(Long.valueOf(1), recipe.getDoctorId());
+            assertEquals(Long.valueOf(2), recipe.getPatientId());
+            assertEquals(Date.valueOf("2020-05-01"), recipe.getCreationDate());
+            assertEquals(Priority.NORMAL, recipe.getPriority());
+        }
+    }
+
+    @Test
+    public void rejectInvalidRecordsTest() throws ImportException {
+        String csv = HEADER
+                + "Петров Иван Сергеевич,89000000000,Аспирин,2020-05-01,30,NORMAL\n"
+                + "Сидоров Иван Сергеевич,89000000000,Аспирин,2020-05-01,30,NORMAL\n"
+                + "Петров Иван Сергеевич,89000000001,Аспирин,2020-05-01,30,NORMAL\n"
+                + "Петров Иван Сергеевич,89000000000,,2020-05-01,30,NORMAL\n"
+                + "Петров Иван Сергеевич,89000000000,Аспирин,01.05.2020,30,NORMAL\n"
+                + "Петров Иван Сергеевич,89000000000,Аспирин,2020-05-01,30,SOON\n"
+                + "петров  иван сергеевич,89000000000,Ибупрофен,2020-05-01,10,CITO\n";
+
+        ImportProgress progress = runPipeline(csv, new ArrayList<>());
+
+        assertEquals(2, progress.getImportedQty());
+        assertEquals(5, progress.getRejectedQty());
+        List<Long> rejectedLines = new ArrayList<>();
+        for (ImportReject reject : progress.getRejects()) {
+            rejectedLines.add(reject.getLineNumber());
+        }
+        assertEquals(Arrays.asList(3L, 4L, 5L, 6L, 7L), rejectedLines);
+        assertTrue(progress.getRejects().get(0).getReason().startsWith(RecipeImport.DOCTOR_COLUMN));
+        assertTrue(progress.getRejects().get(2).getReason().startsWith("description"));
+    }
+
+    @Test
+    public void writeFailedChunkOneByOneTest() throws ImportException {
+        doAnswer(invocation -> {
+            Collection<Recipe> recipes = invocation.getArgument(0);
+            if (recipes.stream().anyMatch(recipe -> recipe.getValidity() == 99)) {
+                throw new DataIntegrityViolationException("integrity constraint violation",
+                        new SQLException("foreign key no parent"));
+            }
+            for (Recipe recipe : recipes) {
+                recipe.setId((long) writtenRecipes.size() + 1);
+                writtenRecipes.add(recipe);
+            }
+            return null;
+        }).when(recipeDao).addAll(anyCollection());
+        String csv = HEADER
+                + "Петров Иван Сергеевич,89000000000,Аспирин,2020-05-01,30,NORMAL\n"
+                + "Петров Иван Сергеевич,89000000000,Аспирин,2020-05-01,99,NORMAL\n"
+                + "Петров Иван Сергеевич,89000000000,Ибупрофен,2020-05-01,10,CITO\n";
+
+        ImportProgress progress = runPipeline(csv, new ArrayList<>());
+
+        assertEquals(2, progress.getImportedQty());
+        assertEquals(1, progress.getRejectedQty());
+        assertEquals(3L, progress.getRejects().get(0).getLineNumber());
+        assertEquals("not written: foreign key no parent", progress.getRejects().get(0).getReason());
+        assertEquals(2, writtenRecipes.size());
+    }
+
+    @Test(expected = ImportException.class)
+    public void rejectFileWithoutRequiredColumnTest() throws ImportException {
+        runPipeline("doctor,patient_phone,description\n", new ArrayList<>());
+    }
+
+    private ImportProgress runPipeline(String csv, List<ImportProgress> progresses) throws ImportException {
+        RecipeImport recipeImport = new RecipeImport(recipeDao, doctorDao, patientDao);
+        return new CsvImportPipeline<>(recipeImport, validator, 7, 3).run(new StringReader(csv), progresses::add);
+    }
+}
@@ -0,0 +1,86 @@
+package com.haulmont.testtask3.services.imports;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CsvReaderTest {
+
+    @Test
+    public void readPlainRecordsTest() throws IOException {
+        List<CsvRecord> records = readAll("name,surname\nИван,Петров\n");
+        assertEquals(2, records.size());
+        assertEquals(Arrays.asList("name", "surname"), values(records.get(0)));
+        assertEquals(Arrays.asList("Иван", "Петров"), values(records.get(1)));
+        assertEquals(2, records.get(1).getLineNumber());
+    }
+
+    @Test
+    public void readQuotedFieldsTest() throws IOException {
+        List<CsvRecord> records = readAll("\"a,b\",\"say \"\"hi\"\"\",\"\"\r\n");
+        assertEquals(Arrays.asList("a,b", "say \"hi\"", ""), values(records.get(0)));
+    }
+
+    @Test
+    public void readLineBreakInQuotedFieldTest() throws IOException {
+        List<CsvRecord> records = readAll("description,validity\r\n\"first\r\nsecond\",5\r\nthird,7");
+        assertEquals(3, records.size());
+        assertEquals(Arrays.asList("first\r\nsecond", "5"), values(records.get(1)));
+        assertEquals(Arrays.asList("third", "7"), values(records.get(2)));
+        assertEquals(4, records.get(2).getLineNumber());
+    }
+
+    @Test
+    public void skipByteOrderMarkAndBlankLinesTest() throws IOException {
+        List<CsvRecord> records = readAll("\uFEFFname\n\n\r\nИван\n\n");
+        assertEquals(2, records.size());
+        assertEquals(Arrays.asList("name"), values(records.get(0)));
+        assertEquals(Arrays.asList("Иван"), values(records.get(1)));
+        assertEquals(4, records.get(1).getLineNumber());
+    }
+
+    @Test
+    public void readEmptyFieldsTest() throws IOException {
+        List<CsvRecord> records = readAll("a,,c,\n");
+        assertEquals(Arrays.asList("a", "", "c", ""), values(records.get(0)));
+        assertEquals("", records.get(0).get(10));
+    }
+
+    @Test
+    public void readEmptyStreamTest() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader(""))) {
+            assertNull(reader.read());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void readUnclosedQuoteTest() throws IOException {
+        readAll("name\n\"Иван\n");
+    }
+
+    private static List<CsvRecord> readAll(String csv) throws IOException {
+        List<CsvRecord> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            CsvRecord record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static List<String> values(CsvRecord record) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < record.size(); i++) {
+            values.add(record.get(i));
+        }
+        return values;
+    }
+}
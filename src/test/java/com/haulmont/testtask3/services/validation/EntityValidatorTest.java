@@ -0,0 +1,161 @@
+package com.haulmont.testtask3.services.validation;
+
+import com.haulmont.testtask3.models.Doctor;
+import com.haulmont.testtask3.models.Patient;
+import com.haulmont.testtask3.models.Priority;
+import com.haulmont.testtask3.models.Recipe;
+import org.junit.Test;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.constraints.Email;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class EntityValidatorTest {
+    private final Validator hibernateValidator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final Validator delegate = mock(Validator.class, delegatesTo(hibernateValidator));
+    private final EntityValidator validator = new EntityValidator(delegate);
+
+    @Test
+    public void validateValidEntitiesWithoutDelegateTest() {
+        assertTrue(validator.validate(createPatient("Иван", "12345678901")).isEmpty());
+        assertTrue(validator.validate(createDoctor("Ivan", "Терапевт")).isEmpty());
+        assertTrue(validator.validate(createRecipe(1L, "Аспирин", 30)).isEmpty());
+
+        verify(delegate, never()).validate(any());
+    }
+
+    @Test
+    public void validateSameAsDelegateTest() {
+        List<Object> entities = Arrays.asList(
+                createPatient("Иван", "12345678901"),
+                createPatient("", "12345678901"),
+                createPatient(null, "12345678901"),
+                createPatient("Ivan1", "12345678901"),
+                createPatient("Ёжик", "12345678901"),
+                createPatient(repeat('a', 50), "12345678901"),
+                createPatient(repeat('a', 51), "12345678901"),
+                createPatient("Иван", "1234567890"),
+                createPatient("Иван", "1234567890a"),
+                createPatient("Иван", "12345678901\n"),
+                createDoctor("Ivan", ""),
+                createDoctor("Ivan Ivan", "Хирург"),
+                createRecipe(1L, "Аспирин", 30),
+                createRecipe(0L, "Аспирин", 30),
+                createRecipe(null, "Аспирин", 30),
+                createRecipe(1L, "", 0),
+                createRecipe(1L, repeat('d', 200), -1),
+                createRecipe(1L, repeat('d', 201), 1),
+                new Recipe());
+
+        for (Object entity : entities) {
+            assertEquals(describe(hibernateValidator.validate(entity)), describe(validator.validate(entity)));
+        }
+    }
+
+    @Test
+    public void validateNotCompiledClassTest() {
+        Contact contact = new Contact();
+        contact.email = "not an email";
+
+        assertFalse(validator.validate(contact).isEmpty());
+        contact.email = "ivan@example.com";
+        assertTrue(validator.validate(contact).isEmpty());
+
+        verify(delegate, times(2)).validate(any());
+    }
+
+    @Test
+    public void validateAllTest() {
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < EntityValidator.PARALLEL_THRESHOLD * 2; i++) {
+            patients.add(createPatient(i % 1000 == 0 ? "Ivan1" : "Ivan", "12345678901"));
+        }
+
+        List<Set<ConstraintViolation<Patient>>> results = validator.validateAll(patients);
+
+        assertEquals(patients.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i % 1000 == 0, !results.get(i).isEmpty());
+        }
+    }
+
+    @Test
+    public void compileCharClassPatternTest() {
+        CharClassPattern pattern = CharClassPattern.compile("^[a-zA-Zа-яА-Я ]{0,50}$");
+
+        assertTrue(pattern.matches(""));
+        assertTrue(pattern.matches("Иван Ivan"));
+        assertFalse(pattern.matches("Ёжик"));
+        assertFalse(pattern.matches(repeat('z', 51)));
+        assertTrue(CharClassPattern.compile("^[0-9]{11}$").matches("12345678901"));
+        assertFalse(CharClassPattern.compile("^[0-9]{11}$").matches("1234567890"));
+        assertNull(CharClassPattern.compile("^[\\w]{0,50}$"));
+        assertNull(CharClassPattern.compile("^[a-]{0,50}$"));
+        assertNull(CharClassPattern.compile("^[a-z]{0,50}?$"));
+        assertNull(CharClassPattern.compile("^[a-z]+[0-9]$"));
+    }
+
+    private static Patient createPatient(String name, String phoneNumber) {
+        Patient patient = new Patient();
+        patient.setName(name);
+        patient.setSurname("Петров");
+        patient.setPhoneNumber(phoneNumber);
+        return patient;
+    }
+
+    private static Doctor createDoctor(String name, String specialization) {
+        Doctor doctor = new Doctor();
+        doctor.setName(name);
+        doctor.setSurname("Петров");
+        doctor.setPatronymic("Сергеевич");
+        doctor.setSpecialization(specialization);
+        return doctor;
+    }
+
+    private static Recipe createRecipe(Long doctorId, String description, int validity) {
+        Recipe recipe = new Recipe();
+        recipe.setDoctorId(doctorId);
+        recipe.setPatientId(2L);
+        recipe.setDescription(description);
+        recipe.setCreationDate(Date.valueOf("2020-01-01"));
+        recipe.setValidity(validity);
+        recipe.setPriority(Priority.NORMAL);
+        return recipe;
+    }
+
+    private static String repeat(char c, int qty) {
+        char[] chars = new char[qty];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    private static <T> List<String> describe(Set<ConstraintViolation<T>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    public static class Contact {
+        @Email
+        private String email;
+    }
+}
@@ -0,0 +1,62 @@
+package com.haulmont.testtask3.views.memory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SessionMemoryBudgetTest {
+    private final Map<RetainingView, LongAdder> fallbackQty = new EnumMap<>(RetainingView.class);
+    private SessionMemoryBudget budget;
+
+    @Before
+    public void setUp() {
+        fallbackQty.put(RetainingView.STATISTICS, new LongAdder());
+        budget = new SessionMemoryBudget(1000, fallbackQty);
+    }
+
+    @Test
+    public void reserveWithinCapTest() {
+        assertTrue(budget.reserve(RetainingView.STATISTICS, 600));
+        assertTrue(budget.reserve(RetainingView.STATISTICS, 400));
+
+        assertEquals(1000, budget.getRetainedBytes());
+        assertEquals(Collections.singletonMap(RetainingView.STATISTICS, 1000L), budget.getRetainedBytesByView());
+        assertEquals(0, fallbackQty.get(RetainingView.STATISTICS).sum());
+    }
+
+    @Test
+    public void refuseOverCapTest() {
+        assertTrue(budget.reserve(RetainingView.STATISTICS, 600));
+
+        assertFalse(budget.reserve(RetainingView.STATISTICS, 401));
+        assertEquals(600, budget.getRetainedBytes());
+        assertEquals(1, fallbackQty.get(RetainingView.STATISTICS).sum());
+    }
+
+    @Test
+    public void adjustAndReleaseTest() {
+        budget.reserve(RetainingView.STATISTICS, 600);
+        budget.adjust(RetainingView.STATISTICS, 600, 1200);
+        assertEquals(1200, budget.getRetainedBytes(RetainingView.STATISTICS));
+        assertFalse(budget.reserve(RetainingView.STATISTICS, 1));
+
+        budget.release(RetainingView.STATISTICS, 1200);
+        assertEquals(0, budget.getRetainedBytes());
+        assertTrue(budget.getRetainedBytesByView().isEmpty());
+    }
+
+    @Test
+    public void stringSizeTest() {
+        assertEquals(24 + 24, MemorySizes.getStringSize("Ivanov"));
+        assertEquals(24 + 32, MemorySizes.getStringSize("Иванов"));
+        assertEquals(0, MemorySizes.getStringSize(null));
+    }
+}